@@ -18,11 +18,16 @@ import java.util.Collection;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.emf.common.command.AbstractCommand.NonDirtying;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.transaction.RecordingCommand;
 import org.eclipse.emf.transaction.RollbackException;
+import org.eclipse.emf.transaction.Transaction;
 import org.eclipse.emf.transaction.TransactionalCommandStack;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
 import org.polarsys.capella.common.ef.command.ICommand;
+import org.polarsys.capella.common.ef.command.ISharedReadOnlyCommand;
 import org.polarsys.capella.common.ef.internal.command.AbstractNonDirtyingRecordingCommand;
 import org.polarsys.capella.common.mdsofa.common.helper.ExtensionPointHelper;
 
@@ -36,12 +41,21 @@ public class ExecutionManager {
    */
   private TransactionalEditingDomain _editingDomain;
 
+  /**
+   * Isolates shared read-only commands from the write transactions of the editing domain, <code>null</code> if not
+   * supported by the editing domain.
+   */
+  private SharedReadGate _sharedReadGate;
+
   /**
    *
    */
   public ExecutionManager() {
     // Get editing domain.
     _editingDomain = createEditingDomain();
+    if (null != _editingDomain) {
+      _sharedReadGate = SharedReadGate.install(_editingDomain);
+    }
   }
 
   /**
@@ -75,6 +89,16 @@ public class ExecutionManager {
    * @param editingDomain
    */
   protected void executeReadOnlyCommand(ICommand command, TransactionalEditingDomain editingDomain) {
+    if (null != _sharedReadGate && editingDomain == _editingDomain && _sharedReadGate.isSharedReader()) {
+      // Already isolated from write transactions, do not wait for the transaction lock.
+      command.run();
+      return;
+    }
+    if (command instanceof ISharedReadOnlyCommand && null != _sharedReadGate && editingDomain == _editingDomain
+        && !isActiveTransactionOwner(editingDomain)) {
+      executeSharedReadOnlyCommand(command);
+      return;
+    }
     try {
       editingDomain.runExclusive(command);
     } catch (InterruptedException ie) {
@@ -82,12 +106,74 @@ public class ExecutionManager {
     }
   }
 
+  /**
+   * Execute a command in shared read-only mode.<br>
+   * The command runs without transaction, concurrently with other shared read-only commands and with exclusive
+   * read-only commands, once the running write transactions of the editing domain are closed. Write transactions
+   * starting meanwhile wait for the end of the command. Read-only commands it executes run within it.<br>
+   * When executed from a thread that is not a job, such as the UI thread, the command does not wait for write
+   * transactions: if it cannot run at once, it runs as an exclusive read-only command, waiting for the transaction lock
+   * UI-safely.<br>
+   * Resources loaded since the last shared read-only command are resolved first, see
+   * {@link #resolveProxies(TransactionalEditingDomain, Collection)}.
+   * @param command
+   */
+  protected void executeSharedReadOnlyCommand(ICommand command) {
+    TransactionalEditingDomain editingDomain = getEditingDomain();
+    try {
+      if (!_sharedReadGate.runShared(command, resources -> resolveProxies(editingDomain, resources))) {
+        editingDomain.runExclusive(command);
+      }
+    } catch (InterruptedException ie) {
+      command.commandInterrupted();
+    }
+  }
+
+  /**
+   * Resolve the proxies of the given resources of the editing domain, loading the resources they refer to.<br>
+   * Called before running shared read-only commands, with no other shared read-only command nor write transaction
+   * running, so that shared read-only commands do not resolve proxies concurrently. Only the resources loaded since the
+   * previous resolution are given, or all resources once a resource was unloaded.
+   * @param editingDomain
+   * @param resources
+   * @throws InterruptedException
+   */
+  protected void resolveProxies(final TransactionalEditingDomain editingDomain, final Collection<Resource> resources)
+      throws InterruptedException {
+    editingDomain.runExclusive(() -> {
+      for (Resource resource : resources) {
+        if (resource.isLoaded() && resource.getResourceSet() == editingDomain.getResourceSet()) {
+          EcoreUtil.resolveAll(resource);
+        }
+      }
+    });
+  }
+
+  /**
+   * Whether the current thread owns the active transaction of the given editing domain.<br>
+   * Commands executed within a transaction are nested into it rather than shared.
+   * @param editingDomain
+   * @return
+   */
+  protected boolean isActiveTransactionOwner(TransactionalEditingDomain editingDomain) {
+    if (editingDomain instanceof InternalTransactionalEditingDomain) {
+      Transaction transaction = ((InternalTransactionalEditingDomain) editingDomain).getActiveTransaction();
+      return null != transaction && transaction.getOwner() == Thread.currentThread();
+    }
+    return false;
+  }
+
   /**
    * Execute a command in read-write mode.
    * @param command
    * @param editingDomain
+   * @throws IllegalStateException if the current thread is running a shared read-only command
    */
   protected void executeReadWriteCommand(final ICommand command, TransactionalEditingDomain editingDomain) {
+    if (null != _sharedReadGate && _sharedReadGate.isSharedReader()) {
+      // The write transaction would wait for the end of the shared read-only command running on this thread.
+      throw new IllegalStateException("A shared read-only command cannot modify the model"); //$NON-NLS-1$
+    }
     TransactionalCommandStack stack = (TransactionalCommandStack) editingDomain.getCommandStack();
     try {
       stack.execute(createRecordingCommand(command, editingDomain), command.getExecutionOptions());
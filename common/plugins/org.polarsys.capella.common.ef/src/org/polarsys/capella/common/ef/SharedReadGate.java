@@ -0,0 +1,389 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.common.ef;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.TransactionalEditingDomainEvent;
+import org.eclipse.emf.transaction.TransactionalEditingDomainListenerImpl;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+
+/**
+ * A read/write gate isolating shared readers of an editing domain from its write transactions.<br>
+ * Shared readers enter the read side, so that they run concurrently, without any transaction of the editing domain:
+ * a transaction belongs to a single thread, and the transaction lock admits a single transaction at a time. Each root
+ * write transaction of the editing domain holds the write side from its start to its end, whatever the way it is
+ * started. The write side only excludes readers, write transactions remain serialized by the transaction lock. Writers
+ * have priority: a write transaction waits for the running shared readers only, new shared readers wait for it.<br>
+ * Proxies are resolved before shared readers enter: the gate tracks the resources loaded or added to the resource set
+ * since the last resolution, and the first shared reader holds the write side while resolving the proxies of these
+ * resources only. Resources loaded by the resolution are resolved in turn. Once a resource is unloaded, any resource
+ * may refer to its elements through proxies, so all resources are resolved again. Shared readers thus neither resolve
+ * proxies nor load resources referenced through proxies, so the adapters of the model are not notified concurrently.
+ * <br>
+ * Waiting for the gate is UI-safe:
+ * <ul>
+ * <li>shared readers never wait for the UI thread nor for the transaction lock, see
+ * {@link org.polarsys.capella.common.ef.command.ISharedReadOnlyCommand}, so a write transaction waiting for them does
+ * not deadlock, even on the UI thread,</li>
+ * <li>a thread that is not a job, such as the UI thread, never waits for the read side: when it cannot enter the read
+ * side at once, {@link #runShared(Runnable, Resolver)} returns <code>false</code> and the caller waits for the
+ * transaction lock instead, which EMF does UI-safely.</li>
+ * </ul>
+ * Shared readers must not start write transactions: the {@link ExecutionManager} refuses them before they start (see
+ * {@link #isSharedReader()}).
+ */
+class SharedReadGate extends TransactionalEditingDomainListenerImpl {
+
+  /**
+   * Resolution of the proxies of the editing domain.
+   */
+  @FunctionalInterface
+  interface Resolver {
+    /**
+     * @param resources the resources to resolve
+     * @throws InterruptedException if interrupted while waiting for the transaction lock
+     */
+    void resolve(Collection<Resource> resources) throws InterruptedException;
+  }
+
+  /**
+   * Owner of the write side while proxies are resolved.
+   */
+  private static final Object RESOLUTION = new Object();
+
+  /**
+   * Depth of the shared readers running on the current thread.
+   */
+  private final ThreadLocal<int[]> sharedDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+  /**
+   * Number of shared readers in the read side.
+   */
+  private int readers;
+
+  /**
+   * Owners of the write side: root write transactions and {@link #RESOLUTION}.
+   */
+  private final Set<Object> writers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /**
+   * Number of writers waiting for the write side.
+   */
+  private int waitingWriters;
+
+  private final ResourceSet resourceSet;
+
+  /**
+   * Loaded resources whose proxies are not resolved yet.
+   */
+  private final Set<Resource> unresolvedResources = new LinkedHashSet<>();
+
+  /**
+   * Whether all resources have to be resolved, because a resource was unloaded.
+   */
+  private boolean unresolvedResourceSet;
+
+  private SharedReadGate(ResourceSet resourceSet) {
+    this.resourceSet = resourceSet;
+  }
+
+  /**
+   * @param editingDomain
+   * @return the gate listening to the transactions of the given editing domain, <code>null</code> if the editing
+   *         domain does not notify them
+   */
+  static SharedReadGate install(TransactionalEditingDomain editingDomain) {
+    TransactionalEditingDomain.Lifecycle lifecycle = TransactionUtil.getAdapter(editingDomain,
+        TransactionalEditingDomain.Lifecycle.class);
+    if (lifecycle == null) {
+      return null;
+    }
+    SharedReadGate gate = new SharedReadGate(editingDomain.getResourceSet());
+    lifecycle.addTransactionalEditingDomainListener(gate);
+    gate.new ResourceTracker().install();
+    return gate;
+  }
+
+  /**
+   * Runs the given runnable in the read side, once proxies are resolved.
+   * @param runnable
+   * @param resolver resolves the proxies of the given resources of the editing domain
+   * @return whether the runnable was run, <code>false</code> if the current thread is not a job and cannot enter the
+   *         read side without waiting
+   * @throws InterruptedException if interrupted while waiting for a write transaction or for the resolution
+   */
+  boolean runShared(Runnable runnable, Resolver resolver) throws InterruptedException {
+    int[] depth = sharedDepth.get();
+    if (depth[0] == 0 && !enterShared(resolver)) {
+      return false;
+    }
+    depth[0]++;
+    try {
+      runnable.run();
+    } finally {
+      depth[0]--;
+      if (depth[0] == 0) {
+        exitShared();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return whether the current thread is running a shared reader
+   */
+  boolean isSharedReader() {
+    return sharedDepth.get()[0] > 0;
+  }
+
+  /**
+   * @param resolver
+   * @return whether the read side is entered
+   * @throws InterruptedException
+   */
+  private boolean enterShared(Resolver resolver) throws InterruptedException {
+    boolean block = null != Job.getJobManager().currentJob();
+    while (true) {
+      Object acquired = acquireShared(block);
+      if (acquired != RESOLUTION) {
+        return null != acquired;
+      }
+      resolve(resolver);
+    }
+  }
+
+  /**
+   * @param block whether to wait for the gate
+   * @return {@link Boolean#TRUE} if the read side is entered, {@link #RESOLUTION} if the write side is acquired to
+   *         resolve proxies first, <code>null</code> if none of them can be done without waiting
+   * @throws InterruptedException
+   */
+  private synchronized Object acquireShared(boolean block) throws InterruptedException {
+    while (!writers.isEmpty() || waitingWriters > 0) {
+      if (!block) {
+        return null;
+      }
+      wait();
+    }
+    if (!unresolvedResourceSet && unresolvedResources.isEmpty()) {
+      readers++;
+      return Boolean.TRUE;
+    }
+    if (readers > 0) {
+      if (!block) {
+        return null;
+      }
+      waitingWriters++;
+      try {
+        while (readers > 0) {
+          wait();
+        }
+      } finally {
+        waitingWriters--;
+        notifyAll();
+      }
+    }
+    writers.add(RESOLUTION);
+    return RESOLUTION;
+  }
+
+  /**
+   * Resolves the unresolved resources, including the ones loaded meanwhile, then releases the write side.
+   * @param resolver
+   * @throws InterruptedException
+   */
+  private void resolve(Resolver resolver) throws InterruptedException {
+    boolean resolved = false;
+    try {
+      Collection<Resource> resources = takeUnresolvedResources();
+      while (!resources.isEmpty()) {
+        resolver.resolve(resources);
+        resources = takeUnresolvedResources();
+      }
+      resolved = true;
+    } finally {
+      endResolution(resolved);
+    }
+  }
+
+  private synchronized Collection<Resource> takeUnresolvedResources() {
+    List<Resource> resources;
+    if (unresolvedResourceSet) {
+      unresolvedResourceSet = false;
+      resources = new ArrayList<>(resourceSet.getResources());
+    } else {
+      resources = new ArrayList<>(unresolvedResources);
+    }
+    unresolvedResources.clear();
+    return resources;
+  }
+
+  /**
+   * Releases the write side held for the resolution.
+   * @param resolved whether the resolution is complete, otherwise all resources are resolved again
+   */
+  private synchronized void endResolution(boolean resolved) {
+    writers.remove(RESOLUTION);
+    if (!resolved) {
+      unresolvedResourceSet = true;
+    }
+    notifyAll();
+  }
+
+  private synchronized void exitShared() {
+    readers--;
+    if (readers == 0) {
+      notifyAll();
+    }
+  }
+
+  /**
+   * Waits for the write side, uninterruptibly: a transaction cannot be vetoed by a listener.
+   * @param owner
+   */
+  private synchronized void acquireWrite(Object owner) {
+    boolean interrupted = false;
+    waitingWriters++;
+    try {
+      while (readers > 0) {
+        try {
+          wait();
+        } catch (InterruptedException exception) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      waitingWriters--;
+    }
+    writers.add(owner);
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private synchronized void releaseWrite(Object owner) {
+    if (writers.remove(owner)) {
+      notifyAll();
+    }
+  }
+
+  private synchronized void markUnresolved(Resource resource) {
+    unresolvedResources.add(resource);
+  }
+
+  private synchronized void markUnloaded(Resource resource) {
+    unresolvedResources.remove(resource);
+    // Elements of other resources refer to the unloaded elements through proxies.
+    unresolvedResourceSet = true;
+  }
+
+  private synchronized void markRemoved(Resource resource) {
+    unresolvedResources.remove(resource);
+  }
+
+  @Override
+  public void transactionStarting(TransactionalEditingDomainEvent event) {
+    Transaction transaction = event.getTransaction();
+    if (transaction.isReadOnly()) {
+      return;
+    }
+    if (isSharedReader()) {
+      // Waiting for the write side would wait for this thread. Such transactions are refused by the execution manager,
+      // a listener cannot veto transactions started otherwise.
+      return;
+    }
+    if (event.getSource() instanceof InternalTransactionalEditingDomain) {
+      Transaction active = ((InternalTransactionalEditingDomain) event.getSource()).getActiveTransaction();
+      if (null != active && active.getOwner() == Thread.currentThread()) {
+        // Nested in a transaction of this thread, which already holds the write side if needed.
+        return;
+      }
+    }
+    acquireWrite(transaction);
+  }
+
+  @Override
+  public void transactionInterrupted(TransactionalEditingDomainEvent event) {
+    releaseWrite(event.getTransaction());
+  }
+
+  @Override
+  public void transactionClosed(TransactionalEditingDomainEvent event) {
+    releaseWrite(event.getTransaction());
+  }
+
+  /**
+   * Tracks the resources of the resource set that may hold proxies to resolve.
+   */
+  private class ResourceTracker extends AdapterImpl {
+
+    void install() {
+      for (Resource resource : resourceSet.getResources()) {
+        track(resource, true);
+      }
+      resourceSet.eAdapters().add(this);
+    }
+
+    @Override
+    public void notifyChanged(Notification notification) {
+      Object notifier = notification.getNotifier();
+      if (notifier instanceof ResourceSet
+          && notification.getFeatureID(ResourceSet.class) == ResourceSet.RESOURCE_SET__RESOURCES) {
+        track(notification.getOldValue(), false);
+        track(notification.getNewValue(), true);
+
+      } else if (notifier instanceof Resource
+          && notification.getFeatureID(Resource.class) == Resource.RESOURCE__IS_LOADED) {
+        if (notification.getNewBooleanValue()) {
+          markUnresolved((Resource) notifier);
+        } else {
+          markUnloaded((Resource) notifier);
+        }
+      }
+    }
+
+    private void track(Object value, boolean added) {
+      if (value instanceof Resource) {
+        Resource resource = (Resource) value;
+        if (added) {
+          resource.eAdapters().add(this);
+          if (resource.isLoaded()) {
+            markUnresolved(resource);
+          }
+        } else {
+          resource.eAdapters().remove(this);
+          markRemoved(resource);
+        }
+      } else if (value instanceof Collection<?>) {
+        for (Object resource : (Collection<?>) value) {
+          track(resource, added);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,21 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.common.ef.command;
+
+/**
+ * A read-only command that can run concurrently with other shared read-only commands.<br>
+ * For an execution manager that does not support shared reads, this command acts as an {@link AbstractReadOnlyCommand}.
+ */
+public abstract class AbstractSharedReadOnlyCommand extends AbstractReadOnlyCommand implements ISharedReadOnlyCommand {
+  // Nothing to do.
+}
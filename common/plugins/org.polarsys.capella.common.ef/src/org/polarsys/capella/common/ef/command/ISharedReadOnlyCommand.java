@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.common.ef.command;
+
+import org.polarsys.capella.common.ef.ExecutionManager;
+
+/**
+ * A read-only command that can run concurrently with other commands of this kind.<br>
+ * The {@link ExecutionManager} runs it without transaction, isolated from write transactions but not from exclusive
+ * read-only commands, see {@link ExecutionManager#executeSharedReadOnlyCommand(ICommand)}. An EMF transaction belongs
+ * to a single thread and excludes any other transaction, so concurrent readers cannot each run within a read-only
+ * transaction. Proxies of the editing domain are resolved before it runs.<br>
+ * Such a command must neither modify the model nor load resources that are not referenced through proxies, such as
+ * representations. It must not wait for the UI thread nor for the transaction lock of the editing domain, otherwise
+ * write transactions waiting for it, possibly on the UI thread, would deadlock. Read-only commands it executes through
+ * the execution manager run within it, read-write commands it executes are refused.<br>
+ * Executed from a thread that is not a job, such as the UI thread, it never waits for write transactions: it runs as
+ * an exclusive read-only command when it cannot start at once.
+ */
+public interface ISharedReadOnlyCommand extends ICommand {
+  // Marker interface.
+}
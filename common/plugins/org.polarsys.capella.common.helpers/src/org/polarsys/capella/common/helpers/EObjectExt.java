@@ -31,8 +31,11 @@ import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.emf.edit.provider.IItemLabelProvider;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
 import org.eclipse.sirius.common.tools.api.util.SiriusCrossReferenceAdapter;
 import org.polarsys.capella.common.helpers.cache.CachedBiFunction;
+import org.polarsys.capella.common.helpers.cache.ModelCacheScope;
+import org.polarsys.capella.common.helpers.query.ExtentIndex;
 import org.polarsys.capella.common.helpers.query.MDEQueries;
 import org.polarsys.capella.common.mdsofa.common.constant.ICommonConstants;
 import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.SemanticEditingDomain;
@@ -42,6 +45,14 @@ import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFact
  */
 public class EObjectExt extends EcoreUtil2 {
 
+  /**
+   * System property making {@link #getAll(EObject, EClass)} rely on {@link #getAllInstances(EObject, EClass)}, off by
+   * default since the result is then not ordered by containment.
+   */
+  public static final String GET_ALL_EXTENT_INDEX_PROPERTY = "capella.getAll.extentIndex"; //$NON-NLS-1$
+
+  private static final boolean getAllWithExtentIndex = Boolean.getBoolean(GET_ALL_EXTENT_INDEX_PROPERTY);
+
   static CachedBiFunction<EObject, EClass, Set<EObject>> getAll_withEClass = MDEQueries.getInstance()
       .getAllQueries()::getAll;
   static CachedBiFunction<EObject, Predicate<EObject>, Set<EObject>> getAll_withPredicate = MDEQueries.getInstance()
@@ -53,6 +64,35 @@ public class EObjectExt extends EcoreUtil2 {
    * @return Set<EObject>
    */
   public static Set<EObject> getAll(EObject currentElement, EClass targetType) {
+    if (getAllWithExtentIndex) {
+      return getAllInstances(currentElement, targetType);
+    }
+    return new LinkedHashSet<EObject>(getAll_withEClass.get(currentElement, targetType));
+  }
+
+  /**
+   * Same as {@link #getAll(EObject, EClass)}, through the {@link ExtentIndex} of the editing domain of the given
+   * semantic element when it is an architecture or one of its ancestors: the cost then depends on the number of
+   * instances of the type in the given element rather than on the number of elements it contains, and the result is
+   * not ordered by containment. Deeper elements are browsed.
+   * 
+   * @param currentElement
+   * @param targetType
+   * @return Set<EObject>
+   */
+  public static Set<EObject> getAllInstances(EObject currentElement, EClass targetType) {
+    if (currentElement != null && targetType != null && ModelCacheScope.isSemantic(currentElement.eClass())
+        && ModelCacheScope.isSemantic(targetType)) {
+      Resource resource = currentElement.eResource();
+      TransactionalEditingDomain domain = (resource == null || resource.getResourceSet() == null) ? null
+          : TransactionUtil.getEditingDomain(resource.getResourceSet());
+      if (domain != null) {
+        Set<EObject> instances = ExtentIndex.getIndex(domain).getInstances(currentElement, targetType);
+        if (instances != null) {
+          return instances;
+        }
+      }
+    }
     return new LinkedHashSet<EObject>(getAll_withEClass.get(currentElement, targetType));
   }
 
@@ -87,13 +127,107 @@ public class EObjectExt extends EcoreUtil2 {
    * @return
    */
   public static List<EObject> getReferencers(EObject eObjectRef, EClass metaClass, EReference eRef) {
-    List<EObject> returnedList = new ArrayList<EObject>();
-    for (EObject anObject : getReferencers(eObjectRef, eRef)) {
-      if (anObject.eClass().equals(metaClass) || anObject.eClass().getEAllSuperTypes().contains(metaClass)) {
-        returnedList.add(anObject);
+    if (metaClass == null) {
+      return new ArrayList<EObject>();
+    }
+    return new ArrayList<EObject>(getReferencerSet(eObjectRef, metaClass, eRef));
+  }
+
+  /**
+   * This method retrieves all Object who have a EReference toward the EObject 'eObjectRef'
+   * 
+   * @param eObjectRef
+   *          : EObject
+   * @return The set of referencing elements, in the order of the cross referencer
+   */
+  public static Set<EObject> getReferencerSet(EObject eObjectRef) {
+    return getReferencerSet(eObjectRef, null, (EReference) null);
+  }
+
+  /**
+   * This method retrieves all Object who have a EReference 'eRef' toward the EObject 'eObjectRef'
+   * 
+   * @param eObjectRef
+   *          : EObject
+   * @param eRef
+   *          : EReference relation (if null, all references are considered)
+   * @return The set of referencing elements, in the order of the cross referencer
+   */
+  public static Set<EObject> getReferencerSet(EObject eObjectRef, EReference eRef) {
+    return getReferencerSet(eObjectRef, null, eRef);
+  }
+
+  /**
+   * This method retrieves all Object of metaClass 'metaClass' who have a EReference 'eRef' toward the Object
+   * 'eObjectRef'
+   * 
+   * @param eObjectRef
+   *          : EObject
+   * @param metaClass
+   *          : EClass (if null, all referencing elements are considered)
+   * @param eRef
+   *          : EReference relation (if null, all references are considered)
+   * @return The set of referencing elements, in the order of the cross referencer
+   */
+  public static Set<EObject> getReferencerSet(EObject eObjectRef, EClass metaClass, EReference eRef) {
+    Set<EObject> result = new LinkedHashSet<EObject>();
+    TransactionalEditingDomain domain = TransactionHelper.getEditingDomain(eObjectRef);
+    if (domain instanceof SemanticEditingDomain) {
+      collectReferencers(eObjectRef, metaClass, eRef, (SemanticEditingDomain) domain, false, result);
+    }
+    return result;
+  }
+
+  /**
+   * This method retrieves all Object of metaClass 'metaClass' who have any EReference from 'eRefs' toward the Object
+   * 'eObjectRef'
+   * 
+   * @param eObjectRef
+   *          : EObject
+   * @param metaClass
+   *          : EClass (if null, all referencing elements are considered)
+   * @param eRefs
+   *          : EReference relations
+   * @return The set of referencing elements, by relation then in the order of the cross referencer
+   */
+  public static Set<EObject> getReferencerSet(EObject eObjectRef, EClass metaClass, Collection<EReference> eRefs) {
+    Set<EObject> result = new LinkedHashSet<EObject>();
+    TransactionalEditingDomain domain = TransactionHelper.getEditingDomain(eObjectRef);
+    if (domain instanceof SemanticEditingDomain) {
+      for (EReference eRef : eRefs) {
+        collectReferencers(eObjectRef, metaClass, eRef, (SemanticEditingDomain) domain, false, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Add to 'result' the Objects of metaClass 'metaClass' who have a EReference 'eRef' toward the Object 'eObjectRef',
+   * without intermediate collections. Referencing elements already in 'result' are ignored.
+   */
+  private static void collectReferencers(EObject eObjectRef, EClass metaClass, EReference eRef,
+      SemanticEditingDomain editingDomain, boolean ignoreDerivedFeature, Set<? super EObject> result) {
+    SiriusCrossReferenceAdapter crossReferencer = editingDomain.getCrossReferencer();
+    Collection<Setting> inverseReferences;
+    if (eRef == null) {
+      inverseReferences = crossReferencer.getInverseReferences(eObjectRef, crossReferencer.isResolveProxyEnabled());
+    } else {
+      if (ignoreDerivedFeature && eRef.isDerived()) {
+        return;
+      }
+      inverseReferences = crossReferencer.getInverseReferences(eObjectRef, eRef,
+          crossReferencer.isResolveProxyEnabled());
+    }
+    for (Setting setting : inverseReferences) {
+      if (ignoreDerivedFeature && setting.getEStructuralFeature().isDerived()) {
+        continue;
+      }
+      EObject referencer = setting.getEObject();
+      // isInstance relies on the Java class of generated models, and avoids a lookup in all super types
+      if ((metaClass == null) || metaClass.isInstance(referencer)) {
+        result.add(referencer);
       }
     }
-    return returnedList;
   }
 
   /**
@@ -145,33 +279,9 @@ public class EObjectExt extends EcoreUtil2 {
    */
   public static <T extends EObject> List<T> getReferencers(EObject eObjectRef, EReference eRef,
       SemanticEditingDomain editingDomain, boolean ignoreDerivedFeature) {
-    List<T> result = new ArrayList<T>();
-
-    SiriusCrossReferenceAdapter crossReferencer = editingDomain.getCrossReferencer();
-    if (eRef == null) {
-      Collection<Setting> inverseReferences = crossReferencer.getInverseReferences(eObjectRef,
-          editingDomain.getCrossReferencer().isResolveProxyEnabled());
-      for (Setting setting : inverseReferences) {
-        if (ignoreDerivedFeature && setting.getEStructuralFeature().isDerived())
-          continue;
-        if (!result.contains(setting.getEObject())) {
-          result.add((T) setting.getEObject());
-        }
-      }
-
-    } else {
-      if (ignoreDerivedFeature && eRef.isDerived())
-        return result;
-      Collection<Setting> inverseReferences = crossReferencer.getInverseReferences(eObjectRef, eRef,
-          editingDomain.getCrossReferencer().isResolveProxyEnabled());
-      for (Setting setting : inverseReferences) {
-        if (!result.contains(setting.getEObject())) {
-          result.add((T) setting.getEObject());
-        }
-      }
-    }
-
-    return result;
+    Set<EObject> result = new LinkedHashSet<EObject>();
+    collectReferencers(eObjectRef, null, eRef, editingDomain, ignoreDerivedFeature, result);
+    return new ArrayList<T>((Set<T>) result);
   }
 
   /**
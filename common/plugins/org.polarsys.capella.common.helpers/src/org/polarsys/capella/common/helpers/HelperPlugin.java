@@ -13,6 +13,8 @@
 package org.polarsys.capella.common.helpers;
 
 import org.eclipse.core.runtime.Plugin;
+import org.osgi.framework.BundleContext;
+import org.polarsys.capella.common.helpers.cache.DerivedFeatureCache;
 
 public class HelperPlugin extends Plugin {
 
@@ -26,6 +28,26 @@ public class HelperPlugin extends Plugin {
 	    __instance = this;
 	  }
 	  
+	  /**
+	   * @see org.eclipse.core.runtime.Plugin#start(org.osgi.framework.BundleContext)
+	   */
+	  @Override
+	  public void start(BundleContext context) throws Exception {
+	    super.start(context);
+	    if (DerivedFeatureCache.isEnabled()) {
+	      DerivedFeatureCache.install();
+	    }
+	  }
+
+	  /**
+	   * @see org.eclipse.core.runtime.Plugin#stop(org.osgi.framework.BundleContext)
+	   */
+	  @Override
+	  public void stop(BundleContext context) throws Exception {
+	    DerivedFeatureCache.uninstall();
+	    super.stop(context);
+	  }
+
 	  /**
 	   * Gets the unique Helper Plugin activator instance.
 	   * @return The Helper Plugin.
@@ -12,129 +12,274 @@
  *******************************************************************************/
 package org.polarsys.capella.common.helpers.cache;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+/**
+ * A cache of function results, grouped by function.<br>
+ * The cache can be bounded by a maximum weight. The weight of an entry is 1, plus the size of the result if it is a
+ * collection or a map. When the maximum weight is exceeded, entries are evicted in insertion order, giving a second
+ * chance to entries that have been read since their insertion (clock algorithm).
+ */
 public class Cache {
 
-  private Map<Object, Object> cachedResult = new ConcurrentHashMap<>();
+  /**
+   * Used as key for <code>null</code> parameters, not supported by {@link ConcurrentHashMap}.
+   */
+  private static final Object NULL_PARAMETER = new Object();
+
+  /**
+   * Function key to (parameter key to entry).
+   */
+  private Map<Object, Map<Object, Entry>> cachedResult = new ConcurrentHashMap<>();
+
+  /**
+   * Eviction queue, may contain entries that have already been removed.
+   */
+  private Queue<Entry> evictionQueue = new ConcurrentLinkedQueue<>();
+
+  private AtomicInteger queuedEntries = new AtomicInteger();
+
+  private AtomicInteger liveEntries = new AtomicInteger();
+
+  private AtomicLong weight = new AtomicLong();
+
+  private final long maximumWeight;
+
+  private static class Entry {
+
+    final Object functionKey;
+
+    final Object parameterKey;
+
+    final Optional<?> result;
+
+    final int weight;
+
+    volatile boolean accessed;
+
+    final AtomicBoolean removed = new AtomicBoolean();
+
+    Entry(Object functionKey, Object parameterKey, Optional<?> result, int weight) {
+      this.functionKey = functionKey;
+      this.parameterKey = parameterKey;
+      this.result = result;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * Creates an unbounded cache.
+   */
+  public Cache() {
+    this(Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates a cache bounded by the given weight.
+   *
+   * @param maximumWeight
+   *          the maximum weight of the cache, see {@link Cache}
+   */
+  public Cache(long maximumWeight) {
+    this.maximumWeight = maximumWeight;
+  }
 
   /**
-   * 
+   *
    * @param <P> type of parameter
    * @param <R> type of result
    * @param function
    * @param parameter
    * @return cached result of function
-   * 
+   *
    * Warning : It's recommended to use a CachedFunction instead and call {@link #get(CachedFunction, Object) }
    */
-  @SuppressWarnings("unchecked")
   public <P, R> R get(Function<P, R> function, P parameter) {
+    return doGet(function, parameterKey(parameter), () -> function.apply(parameter));
+  }
 
-    Couple<Function<P, R>, P> key = new Couple<>(function, parameter);
-    Object resultObject = cachedResult.get(key);
-    if (resultObject == null) {
-      R result = function.apply(parameter);
-      Optional<R> encapsulatedResult;
-
-      if (result instanceof List<?>) {
-        encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableList((List<?>) result));
-      } else if (result instanceof Set<?>) {
-        encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableSet((Set<?>) result));
-      } else if (result instanceof Map<?, ?>) {
-        encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableMap((Map<?, ?>) result));
-      } else {
-        encapsulatedResult = Optional.ofNullable(result);
-      }
-      cachedResult.put(key, encapsulatedResult);
-
-      return result;
-    }
-    Optional<R> result = (Optional<R>) resultObject;
-
-    return result.orElse(null);
+  public <P, R> R get(CachedFunction<P, R> function, P parameter) {
+    return doGet(function, parameterKey(parameter), () -> function.withoutCache(parameter));
+  }
 
+  public <P1, P2, R> R get(CachedBiFunction<P1, P2, R> function, P1 parameter1, P2 parameter2) {
+    return doGet(function, new Couple<>(parameter1, parameter2),
+        () -> function.withoutCache(parameter1, parameter2));
   }
 
   @SuppressWarnings("unchecked")
-  public <P, R> R get(CachedFunction<P, R> function, P parameter) {
+  private <R> R doGet(Object functionKey, Object parameterKey, Supplier<R> computation) {
+    Map<Object, Entry> functionResults = cachedResult.get(functionKey);
+    if (functionResults != null) {
+      Entry entry = functionResults.get(parameterKey);
+      if (entry != null) {
+        entry.accessed = true;
+        return (R) entry.result.orElse(null);
+      }
+    }
+
+    R result = computation.get();
+    Optional<R> encapsulatedResult;
+    int entryWeight = 1;
 
-    Couple<Function<P, R>, P> key = new Couple<>(function, parameter);
-    Object resultObject = cachedResult.get(key);
-    if (resultObject == null) {
-      R result = function.withoutCache(parameter);
-      Optional<R> encapsulatedResult;
-
-      if (result instanceof List<?>) {
-        encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableList((List<?>) result));
-      } else if (result instanceof Set<?>) {
-        encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableSet((Set<?>) result));
-      } else if (result instanceof Map<?, ?>) {
-        encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableMap((Map<?, ?>) result));
-      } else {
-        encapsulatedResult = Optional.ofNullable(result);
+    if (result instanceof List<?>) {
+      encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableList((List<?>) result));
+      entryWeight += ((List<?>) result).size();
+    } else if (result instanceof Set<?>) {
+      encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableSet((Set<?>) result));
+      entryWeight += ((Set<?>) result).size();
+    } else if (result instanceof Map<?, ?>) {
+      encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableMap((Map<?, ?>) result));
+      entryWeight += ((Map<?, ?>) result).size();
+    } else {
+      encapsulatedResult = Optional.ofNullable(result);
+      if (result instanceof Collection<?>) {
+        entryWeight += ((Collection<?>) result).size();
       }
-      cachedResult.put(key, encapsulatedResult);
+    }
 
-      return result;
+    Entry entry = new Entry(functionKey, parameterKey, encapsulatedResult, entryWeight);
+    Entry previous = cachedResult.computeIfAbsent(functionKey, k -> new ConcurrentHashMap<>()).put(parameterKey,
+        entry);
+    if (previous != null) {
+      discard(previous);
     }
-    Optional<R> result = (Optional<R>) resultObject;
+    liveEntries.incrementAndGet();
+    weight.addAndGet(entryWeight);
+    evictionQueue.add(entry);
+    queuedEntries.incrementAndGet();
+    evictIfNeeded();
 
-    return result.orElse(null);
+    return result;
+  }
 
+  private Object parameterKey(Object parameter) {
+    return parameter == null ? NULL_PARAMETER : parameter;
   }
 
-  @SuppressWarnings("unchecked")
-  public <P1, P2, R> R get(CachedBiFunction<P1, P2, R> function, P1 parameter1, P2 parameter2) {
+  private void discard(Entry entry) {
+    // Entries may be discarded concurrently by invalidation, eviction and replacement: only the first one counts
+    if (entry.removed.compareAndSet(false, true)) {
+      liveEntries.decrementAndGet();
+      weight.addAndGet(-entry.weight);
+    }
+  }
 
-    Triplet<BiFunction<P1, P2, R>, P1, P2> key = new Triplet<>(function, parameter1, parameter2);
-    Object resultObject = cachedResult.get(key);
-    if (resultObject == null) {
-      R result = function.withoutCache(parameter1, parameter2);
-      Optional<R> encapsulatedResult;
-
-      if (result instanceof List<?>) {
-        encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableList((List<?>) result));
-      } else if (result instanceof Set<?>) {
-        encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableSet((Set<?>) result));
-      } else if (result instanceof Map<?, ?>) {
-        encapsulatedResult = (Optional<R>) Optional.of(Collections.unmodifiableMap((Map<?, ?>) result));
-      } else {
-        encapsulatedResult = Optional.ofNullable(result);
+  private void evictIfNeeded() {
+    while (weight.get() > maximumWeight) {
+      Entry candidate = evictionQueue.poll();
+      if (candidate == null) {
+        return;
       }
-      cachedResult.put(key, encapsulatedResult);
-
-      return result;
+      queuedEntries.decrementAndGet();
+      if (candidate.removed.get()) {
+        continue;
+      }
+      if (candidate.accessed) {
+        // Second chance for recently read entries.
+        candidate.accessed = false;
+        evictionQueue.add(candidate);
+        queuedEntries.incrementAndGet();
+        continue;
+      }
+      Map<Object, Entry> functionResults = cachedResult.get(candidate.functionKey);
+      if (functionResults != null) {
+        functionResults.remove(candidate.parameterKey, candidate);
+        if (functionResults.isEmpty()) {
+          // Functions without results are not kept, so that short-lived functions do not pile up.
+          cachedResult.remove(candidate.functionKey, functionResults);
+        }
+      }
+      discard(candidate);
     }
-    Optional<R> result = (Optional<R>) resultObject;
-
-    return result.orElse(null);
+    // Purge entries removed by invalidation, so that the queue does not grow indefinitely.
+    if (queuedEntries.get() > 2 * liveEntries.get() + 1024) {
+      for (Iterator<Entry> it = evictionQueue.iterator(); it.hasNext();) {
+        if (it.next().removed.get()) {
+          it.remove();
+          queuedEntries.decrementAndGet();
+        }
+      }
+    }
+  }
 
+  private void removeFunction(Object functionKey) {
+    Map<Object, Entry> functionResults = cachedResult.remove(functionKey);
+    if (functionResults != null) {
+      functionResults.values().forEach(this::discard);
+    }
   }
 
   public void clearCache() {
     cachedResult.clear();
+    evictionQueue.clear();
+    queuedEntries.set(0);
+    liveEntries.set(0);
+    weight.set(0);
   }
 
   public <T, R> void clearCache(CachedFunction<T, R> f) {
-	  List<Object> toBeRemoved =cachedResult.keySet().stream().filter(key -> key instanceof Couple).filter(couple -> ((Couple)couple).getFirst() == f).collect(Collectors.toList()) ;
-	  for(Object keyToBeRemoved : toBeRemoved) {
-		  cachedResult.remove(keyToBeRemoved);
-	  }
+    removeFunction(f);
   }
 
   public <T1, T2, R> void clearCache(CachedBiFunction<T1, T2, R> f) {
-	  List<Object> toBeRemoved =cachedResult.keySet().stream().filter(key -> key instanceof Triplet).filter(triplet -> ((Triplet)triplet).getFirst() == f).collect(Collectors.toList()) ;
-	  for(Object keyToBeRemoved : toBeRemoved) {
-		  cachedResult.remove(keyToBeRemoved);
-	  }
+    removeFunction(f);
+  }
+
+  /**
+   * Removes the results of all functions matching the given predicate.
+   *
+   * @param functionFilter
+   *          tested against the cached function or bi-function
+   */
+  public void clearCacheIf(Predicate<Object> functionFilter) {
+    for (Object functionKey : cachedResult.keySet()) {
+      if (functionFilter.test(functionKey)) {
+        removeFunction(functionKey);
+      }
+    }
+  }
+
+  /**
+   * @return whether some results of the given function or bi-function are cached.
+   */
+  boolean hasResults(Object functionKey) {
+    return cachedResult.containsKey(functionKey);
+  }
+
+  /**
+   * @return true if no result is cached.
+   */
+  public boolean isEmpty() {
+    return liveEntries.get() == 0;
+  }
+
+  /**
+   * @return the number of cached results.
+   */
+  public int size() {
+    return liveEntries.get();
+  }
+
+  /**
+   * @return the current weight of the cache, see {@link Cache}.
+   */
+  public long getWeight() {
+    return weight.get();
   }
 }
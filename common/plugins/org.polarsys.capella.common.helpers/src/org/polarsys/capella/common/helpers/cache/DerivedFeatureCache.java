@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.common.helpers.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.polarsys.capella.common.model.helpers.DerivedFeatureDispatcher;
+import org.polarsys.capella.common.model.helpers.IDerivedValueCache;
+
+/**
+ * Memoizes the values of derived features while a cache scope is active on the current thread, see
+ * {@link ModelCache#enable(org.eclipse.emf.edit.domain.EditingDomain)}. Values are computed on each call when no scope
+ * is active.<br>
+ * Derived features do not declare the model elements they read, so their values are kept in the activation cache of
+ * the scope: they are removed by any semantic change, and when the last activation of the scope is released. Callers
+ * computing many derived values thus enable the scope around their computation.<br>
+ * Memoization is off by default, it is turned on at startup with the <code>capella.derivedFeatures.cache</code> system
+ * property.
+ */
+public class DerivedFeatureCache implements IDerivedValueCache {
+
+  /**
+   * System property turning the memoization of derived values on, off by default.
+   */
+  public static final String ENABLED_PROPERTY = "capella.derivedFeatures.cache"; //$NON-NLS-1$
+
+  private static final Map<EStructuralFeature, CachedFunction<EObject, Object>> functions = new ConcurrentHashMap<>();
+
+  /**
+   * @return whether the memoization of derived values is turned on by {@link #ENABLED_PROPERTY}
+   */
+  public static boolean isEnabled() {
+    return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, Boolean.FALSE.toString()));
+  }
+
+  /**
+   * Sets a derived feature cache on the dispatcher.
+   */
+  public static void install() {
+    DerivedFeatureDispatcher.setValueCache(new DerivedFeatureCache());
+  }
+
+  /**
+   * Removes the derived feature cache from the dispatcher, if set by {@link #install()}.
+   */
+  public static void uninstall() {
+    if (DerivedFeatureDispatcher.getValueCache() instanceof DerivedFeatureCache) {
+      DerivedFeatureDispatcher.setValueCache(null);
+    }
+  }
+
+  private static CachedFunction<EObject, Object> getFunction(EStructuralFeature feature) {
+    CachedFunction<EObject, Object> function = functions.get(feature);
+    if (function == null) {
+      function = functions.computeIfAbsent(feature,
+          f -> object -> DerivedFeatureDispatcher.computeValue(object, f));
+    }
+    return function;
+  }
+
+  /**
+   * @see org.polarsys.capella.common.model.helpers.IDerivedValueCache#getValue(org.eclipse.emf.ecore.EObject,
+   *      org.eclipse.emf.ecore.EStructuralFeature)
+   */
+  @Override
+  public Object getValue(EObject object, EStructuralFeature feature) {
+    // Neither the global cache nor the scope cache are cleared by any semantic change.
+    Cache activationCache = ModelCache.getActivationCache();
+    if (activationCache == null) {
+      return DerivedFeatureDispatcher.computeValue(object, feature);
+    }
+    return activationCache.get(getFunction(feature), object);
+  }
+}
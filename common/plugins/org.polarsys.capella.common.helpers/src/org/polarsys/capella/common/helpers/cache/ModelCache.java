@@ -13,106 +13,302 @@
 
 package org.polarsys.capella.common.helpers.cache;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
+import org.eclipse.emf.ecore.EModelElement;
+import org.eclipse.emf.edit.domain.EditingDomain;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.TransactionalEditingDomainEvent;
+import org.eclipse.emf.transaction.TransactionalEditingDomainListenerImpl;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+
+/**
+ * Cache for results of {@link CachedFunction} and {@link CachedBiFunction}.<br>
+ * Two kinds of activation are available:
+ * <ul>
+ * <li>{@link #enable(EditingDomain)} activates, for the current thread, the scope of the given editing domain. Results
+ * are kept between activations and invalidated on model changes (see {@link ModelCacheScope}). Concurrent activations
+ * on different threads or different domains do not interfere. Results of {@link #getCache(Function, Object)} are only
+ * kept until the last activation of the scope is released.</li>
+ * <li>{@link #enable()} activates a global cache, cleared when the last activation is released.</li>
+ * </ul>
+ * Both caches are bounded by the weight given by the <code>capella.modelcache.maxWeight</code> system property.
+ */
 public class ModelCache {
 
-  private static final Cache cache = new Cache();
+  /**
+   * System property for the maximum weight of each cache, see {@link Cache}.
+   */
+  public static final String MAXIMUM_WEIGHT_PROPERTY = "capella.modelcache.maxWeight"; //$NON-NLS-1$
+
+  private static final long DEFAULT_MAXIMUM_WEIGHT = 2_000_000L;
+
+  private static final long maximumWeight = Long.getLong(MAXIMUM_WEIGHT_PROPERTY, DEFAULT_MAXIMUM_WEIGHT);
+
+  private static final Cache cache = new Cache(maximumWeight);
+
+  private static final AtomicInteger enabled = new AtomicInteger();
+
+  private static final Map<TransactionalEditingDomain, ModelCacheScope> scopes = new ConcurrentHashMap<>();
 
-  private static boolean enabled = false;
+  private static final ThreadLocal<Deque<ModelCacheScope>> activeScopes = ThreadLocal.withInitial(ArrayDeque::new);
+
+  /**
+   * Function or bi-function to its declared dependencies, removed once no cache holds results of the function at the
+   * end of a cache scope, see {@link #releaseDependencies()}.
+   */
+  private static final Map<Object, Set<Object>> dependencies = new ConcurrentHashMap<>();
 
   private ModelCache() {
     // To hide the implicit public on
   }
 
   /**
-   * 
+   *
    * @param function
    * @param parameter
    * @return If enabled, return the cached result if any or apply the function to the given parameter and cache the
    *         result before returning it.
-   * @deprecated Use a CachedFunction instead to ensure that the cache is shared with all calls to this function 
+   * @deprecated Use a CachedFunction instead to ensure that the cache is shared with all calls to this function
    *         rather than having a cache per calls. see {@link #getOrApply(CachedFunction, Object) GetOrApply}
    */
   @Deprecated
   public static <P, R> R getCache(Function<P, R> function, P parameter) {
-
-    if (enabled) {
-      return cache.get(function, parameter);
+    // Such functions may read representations, and are often method references created for each call: their results
+    // are not kept between activations of a scope
+    ModelCacheScope scope = activeScopes.get().peek();
+    Cache current = (scope != null) ? scope.getActivationCache() : getCurrentCache();
+    if (current != null) {
+      return current.get(function, parameter);
     }
     return function.apply(parameter);
   }
   /**
-   * 
+   *
    * @param function
    * @param parameter
    * @return If enabled, return the cached result if any or apply the function to the given parameter and cache the
    *         result before returning it.
    */
   static <P, R> R getOrApply(CachedFunction<P, R> function, P parameter) {
-    if (enabled) {
-      return cache.get(function, parameter);
+    Cache current = getCurrentCache();
+    if (current != null) {
+      return current.get(function, parameter);
     }
     return function.withoutCache(parameter);
   }
 
   /**
-   * 
+   *
    * @param function
    * @param parameter
    * @return If enabled, return the cached result if any or apply the function to the given parameter and cache the
    *         result before returning it.
    */
   static <P1, P2, R> R getOrApply(CachedBiFunction<P1, P2, R> function, P1 parameter1, P2 parameter2) {
-    if (enabled) {
-      return cache.get(function, parameter1, parameter2);
+    Cache current = getCurrentCache();
+    if (current != null) {
+      return current.get(function, parameter1, parameter2);
     }
     return function.withoutCache(parameter1, parameter2);
   }
 
+  /**
+   * @return the cache of the scope active on the current thread, else the global cache if enabled, else
+   *         <code>null</code>.
+   */
+  private static Cache getCurrentCache() {
+    ModelCacheScope scope = activeScopes.get().peek();
+    if (scope != null) {
+      return scope.getCache();
+    }
+    if (enabled.get() > 0) {
+      return cache;
+    }
+    return null;
+  }
 
   /**
-   * Enable the cache.
+   * @return the activation cache of the scope active on the current thread, <code>null</code> if none, see
+   *         {@link ModelCacheScope#getActivationCache()}.
+   */
+  static Cache getActivationCache() {
+    ModelCacheScope scope = activeScopes.get().peek();
+    return (scope != null) ? scope.getActivationCache() : null;
+  }
+
+  /**
+   * Enable the global cache.<br>
+   * Each call must be balanced by a call to {@link #disable()}.
    */
   public static void enable() {
-    enabled = true;
+    enabled.incrementAndGet();
   }
 
   /**
-   * Disable the cache and remove all the entries from it.
+   * Release an activation of the global cache. When the last activation is released, the cache is disabled and all the
+   * entries are removed from it.
    */
   public static void disable() {
-    enabled = false;
-    cache.clearCache();
+    if (enabled.updateAndGet(count -> Math.max(0, count - 1)) == 0) {
+      cache.clearCache();
+      releaseDependencies();
+    }
+  }
 
+  /**
+   * Activate the cache scope of the given editing domain for the current thread.<br>
+   * Each call must be balanced by a call to {@link #disable(EditingDomain)} on the same thread. If the given domain is
+   * not a transactional one, the global cache is enabled instead.
+   */
+  public static void enable(EditingDomain domain) {
+    if (domain instanceof TransactionalEditingDomain) {
+      ModelCacheScope scope = getScope((TransactionalEditingDomain) domain);
+      scope.activate();
+      activeScopes.get().push(scope);
+    } else {
+      enable();
+    }
   }
 
   /**
-   * 
-   * @return true if the cache is enabled.
+   * Release an activation made by {@link #enable(EditingDomain)}. Cached results of the scope are kept, until
+   * invalidated by a model change or evicted, except results of {@link #getCache(Function, Object)} which are removed
+   * when the last activation of the scope is released.
+   */
+  public static void disable(EditingDomain domain) {
+    if (domain instanceof TransactionalEditingDomain) {
+      Deque<ModelCacheScope> active = activeScopes.get();
+      ModelCacheScope scope = scopes.get(domain);
+      if (scope != null && active.removeFirstOccurrence(scope)) {
+        scope.deactivate();
+      }
+      if (active.isEmpty()) {
+        activeScopes.remove();
+      }
+    } else {
+      disable();
+    }
+  }
+
+  /**
+   * @return the cache scope of the given editing domain, created if needed. The scope is disposed with its domain.
+   */
+  public static ModelCacheScope getScope(TransactionalEditingDomain domain) {
+    ModelCacheScope scope = scopes.get(domain);
+    if (scope == null) {
+      synchronized (scopes) {
+        scope = scopes.get(domain);
+        if (scope == null) {
+          scope = new ModelCacheScope(domain, maximumWeight);
+          scope.install();
+          scopes.put(domain, scope);
+          TransactionalEditingDomain.Lifecycle lifecycle = TransactionUtil.getAdapter(domain,
+              TransactionalEditingDomain.Lifecycle.class);
+          if (lifecycle != null) {
+            lifecycle.addTransactionalEditingDomainListener(new TransactionalEditingDomainListenerImpl() {
+              @Override
+              public void editingDomainDisposing(TransactionalEditingDomainEvent event) {
+                ModelCacheScope disposed = scopes.remove(event.getSource());
+                if (disposed != null) {
+                  disposed.dispose();
+                  releaseDependencies();
+                }
+              }
+            });
+          }
+        }
+      }
+    }
+    return scope;
+  }
+
+  /**
+   *
+   * @return true if the cache is enabled for the current thread.
    */
   public static boolean isEnabled() {
-    return enabled;
+    return getCurrentCache() != null;
   }
 
   /**
-   * Removes all entries from this cache. The cache will be empty after this call returns.
+   * Removes all entries from the global cache and from the scope active on the current thread.
    */
   public static void clearCache() {
     cache.clearCache();
+    ModelCacheScope scope = activeScopes.get().peek();
+    if (scope != null) {
+      scope.getCache().clearCache();
+      scope.getActivationCache().clearCache();
+    }
   }
 
   /**
-   * Removes this entry from this cache.
+   * Removes this entry from all caches.
    */
   public static <T, R> void clearCache(CachedFunction<T, R> e) {
     cache.clearCache(e);
+    for (ModelCacheScope scope : scopes.values()) {
+      scope.getCache().clearCache(e);
+    }
   }
 
   /**
-   * Removes this entry from this cache.
+   * Removes this entry from all caches.
    */
   public static <T1, T2, R> void clearCache(CachedBiFunction<T1, T2, R> e) {
     cache.clearCache(e);
+    for (ModelCacheScope scope : scopes.values()) {
+      scope.getCache().clearCache(e);
+    }
+  }
+
+  /**
+   * Declares the model elements read by the given function. Its results will then only be invalidated by changes of
+   * these features, or of instances of these classes. Results of functions without declared dependencies are
+   * invalidated by any model change.<br>
+   * The declaration is removed when a cache scope ends while no cache holds results of the function anymore, so it
+   * shall be made again before the function is used in a new scope.
+   *
+   * @param function
+   * @param modelElements
+   *          some EStructuralFeature or EClass
+   */
+  public static <T, R> void declareDependencies(CachedFunction<T, R> function, EModelElement... modelElements) {
+    dependencies.put(function, Collections.unmodifiableSet(new HashSet<Object>(Arrays.asList(modelElements))));
+  }
+
+  /**
+   * See {@link #declareDependencies(CachedFunction, EModelElement...)}.
+   */
+  public static <T1, T2, R> void declareDependencies(CachedBiFunction<T1, T2, R> function,
+      EModelElement... modelElements) {
+    dependencies.put(function, Collections.unmodifiableSet(new HashSet<Object>(Arrays.asList(modelElements))));
+  }
+
+  /**
+   * Removes the declared dependencies of the functions without cached results, once the global cache is cleared or a
+   * scope is disposed, so that the declarations of short-lived functions do not pile up. A declaration removed before
+   * the first use of its function only makes the invalidation of its results less selective.
+   */
+  private static void releaseDependencies() {
+    dependencies.keySet().removeIf(function -> !cache.hasResults(function)
+        && scopes.values().stream().noneMatch(scope -> scope.getCache().hasResults(function)));
+  }
+
+  /**
+   * @return the declared dependencies of the given function key, <code>null</code> if none are declared.
+   */
+  static Set<Object> getDependencies(Object functionKey) {
+    return dependencies.get(functionKey);
   }
 }
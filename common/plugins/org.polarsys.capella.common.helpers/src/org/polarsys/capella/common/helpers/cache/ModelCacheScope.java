@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+
+package org.polarsys.capella.common.helpers.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListener;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.polarsys.capella.common.platform.sirius.ted.DataNotifier;
+import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.SemanticEditingDomain;
+
+/**
+ * The cache of an editing domain.<br>
+ * Results are kept while the scope is inactive and are invalidated on semantic model changes:
+ * <ul>
+ * <li>results of functions with declared dependencies (see {@link ModelCache#declareDependencies}) are removed when a
+ * change touches one of these dependencies,</li>
+ * <li>results of other functions are removed on any semantic change.</li>
+ * </ul>
+ * Changes on representations (Sirius, GMF) do not invalidate the cache. Results of
+ * {@link ModelCache#getCache(java.util.function.Function, Object)}, whose functions may read representations, are
+ * kept in a separate cache, cleared when the last activation of the scope is released.
+ */
+public class ModelCacheScope {
+
+  private static final String[] NON_SEMANTIC_NS_URI_PREFIXES = { "http://www.eclipse.org/sirius", //$NON-NLS-1$
+      "http://www.eclipse.org/gmf" }; //$NON-NLS-1$
+
+  private static final Map<EPackage, Boolean> semanticPackages = new ConcurrentHashMap<>();
+
+  private final Cache cache;
+
+  private final Cache activationCache;
+
+  private final AtomicInteger activations = new AtomicInteger();
+
+  private final WeakReference<TransactionalEditingDomain> domain;
+
+  /**
+   * Listener used when the domain has no {@link DataNotifier}, see {@link #install()}.
+   */
+  private ResourceSetListener postCommitListener;
+
+  private final AdapterImpl invalidationAdapter = new AdapterImpl() {
+    @Override
+    public void notifyChanged(Notification notification) {
+      invalidate(notification);
+    }
+  };
+
+  ModelCacheScope(TransactionalEditingDomain domain, long maximumWeight) {
+    this.domain = new WeakReference<>(domain);
+    this.cache = new Cache(maximumWeight);
+    this.activationCache = new Cache(maximumWeight);
+  }
+
+  /**
+   * Records an activation of this scope, on any thread.
+   */
+  void activate() {
+    activations.incrementAndGet();
+  }
+
+  /**
+   * Releases an activation of this scope. When the last one is released, results only valid during activations are
+   * removed.
+   */
+  void deactivate() {
+    if (activations.updateAndGet(count -> Math.max(0, count - 1)) == 0) {
+      activationCache.clearCache();
+    }
+  }
+
+  /**
+   * Registers the invalidation listener on the domain.<br>
+   * The data notifier of a semantic editing domain is used so that the cache is invalidated as soon as the model
+   * changes, including within the transaction performing the change. Other domains are invalidated on commit.
+   */
+  void install() {
+    TransactionalEditingDomain editingDomain = domain.get();
+    if (editingDomain instanceof SemanticEditingDomain) {
+      DataNotifier notifier = ((SemanticEditingDomain) editingDomain).getDataNotifier();
+      if (notifier != null) {
+        notifier.addAdapter(EObject.class, invalidationAdapter);
+        return;
+      }
+    }
+    if (editingDomain != null) {
+      postCommitListener = new ResourceSetListenerImpl() {
+        @Override
+        public void resourceSetChanged(ResourceSetChangeEvent event) {
+          for (Notification notification : event.getNotifications()) {
+            invalidate(notification);
+          }
+        }
+
+        @Override
+        public boolean isPostcommitOnly() {
+          return true;
+        }
+      };
+      editingDomain.addResourceSetListener(postCommitListener);
+    }
+  }
+
+  /**
+   * Unregisters the invalidation listener and clears the cache.
+   */
+  void dispose() {
+    TransactionalEditingDomain editingDomain = domain.get();
+    if (editingDomain instanceof SemanticEditingDomain) {
+      DataNotifier notifier = ((SemanticEditingDomain) editingDomain).getDataNotifier();
+      if (notifier != null) {
+        notifier.remove(invalidationAdapter);
+      }
+    }
+    if (editingDomain != null && postCommitListener != null) {
+      editingDomain.removeResourceSetListener(postCommitListener);
+    }
+    cache.clearCache();
+    activationCache.clearCache();
+  }
+
+  /**
+   * @return the cache of this scope
+   */
+  public Cache getCache() {
+    return cache;
+  }
+
+  /**
+   * @return the cache of this scope for results only valid while the scope is active, see
+   *         {@link ModelCache#getCache(java.util.function.Function, Object)}
+   */
+  public Cache getActivationCache() {
+    return activationCache;
+  }
+
+  /**
+   * @return the editing domain of this scope, <code>null</code> if it has been garbage collected
+   */
+  public TransactionalEditingDomain getEditingDomain() {
+    return domain.get();
+  }
+
+  /**
+   * Removes the results that may be impacted by the given notification.
+   */
+  protected void invalidate(Notification notification) {
+    if (notification.isTouch() || (cache.isEmpty() && activationCache.isEmpty())) {
+      return;
+    }
+    Object notifier = notification.getNotifier();
+    if (notifier instanceof Resource) {
+      int featureId = notification.getFeatureID(Resource.class);
+      if (featureId == Resource.RESOURCE__CONTENTS || featureId == Resource.RESOURCE__IS_LOADED) {
+        cache.clearCache();
+        activationCache.clearCache();
+      }
+      return;
+    }
+    if (!(notifier instanceof EObject) || !isSemantic(((EObject) notifier).eClass())) {
+      return;
+    }
+    // functions of the activation cache have no declared dependencies
+    activationCache.clearCache();
+    cache.clearCacheIf(function -> isImpacted(ModelCache.getDependencies(function), notification));
+  }
+
+  private boolean isImpacted(Set<Object> dependencies, Notification notification) {
+    if (dependencies == null) {
+      return true;
+    }
+    Object feature = notification.getFeature();
+    EClass notifierClass = ((EObject) notification.getNotifier()).eClass();
+    for (Object dependency : dependencies) {
+      if (dependency instanceof EStructuralFeature) {
+        if (dependency == feature
+            || (feature instanceof EReference && ((EReference) feature).getEOpposite() == dependency)) {
+          return true;
+        }
+      } else if (dependency instanceof EClass) {
+        EClass dependencyClass = (EClass) dependency;
+        if (dependencyClass.isSuperTypeOf(notifierClass)
+            || (feature instanceof EReference && ((EReference) feature).isContainment()
+                && (isInstance(dependencyClass, notification.getNewValue())
+                    || isInstance(dependencyClass, notification.getOldValue())))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean isInstance(EClass eClass, Object value) {
+    if (value instanceof Collection<?>) {
+      for (Object object : (Collection<?>) value) {
+        if (eClass.isInstance(object)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return eClass.isInstance(value);
+  }
+
+  /**
+   * @return whether instances of the given class are semantic elements, that is not representation elements
+   */
+  public static boolean isSemantic(EClass eClass) {
+    EPackage ePackage = eClass.getEPackage();
+    if (ePackage == null) {
+      return true;
+    }
+    return semanticPackages.computeIfAbsent(ePackage, p -> {
+      String nsURI = p.getNsURI();
+      if (nsURI != null) {
+        for (String prefix : NON_SEMANTIC_NS_URI_PREFIXES) {
+          if (nsURI.startsWith(prefix)) {
+            return Boolean.FALSE;
+          }
+        }
+      }
+      return Boolean.TRUE;
+    }).booleanValue();
+  }
+}
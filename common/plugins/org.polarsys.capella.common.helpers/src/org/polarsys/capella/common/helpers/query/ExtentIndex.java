@@ -0,0 +1,438 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.common.helpers.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+import org.polarsys.capella.common.helpers.cache.ModelCacheScope;
+import org.polarsys.capella.common.platform.sirius.ted.DataNotifier;
+import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.SemanticEditingDomain;
+
+/**
+ * The semantic elements of an editing domain, by EClass.<br>
+ * The index is built on first access, then maintained through containment notifications: elements added to or removed
+ * from the model are indexed again with their contents, without browsing the model. The data notifier of a semantic
+ * editing domain is used so that the index is up to date within the transaction performing the change, other domains
+ * update it on commit. The index is built again on next access when a resource is added, removed, loaded or
+ * unloaded.<br>
+ * Instances are partitioned by their ancestor at depth {@link #PARTITION_DEPTH}, the architectures of a Capella
+ * project, so that a lookup scoped by such an element or by one of its ancestors costs the number of indexed instances
+ * of the requested type and of its sub types in the scope. Elements contained by a partition are not looked up through
+ * the index: browsing them costs less than filtering the instances of the partition. Lookups return copies, in
+ * indexing order, which is the containment order of the model until it is modified.
+ */
+public class ExtentIndex extends AdapterImpl {
+
+  /**
+   * Containment depth of the elements partitioning the index.
+   */
+  public static final int PARTITION_DEPTH = 2;
+
+  private final ResourceSet resourceSet;
+
+  /**
+   * Whether the index must be built again on next access.
+   */
+  private boolean dirty = true;
+
+  /**
+   * Instances by concrete class, by partition. The elements above {@link #PARTITION_DEPTH} are partitions themselves.
+   */
+  private final Map<EObject, Map<EClass, Set<EObject>>> extents = new LinkedHashMap<>();
+
+  /**
+   * Partition of the indexed elements.
+   */
+  private final Map<EObject, EObject> partitions = new HashMap<>();
+
+  /**
+   * Concrete classes of the indexed elements.
+   */
+  private final Set<EClass> indexedClasses = new HashSet<>();
+
+  /**
+   * Indexed classes that are sub types of a requested type, or the type itself. Cleared when a class is indexed.
+   */
+  private final Map<EClass, List<EClass>> indexedSubTypes = new HashMap<>();
+
+  /**
+   * Adapted resources.
+   */
+  private final Set<Resource> resources = new LinkedHashSet<>();
+
+  private ExtentIndex(ResourceSet resourceSet) {
+    this.resourceSet = resourceSet;
+  }
+
+  /**
+   * @param object
+   * @return the index of the editing domain of the given element, <code>null</code> if the element does not belong to
+   *         an editing domain
+   */
+  public static ExtentIndex getIndex(EObject object) {
+    TransactionalEditingDomain domain = TransactionUtil.getEditingDomain(object);
+    return domain == null ? null : getIndex(domain);
+  }
+
+  /**
+   * @param domain
+   * @return the index of the given editing domain, created if needed
+   */
+  public static synchronized ExtentIndex getIndex(TransactionalEditingDomain domain) {
+    ResourceSet resourceSet = domain.getResourceSet();
+    ExtentIndex index = (ExtentIndex) EcoreUtil.getExistingAdapter(resourceSet, ExtentIndex.class);
+    if (index == null) {
+      index = new ExtentIndex(resourceSet);
+      resourceSet.eAdapters().add(index);
+      index.install(domain);
+    }
+    return index;
+  }
+
+  /**
+   * Registers the index on the data notifier of a semantic editing domain, else on the commits of the domain.
+   */
+  private void install(TransactionalEditingDomain domain) {
+    if (domain instanceof SemanticEditingDomain) {
+      DataNotifier notifier = ((SemanticEditingDomain) domain).getDataNotifier();
+      if (notifier != null) {
+        notifier.addAdapter(EObject.class, this);
+        return;
+      }
+    }
+    domain.addResourceSetListener(new ResourceSetListenerImpl() {
+      @Override
+      public void resourceSetChanged(ResourceSetChangeEvent event) {
+        for (Notification notification : event.getNotifications()) {
+          notifyChanged(notification);
+        }
+      }
+
+      @Override
+      public boolean isPostcommitOnly() {
+        return true;
+      }
+    });
+  }
+
+  @Override
+  public boolean isAdapterForType(Object type) {
+    return type == ExtentIndex.class;
+  }
+
+  /**
+   * @param type
+   * @return the indexed instances of the given type or of one of its sub types
+   */
+  public synchronized Set<EObject> getInstances(EClass type) {
+    build();
+    Set<EObject> result = new LinkedHashSet<>();
+    List<EClass> subTypes = getIndexedSubTypes(type);
+    for (Map<EClass, Set<EObject>> partitionExtents : extents.values()) {
+      addInstances(partitionExtents, subTypes, result);
+    }
+    return result;
+  }
+
+  /**
+   * @param scope
+   * @param type
+   * @return the indexed instances of the given type or of one of its sub types, contained by the given element or
+   *         being the element itself, <code>null</code> if the given element is deeper than {@link #PARTITION_DEPTH}
+   *         and is to be browsed instead
+   */
+  public synchronized Set<EObject> getInstances(EObject scope, EClass type) {
+    if (getDepth(scope) > PARTITION_DEPTH) {
+      return null;
+    }
+    build();
+    Set<EObject> result = new LinkedHashSet<>();
+    List<EClass> subTypes = getIndexedSubTypes(type);
+    for (Map.Entry<EObject, Map<EClass, Set<EObject>>> partition : extents.entrySet()) {
+      // Partitions are at most PARTITION_DEPTH deep, this costs a few steps.
+      if (EcoreUtil.isAncestor(scope, partition.getKey())) {
+        addInstances(partition.getValue(), subTypes, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param resource
+   * @param type
+   * @return the indexed instances of the given type or of one of its sub types, stored in the given resource
+   */
+  public synchronized Set<EObject> getInstances(Resource resource, EClass type) {
+    build();
+    Set<EObject> result = new LinkedHashSet<>();
+    List<EClass> subTypes = getIndexedSubTypes(type);
+    for (Map<EClass, Set<EObject>> partitionExtents : extents.values()) {
+      for (EClass subType : subTypes) {
+        Set<EObject> extent = partitionExtents.get(subType);
+        if (extent != null) {
+          for (EObject instance : extent) {
+            if (instance.eResource() == resource) {
+              result.add(instance);
+            }
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the number of indexed elements
+   */
+  public synchronized int size() {
+    build();
+    return partitions.size();
+  }
+
+  private static void addInstances(Map<EClass, Set<EObject>> partitionExtents, List<EClass> subTypes,
+      Set<EObject> result) {
+    for (EClass subType : subTypes) {
+      Set<EObject> extent = partitionExtents.get(subType);
+      if (extent != null) {
+        result.addAll(extent);
+      }
+    }
+  }
+
+  private List<EClass> getIndexedSubTypes(EClass type) {
+    List<EClass> subTypes = indexedSubTypes.get(type);
+    if (subTypes == null) {
+      subTypes = new ArrayList<>();
+      for (EClass indexedClass : indexedClasses) {
+        if (type.isSuperTypeOf(indexedClass)) {
+          subTypes.add(indexedClass);
+        }
+      }
+      indexedSubTypes.put(type, subTypes);
+    }
+    return subTypes;
+  }
+
+  @Override
+  public synchronized void notifyChanged(Notification notification) {
+    Object notifier = notification.getNotifier();
+    if (notification.getEventType() == Notification.REMOVING_ADAPTER) {
+      if (notification.getOldValue() == this && notifier == resourceSet) {
+        // The index is detached: it will be built again if attached again.
+        clear();
+      }
+      return;
+    }
+    if (notification.isTouch() || dirty) {
+      return;
+    }
+
+    if (notifier == resourceSet) {
+      if (notification.getFeatureID(ResourceSet.class) == ResourceSet.RESOURCE_SET__RESOURCES) {
+        dirty = true;
+      }
+
+    } else if (notifier instanceof Resource) {
+      int featureID = notification.getFeatureID(Resource.class);
+      if (featureID == Resource.RESOURCE__IS_LOADED) {
+        dirty = true;
+      } else if (featureID == Resource.RESOURCE__CONTENTS) {
+        updateContents(notification);
+      }
+
+    } else if (notifier instanceof EObject && notification.getFeature() instanceof EReference
+        && ((EReference) notification.getFeature()).isContainment()
+        && ModelCacheScope.isSemantic(((EObject) notifier).eClass())) {
+      updateContents(notification);
+    }
+  }
+
+  /**
+   * Removes the old values of a containment notification with their contents, then adds the new ones.<br>
+   * Only old values detached from the resource set and new values attached to it when the notification is handled are
+   * taken into account, so that delayed notifications leave the index consistent with the model. An element removed
+   * from the contents of a resource while staying in its container, such as the root of an unfragmented fragment, is
+   * thus kept.
+   */
+  private void updateContents(Notification notification) {
+    if (notification.getEventType() == Notification.MOVE) {
+      return;
+    }
+    forEachElement(notification.getOldValue(), element -> {
+      if (!isAttached(element)) {
+        removeAll(element);
+      }
+    });
+    forEachElement(notification.getNewValue(), element -> {
+      if (isAttached(element)) {
+        addAll(element);
+      }
+    });
+  }
+
+  /**
+   * @return whether the given element is in a resource of the resource set
+   */
+  private boolean isAttached(EObject element) {
+    Resource resource = element.eResource();
+    return resource != null && resource.getResourceSet() == resourceSet;
+  }
+
+  private void forEachElement(Object value, Consumer<EObject> action) {
+    if (value instanceof EObject) {
+      action.accept((EObject) value);
+    } else if (value instanceof Collection<?>) {
+      for (Object element : (Collection<?>) value) {
+        if (element instanceof EObject) {
+          action.accept((EObject) element);
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds the index if it is dirty.
+   */
+  private void build() {
+    if (!dirty) {
+      return;
+    }
+    clear();
+    dirty = false;
+    for (Resource resource : new ArrayList<>(resourceSet.getResources())) {
+      resource.eAdapters().add(this);
+      resources.add(resource);
+      if (resource.isLoaded()) {
+        for (EObject root : resource.getContents()) {
+          // Roots of fragments are already indexed with their container.
+          if (!partitions.containsKey(root)) {
+            addAll(root);
+          }
+        }
+      }
+    }
+  }
+
+  private void clear() {
+    for (Resource resource : resources) {
+      resource.eAdapters().remove(this);
+    }
+    resources.clear();
+    extents.clear();
+    partitions.clear();
+    indexedClasses.clear();
+    indexedSubTypes.clear();
+    dirty = true;
+  }
+
+  /**
+   * Indexes the given semantic element and its contents.
+   */
+  private void addAll(EObject element) {
+    if (!ModelCacheScope.isSemantic(element.eClass())) {
+      return;
+    }
+    int depth = getDepth(element);
+    EObject partition = element;
+    for (int i = depth; i > PARTITION_DEPTH; i--) {
+      partition = partition.eContainer();
+    }
+    addAll(element, depth, partition);
+  }
+
+  /**
+   * Indexes the given element, at the given depth, and its contents.
+   */
+  private void addAll(EObject element, int depth, EObject partition) {
+    EObject elementPartition = depth > PARTITION_DEPTH ? partition : element;
+    add(element, elementPartition);
+    for (EObject child : element.eContents()) {
+      addAll(child, depth + 1, elementPartition);
+    }
+  }
+
+  private void add(EObject element, EObject partition) {
+    EObject previousPartition = partitions.put(element, partition);
+    if (previousPartition == partition) {
+      return;
+    }
+    if (previousPartition != null) {
+      remove(element, previousPartition);
+    }
+    EClass eClass = element.eClass();
+    if (indexedClasses.add(eClass)) {
+      indexedSubTypes.clear();
+    }
+    extents.computeIfAbsent(partition, key -> new HashMap<>()).computeIfAbsent(eClass, key -> new LinkedHashSet<>())
+        .add(element);
+  }
+
+  /**
+   * Removes the given element and its contents from the index.
+   */
+  private void removeAll(EObject element) {
+    remove(element);
+    for (TreeIterator<EObject> iterator = element.eAllContents(); iterator.hasNext();) {
+      remove(iterator.next());
+    }
+  }
+
+  private void remove(EObject element) {
+    EObject partition = partitions.remove(element);
+    if (partition != null) {
+      remove(element, partition);
+    }
+  }
+
+  private void remove(EObject element, EObject partition) {
+    Map<EClass, Set<EObject>> partitionExtents = extents.get(partition);
+    Set<EObject> extent = partitionExtents.get(element.eClass());
+    extent.remove(element);
+    if (extent.isEmpty()) {
+      partitionExtents.remove(element.eClass());
+      if (partitionExtents.isEmpty()) {
+        extents.remove(partition);
+      }
+    }
+  }
+
+  private static int getDepth(EObject element) {
+    int depth = 0;
+    for (EObject container = element.eContainer(); container != null; container = container.eContainer()) {
+      depth++;
+    }
+    return depth;
+  }
+}
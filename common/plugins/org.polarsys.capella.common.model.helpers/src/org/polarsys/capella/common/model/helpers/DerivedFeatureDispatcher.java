@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.common.model.helpers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.polarsys.capella.common.mdsofa.common.helper.EcoreHelper;
+import org.polarsys.capella.common.mdsofa.common.helper.ExtensionPointHelper;
+import org.polarsys.capella.common.model.helpers.internal.IInternalModelConstants;
+
+/**
+ * Computes the values of the derived features implemented by helpers, see {@link IHelper}.<br>
+ * The helper and the helper annotation of a feature are resolved once per class and feature, and kept in a table
+ * indexed by feature id. Helpers are contributed through the <code>org.polarsys.capella.common.model.helpers.helper</code>
+ * extension point, one per root package namespace URI.<br>
+ * If a {@link IDerivedValueCache} is set, values are read from it.
+ */
+public final class DerivedFeatureDispatcher {
+
+  /**
+   * Loaded helpers, registered by namespace URI.
+   */
+  private static final Map<String, IHelper> helpers = new ConcurrentHashMap<>();
+
+  /**
+   * Dispatch tables, indexed by feature id.
+   */
+  private static final Map<EClass, Dispatch[]> tables = new ConcurrentHashMap<>();
+
+  private static volatile IDerivedValueCache valueCache;
+
+  /**
+   * The helper computing a derived feature, and its helper annotation.
+   */
+  private static final class Dispatch {
+
+    final IHelper helper;
+
+    final EAnnotation annotation;
+
+    Dispatch(IHelper helper, EAnnotation annotation) {
+      this.helper = helper;
+      this.annotation = annotation;
+    }
+  }
+
+  private DerivedFeatureDispatcher() {
+    // Static methods only
+  }
+
+  /**
+   * @param object
+   * @param feature
+   *          a derived feature of the class of the given object
+   * @return the value of the given feature, read from the value cache if any
+   * @throws HelperNotFoundException
+   *           if no helper is contributed for the package of the object
+   */
+  public static Object getValue(EObject object, EStructuralFeature feature) {
+    IDerivedValueCache cache = valueCache;
+    if (cache != null) {
+      return cache.getValue(object, feature);
+    }
+    return computeValue(object, feature);
+  }
+
+  /**
+   * @param object
+   * @param feature
+   *          a derived feature of the class of the given object
+   * @return the value of the given feature, computed by its helper
+   * @throws HelperNotFoundException
+   *           if no helper is contributed for the package of the object
+   */
+  public static Object computeValue(EObject object, EStructuralFeature feature) {
+    // An adaptable object may provide its own helper.
+    if (object instanceof IAdaptable) {
+      IHelper helper = ((IAdaptable) object).getAdapter(IHelper.class);
+      if (helper != null) {
+        return helper.getValue(object, feature, getHelperAnnotation(feature));
+      }
+    }
+    Dispatch dispatch = getDispatch(object, feature);
+    return dispatch.helper.getValue(object, feature, dispatch.annotation);
+  }
+
+  private static Dispatch getDispatch(EObject object, EStructuralFeature feature) {
+    EClass eClass = object.eClass();
+    Dispatch[] table = tables.get(eClass);
+    if (table == null) {
+      table = tables.computeIfAbsent(eClass, c -> new Dispatch[c.getFeatureCount()]);
+    }
+    int featureId = eClass.getFeatureID(feature);
+    if (featureId < 0 || featureId >= table.length) {
+      return createDispatch(object, feature);
+    }
+    Dispatch dispatch = table[featureId];
+    if (dispatch == null) {
+      // Concurrent resolutions create equivalent immutable dispatches.
+      dispatch = createDispatch(object, feature);
+      table[featureId] = dispatch;
+    }
+    return dispatch;
+  }
+
+  private static Dispatch createDispatch(EObject object, EStructuralFeature feature) {
+    IHelper helper = getHelper(object.eClass().getEPackage());
+    if (helper == null) {
+      throw new HelperNotFoundException(
+          "No helper retrieved for nsURI " + EcoreHelper.getRootPackage(object.eClass().getEPackage()).getNsURI()); //$NON-NLS-1$
+    }
+    return new Dispatch(helper, getHelperAnnotation(feature));
+  }
+
+  private static EAnnotation getHelperAnnotation(EStructuralFeature feature) {
+    return feature.getEAnnotation(IModelConstants.HELPER_ANNOTATION_SOURCE);
+  }
+
+  /**
+   * @param ePackage
+   * @return the helper contributed for the root package of the given package, <code>null</code> if none
+   */
+  public static IHelper getHelper(EPackage ePackage) {
+    String nsURI = EcoreHelper.getRootPackage(ePackage).getNsURI();
+    IHelper result = helpers.get(nsURI);
+    // No helper loaded yet, try loading it.
+    if (result == null) {
+      IConfigurationElement helperConfigurationElement = ExtensionPointHelper.getConfigurationElement(
+          IInternalModelConstants.CAPELLA_MODEL_PLUG_IN_ID, IInternalModelConstants.HELPER_EXTENSION_POINT_ID,
+          IInternalModelConstants.HELPER_ATT_NS_URI, nsURI);
+      if (helperConfigurationElement != null) {
+        result = (IHelper) ExtensionPointHelper.createInstance(helperConfigurationElement,
+            ExtensionPointHelper.ATT_CLASS);
+        if (result != null) {
+          IHelper previous = helpers.putIfAbsent(nsURI, result);
+          if (previous != null) {
+            result = previous;
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Sets the cache used to memoize derived values.
+   *
+   * @param cache
+   *          the cache, <code>null</code> to compute values on each call
+   */
+  public static void setValueCache(IDerivedValueCache cache) {
+    valueCache = cache;
+  }
+
+  /**
+   * @return the cache used to memoize derived values, <code>null</code> if none
+   */
+  public static IDerivedValueCache getValueCache() {
+    return valueCache;
+  }
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.common.model.helpers;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Memoizes the values of derived features.
+ * @see DerivedFeatureDispatcher#setValueCache(IDerivedValueCache)
+ */
+public interface IDerivedValueCache {
+
+  /**
+   * @param object
+   * @param feature
+   *          a derived feature of the class of the given object
+   * @return the cached value of the given feature, computed with
+   *         {@link DerivedFeatureDispatcher#computeValue(EObject, EStructuralFeature)} if it is not cached
+   */
+  Object getValue(EObject object, EStructuralFeature feature);
+}
@@ -17,11 +17,16 @@ package org.polarsys.capella.common.platform.sirius.ted;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -29,6 +34,9 @@ import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.eclipse.emf.ecore.util.EContentAdapter;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.emf.edit.domain.IEditingDomainProvider;
@@ -58,8 +66,19 @@ import org.eclipse.emf.edit.domain.IEditingDomainProvider;
  * An adapter registered for a given model element is always removed when this element is removed explicitly from the model.<br>
  * That does not apply to adapters registered for a class (until DataNotifier is garbage collected).
  * </p>
+ * <p>
+ * Adapters registered for a class are resolved once per concrete class of notified objects. A notification without any
+ * interested adapter does not allocate anything.<br>
+ * Bulk operations may delay and merge notifications with {@link #runCoalesced(Runnable)}. Dispatch statistics can be
+ * enabled with {@link #setStatisticsEnabled(boolean)}.
+ * </p>
  */
 public class DataNotifier extends EContentAdapter implements IEditingDomainProvider {
+  /**
+   * Dispatch table of a class without registered adapters.
+   */
+  private static final Adapter[] NO_ADAPTERS = new Adapter[0];
+
   /**
    * Model element class to adapters.
    */
@@ -70,14 +89,73 @@ public class DataNotifier extends EContentAdapter implements IEditingDomainProvi
    */
   private Map<EObject, Set<Adapter>> _modelElementToAdapters;
 
+  /**
+   * Concrete model element class to the adapters registered for this class or one of its super types.<br>
+   * Cleared each time an adapter is added or removed. Read without lock; filled and cleared while holding its own lock,
+   * as {@link #_classToAdapters} is changed, so that a table computed before a registration is never published after
+   * it.
+   */
+  private Map<Class<?>, Adapter[]> _classDispatch;
+
+  /**
+   * Notifications delayed until the end of the coalescing operation of the current thread, see
+   * {@link #runCoalesced(Runnable)}.
+   */
+  private ThreadLocal<Coalescing> _coalescing;
+
+  /**
+   * Number of received notifications.
+   */
+  private LongAdder _notificationCount;
+
+  /**
+   * Adapter to dispatch statistics, <code>null</code> when statistics are disabled.
+   */
+  private volatile Map<Adapter, AdapterStatistics> _adapterStatistics;
+
   WeakReference<EditingDomain> _editingDomain;
 
+  /**
+   * Dispatch statistics of a registered adapter.
+   */
+  public static class AdapterStatistics {
+    private final LongAdder notifications = new LongAdder();
+
+    private final LongAdder dispatchTime = new LongAdder();
+
+    /**
+     * @return the number of notifications forwarded to the adapter
+     */
+    public long getNotificationCount() {
+      return notifications.sum();
+    }
+
+    /**
+     * @return the time spent by the adapter to handle forwarded notifications, in nanoseconds
+     */
+    public long getDispatchTime() {
+      return dispatchTime.sum();
+    }
+  }
+
+  /**
+   * Notifications received during a coalescing operation.
+   */
+  private static class Coalescing {
+    int depth;
+    final List<Notification> notifications = new ArrayList<Notification>();
+    final List<Set<Adapter>> adapters = new ArrayList<Set<Adapter>>();
+  }
+
   /**
    * Constructor.
    */
   public DataNotifier(EditingDomain editingDomain) {
     _classToAdapters = new HashMap<Class<?>, Set<Adapter>>(0);
     _modelElementToAdapters = new HashMap<EObject, Set<Adapter>>(0);
+    _classDispatch = new ConcurrentHashMap<Class<?>, Adapter[]>();
+    _coalescing = new ThreadLocal<Coalescing>();
+    _notificationCount = new LongAdder();
     _editingDomain = new WeakReference<EditingDomain>(editingDomain);
   }
 
@@ -93,15 +171,19 @@ public class DataNotifier extends EContentAdapter implements IEditingDomainProvi
     if ((null == cls) || (null == adapter)) {
       return;
     }
-    // Get set from class.
-    Set<Adapter> adapters = _classToAdapters.get(cls);
-    // Create set if it does not exist.
-    if (null == adapters) {
-      adapters = new HashSet<Adapter>(1);
-      _classToAdapters.put(cls, adapters);
+    synchronized (_classDispatch) {
+      // Get set from class.
+      Set<Adapter> adapters = _classToAdapters.get(cls);
+      // Create set if it does not exist.
+      if (null == adapters) {
+        adapters = new LinkedHashSet<Adapter>(1);
+        _classToAdapters.put(cls, adapters);
+      }
+      // Add notifier to set.
+      if (adapters.add(adapter)) {
+        _classDispatch.clear();
+      }
     }
-    // Add notifier to set.
-    adapters.add(adapter);
   }
 
   /**
@@ -118,7 +200,7 @@ public class DataNotifier extends EContentAdapter implements IEditingDomainProvi
     Set<Adapter> adapters = _modelElementToAdapters.get(element);
     // Create set if it does not exist.
     if (null == adapters) {
-      adapters = new HashSet<Adapter>(1);
+      adapters = new LinkedHashSet<Adapter>(1);
       _modelElementToAdapters.put(element, adapters);
     }
     // Add notifier to set.
@@ -141,16 +223,18 @@ public class DataNotifier extends EContentAdapter implements IEditingDomainProvi
       // In this state, it seems to turn approximately but I do not know the impacts.
       // it is a simple POC version, to improve.
     }
+    _notificationCount.increment();
     Object notifier = notification.getNotifier();
     Object oldValue = notification.getOldValue();
     Object newValue = notification.getNewValue();
     Object feature = notification.getFeature();
     boolean isContainmentReference = ((feature instanceof EReference) && ((EReference) feature).isContainment());
     // Add adapters by class first, then by reference.
-    Set<Adapter> adapters = new HashSet<Adapter>(0);
+    // The set is only created when an adapter is found.
+    Set<Adapter> adapters = null;
     // Always search for notifier adapters.
     if (null != notifier) {
-      adapters.addAll(searchAdapters(notifier, false));
+      adapters = collectAdapters(notifier, false, adapters);
     }
     // Add adapters depending on notification type.
     switch (notification.getEventType()) {
@@ -158,43 +242,110 @@ public class DataNotifier extends EContentAdapter implements IEditingDomainProvi
       case Notification.SET:
         // Do not add new value adapters if new value is indeed the notifier.
         if ((null != notifier) && (null != newValue) && (newValue != notifier)) {
-          adapters.addAll(searchAdapters(newValue, false));
+          adapters = collectAdapters(newValue, false, adapters);
           // Most unlikely. ModelElement object does launch set notification having same
           // old value and new value, but...
           if ((null != oldValue) && (oldValue != newValue)) {
-            adapters.addAll(searchAdapters(oldValue, false));
+            adapters = collectAdapters(oldValue, false, adapters);
           }
         }
       break;
       case Notification.ADD:
         // New model element added.
         // Add adapter for new value.
-        adapters.addAll(searchAdapters(newValue, false));
+        adapters = collectAdapters(newValue, false, adapters);
       break;
       case Notification.ADD_MANY:
         // New list of model elements added.
         // Add adapters for new values.
-        adapters.addAll(searchAdapters((Collection<?>) newValue, false));
+        for (Object value : (Collection<?>) newValue) {
+          adapters = collectAdapters(value, false, adapters);
+        }
       break;
       case Notification.REMOVE:
         // Model element removed.
         // Add adapters for old value.
         // Do remove those that used old value as reference key.
-        adapters.addAll(searchAdapters(oldValue, isContainmentReference));
+        adapters = collectAdapters(oldValue, isContainmentReference, adapters);
       break;
       case Notification.REMOVE_MANY:
         // List of model elements removed.
         // Add adapters for old values.
         // Do remove those that used old values as reference keys.
-        adapters.addAll(searchAdapters((Collection<?>) oldValue, isContainmentReference));
+        for (Object value : (Collection<?>) oldValue) {
+          adapters = collectAdapters(value, isContainmentReference, adapters);
+        }
       break;
       default:
       break;
     }
+    if (null == adapters) {
+      return;
+    }
+    Coalescing coalescing = _coalescing.get();
+    if (null != coalescing) {
+      coalesce(coalescing, notification, adapters);
+      return;
+    }
     // Do notify adapters.
     doNotifyAdapters(adapters, notification);
   }
 
+  /**
+   * Add adapters for given object to given set.
+   * @param object The model object being dealt within the notification.
+   * @param removeExistingAdapters Should existing adapters be removed ? <code>true</code> if so, <code>false</code> otherwise.
+   * @param result The set to complete, may be <code>null</code>.
+   * @return the completed set, <code>null</code> if given set is <code>null</code> and no adapter is found.
+   */
+  private Set<Adapter> collectAdapters(Object object, boolean removeExistingAdapters, Set<Adapter> result) {
+    if (!(object instanceof EObject)) {
+      return result;
+    }
+    if (!_modelElementToAdapters.isEmpty()) {
+      Collection<Adapter> adapters = searchAdaptersByReference(object, removeExistingAdapters);
+      if ((null != adapters) && !adapters.isEmpty()) {
+        if (null == result) {
+          result = new LinkedHashSet<Adapter>();
+        }
+        result.addAll(adapters);
+      }
+    }
+    Adapter[] adapters = getAdaptersByClass(object.getClass());
+    if (adapters.length > 0) {
+      if (null == result) {
+        result = new LinkedHashSet<Adapter>();
+      }
+      Collections.addAll(result, adapters);
+    }
+    return result;
+  }
+
+  /**
+   * Get adapters registered for given class or one of its super types.
+   * @param cls A concrete model element class.
+   * @return A not <code>null</code> array of {@link Adapter}, shared by all objects of given class. Must not be modified.
+   */
+  private Adapter[] getAdaptersByClass(Class<?> cls) {
+    Adapter[] result = _classDispatch.get(cls);
+    if (null == result) {
+      synchronized (_classDispatch) {
+        result = _classDispatch.get(cls);
+        if (null == result) {
+          Set<Adapter> adapters = new LinkedHashSet<Adapter>(0);
+          for (Map.Entry<Class<?>, Set<Adapter>> entry : _classToAdapters.entrySet()) {
+            if (entry.getKey().isAssignableFrom(cls)) {
+              adapters.addAll(entry.getValue());
+            }
+          }
+          result = adapters.isEmpty() ? NO_ADAPTERS : adapters.toArray(new Adapter[adapters.size()]);
+          _classDispatch.put(cls, result);
+        }
+      }
+    }
+    return result;
+  }
+
   /**
    * Do notify adapters.
    * @param adapters
@@ -205,12 +356,109 @@ public class DataNotifier extends EContentAdapter implements IEditingDomainProvi
     if ((null == adapters) || (null == notification)) {
       return;
     }
+    Map<Adapter, AdapterStatistics> statistics = _adapterStatistics;
     // Notify adapters.
     for (Adapter adapter : adapters) {
-      adapter.notifyChanged(notification);
+      if (null == statistics) {
+        adapter.notifyChanged(notification);
+      } else {
+        long start = System.nanoTime();
+        adapter.notifyChanged(notification);
+        AdapterStatistics adapterStatistics = statistics.computeIfAbsent(adapter, a -> new AdapterStatistics());
+        adapterStatistics.dispatchTime.add(System.nanoTime() - start);
+        adapterStatistics.notifications.increment();
+      }
     }
   }
 
+  /**
+   * Run given operation, delaying the notification of registered adapters until its end.<br>
+   * Successive notifications setting the same single-valued feature of the same element are then merged into one
+   * notification, from the first old value to the last new value. Other notifications are forwarded unchanged, in their
+   * original order.<br>
+   * Only notifications of the calling thread are delayed. Nested operations are notified at the end of the outermost one.
+   * @param operation A not <code>null</code> operation, typically a bulk modification.
+   */
+  public void runCoalesced(Runnable operation) {
+    Coalescing coalescing = _coalescing.get();
+    if (null == coalescing) {
+      coalescing = new Coalescing();
+      _coalescing.set(coalescing);
+    }
+    coalescing.depth++;
+    try {
+      operation.run();
+    } finally {
+      coalescing.depth--;
+      if (0 == coalescing.depth) {
+        _coalescing.remove();
+        for (int i = 0; i < coalescing.notifications.size(); i++) {
+          doNotifyAdapters(coalescing.adapters.get(i), coalescing.notifications.get(i));
+        }
+      }
+    }
+  }
+
+  /**
+   * Delay given notification, merging it with the previous one if possible.
+   */
+  private void coalesce(Coalescing coalescing, Notification notification, Set<Adapter> adapters) {
+    int last = coalescing.notifications.size() - 1;
+    if (last >= 0) {
+      Notification previous = coalescing.notifications.get(last);
+      if (isSingleSet(previous) && isSingleSet(notification) && (previous.getNotifier() == notification.getNotifier())
+          && (previous.getFeature() == notification.getFeature())) {
+        coalescing.notifications.set(last, new ENotificationImpl((InternalEObject) notification.getNotifier(),
+            Notification.SET, (EStructuralFeature) notification.getFeature(), previous.getOldValue(),
+            notification.getNewValue()));
+        coalescing.adapters.get(last).addAll(adapters);
+        return;
+      }
+    }
+    coalescing.notifications.add(notification);
+    coalescing.adapters.add(adapters);
+  }
+
+  private boolean isSingleSet(Notification notification) {
+    return (Notification.SET == notification.getEventType()) && (notification.getNotifier() instanceof InternalEObject)
+        && (notification.getFeature() instanceof EStructuralFeature)
+        && !((EStructuralFeature) notification.getFeature()).isMany();
+  }
+
+  /**
+   * @return the number of notifications received by this notifier
+   */
+  public long getNotificationCount() {
+    return _notificationCount.sum();
+  }
+
+  /**
+   * Enable or disable the measure of adapters dispatch.<br>
+   * Enabling statistics resets them.
+   */
+  public void setStatisticsEnabled(boolean enabled) {
+    _adapterStatistics = enabled ? new ConcurrentHashMap<Adapter, AdapterStatistics>() : null;
+  }
+
+  /**
+   * @return whether the dispatch to adapters is measured
+   */
+  public boolean isStatisticsEnabled() {
+    return null != _adapterStatistics;
+  }
+
+  /**
+   * @return A not <code>null</code> snapshot of adapter to dispatch statistics, since statistics were enabled. Empty if
+   *         statistics are disabled.
+   */
+  public Map<Adapter, AdapterStatistics> getAdapterStatistics() {
+    Map<Adapter, AdapterStatistics> statistics = _adapterStatistics;
+    if (null == statistics) {
+      return Collections.emptyMap();
+    }
+    return Collections.unmodifiableMap(new HashMap<Adapter, AdapterStatistics>(statistics));
+  }
+
   /**
    * Search adapters for given object.
    * @param object The model object being dealt within the notification.<br>
@@ -219,14 +467,8 @@ public class DataNotifier extends EContentAdapter implements IEditingDomainProvi
    * @return A not <code>null</code> collection of {@link Adapter}. May be empty.
    */
   protected Collection<Adapter> searchAdapters(Object object, boolean removeExistingAdapters) {
-    Collection<Adapter> result = searchAdaptersByReference(object, removeExistingAdapters);
-    Collection<Adapter> resultByClass = searchAdaptersByClass(object);
-    if (null == result) {
-      result = resultByClass;
-    } else {
-      result.addAll(resultByClass);
-    }
-    return result;
+    Set<Adapter> result = collectAdapters(object, removeExistingAdapters, null);
+    return (null == result) ? new HashSet<Adapter>(0) : result;
   }
 
   /**
@@ -253,11 +495,7 @@ public class DataNotifier extends EContentAdapter implements IEditingDomainProvi
   protected Collection<Adapter> searchAdaptersByClass(Object object) {
     Set<Adapter> result = new HashSet<Adapter>(0);
     if (object instanceof EObject) {
-      for (Class<?> modelElementClass : _classToAdapters.keySet()) {
-        if (modelElementClass.isInstance(object)) {
-          result.addAll(_classToAdapters.get(modelElementClass));
-        }
-      }
+      Collections.addAll(result, getAdaptersByClass(object.getClass()));
     }
     return result;
   }
@@ -288,21 +526,24 @@ public class DataNotifier extends EContentAdapter implements IEditingDomainProvi
    * @param adapter A not <code>null</code> adapter to remove.
    */
   public void remove(Adapter adapter) {
-    // Retrieve all adapters.
-    Collection<Set<Adapter>> allAdapters = new ArrayList<Set<Adapter>>(0);
-    allAdapters.addAll(_modelElementToAdapters.values());
-    allAdapters.addAll(_classToAdapters.values());
-    // Iterate over them, so as to remove each reference of given notifier.
-    for (Set<Adapter> adaptersSet : allAdapters) {
-      // Is given notifier found in current set ?
-      boolean found = false;
-      for (Iterator<Adapter> adapters = adaptersSet.iterator(); adapters.hasNext() && !found;) {
-        // Compare references.
-        found = (adapters.next() == adapter);
-        if (found) {
-          adapters.remove();
+    synchronized (_classDispatch) {
+      // Retrieve all adapters.
+      Collection<Set<Adapter>> allAdapters = new ArrayList<Set<Adapter>>(0);
+      allAdapters.addAll(_modelElementToAdapters.values());
+      allAdapters.addAll(_classToAdapters.values());
+      // Iterate over them, so as to remove each reference of given notifier.
+      for (Set<Adapter> adaptersSet : allAdapters) {
+        // Is given notifier found in current set ?
+        boolean found = false;
+        for (Iterator<Adapter> adapters = adaptersSet.iterator(); adapters.hasNext() && !found;) {
+          // Compare references.
+          found = (adapters.next() == adapter);
+          if (found) {
+            adapters.remove();
+          }
         }
       }
+      _classDispatch.clear();
     }
   }
 
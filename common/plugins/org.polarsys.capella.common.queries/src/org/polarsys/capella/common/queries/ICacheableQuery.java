@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.common.queries;
+
+import org.polarsys.capella.common.helpers.cache.ModelCache;
+import org.polarsys.capella.common.queries.filters.IQueryFilter;
+import org.polarsys.capella.common.queries.interpretor.QueryInterpretor;
+
+/**
+ * Marks an {@link IQuery} or an {@link IQueryFilter} whose result only depends on its input, on the values of the
+ * query context and on the semantic model: not on preferences, representations or any other state.<br>
+ * While a {@link ModelCache} is enabled, the {@link QueryInterpretor} reuses the results of top-level executions of a
+ * query identifier until the semantic model changes, provided that all its queries, extending ones included, and all
+ * its filters are marked.
+ */
+public interface ICacheableQuery {
+  // Marker interface.
+}
@@ -20,6 +20,13 @@ public class FormatedLogger {
   private static int indentStep = 0;
   private static boolean indentMustBeDone = false;
 
+  /**
+   * @return whether the messages of the given group are printed. Callers can check it to avoid building messages.
+   */
+  public static boolean isActive(Integer debugGroup) {
+    return !Log.ACTIVE_DEBUG_GROUPS.isEmpty() && Log.ACTIVE_DEBUG_GROUPS.contains(debugGroup);
+  }
+
   public static void addTextLn(Object text, Integer debugGroup) {
     if (Log.ACTIVE_DEBUG_GROUPS.contains(debugGroup)) {
       indent(debugGroup);
@@ -14,21 +14,30 @@ package org.polarsys.capella.common.queries.interpretor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Hashtable;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.emf.ecore.EObject;
+import org.polarsys.capella.common.helpers.cache.CachedFunction;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
+import org.polarsys.capella.common.helpers.cache.ModelCacheScope;
 import org.polarsys.capella.common.mdsofa.common.constant.ICommonConstants;
 import org.polarsys.capella.common.queries.AbstractQuery;
 import org.polarsys.capella.common.queries.ExtendingQuery;
+import org.polarsys.capella.common.queries.ICacheableQuery;
 import org.polarsys.capella.common.queries.IQuery;
 import org.polarsys.capella.common.queries.QuerySchema;
 import org.polarsys.capella.common.queries.debug.FormatedLogger;
@@ -51,16 +60,36 @@ public class QueryInterpretor {
       .subscribe(IReportManagerDefaultComponents.MODEL);
   private static final NoneValue NONE_VALUE = new NoneValue();
 
-  private static int queryIdCounter = 0;
-  private static Hashtable<IQuery, Integer> queryToId = new Hashtable<IQuery, Integer>();
-  private static Hashtable<String, IConfigurationElement> identifier2QueryDef = null;
-  private static Hashtable<String, Set<IQueryFilter>> identifier2QueryFilters = null;
-  private static Hashtable<String, IQuery> identifier2Query = null;
-  private static Hashtable<String, String> queryIdentifier2ExtendedQueryIdentifier = null;
+  private static final AtomicInteger queryIdCounter = new AtomicInteger();
+  private static final Map<IQuery, Integer> queryToId = new ConcurrentHashMap<IQuery, Integer>();
+  private static final Map<String, IConfigurationElement> identifier2QueryDef = new ConcurrentHashMap<String, IConfigurationElement>();
+  private static final Map<String, Set<IQueryFilter>> identifier2QueryFilters = new ConcurrentHashMap<String, Set<IQueryFilter>>();
+  private static final Map<String, IQuery> identifier2Query = new ConcurrentHashMap<String, IQuery>();
+  private static final Map<String, String> queryIdentifier2ExtendedQueryIdentifier = new ConcurrentHashMap<String, String>();
+  private static volatile boolean loaded = false;
+
+  /**
+   * Queries and filters of each query identifier, resolved on first execution.
+   */
+  private static final Map<String, QueryDefinition> identifier2Definition = new ConcurrentHashMap<String, QueryDefinition>();
+
+  /**
+   * Results of top-level executions, cached while a {@link ModelCache} is enabled and invalidated by model changes.
+   */
+  private static final CachedFunction<QueryCall, List<Object>> cachedExecution = call -> {
+    QueryContext context = new QueryContext();
+    call.parameters.forEach(context::overwriteValue);
+    return doExecuteQuery(call.queryIdentifier, call.semanticsObject, context,
+        getDefinition(call.queryIdentifier).filters);
+  };
 
   /**
    * Execute a query whose semantics is defined by one or more extension points. The result is a set of non-redundant
-   * elements. If you call this method in a query, make sure to pass the query context to the sub call.
+   * elements. If you call this method in a query, make sure to pass the query context to the sub call.<br>
+   * When a {@link ModelCache} is enabled, the results of calls of {@link ICacheableQuery cacheable} queries, with the
+   * registered filters and a {@link QueryContext} holding only semantic model elements or simple values, are reused
+   * until the semantic model changes. Calls on representation elements are not cached, as changes of representations do
+   * not invalidate the cache.
    * 
    * @throws ContextShallNotBeNullException
    * @throws NonExistingQuery
@@ -72,50 +101,89 @@ public class QueryInterpretor {
       throw new IllegalArgumentException("the context shall not be null"); //$NON-NLS-1$
     }
 
+    QueryCall call = getCacheableCall(queryIdentifier, semanticsObject, context, filters);
+    if (call != null) {
+      List<Object> result = cachedExecution.apply(call);
+      context.overwriteValue(QueryContextConstants.QUERY_INPUT_ELEMENT_PARAMETER, semanticsObject);
+      return (List<T>) new ArrayList<Object>(result);
+    }
+    return (List<T>) doExecuteQuery(queryIdentifier, semanticsObject, context, filters);
+  }
+
+  private static List<Object> doExecuteQuery(String queryIdentifier, Object semanticsObject, IQueryContext context,
+      Set<IQueryFilter> filters) {
     Object semanticsObj = semanticsObject;
     if (semanticsObj == null) {
       semanticsObj = NONE_VALUE;
     }
 
     IPrivateQueryContext theContext = (IPrivateQueryContext) context;
-    if (theContext.getExecutionLevel() == 0) {
-      FormatedLogger.addTextLn("QUERY CALL : " + queryIdentifier, Log.QUERY_INTERPRETOR); //$NON-NLS-1$
+    boolean log = FormatedLogger.isActive(Log.QUERY_INTERPRETOR);
+    if (log) {
+      if (theContext.getExecutionLevel() == 0) {
+        FormatedLogger.addTextLn("QUERY CALL : " + queryIdentifier, Log.QUERY_INTERPRETOR); //$NON-NLS-1$
+      }
+      FormatedLogger.addTextLn("QueryInterpretor.executeQuery(" + queryIdentifier + ", " + semanticsObj + ")", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+          Log.QUERY_INTERPRETOR);
+      FormatedLogger.addTextLn("{", Log.QUERY_INTERPRETOR); //$NON-NLS-1$
+      FormatedLogger.incIndent(Log.QUERY_INTERPRETOR);
     }
-    FormatedLogger.addTextLn("QueryInterpretor.executeQuery(" + queryIdentifier + ", " + semanticsObj + ")", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-        Log.QUERY_INTERPRETOR);
-    FormatedLogger.addTextLn("{", Log.QUERY_INTERPRETOR); //$NON-NLS-1$
-    FormatedLogger.incIndent(Log.QUERY_INTERPRETOR);
 
-    Collection<Object> subResult = new LinkedHashSet<Object>();
+    QueryDefinition definition = getDefinition(queryIdentifier);
+    List<Object> firstResult = null;
+    Collection<Object> subResult = null;
 
-    Set<IQuery> queries = getQuerySetForQueryIdentifier(queryIdentifier);
-    for (IQuery query : queries) {
-      Integer queryId = queryToId.get(query);
+    for (int i = 0; i < definition.queries.length; i++) {
+      IQuery query = definition.queries[i];
+      Integer queryId = definition.queryIds[i];
       List<Object> res = theContext.getResultFromCache(queryId, semanticsObj);
       if (res == null) {
-        FormatedLogger.addTextLn("execute " + query.getIdentifier() + " {", Log.QUERY_INTERPRETOR); //$NON-NLS-1$ //$NON-NLS-2$
-        FormatedLogger.incIndent(Log.QUERY_INTERPRETOR);
+        if (log) {
+          FormatedLogger.addTextLn("execute " + query.getIdentifier() + " {", Log.QUERY_INTERPRETOR); //$NON-NLS-1$ //$NON-NLS-2$
+          FormatedLogger.incIndent(Log.QUERY_INTERPRETOR);
+        }
         theContext.incCallLevel();
         res = query.execute(semanticsObj, theContext);
         theContext.decCallLevel();
         theContext.addInCache(queryId, semanticsObj, res);
-        FormatedLogger.decIndent(Log.QUERY_INTERPRETOR);
-        FormatedLogger.addTextLn("}", Log.QUERY_INTERPRETOR); //$NON-NLS-1$
+        if (log) {
+          FormatedLogger.decIndent(Log.QUERY_INTERPRETOR);
+          FormatedLogger.addTextLn("}", Log.QUERY_INTERPRETOR); //$NON-NLS-1$
+        }
 
-      } else {
+      } else if (log) {
         FormatedLogger.addTextLn(
             "retrieve from cache for " + query.getIdentifier() + "[" + queryId + "]" + " " + semanticsObj, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
             Log.QUERY_INTERPRETOR);
       }
 
       if ((res != null) && !res.isEmpty()) {
-        subResult.addAll(res);
+        // Results are only merged in a set when needed to remove duplicates
+        if (firstResult == null && subResult == null) {
+          firstResult = res;
+        } else {
+          if (subResult == null) {
+            subResult = new LinkedHashSet<Object>(firstResult);
+          }
+          subResult.addAll(res);
+        }
       }
     }
 
-    FormatedLogger.decIndent(Log.QUERY_INTERPRETOR);
-    FormatedLogger.addTextLn("}", Log.QUERY_INTERPRETOR); //$NON-NLS-1$
-    List<Object> result = new ArrayList<Object>(subResult);
+    if (log) {
+      FormatedLogger.decIndent(Log.QUERY_INTERPRETOR);
+      FormatedLogger.addTextLn("}", Log.QUERY_INTERPRETOR); //$NON-NLS-1$
+    }
+    List<Object> result;
+    if (subResult != null) {
+      result = new ArrayList<Object>(subResult);
+    } else if (firstResult == null) {
+      result = new ArrayList<Object>(0);
+    } else if (firstResult.size() == 1) {
+      result = new ArrayList<Object>(firstResult);
+    } else {
+      result = new ArrayList<Object>(new LinkedHashSet<Object>(firstResult));
+    }
 
     if (theContext.getExecutionLevel() == 0) {
       // Add (or overwrite) query input element in the context to be used by filters
@@ -123,9 +191,51 @@ public class QueryInterpretor {
       for (IQueryFilter filter : filters) {
         result = executeFilter(result, filter, context);
       }
-      FormatedLogger.addTextLn("Filtering ...", Log.QUERY_INTERPRETOR); //$NON-NLS-1$
+      if (log) {
+        FormatedLogger.addTextLn("Filtering ...", Log.QUERY_INTERPRETOR); //$NON-NLS-1$
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the key of a top-level call whose result can be cached, <code>null</code> if the cache is not enabled or
+   *         the result may depend on something else than the semantic model.
+   */
+  private static QueryCall getCacheableCall(String queryIdentifier, Object semanticsObject, IQueryContext context,
+      Set<IQueryFilter> filters) {
+    if (!ModelCache.isEnabled() || context.getClass() != QueryContext.class
+        || ((IPrivateQueryContext) context).getExecutionLevel() != 0 || !isCacheableValue(semanticsObject)) {
+      return null;
+    }
+    QueryDefinition definition = getDefinition(queryIdentifier);
+    if (!definition.cacheable || !definition.filters.equals(filters)) {
+      return null;
+    }
+    Map<String, Object> values = ((QueryContext) context).getValues();
+    Map<String, Object> parameters = new HashMap<String, Object>(values.size() * 4 / 3 + 1);
+    for (Map.Entry<String, Object> entry : values.entrySet()) {
+      // The input element is overwritten by each top-level call
+      if (!QueryContextConstants.QUERY_INPUT_ELEMENT_PARAMETER.equals(entry.getKey())) {
+        if (!isCacheableValue(entry.getValue())) {
+          return null;
+        }
+        parameters.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return new QueryCall(queryIdentifier, semanticsObject, parameters);
+  }
+
+  /**
+   * Values compared by identity or immutable, which can be part of a cache key. Representation elements are excluded:
+   * queries on them read representations, whose changes do not invalidate the cache (see {@link ModelCacheScope}).
+   */
+  private static boolean isCacheableValue(Object value) {
+    if (value instanceof EObject) {
+      return ModelCacheScope.isSemantic(((EObject) value).eClass());
     }
-    return (List<T>) result;
+    return value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+        || value instanceof Enum<?> || value instanceof NoneValue;
   }
 
   public static <T> List<T> executeQuery(String queryIdentifier, Object semanticsObject, IQueryContext context,
@@ -137,7 +247,7 @@ public class QueryInterpretor {
   }
 
   public static <T> List<T> executeQuery(String queryIdentifier, Object semanticsObject, IQueryContext context) {
-    return executeQuery(queryIdentifier, semanticsObject, context, getFilters(queryIdentifier));
+    return executeQuery(queryIdentifier, semanticsObject, context, getDefinition(queryIdentifier).filters);
   }
 
   /**
@@ -148,7 +258,7 @@ public class QueryInterpretor {
   }
 
   public static <T> List<T> executeQuery(String queryIdentifier, IQueryContext context) {
-    return executeQuery(queryIdentifier, NONE_VALUE, context, getFilters(queryIdentifier));
+    return executeQuery(queryIdentifier, NONE_VALUE, context, getDefinition(queryIdentifier).filters);
   }
 
   public static <T> List<T> executeQuery(String queryIdentifier, IQueryContext context, IQueryFilter filter) {
@@ -159,17 +269,7 @@ public class QueryInterpretor {
   }
 
   public static Set<IQueryFilter> getFilters(String queryIdentifier) {
-    if (identifier2QueryFilters == null) {
-      loadQueries();
-    }
-    Set<IQueryFilter> result = new HashSet<IQueryFilter>();
-    for (IQuery query : getQuerySetForQueryIdentifier(queryIdentifier)) {
-      Set<IQueryFilter> filters = identifier2QueryFilters.get(query.getIdentifier());
-      if (filters != null) {
-        result.addAll(filters);
-      }
-    }
-    return result;
+    return new HashSet<IQueryFilter>(getDefinition(queryIdentifier).filters);
   }
 
   public static <T> List<T> executeFilter(List<T> elements, IQueryFilter filter, IQueryContext context) {
@@ -186,11 +286,21 @@ public class QueryInterpretor {
     return executeFilter(elements, filter, null);
   }
 
+  private static QueryDefinition getDefinition(String queryIdentifier) {
+    QueryDefinition definition = identifier2Definition.get(queryIdentifier);
+    if (definition == null) {
+      definition = new QueryDefinition(getQuerySetForQueryIdentifier(queryIdentifier));
+      QueryDefinition existing = identifier2Definition.putIfAbsent(queryIdentifier, definition);
+      if (existing != null) {
+        definition = existing;
+      }
+    }
+    return definition;
+  }
+
   private static Set<IQuery> getQuerySetForQueryIdentifier(String queryIdentifier) {
     Set<IQuery> res = new HashSet<IQuery>();
-    if (identifier2QueryDef == null) {
-      loadQueries();
-    }
+    ensureLoaded();
     if (!identifier2QueryDef.containsKey(queryIdentifier)) {
       throw new NonExistingQuery(queryIdentifier);
     }
@@ -221,8 +331,13 @@ public class QueryInterpretor {
           query = (IQuery) queryDef.createExecutableExtension("algorithm"); //$NON-NLS-1$
           query.setIdentifier(queryIdentifier);
           query.setExtendedQueryIdentifier(queryIdentifier2ExtendedQueryIdentifier.get(queryIdentifier));
-          identifier2Query.put(queryIdentifier, query);
-          queryToId.put(query, Integer.valueOf(queryIdCounter++));
+          // The id is registered before the query is published to other threads
+          queryToId.put(query, Integer.valueOf(queryIdCounter.getAndIncrement()));
+          IQuery existing = identifier2Query.putIfAbsent(queryIdentifier, query);
+          if (existing != null) {
+            queryToId.remove(query);
+            query = existing;
+          }
         }
       } catch (CoreException exception) {
         exception.printStackTrace();
@@ -231,13 +346,18 @@ public class QueryInterpretor {
     return query;
   }
 
+  private static void ensureLoaded() {
+    if (!loaded) {
+      synchronized (QueryInterpretor.class) {
+        if (!loaded) {
+          loadQueries();
+          loaded = true;
+        }
+      }
+    }
+  }
+
   private static void loadQueries() {
-    // initialize tables
-    identifier2QueryDef = new Hashtable<String, IConfigurationElement>();
-    identifier2QueryFilters = new Hashtable<String, Set<IQueryFilter>>();
-    identifier2Query = new Hashtable<String, IQuery>();
-    queryIdentifier2ExtendedQueryIdentifier = new Hashtable<String, String>();
-    
     // load all the extensions
     IExtensionRegistry registry = Platform.getExtensionRegistry();
     IConfigurationElement[] querySpecifications = registry
@@ -298,4 +418,70 @@ public class QueryInterpretor {
     }
     return true;
   }
+
+  /**
+   * The queries executed for an identifier, with their ids in the context caches, and the filters applied to their
+   * results.
+   */
+  private static class QueryDefinition {
+    final IQuery[] queries;
+    final Integer[] queryIds;
+    final Set<IQueryFilter> filters;
+    /**
+     * Whether all the queries and filters are {@link ICacheableQuery cacheable}.
+     */
+    final boolean cacheable;
+
+    QueryDefinition(Set<IQuery> querySet) {
+      queries = querySet.toArray(new IQuery[querySet.size()]);
+      queryIds = new Integer[queries.length];
+      Set<IQueryFilter> queryFilters = new HashSet<IQueryFilter>();
+      boolean cacheableQueries = true;
+      for (int i = 0; i < queries.length; i++) {
+        queryIds[i] = queryToId.get(queries[i]);
+        cacheableQueries &= queries[i] instanceof ICacheableQuery;
+        Set<IQueryFilter> filtersOfQuery = identifier2QueryFilters.get(queries[i].getIdentifier());
+        if (filtersOfQuery != null) {
+          queryFilters.addAll(filtersOfQuery);
+        }
+      }
+      filters = Collections.unmodifiableSet(queryFilters);
+      for (IQueryFilter filter : filters) {
+        cacheableQueries &= filter instanceof ICacheableQuery;
+      }
+      cacheable = cacheableQueries;
+    }
+  }
+
+  /**
+   * Key of a cached top-level execution.
+   */
+  private static class QueryCall {
+    final String queryIdentifier;
+    final Object semanticsObject;
+    final Map<String, Object> parameters;
+    final int hashCode;
+
+    QueryCall(String queryIdentifier, Object semanticsObject, Map<String, Object> parameters) {
+      this.queryIdentifier = queryIdentifier;
+      this.semanticsObject = semanticsObject;
+      this.parameters = parameters;
+      this.hashCode = Objects.hash(queryIdentifier, semanticsObject, parameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof QueryCall)) {
+        return false;
+      }
+      QueryCall other = (QueryCall) obj;
+      return queryIdentifier.equals(other.queryIdentifier) && Objects.equals(semanticsObject, other.semanticsObject)
+          && parameters.equals(other.parameters);
+    }
+  }
 }
@@ -13,8 +13,9 @@
 
 package org.polarsys.capella.common.queries.queryContext;
 
-import java.util.Hashtable;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.polarsys.capella.common.queries.internal.IPrivateQueryContext;
 
@@ -23,7 +24,7 @@ import org.polarsys.capella.common.queries.internal.IPrivateQueryContext;
 public abstract class AbstractQueryContext implements IPrivateQueryContext {
 
   private int callingLevel = 0;
-  private Hashtable<Integer, Hashtable<Object, List<Object>>> queryIdentifierToCacheTable = new Hashtable<Integer, Hashtable<Object, List<Object>>>();
+  private Map<Integer, Map<Object, List<Object>>> queryIdentifierToCacheTable = new HashMap<Integer, Map<Object, List<Object>>>();
 
   @Override
   public int getExecutionLevel() {
@@ -32,7 +33,7 @@ public abstract class AbstractQueryContext implements IPrivateQueryContext {
 
   @Override
   public List<Object> getResultFromCache(Integer queryId, Object semanticsObject) {
-    Hashtable<Object, List<Object>> cacheTable = queryIdentifierToCacheTable.get(queryId);
+    Map<Object, List<Object>> cacheTable = queryIdentifierToCacheTable.get(queryId);
     if (cacheTable == null) {
       return null;
     }
@@ -41,9 +42,9 @@ public abstract class AbstractQueryContext implements IPrivateQueryContext {
 
   @Override
   public void addInCache(Integer queryId, Object semanticsObject, List<Object> res) {
-    Hashtable<Object, List<Object>> cacheTable = queryIdentifierToCacheTable.get(queryId);
+    Map<Object, List<Object>> cacheTable = queryIdentifierToCacheTable.get(queryId);
     if (cacheTable == null) {
-      cacheTable = new Hashtable<Object, List<Object>>();
+      cacheTable = new HashMap<Object, List<Object>>();
       queryIdentifierToCacheTable.put(queryId, cacheTable);
     }
     cacheTable.put(semanticsObject, res);
@@ -51,7 +52,7 @@ public abstract class AbstractQueryContext implements IPrivateQueryContext {
 
   @Override
   public void resetCache() {
-    queryIdentifierToCacheTable = new Hashtable<Integer, Hashtable<Object, List<Object>>>();
+    queryIdentifierToCacheTable = new HashMap<Integer, Map<Object, List<Object>>>();
   }
 
   @Override
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.polarsys.capella.common.queries.queryContext;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -47,4 +48,11 @@ public class QueryContext extends AbstractQueryContext {
     map.put(key, value);
   }
 
+  /**
+   * @return an unmodifiable view of the values of the context
+   */
+  public Map<String, Object> getValues() {
+    return Collections.unmodifiableMap(map);
+  }
+
 }
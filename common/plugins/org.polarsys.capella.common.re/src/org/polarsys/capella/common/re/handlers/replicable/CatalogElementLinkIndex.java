@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.common.re.handlers.replicable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.polarsys.capella.common.re.CatalogElement;
+import org.polarsys.capella.common.re.CatalogElementLink;
+import org.polarsys.capella.common.re.RePackage;
+import org.polarsys.capella.common.re.queries.CatalogElement_AllUsedElementLinks;
+
+/**
+ * An index of the links of a catalog element and of the catalog elements it uses, by target and by origin.<br>
+ * It indexes the links returned by {@link CatalogElement_AllUsedElementLinks}: the links owned by the catalog element
+ * and, recursively, by the catalog elements targeted by these links. The index is built on first access, then
+ * maintained through the notifications of the indexed catalog elements and links. It is built again when the used
+ * catalog elements change.
+ */
+public class CatalogElementLinkIndex extends AdapterImpl {
+
+  private final CatalogElement root;
+
+  /**
+   * Used catalog elements, with their rank in the order of {@link CatalogElement_AllUsedElementLinks}.
+   */
+  private final Map<CatalogElement, Integer> elements = new HashMap<>();
+
+  /**
+   * Links by target.
+   */
+  private final Map<EObject, Collection<CatalogElementLink>> linksByTarget = new HashMap<>();
+
+  /**
+   * Links by origin.
+   */
+  private final Map<CatalogElementLink, Collection<CatalogElementLink>> linksByOrigin = new HashMap<>();
+
+  /**
+   * Adapted links, indexed or not.
+   */
+  private final Collection<CatalogElementLink> links = new HashSet<>();
+
+  /**
+   * Positions of the owned links of the used catalog elements in the order of
+   * {@link CatalogElement_AllUsedElementLinks}, computed on demand.
+   */
+  private final Map<CatalogElementLink, Integer> positions = new HashMap<>();
+
+  private boolean valid;
+
+  /**
+   * @param root
+   *          the catalog element whose links are indexed
+   */
+  public CatalogElementLinkIndex(CatalogElement root) {
+    this.root = root;
+  }
+
+  /**
+   * @return the catalog element whose links are indexed
+   */
+  public CatalogElement getRoot() {
+    return root;
+  }
+
+  /**
+   * @param targets
+   * @return the first indexed link targeting one of the given elements, in the order of
+   *         {@link CatalogElement_AllUsedElementLinks}, <code>null</code> if none
+   */
+  public CatalogElementLink getFirstLink(EObject... targets) {
+    ensureValid();
+    CatalogElementLink result = null;
+    for (EObject target : targets) {
+      if (target != null) {
+        result = first(result, linksByTarget.get(target));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param link
+   * @return the first indexed link whose origin is the given link, or which is the origin of the given link, in the
+   *         order of {@link CatalogElement_AllUsedElementLinks}, <code>null</code> if none
+   */
+  public CatalogElementLink getFirstOppositeLink(CatalogElementLink link) {
+    ensureValid();
+    CatalogElementLink result = first(null, linksByOrigin.get(link));
+    CatalogElementLink origin = link.getOrigin();
+    if (origin != null && isIndexed(origin)) {
+      result = first(result, Collections.singleton(origin));
+    }
+    return result;
+  }
+
+  /**
+   * @param element
+   * @return whether the given catalog element is the root or is used by it
+   */
+  public boolean isUsed(CatalogElement element) {
+    ensureValid();
+    return elements.containsKey(element);
+  }
+
+  /**
+   * Removes the index from the indexed elements.
+   */
+  public void dispose() {
+    clear();
+  }
+
+  @Override
+  public void notifyChanged(Notification notification) {
+    if (!valid || notification.isTouch() || notification.getEventType() == Notification.REMOVING_ADAPTER) {
+      return;
+    }
+    Object feature = notification.getFeature();
+    if (feature == RePackage.Literals.CATALOG_ELEMENT__OWNED_LINKS) {
+      positions.clear();
+      if (notification.getEventType() == Notification.MOVE) {
+        return;
+      }
+      for (CatalogElementLink link : getLinks(notification.getOldValue())) {
+        if (link.getTarget() instanceof CatalogElement) {
+          valid = false;
+          return;
+        }
+        unindex(link, link.getTarget(), link.getOrigin());
+        link.eAdapters().remove(this);
+        links.remove(link);
+      }
+      for (CatalogElementLink link : getLinks(notification.getNewValue())) {
+        if (link.getTarget() instanceof CatalogElement) {
+          valid = false;
+          return;
+        }
+        addLink(link);
+      }
+    } else if (feature == RePackage.Literals.CATALOG_ELEMENT_LINK__TARGET) {
+      if (notification.getOldValue() instanceof CatalogElement || notification.getNewValue() instanceof CatalogElement) {
+        valid = false;
+        return;
+      }
+      CatalogElementLink link = (CatalogElementLink) notification.getNotifier();
+      unindex(link, (EObject) notification.getOldValue(), link.getOrigin());
+      index(link, link.getTarget(), link.getOrigin());
+    } else if (feature == RePackage.Literals.CATALOG_ELEMENT_LINK__ORIGIN) {
+      CatalogElementLink link = (CatalogElementLink) notification.getNotifier();
+      unindex(link, link.getTarget(), (CatalogElementLink) notification.getOldValue());
+      index(link, link.getTarget(), link.getOrigin());
+    }
+  }
+
+  private Collection<CatalogElementLink> getLinks(Object value) {
+    if (value instanceof CatalogElementLink) {
+      return Collections.singleton((CatalogElementLink) value);
+    }
+    if (value instanceof Collection<?>) {
+      Collection<CatalogElementLink> result = new ArrayList<>();
+      for (Object element : (Collection<?>) value) {
+        if (element instanceof CatalogElementLink) {
+          result.add((CatalogElementLink) element);
+        }
+      }
+      return result;
+    }
+    return Collections.emptyList();
+  }
+
+  private void ensureValid() {
+    if (!valid) {
+      clear();
+      build();
+      valid = true;
+    }
+  }
+
+  /**
+   * Browses the used catalog elements breadth-first, as {@link CatalogElement_AllUsedElementLinks} does.
+   */
+  private void build() {
+    Deque<CatalogElement> toVisit = new ArrayDeque<>();
+    toVisit.add(root);
+    elements.put(root, 0);
+    while (!toVisit.isEmpty()) {
+      CatalogElement element = toVisit.removeFirst();
+      element.eAdapters().add(this);
+      for (CatalogElementLink link : element.getOwnedLinks()) {
+        addLink(link);
+        EObject target = link.getTarget();
+        if (target instanceof CatalogElement && !elements.containsKey(target)) {
+          elements.put((CatalogElement) target, elements.size());
+          toVisit.addLast((CatalogElement) target);
+        }
+      }
+    }
+  }
+
+  private void clear() {
+    for (CatalogElement element : elements.keySet()) {
+      element.eAdapters().remove(this);
+    }
+    for (CatalogElementLink link : links) {
+      link.eAdapters().remove(this);
+    }
+    elements.clear();
+    links.clear();
+    linksByTarget.clear();
+    linksByOrigin.clear();
+    positions.clear();
+    valid = false;
+  }
+
+  private void addLink(CatalogElementLink link) {
+    if (links.add(link)) {
+      link.eAdapters().add(this);
+      index(link, link.getTarget(), link.getOrigin());
+    }
+  }
+
+  private void index(CatalogElementLink link, EObject target, CatalogElementLink origin) {
+    // As the query, links without target are ignored.
+    if (target != null) {
+      linksByTarget.computeIfAbsent(target, t -> new LinkedHashSet<>()).add(link);
+      if (origin != null) {
+        linksByOrigin.computeIfAbsent(origin, o -> new LinkedHashSet<>()).add(link);
+      }
+    }
+  }
+
+  private void unindex(CatalogElementLink link, EObject target, CatalogElementLink origin) {
+    if (target != null) {
+      remove(linksByTarget, target, link);
+      if (origin != null) {
+        remove(linksByOrigin, origin, link);
+      }
+    }
+  }
+
+  private <K> void remove(Map<K, Collection<CatalogElementLink>> map, K key, CatalogElementLink link) {
+    Collection<CatalogElementLink> values = map.get(key);
+    if (values != null) {
+      values.remove(link);
+      if (values.isEmpty()) {
+        map.remove(key);
+      }
+    }
+  }
+
+  private boolean isIndexed(CatalogElementLink link) {
+    Collection<CatalogElementLink> values = linksByTarget.get(link.getTarget());
+    return values != null && values.contains(link);
+  }
+
+  /**
+   * @return the first link among the given link and the given candidates
+   */
+  private CatalogElementLink first(CatalogElementLink link, Collection<CatalogElementLink> candidates) {
+    CatalogElementLink result = link;
+    if (candidates != null) {
+      for (CatalogElementLink candidate : candidates) {
+        if (result == null || compare(candidate, result) < 0) {
+          result = candidate;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Compares links by rank of their catalog element, then by position in their catalog element. Links which are not
+   * owned by a used catalog element come last.
+   */
+  private int compare(CatalogElementLink link1, CatalogElementLink link2) {
+    if (positions.isEmpty()) {
+      computePositions();
+    }
+    return Integer.compare(positions.getOrDefault(link1, Integer.MAX_VALUE),
+        positions.getOrDefault(link2, Integer.MAX_VALUE));
+  }
+
+  private void computePositions() {
+    CatalogElement[] ranked = new CatalogElement[elements.size()];
+    for (Map.Entry<CatalogElement, Integer> entry : elements.entrySet()) {
+      ranked[entry.getValue()] = entry.getKey();
+    }
+    for (CatalogElement element : ranked) {
+      for (CatalogElementLink link : element.getOwnedLinks()) {
+        positions.putIfAbsent(link, positions.size());
+      }
+    }
+  }
+}
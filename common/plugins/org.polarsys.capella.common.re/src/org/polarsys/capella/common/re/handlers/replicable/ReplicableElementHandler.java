@@ -12,16 +12,24 @@
  *******************************************************************************/
 package org.polarsys.capella.common.re.handlers.replicable;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.common.util.AbstractTreeIterator;
 import org.eclipse.emf.ecore.EObject;
 import org.polarsys.capella.common.flexibility.properties.schema.IPropertyContext;
 import org.polarsys.capella.common.helpers.EObjectExt;
@@ -64,6 +72,8 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
 
   public static final String LINKS = "LINKS";
 
+  public static final String LINK_INDEXES = "REH_LINK_INDEXES";
+
   public static final String COMPLIANCY_BLACK_BOX_NAME = "BLACK_BOX"; //$NON-NLS-1$
   public static final String COMPLIANCY_CONSTRAINT_REUSE_NAME = "CONSTRAINT_REUSE"; //$NON-NLS-1$
   public static final String COMPLIANCY_INHERITANCY_REUSE_NAME = "INHERITANCY_REUSE"; //$NON-NLS-1$
@@ -145,6 +155,32 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
     return (Collection<CatalogElementLink>) context.get(LINKS);
   }
 
+  /**
+   * Returns the index of the links of the given catalog element, kept in the context.
+   */
+  public CatalogElementLinkIndex getLinkIndex(IContext context, CatalogElement element) {
+    if (!context.exists(LINK_INDEXES)) {
+      context.put(LINK_INDEXES, new HashMap<CatalogElement, CatalogElementLinkIndex>());
+    }
+    Map<CatalogElement, CatalogElementLinkIndex> indexes = (Map<CatalogElement, CatalogElementLinkIndex>) context
+        .get(LINK_INDEXES);
+    return indexes.computeIfAbsent(element, CatalogElementLinkIndex::new);
+  }
+
+  /**
+   * Disposes the link indexes kept in the context.
+   */
+  public void disposeLinkIndexes(IContext context) {
+    if (context.exists(LINK_INDEXES)) {
+      Map<CatalogElement, CatalogElementLinkIndex> indexes = (Map<CatalogElement, CatalogElementLinkIndex>) context
+          .get(LINK_INDEXES);
+      for (CatalogElementLinkIndex index : indexes.values()) {
+        index.dispose();
+      }
+      indexes.clear();
+    }
+  }
+
   public CatalogElementPkg getRootPackage(EObject object) {
     //TODO SHARED
     return ReFactory.eINSTANCE.createCatalogElementPkg();
@@ -218,21 +254,21 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
 
   public CatalogElementLink addLink(IContext context, CatalogElement element, EObject value, EObject oppositeValue) {
 
-    for (CatalogElementLink link : ReplicableElementHandlerHelper.getInstance(context).getAllElementsLinks(element)) {
+    // First link of the element or of its used elements targeting the value or the opposite value
+    CatalogElementLink link = getLinkIndex(context, element).getFirstLink(value, oppositeValue);
+    if (link != null) {
       if (value.equals(link.getTarget())) {
         return null;
       }
-      if ((oppositeValue != null) && oppositeValue.equals(link.getTarget())) {
-        if (ContextScopeHandlerHelper.getInstance(context).contains(IReConstants.VIRTUAL_LINKS, link, context)) {
-          link.setTarget(value);
-          link.setSource(element);
-          ContextScopeHandlerHelper.getInstance(context).remove(IReConstants.VIRTUAL_LINKS, link, context);
-        }
-        return link;
+      if (ContextScopeHandlerHelper.getInstance(context).contains(IReConstants.VIRTUAL_LINKS, link, context)) {
+        link.setTarget(value);
+        link.setSource(element);
+        ContextScopeHandlerHelper.getInstance(context).remove(IReConstants.VIRTUAL_LINKS, link, context);
       }
+      return link;
     }
 
-    CatalogElementLink link = ReFactory.eINSTANCE.createCatalogElementLink();
+    link = ReFactory.eINSTANCE.createCatalogElementLink();
     link.setSource(element);
     link.setTarget(value);
     getLinks(context).add(link);
@@ -241,18 +277,16 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
   }
 
   public boolean isIndirectlyReferencedBy(EObject element, CatalogElement re, IContext context) {
-    LinkedList<CatalogElement> elements = new LinkedList<CatalogElement>();
-    LinkedList<CatalogElement> visited = new LinkedList<CatalogElement>();
+    Deque<CatalogElement> elements = new ArrayDeque<>();
+    Set<CatalogElement> visited = new HashSet<>();
 
     elements.addAll(getIndirectlyReplicableElements(context, (Collection) Collections.singleton(element)));
 
     while (!(elements.isEmpty())) {
       CatalogElement elt = elements.removeFirst();
 
-      if (!visited.contains(elt)) {
-        visited.add(elt);
-
-        if ((elt != null) && elt.equals(re)) {
+      if (visited.add(elt)) {
+        if (elt.equals(re)) {
           return true;
         }
         elements.addAll(getLinkingReplicableElements(context, (Collection) Collections.singleton(elt)));
@@ -390,7 +424,8 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
 
     if (!selection.isEmpty()) {
       CatalogElementPkg pkg = ReplicableElementHandlerHelper.getInstance(context).getRootPackage((EObject) selection.iterator().next());
-      for (CatalogElement element : getAllOwnedCatalogElements(pkg)) {
+      for (Iterator<CatalogElement> iterator = getAllOwnedCatalogElementsIterator(pkg); iterator.hasNext();) {
+        CatalogElement element = iterator.next();
         if (element.getKind() == CatalogElementKind.REC) {
           elements.add(element);
         }
@@ -402,26 +437,42 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
   public Collection<CatalogElement> getAllOwnedCatalogElements(CatalogElement element) {
     Collection<CatalogElement> elements = new ArrayList<>();
     if (element != null) {
-      for (CatalogElement ownedElement : element.getOwnedElements()) {
-        elements.add(ownedElement);
-        elements.addAll(getAllOwnedCatalogElements(ownedElement));
-      }
+      getAllOwnedCatalogElementsIterator(element).forEachRemaining(elements::add);
     }
     return elements;
   }
 
   public Collection<CatalogElement> getAllOwnedCatalogElements(CatalogElementPkg element) {
     Collection<CatalogElement> elements = new ArrayList<>();
-    for (CatalogElement ownedElement : element.getOwnedElements()) {
-      elements.add(ownedElement);
-      elements.addAll(getAllOwnedCatalogElements(ownedElement));
-    }
-    for (CatalogElementPkg ownedElementPkg : element.getOwnedElementPkgs()) {
-      elements.addAll(getAllOwnedCatalogElements(ownedElementPkg));
-    }
+    getAllOwnedCatalogElementsIterator(element).forEachRemaining(elements::add);
     return elements;
   }
 
+  /**
+   * Returns an iterator on the catalog elements owned by the given catalog element or package, recursively. Each
+   * catalog element is followed by its owned catalog elements, then by the ones of the owned packages.
+   */
+  public Iterator<CatalogElement> getAllOwnedCatalogElementsIterator(EObject element) {
+    Iterator<Object> contents = new AbstractTreeIterator<Object>(element, false) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected Iterator<?> getChildren(Object object) {
+        if (object instanceof CatalogElement) {
+          return ((CatalogElement) object).getOwnedElements().iterator();
+        }
+        if (object instanceof CatalogElementPkg) {
+          CatalogElementPkg pkg = (CatalogElementPkg) object;
+          return Stream.concat(pkg.getOwnedElements().stream(), pkg.getOwnedElementPkgs().stream()).iterator();
+        }
+        return Collections.emptyIterator();
+      }
+    };
+    Iterable<Object> iterable = () -> contents;
+    return StreamSupport.stream(iterable.spliterator(), false).filter(CatalogElement.class::isInstance)
+        .map(CatalogElement.class::cast).iterator();
+  }
+
   public String getInitialReplicaName(IContext context, CatalogElementPkg pkg) {
     return ("RPL" + (pkg == null ? "" : pkg.getOwnedElements().size() + 1));
   }
@@ -471,19 +522,21 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
    * @param source
    */
   public Collection<CatalogElement> getAllUsedReplicableElements(CatalogElement source) {
-    LinkedList<CatalogElement> toVisit = new LinkedList<>();
-    LinkedList<CatalogElement> visited = new LinkedList<>();
+    Deque<CatalogElement> toVisit = new ArrayDeque<>();
+    Set<CatalogElement> visited = new LinkedHashSet<>();
+    if (source == null) {
+      // A null source is the single element of the result
+      visited.add(null);
+      return visited;
+    }
     toVisit.add(source);
 
     while (!toVisit.isEmpty()) {
       CatalogElement visitedRE = toVisit.removeFirst();
-      if (!visited.contains(visitedRE)) {
-        visited.add(visitedRE);
-        if (visitedRE != null) {
-          for (CatalogElementLink link : visitedRE.getOwnedLinks()) {
-            if ((link != null) && (link.getTarget() != null) && (link.getTarget() instanceof CatalogElement)) {
-              toVisit.addLast((CatalogElement) link.getTarget());
-            }
+      if (visited.add(visitedRE)) {
+        for (CatalogElementLink link : visitedRE.getOwnedLinks()) {
+          if ((link != null) && (link.getTarget() instanceof CatalogElement)) {
+            toVisit.addLast((CatalogElement) link.getTarget());
           }
         }
       }
@@ -504,6 +557,7 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
    */
   @Override
   public IStatus dispose(IContext context) {
+    disposeLinkIndexes(context);
     return Status.OK_STATUS;
   }
 
@@ -604,6 +658,7 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
 
     createdLinks.clear();
     virtualLinks.clear();
+    disposeLinkIndexes(context);
   }
 
   /**
@@ -678,17 +733,10 @@ public class ReplicableElementHandler implements IReplicableElementHandler {
       element = source;
     }
 
-    Collection<CatalogElementLink> usedLinks = ReplicableElementHandlerHelper.getInstance(context).getAllElementsLinks(element, new QueryContext());
-    for (CatalogElementLink usedLink : usedLinks) {
-      if ((usedLink != null) && (usedLink.getOrigin() != null) && usedLink.getOrigin().equals(link)) {
-        return usedLink;
-      }
-      if ((link != null) && (link.getOrigin() != null) && link.getOrigin().equals(usedLink)) {
-        return usedLink;
-      }
+    if (element == null) {
+      return null;
     }
-
-    return null;
+    return getLinkIndex(context, element).getFirstOppositeLink(link);
   }
 
   public CatalogElement createInitialReplica(CatalogElement source, CatalogElement target, IContext context) {
@@ -90,6 +90,40 @@ abstract class AbstractMarkerViewContentProvider implements ITreeContentProvider
     return helper.findMarkers(markerResource, null);
   }
 
+  /**
+   * Adds the markers without refreshing the viewer, then refreshes it once.
+   */
+  @Override
+  public synchronized void markersAdded(Collection<IMarker> markers) {
+    IViewerRefresh refresh = viewerRefresh;
+    setViewerRefresh(null);
+    try {
+      for (IMarker marker : markers) {
+        markerAdded(marker);
+      }
+    } finally {
+      viewerRefresh = refresh;
+    }
+    viewerRefresh.refresh();
+  }
+
+  /**
+   * Deletes the markers without refreshing the viewer, then refreshes it once.
+   */
+  @Override
+  public synchronized void markersDeleted(Collection<IMarker> markers) {
+    IViewerRefresh refresh = viewerRefresh;
+    setViewerRefresh(null);
+    try {
+      for (IMarker marker : markers) {
+        markerDeleted(marker);
+      }
+    } finally {
+      viewerRefresh = refresh;
+    }
+    viewerRefresh.refresh();
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -14,6 +14,8 @@
 package org.polarsys.capella.common.tools.report.appenders.reportlogview;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 
 import org.eclipse.core.resources.IMarker;
@@ -103,6 +105,15 @@ class CanonicalContentProvider extends AbstractMarkerViewContentProvider impleme
     markers.remove(marker);
     viewerRefresh.refresh();
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void markersDeleted(Collection<IMarker> deletedMarkers) {
+    markers.removeAll(new HashSet<IMarker>(deletedMarkers));
+    viewerRefresh.refresh();
+  }
   
   
 
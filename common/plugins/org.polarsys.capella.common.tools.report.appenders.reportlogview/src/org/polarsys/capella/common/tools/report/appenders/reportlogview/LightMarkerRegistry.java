@@ -16,9 +16,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
@@ -42,23 +47,51 @@ import org.polarsys.capella.common.mdsofa.common.constant.ICommonConstants;
  * - All marker attributes have to be set upon creation with the help of a callback argument (see createMarker() below).
  * <br>
  * This class is thread safe.<br>
+ * Markers are indexed by resource, rule id and model element id. Markers created or deleted together (see
+ * {@link #createMarkers(IResource, Collection, String, IMarkerModification)}, {@link #deleteMarkers(Collection)} and
+ * {@link #runInBatch(Runnable)}) are notified to listeners as a single batch.<br>
  * Listeners are notified on the thread that created/deleted a marker.
  */
 public class LightMarkerRegistry implements IMarkerSource {
 
   private static final LightMarkerRegistry _instance = new LightMarkerRegistry();
 
-  private List<IMarker> _registry = Collections.synchronizedList(new ArrayList<IMarker>());
+  /**
+   * Markers in creation order.
+   */
+  private final Map<Long, IMarker> _registry = new ConcurrentSkipListMap<Long, IMarker>();
+
+  private final AtomicLong _sequence = new AtomicLong();
+
+  private final Map<IResource, Set<IMarker>> _markersByResource = new ConcurrentHashMap<IResource, Set<IMarker>>();
+
+  private final Map<String, Set<IMarker>> _markersByRuleId = new ConcurrentHashMap<String, Set<IMarker>>();
+
+  private final Map<String, Set<IMarker>> _markersByElementId = new ConcurrentHashMap<String, Set<IMarker>>();
+
+  /**
+   * Notifications delayed until the end of the current batch of the thread, see {@link #runInBatch(Runnable)}.
+   */
+  private final ThreadLocal<Batch> _batch = new ThreadLocal<Batch>();
 
   /**
    * Legacy content provider style observers
    **/
-  List<IContentProvider> legacyObservers = Collections.synchronizedList(new ArrayList<IContentProvider>());
+  List<IContentProvider> legacyObservers = new CopyOnWriteArrayList<IContentProvider>();
 
   /**
    * Listeners
    */
-  List<IMarkerSourceListener> listeners = Collections.synchronizedList(new ArrayList<IMarkerSourceListener>());
+  List<IMarkerSourceListener> listeners = new CopyOnWriteArrayList<IMarkerSourceListener>();
+
+  /**
+   * Markers created and deleted during a batch. A marker created then deleted during the batch is in none of them.
+   */
+  private static class Batch {
+    int depth;
+    final Set<IMarker> added = new LinkedHashSet<IMarker>();
+    final List<IMarker> deleted = new ArrayList<IMarker>();
+  }
 
   /**
    * Get the global instance. This method is thread safe.
@@ -95,20 +128,82 @@ public class LightMarkerRegistry implements IMarkerSource {
   }
 
   protected void notifyRegistryChanged(IMarker oldValue, IMarker newValue) {
-    List<IContentProvider> oldObservers = getObservers();
-    synchronized (oldObservers) {
-      for (IContentProvider observer : oldObservers) {
-        observer.inputChanged(null, oldValue, newValue);
+    if ((oldValue == null) && (newValue != null)) {
+      notifyMarkersAdded(Collections.singletonList(newValue));
+    } else if ((oldValue != null) && (newValue == null)) {
+      notifyMarkersDeleted(Collections.singletonList(oldValue));
+    }
+  }
+
+  /**
+   * Notifies listeners about created markers, or delays the notification until the end of the current batch.
+   */
+  protected void notifyMarkersAdded(List<IMarker> markers) {
+    Batch batch = _batch.get();
+    if (batch != null) {
+      batch.added.addAll(markers);
+      return;
+    }
+    for (IContentProvider observer : getObservers()) {
+      for (IMarker marker : markers) {
+        observer.inputChanged(null, null, marker);
+      }
+    }
+    Collection<IMarker> unmodifiableMarkers = Collections.unmodifiableList(markers);
+    for (IMarkerSourceListener listener : listeners) {
+      listener.markersAdded(unmodifiableMarkers);
+    }
+  }
+
+  /**
+   * Notifies listeners about deleted markers, or delays the notification until the end of the current batch.
+   */
+  protected void notifyMarkersDeleted(List<IMarker> markers) {
+    Batch batch = _batch.get();
+    if (batch != null) {
+      for (IMarker marker : markers) {
+        // Listeners were not notified about markers created during the batch
+        if (!batch.added.remove(marker)) {
+          batch.deleted.add(marker);
+        }
+      }
+      return;
+    }
+    for (IContentProvider observer : getObservers()) {
+      for (IMarker marker : markers) {
+        observer.inputChanged(null, marker, null);
       }
     }
-    synchronized (listeners) {
-      if ((oldValue == null) && (newValue != null)) {
-        for (IMarkerSourceListener listener : listeners) {
-          listener.markerAdded(newValue);
+    Collection<IMarker> unmodifiableMarkers = Collections.unmodifiableList(markers);
+    for (IMarkerSourceListener listener : listeners) {
+      listener.markersDeleted(unmodifiableMarkers);
+    }
+  }
+
+  /**
+   * Runs the given operation, then notifies listeners about all markers it created or deleted, with one event for
+   * created markers and one for deleted ones. Batches may be nested: notifications are sent at the end of the outermost
+   * one. Only markers created or deleted by the calling thread are part of the batch. Markers created then deleted
+   * during the batch are not notified at all.
+   */
+  public void runInBatch(Runnable operation) {
+    Batch batch = _batch.get();
+    if (batch == null) {
+      batch = new Batch();
+      _batch.set(batch);
+    }
+    batch.depth++;
+    try {
+      operation.run();
+    } finally {
+      batch.depth--;
+      if (batch.depth == 0) {
+        _batch.remove();
+        if (!batch.deleted.isEmpty()) {
+          notifyMarkersDeleted(batch.deleted);
         }
-      } else if ((oldValue != null) && (newValue == null)) {
-        for (IMarkerSourceListener listener : listeners) {
-          listener.markerDeleted(oldValue);
+        if (!batch.added.isEmpty()) {
+          notifyMarkersAdded(new ArrayList<IMarker>(batch.added));
         }
       }
     }
@@ -150,42 +245,169 @@ public class LightMarkerRegistry implements IMarkerSource {
    */
   public IMarker createMarker(IResource fileResource, Diagnostic diagnostic, String markerType,
       IMarkerModification modification) {
+    IMarker marker = newMarker(fileResource, diagnostic, markerType, modification);
+    notifyRegistryChanged(null, marker);
+    return marker;
+  }
+
+  /**
+   * Create a marker for each given diagnostic, and notify listeners once about all created markers.
+   * 
+   * @param fileResource
+   *          the resource to which to attach the markers
+   * @param diagnostics
+   *          the diagnostics that back the message, severity and elements of each marker
+   * @param modification
+   *          a callback that may be used to tune each marker before listeners are notified about its creation. may be
+   *          null.
+   * @return the created markers, in the order of the given diagnostics
+   */
+  public List<IMarker> createMarkers(IResource fileResource, Collection<? extends Diagnostic> diagnostics,
+      String markerType, IMarkerModification modification) {
+    List<IMarker> markers = new ArrayList<IMarker>(diagnostics.size());
+    for (Diagnostic diagnostic : diagnostics) {
+      markers.add(newMarker(fileResource, diagnostic, markerType, modification));
+    }
+    if (!markers.isEmpty()) {
+      notifyMarkersAdded(markers);
+    }
+    return markers;
+  }
+
+  private IMarker newMarker(IResource fileResource, Diagnostic diagnostic, String markerType,
+      IMarkerModification modification) {
     LightMarker marker = new LightMarker(fileResource, markerType, diagnostic);
 
     if (modification != null) {
       modification.modify(marker);
     }
 
-    _registry.add(marker);
-    notifyRegistryChanged(null, marker);
+    // Indexed first, so that a concurrent deletion finds its keys
+    index(marker);
+    _registry.put(Long.valueOf(marker.sequence), marker);
     return marker;
   }
 
+  /**
+   * Delete the given markers, and notify listeners once about all deleted markers. Markers that are not registered
+   * anymore are ignored.
+   */
+  public void deleteMarkers(Collection<? extends IMarker> markers) {
+    List<IMarker> deleted = new ArrayList<IMarker>(markers.size());
+    for (IMarker marker : markers) {
+      if (unregister(marker)) {
+        deleted.add(marker);
+      }
+    }
+    if (!deleted.isEmpty()) {
+      notifyMarkersDeleted(deleted);
+    }
+  }
+
+  /**
+   * Remove the given marker from the registry and its indexes.
+   * 
+   * @return whether the marker was registered
+   */
+  private boolean unregister(IMarker marker) {
+    if (!(marker instanceof LightMarker) || !_registry.remove(Long.valueOf(((LightMarker) marker).sequence), marker)) {
+      return false;
+    }
+    unindex((LightMarker) marker);
+    return true;
+  }
+
+  private void index(LightMarker marker) {
+    // Keys are kept on the marker: element ids may change before the marker is deleted
+    marker.indexedRuleId = MarkerViewHelper.getRuleID(marker, true);
+    marker.indexedElementIds = getElementIds(marker);
+    addToIndex(_markersByResource, marker.getResource(), marker);
+    addToIndex(_markersByRuleId, marker.indexedRuleId, marker);
+    for (String elementId : marker.indexedElementIds) {
+      addToIndex(_markersByElementId, elementId, marker);
+    }
+  }
+
+  private void unindex(LightMarker marker) {
+    removeFromIndex(_markersByResource, marker.getResource(), marker);
+    removeFromIndex(_markersByRuleId, marker.indexedRuleId, marker);
+    for (String elementId : marker.indexedElementIds) {
+      removeFromIndex(_markersByElementId, elementId, marker);
+    }
+  }
+
+  private Collection<String> getElementIds(IMarker marker) {
+    Collection<String> ids = new ArrayList<String>(1);
+    for (EObject element : MarkerViewHelper.getModelElementsFromMarker(marker)) {
+      if (element instanceof ModelElement && ((ModelElement) element).getId() != null) {
+        ids.add(((ModelElement) element).getId());
+      }
+    }
+    return ids;
+  }
+
+  private static <K> void addToIndex(Map<K, Set<IMarker>> index, K key, IMarker marker) {
+    if (key != null) {
+      index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(marker);
+    }
+  }
+
+  private static <K> void removeFromIndex(Map<K, Set<IMarker>> index, K key, IMarker marker) {
+    if (key != null) {
+      index.computeIfPresent(key, (k, markers) -> markers.remove(marker) && markers.isEmpty() ? null : markers);
+    }
+  }
+
+  private static Collection<IMarker> getIndexed(Map<String, Set<IMarker>> index, String key) {
+    Set<IMarker> markers = (key == null) ? null : index.get(key);
+    return (markers == null) ? Collections.<IMarker> emptySet() : Collections.unmodifiableSet(markers);
+  }
+
   public boolean hasMarkers() {
     return !_registry.isEmpty();
   }
 
   /**
-   * Returns an unmodifiable view of markers stored by this IMarkerSource. Deleting a marker in this view while
-   * iterating over its contents will throw a ConcurrentModificationException.
+   * Returns an unmodifiable view of markers stored by this IMarkerSource, in creation order. The view reflects
+   * concurrent creations and deletions without throwing ConcurrentModificationException.
    */
   public Collection<IMarker> getMarkers() {
-    return Collections.unmodifiableCollection(_registry);
+    return Collections.unmodifiableCollection(_registry.values());
+  }
+
+  /**
+   * Returns an unmodifiable view of markers attached to the given resource.
+   */
+  public Collection<IMarker> getMarkers(IResource resource) {
+    Set<IMarker> markers = (resource == null) ? null : _markersByResource.get(resource);
+    return (markers == null) ? Collections.<IMarker> emptySet() : Collections.unmodifiableSet(markers);
+  }
+
+  /**
+   * Returns an unmodifiable view of markers raised by the given rule.
+   * 
+   * @param ruleId
+   *          a qualified rule id, see {@link MarkerViewHelper#getRuleID(IMarker, boolean)}
+   */
+  public Collection<IMarker> getMarkersByRuleId(String ruleId) {
+    return getIndexed(_markersByRuleId, ruleId);
+  }
+
+  /**
+   * Returns an unmodifiable view of markers about the model element with the given id.
+   */
+  public Collection<IMarker> getMarkersByElementId(String elementId) {
+    return getIndexed(_markersByElementId, elementId);
   }
 
   public void purgeMarkers() {
-    Iterator<IMarker> markers = _registry.iterator();
-    while (markers.hasNext()) {
-      IMarker marker = markers.next();
+    List<IMarker> purgeable = new ArrayList<IMarker>();
+    for (IMarker marker : _registry.values()) {
       if (isPurgeable(marker)) {
-        try {
-          markers.remove();
-          marker.delete();
-        } catch (Exception e) {
-          // Nothing here
-        }
+        purgeable.add(marker);
       }
     }
+    deleteMarkers(purgeable);
   }
 
   protected boolean isPurgeable(IMarker marker) {
@@ -203,6 +425,13 @@ public class LightMarkerRegistry implements IMarkerSource {
 
     HashMap<String, Object> attributes;
 
+    // Position in the registry
+    final long sequence = _sequence.incrementAndGet();
+
+    // Keys of the marker in the rule id and element id indexes
+    String indexedRuleId;
+    Collection<String> indexedElementIds = Collections.emptyList();
+
     // Some classic attributes
     String type;
     long id;
@@ -254,8 +483,9 @@ public class LightMarkerRegistry implements IMarkerSource {
      */
     @SuppressWarnings("synthetic-access")
     public void delete() throws CoreException {
-      _registry.remove(this);
-      notifyRegistryChanged(this, null);
+      if (unregister(this)) {
+        notifyRegistryChanged(this, null);
+      }
     }
 
     /**
@@ -263,7 +493,7 @@ public class LightMarkerRegistry implements IMarkerSource {
      */
     @SuppressWarnings("synthetic-access")
     public boolean exists() {
-      return _registry.contains(this);
+      return _registry.get(Long.valueOf(sequence)) == this;
     }
 
     /**
@@ -19,10 +19,12 @@
 package org.polarsys.capella.core.transition.common.transposer;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -90,60 +92,45 @@ public class ExtendedTopologicalSorter {
   }
 
   /**
-   * Check if a {@link Vertex} is independant according to a list of other {@link Vertex}. 
-   * If all the elements on which it depends (if any) are out of this list, we consider 
-   * that it is independent of the list.
-   * @param current the {@link Vertex} which we want to know if it is independent
-   * @param toSort list of {@link Vertex} against which we want to know if the given {@link Vertex} is independent
-   * @return true if independant, false otherwise.
+   * Count, for each vertex to sort, its outgoing edges which are not backtracks and which target a vertex to sort. A
+   * vertex is independent of the remaining vertices once its count is zero.
+   * @param dependents filled with, for each vertex, the sources of the counted edges targeting it
+   * @return the count of each vertex to sort
    */
-  private boolean isIndependantInTypeSet(Vertex<?> current, Set<Vertex<?>> toSort) {
-    boolean independant = true;
-    Iterator<Edge<?>> iterator = current.getOutgoingEdges().iterator();
-
-    while (independant && iterator.hasNext()) {
-      Edge<?> currentedge = iterator.next();
-
-      if (backtracks.contains(currentedge)) {
-        independant = true;
-      } else {
-        Vertex<?> currentType = currentedge.getTarget();
-        independant = (independant && !toSort.contains(currentType));
+  private Map<Vertex<?>, int[]> countDependencies(Set<Vertex<?>> toSort, Map<Vertex<?>, List<Vertex<?>>> dependents) {
+    Map<Vertex<?>, int[]> counts = new HashMap<Vertex<?>, int[]>(toSort.size());
+    for (Vertex<?> current : toSort) {
+      int count = 0;
+      for (Edge<?> edge : current.getOutgoingEdges()) {
+        Vertex<?> target = edge.getTarget();
+        if (!backtracks.contains(edge) && toSort.contains(target)) {
+          count++;
+          dependents.computeIfAbsent(target, t -> new ArrayList<Vertex<?>>()).add(current);
+        }
       }
+      counts.put(current, new int[] { count });
     }
-
-    return independant;
+    return counts;
   }
 
   /**
-   * Determines the individual elements within a set of elements
-   * @param monitor
-   * @param toSort all of the elements in which one seeks the independent
-   * @return all independent elements
+   * @return the vertices to sort without any counted dependency
    */
-  private Set<Vertex<?>> findIndependantsInTypeSet(Set<Vertex<?>> toSort, IProgressMonitor monitor) {
-    Set<Vertex<?>> independants = new HashSet<Vertex<?>>();
-
-    for (Vertex<?> currentType : toSort) {
-      if (isIndependantInTypeSet(currentType, toSort)) {
-        independants.add(currentType);
-        if (monitor != null) {
-          monitor.worked(1 / model.size());
-        }
+  private Set<Vertex<?>> findIndependants(Set<Vertex<?>> toSort, Map<Vertex<?>, int[]> counts) {
+    Set<Vertex<?>> independants = new LinkedHashSet<Vertex<?>>();
+    for (Vertex<?> current : toSort) {
+      if (counts.get(current)[0] == 0) {
+        independants.add(current);
       }
     }
-
-    if (independants.isEmpty()) {
-      lookForOtherBacktracks(toSort);
-      independants = findIndependantsInTypeSet(toSort, monitor);
-    }
     return independants;
   }
 
   /**
    * @param toSort
+   * @return whether new backtracks have been found
    */
-  private void lookForOtherBacktracks(Set<Vertex<?>> toSort) {
+  private boolean lookForOtherBacktracks(Set<Vertex<?>> toSort) {
     // try to break non detected cycles : list non backtracked (non critical) edges, outputs of vertices to sort.
     List<Edge<?>> nonBacktrackedEdges = new ArrayList<Edge<?>>();
     // if possible, only break edges from vertices with multiples output.
@@ -163,15 +150,10 @@ public class ExtendedTopologicalSorter {
       }
     }
 
-    if (nonBacktrackedEdges.isEmpty() && edgesToBreak.isEmpty()) {
-      //stackOverflow! 
-    }
-
     if (!edgesToBreak.isEmpty()) {
-      backtracks.addAll(edgesToBreak);
-    } else {
-      backtracks.addAll(nonBacktrackedEdges);
+      return backtracks.addAll(edgesToBreak);
     }
+    return backtracks.addAll(nonBacktrackedEdges);
   }
 
   /**
@@ -187,22 +169,50 @@ public class ExtendedTopologicalSorter {
   }
 
   /**
-   * Method that makes the sorting of the elements (terminal recursive => the first parameter is an accumulator, it must be initialized with an empty set)
+   * Sort the elements, wave by wave (Kahn's algorithm). A wave contains the elements that only depend on elements of
+   * previous waves. When the remaining elements all depend on each other, some edges are considered as backtracks (see
+   * lookForOtherBacktracks) until a new wave can be found.
    * @param sorted accumulator (contains the processed element, in order)
-   * @param toSort set of not processed elements
-   * @return set of processed elements (at the end of the recursive calls)
+   * @param toSort set of not processed elements, emptied by the sort
+   * @return set of processed elements
    */
   private LinkedHashSet<Vertex<?>> topologicalSort(LinkedHashSet<Vertex<?>> sorted, Set<Vertex<?>> toSort, IProgressMonitor monitor) {
-    Set<Vertex<?>> independants;
+    // Elements of a wave are added in the iteration order of the elements to sort, as a pass over these elements would
+    Map<Vertex<?>, Integer> positions = new HashMap<Vertex<?>, Integer>(toSort.size());
+    for (Vertex<?> current : toSort) {
+      positions.put(current, Integer.valueOf(positions.size()));
+    }
+    Comparator<Vertex<?>> byPosition = Comparator.comparing(positions::get);
+
+    Map<Vertex<?>, List<Vertex<?>>> dependents = new HashMap<Vertex<?>, List<Vertex<?>>>();
+    Map<Vertex<?>, int[]> counts = countDependencies(toSort, dependents);
+    Set<Vertex<?>> independants = findIndependants(toSort, counts);
 
     while (!toSort.isEmpty()) {
-      independants = findIndependantsInTypeSet(toSort, monitor);
-      if (independants.isEmpty()) {
-        throw new TransitionException(new Status(IStatus.ERROR, "Transposer cycle exception", "Transposer cycle exception"));
+      while (independants.isEmpty()) {
+        // Remaining elements are in a cycle: break it, then count again the dependencies of remaining elements
+        if (!lookForOtherBacktracks(toSort)) {
+          throw new TransitionException(new Status(IStatus.ERROR, "Transposer cycle exception", "Transposer cycle exception"));
+        }
+        dependents.clear();
+        counts = countDependencies(toSort, dependents);
+        independants = findIndependants(toSort, counts);
       }
 
       toSort.removeAll(independants);
       sorted.addAll(independants);
+
+      List<Vertex<?>> next = new ArrayList<Vertex<?>>();
+      for (Vertex<?> independant : independants) {
+        for (Vertex<?> dependent : dependents.getOrDefault(independant, Collections.<Vertex<?>> emptyList())) {
+          if (--counts.get(dependent)[0] == 0) {
+            next.add(dependent);
+          }
+        }
+      }
+      next.sort(byPosition);
+      independants = new LinkedHashSet<Vertex<?>>();
+      independants.addAll(next);
     }
 
     return sorted;
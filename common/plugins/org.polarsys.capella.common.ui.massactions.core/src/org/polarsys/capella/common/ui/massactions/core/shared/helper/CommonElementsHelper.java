@@ -12,15 +12,21 @@
  *******************************************************************************/
 package org.polarsys.capella.common.ui.massactions.core.shared.helper;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.nebula.widgets.nattable.data.IRowDataProvider;
 import org.eclipse.nebula.widgets.nattable.layer.cell.ILayerCell;
+import org.polarsys.capella.common.helpers.TransactionHelper;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
 import org.polarsys.capella.common.ui.massactions.core.shared.helper.container.CommonBQInput;
 import org.polarsys.capella.common.ui.massactions.core.shared.helper.container.CommonBQResult;
 import org.polarsys.capella.core.business.queries.IBusinessQuery;
@@ -88,50 +94,15 @@ public class CommonElementsHelper {
   public static CommonBQResult getAllCommonBusinessQueryResults(List<ILayerCell> currentCells,
       Map<String, List<EStructuralFeature>> featureMap, IRowDataProvider<EObject> bodyDataProvider) {
 
-    if (currentCells.isEmpty()) {
-      return CommonBQResult.emptyResult();
-    }
-
-    ILayerCell sampleCell = currentCells.get(0);
-    IBusinessQuery sampleCellQuery = getBusinessQuery(sampleCell, featureMap, bodyDataProvider);
-
-    // no change possible if no elements
-    if (sampleCellQuery == null) {
-      return CommonBQResult.emptyResult();
-    }
-
-    EObject rowObject = bodyDataProvider.getRowObject(sampleCell.getRowIndex());
+    List<IBusinessQuery> queries = new ArrayList<>(currentCells.size());
+    List<EObject> rowObjects = new ArrayList<>(currentCells.size());
 
-    Set<EObject> commonAvailableElements = new HashSet<>(sampleCellQuery.getAvailableElements(rowObject));
-    Set<EObject> commonCurrentElements = new HashSet<>(sampleCellQuery.getCurrentElements(rowObject, false));
-
-    // if more than one elements are selected, add the current elements also
-    // in order to correctly compute all the common elements
-    if (currentCells.size() > 1) {
-      commonAvailableElements.addAll(commonCurrentElements);
+    for (ILayerCell cell : currentCells) {
+      queries.add(getBusinessQuery(cell, featureMap, bodyDataProvider));
+      rowObjects.add(bodyDataProvider.getRowObject(cell.getRowIndex()));
     }
 
-    for (int i = 1; i < currentCells.size(); i++) {
-
-      sampleCell = currentCells.get(i);
-      sampleCellQuery = getBusinessQuery(sampleCell, featureMap, bodyDataProvider);
-
-      // return if no available elements
-      if (sampleCellQuery == null) {
-        return CommonBQResult.emptyResult();
-      }
-
-      rowObject = bodyDataProvider.getRowObject(sampleCell.getRowIndex());
-
-      List<EObject> availableElements = sampleCellQuery.getAvailableElements(rowObject);
-      List<EObject> currentElements = sampleCellQuery.getCurrentElements(rowObject, false);
-
-      availableElements.addAll(currentElements);
-      commonAvailableElements.retainAll(availableElements);
-      commonCurrentElements.retainAll(currentElements);
-    }
-
-    return new CommonBQResult(commonAvailableElements, commonCurrentElements);
+    return getAllCommonBusinessQueryResults(queries, rowObjects);
   }
 
   /**
@@ -143,49 +114,88 @@ public class CommonElementsHelper {
    */
   public static CommonBQResult getAllCommonBusinessQueryResults(List<CommonBQInput> inputElements) {
 
-    if (inputElements.isEmpty()) {
-      return CommonBQResult.emptyResult();
+    List<IBusinessQuery> queries = new ArrayList<>(inputElements.size());
+    List<EObject> rowObjects = new ArrayList<>(inputElements.size());
+
+    for (CommonBQInput input : inputElements) {
+      queries.add(getBusinessQuery(input.getColumnFeature()));
+      rowObjects.add(input.getRowObject());
     }
 
-    CommonBQInput sampleInput = inputElements.get(0);
-    EStructuralFeature sampleFeature = sampleInput.getColumnFeature();
-    IBusinessQuery sampleQuery = getBusinessQuery(sampleFeature);
+    return getAllCommonBusinessQueryResults(queries, rowObjects);
+  }
+
+  /**
+   * Computes the common business query result of the given queries, each one applied on the row object of the same
+   * index.<br>
+   * The row objects of a same query are evaluated in a single batch, see
+   * {@link IBusinessQuery#getAllAvailableElements(java.util.Collection)}, and the model cache is enabled for all the
+   * queries so that they share their candidate computations.
+   */
+  private static CommonBQResult getAllCommonBusinessQueryResults(List<IBusinessQuery> queries,
+      List<EObject> rowObjects) {
 
     // no change possible if no elements
-    if (sampleQuery == null) {
+    if (queries.isEmpty() || queries.contains(null)) {
       return CommonBQResult.emptyResult();
     }
 
-    EObject sampleRowObject = sampleInput.getRowObject();
+    EditingDomain domain = TransactionHelper.getEditingDomain(rowObjects);
+    ModelCache.enable(domain);
+    try {
+      return computeCommonBusinessQueryResults(queries, rowObjects);
+    } finally {
+      ModelCache.disable(domain);
+    }
+  }
 
-    Set<EObject> commonAvailableElements = new HashSet<>(sampleQuery.getAvailableElements(sampleRowObject));
-    Set<EObject> commonCurrentElements = new HashSet<>(sampleQuery.getCurrentElements(sampleRowObject, false));
+  private static CommonBQResult computeCommonBusinessQueryResults(List<IBusinessQuery> queries,
+      List<EObject> rowObjects) {
 
-    // if more than one elements are selected, add the current elements also
-    // in order to correctly compute all the common elements
-    if (inputElements.size() > 1) {
-      commonAvailableElements.addAll(commonCurrentElements);
+    // Row objects of each query, the first cell first
+    Map<IBusinessQuery, Set<EObject>> queryRowObjects = new LinkedHashMap<>();
+    for (int i = 0; i < queries.size(); i++) {
+      queryRowObjects.computeIfAbsent(queries.get(i), query -> new LinkedHashSet<>()).add(rowObjects.get(i));
     }
 
-    for (int i = 1; i < inputElements.size(); i++) {
+    Set<EObject> commonAvailableElements = null;
+    Set<EObject> commonCurrentElements = null;
 
-      sampleInput = inputElements.get(i);
-      sampleFeature = sampleInput.getColumnFeature();
-      sampleQuery = getBusinessQuery(sampleFeature);
+    for (Map.Entry<IBusinessQuery, Set<EObject>> entry : queryRowObjects.entrySet()) {
 
-      // return if no available elements
-      if (sampleQuery == null) {
-        return CommonBQResult.emptyResult();
+      // the remaining queries are not evaluated once there is no common element left
+      if (commonAvailableElements != null && commonAvailableElements.isEmpty() && commonCurrentElements.isEmpty()) {
+        break;
       }
 
-      sampleRowObject = sampleInput.getRowObject();
+      IBusinessQuery query = entry.getKey();
+      Map<EObject, List<EObject>> availableElements = query.getAllAvailableElements(entry.getValue());
+
+      for (EObject rowObject : entry.getValue()) {
+
+        List<EObject> currentElements = query.getCurrentElements(rowObject, false);
 
-      List<EObject> availableElements = sampleQuery.getAvailableElements(sampleRowObject);
-      List<EObject> currentElements = sampleQuery.getCurrentElements(sampleRowObject, false);
+        if (commonAvailableElements == null) {
+          // the first cell gives the order of the results
+          commonAvailableElements = new LinkedHashSet<>(availableElements.get(rowObject));
+          commonCurrentElements = new LinkedHashSet<>(currentElements);
 
-      availableElements.addAll(currentElements);
-      commonAvailableElements.retainAll(availableElements);
-      commonCurrentElements.retainAll(currentElements);
+          // if more than one elements are selected, add the current elements also
+          // in order to correctly compute all the common elements
+          if (queries.size() > 1) {
+            commonAvailableElements.addAll(commonCurrentElements);
+          }
+
+        } else {
+          // hash sets, not to browse the lists for each common element
+          Set<EObject> currentElementSet = new HashSet<>(currentElements);
+          Set<EObject> availableAndCurrentElements = new HashSet<>(availableElements.get(rowObject));
+          availableAndCurrentElements.addAll(currentElementSet);
+
+          commonAvailableElements.retainAll(availableAndCurrentElements);
+          commonCurrentElements.retainAll(currentElementSet);
+        }
+      }
     }
 
     return new CommonBQResult(commonAvailableElements, commonCurrentElements);
@@ -125,7 +125,7 @@ public abstract class AbstractExportDialog extends AbstractViewerDialog {
     // The export operation itself
     //
     if (null != fileName) { // file selection was not canceled
-      boolean result = dataExporter.exportToFile(fileName, getExportableData());
+      boolean result = dataExporter.exportToFile(fileName, getExportableRows());
       if (result) {
         MessageDialog.openInformation(getParentShell(), Messages.exportMetrics, NLS.bind(Messages.exportOk, fileName));
       } else {
@@ -136,6 +136,15 @@ public abstract class AbstractExportDialog extends AbstractViewerDialog {
 
   protected abstract List<String[]> getExportableData();
 
+  /**
+   * Returns the rows written by the export button, the exportable data by default.<br>
+   * Override to compute the rows while they are written, instead of building them all before.
+   * @return the rows
+   */
+  protected Iterable<String[]> getExportableRows() {
+    return getExportableData();
+  }
+
   protected List<String[]> getExportableData(String str) {
     Date date = new Date();
     List<String[]> result = new ArrayList<String[]>();
@@ -13,15 +13,20 @@
 
 package org.polarsys.capella.common.helpers.export;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
+import java.util.Iterator;
 import java.util.List;
 
 import org.polarsys.capella.common.helpers.export.utils.CSVWriter;
 
 /**
- *
+ * Exports rows of columns as CSV.<br>
+ * Rows can be given as a {@link List}, or as an {@link Iterable} or an {@link Iterator} computing them on the fly:
+ * rows are then written as they are pulled, and are not kept in memory.
  */
 public class CSVExporter extends AbstractExporter {
   
@@ -33,22 +38,39 @@ public class CSVExporter extends AbstractExporter {
   }
 
   /**
+   * @param data
+   *          a {@link List}, an {@link Iterable} or an {@link Iterator} of <code>String[]</code>
    * @see org.polarsys.capella.common.helpers.export.AbstractExporter#export(java.io.OutputStream, java.lang.Object)
    */
   @SuppressWarnings("unchecked")
   @Override
   public void export(OutputStream stream, Object data) throws IOException {
-    export(stream, (List<String[]>) data);
+    if (data instanceof Iterator<?>) {
+      export(stream, (Iterator<String[]>) data);
+    } else {
+      export(stream, ((Iterable<String[]>) data).iterator());
+    }
   }
   
   /**
    * @see #export(OutputStream, Object)
    */
   public void export(OutputStream stream, List<String[]> data) throws IOException  {
-        
-    CSVWriter writer = new CSVWriter(stream, this.delimiter, Charset.forName("UTF-8"));
+    export(stream, data.iterator());
+  }
+
+  /**
+   * Writes the given rows as they are pulled from the iterator.
+   * 
+   * @see #export(OutputStream, Object)
+   */
+  public void export(OutputStream stream, Iterator<? extends String[]> rows) throws IOException {
+
+    CSVWriter writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(stream, Charset.forName(charset))),
+        this.delimiter);
     
-    for (String[] line: data) {
+    while (rows.hasNext()) {
+      String[] line = rows.next();
       if (null == line || line.length == 0) {
         writer.endRecord();
       }
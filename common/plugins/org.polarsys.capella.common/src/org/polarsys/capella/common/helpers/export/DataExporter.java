@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.polarsys.capella.common.helpers.export;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -55,7 +56,8 @@ public class DataExporter {
    * @param fileName
    *          the full file path
    * @param data
-   *          the data. format must be compliant with the provided exporters.
+   *          the data. format must be compliant with the provided exporters. Exporters of rows also accept an
+   *          {@link java.util.Iterator} or an {@link Iterable} computing the rows while they are written.
    * @return <code>true</code> whether file was created, <code>false</code> otherwise
    * @see AbstractExporter
    * @see IExporterProvider
@@ -82,7 +84,7 @@ public class DataExporter {
       File file = new File(fileName);
       OutputStream stream = null;
       try {
-        stream = new FileOutputStream(file);
+        stream = new BufferedOutputStream(new FileOutputStream(file));
         exporter.export(stream, data);
       } catch (FileNotFoundException exception) {
         MdeCommonActivator.getDefault().getLog()
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.polarsys.capella.common.helpers.export.utils;
 
+import java.io.BufferedWriter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -382,15 +383,13 @@ public class CSVWriter {
 	}
 
   private void checkInit() throws IOException {
-    try (FileOutputStream fileOutputStream = new FileOutputStream(_fileName)) {
-      if (!_initialized) {
-        if (_fileName != null) {
-          _outputStream = new PrintWriter(new OutputStreamWriter(fileOutputStream, _charset));
-        }
-        _initialized = true;
+    // Called for each column: the file is opened once, on first write
+    if (!_initialized) {
+      if (_fileName != null) {
+        _outputStream = new PrintWriter(
+            new BufferedWriter(new OutputStreamWriter(new FileOutputStream(_fileName), _charset)));
       }
-    } catch (Exception e) {
-      // Fail silently
+      _initialized = true;
     }
   }
 
@@ -44,14 +44,7 @@ public class GetAllQueries implements IGetAllQueries {
     if (source == null || targetType == null)
       return result;
 
-    if (targetType.isAssignableFrom(source.getClass())) {
-      result.add(source);
-    }
-
-    EList<EObject> containedElements = source.eContents();
-    for (EObject object : containedElements) {
-      result.addAll(getAll(object, targetType));
-    }
+    collect(source, targetType::isInstance, result);
 
     return result;
   }
@@ -71,14 +64,7 @@ public class GetAllQueries implements IGetAllQueries {
     if (source == null || targetType == null)
       return result;
 
-    if (targetType.isSuperTypeOf(source.eClass())) {
-      result.add(source);
-    }
-
-    EList<EObject> containedElements = source.eContents();
-    for (EObject object : containedElements) {
-      result.addAll(getAll(object, targetType));
-    }
+    collect(source, object -> targetType.isSuperTypeOf(object.eClass()), result);
 
     return result;
   }
@@ -101,16 +87,24 @@ public class GetAllQueries implements IGetAllQueries {
     if (source == null || predicate == null)
       return result;
 
+    collect(source, predicate, result);
+
+    return result;
+  }
+
+  /**
+   * Adds the given element and its contents matching the given predicate to the given result, in containment order.<br>
+   * A single result is filled so that elements are not copied once per containment level.
+   */
+  private void collect(EObject source, Predicate<EObject> predicate, Set<EObject> result) {
     if (predicate.test(source)) {
       result.add(source);
     }
 
     EList<EObject> containedElements = source.eContents();
     for (EObject object : containedElements) {
-      result.addAll(getAll(object, predicate));
+      collect(object, predicate, result);
     }
-
-    return result;
   }
 
   /**
@@ -135,22 +129,26 @@ public class GetAllQueries implements IGetAllQueries {
       return result;
     }
 
+    collectFiltered(source, targetType, filter, result);
+
+    return result;
+  }
+
+  private void collectFiltered(EObject source, EClass targetType, List<EClass> filter, Set<EObject> result) {
     if (targetType.isSuperTypeOf(source.eClass())) {
       result.add(source);
     }
 
     for (EClass cls : filter) {
       if (cls.isSuperTypeOf(source.eClass())) {
-        return result;
+        return;
       }
     }
 
     EList<EObject> containedElements = source.eContents();
     for (EObject object : containedElements) {
-      result.addAll(getAllFiltered(object, targetType, filter));
+      collectFiltered(object, targetType, filter, result);
     }
-
-    return result;
   }
 
   /**
@@ -15,6 +15,7 @@ package org.polarsys.capella.shared.id.handler;
 import java.util.List;
 
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 
 /**
  */
@@ -24,4 +25,20 @@ public interface IScope {
    * @return
    */
   List<Resource> getResources();
+
+  /**
+   * @return the resource set holding all the resources of this scope, or <code>null</code> if there is none. When
+   *         available, lookups by id use the index of this resource set (see {@link IdIndex}).
+   */
+  default ResourceSet getResourceSet() {
+    return null;
+  }
+
+  /**
+   * @param resource
+   * @return whether the given resource belongs to this scope
+   */
+  default boolean contains(Resource resource) {
+    return getResources().contains(resource);
+  }
 }
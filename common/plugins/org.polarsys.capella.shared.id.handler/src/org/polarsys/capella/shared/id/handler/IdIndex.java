@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.shared.id.handler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * An index from ids to model elements of a resource set, shared by all lookups on this resource set.<br>
+ * The index is filled lazily: a lookup missing the index indexes the loaded resources of its scope that are not indexed
+ * yet, in the order of the scope, until the element is found. Resources out of the scope of any lookup, such as
+ * representation resources for lookups on semantic resources, are thus never indexed. Root elements added to an indexed
+ * resource are indexed at once, and the index is cleaned when a resource is unloaded or removed. Elements created or
+ * moved within a resource are added on their first lookup.<br>
+ * When several elements have the same id, the first indexed one is kept as long as it is in the resource set with this
+ * id, as a lookup browsing the resource set would find it first.<br>
+ * A hit is always checked against the current state of the element (still in the resource set, same id), so the index
+ * never returns a stale element.
+ */
+public class IdIndex extends AdapterImpl {
+
+  private final List<IIdHandler> handlers;
+
+  private final Map<String, EObject> idToEObject = new ConcurrentHashMap<>();
+
+  /**
+   * The ids indexed for the elements of each resource, so that unloading or removing a resource only browses them.
+   */
+  private final Map<Resource, Set<String>> resourceToIds = new ConcurrentHashMap<>();
+
+  /**
+   * The loaded resources whose elements are indexed.
+   */
+  private final Set<Resource> indexedResources = ConcurrentHashMap.newKeySet();
+
+  private final Adapter resourceAdapter = new AdapterImpl() {
+    @Override
+    public void notifyChanged(Notification notification) {
+      Resource resource = (Resource) notification.getNotifier();
+      switch (notification.getFeatureID(Resource.class)) {
+      case Resource.RESOURCE__IS_LOADED:
+        if (!notification.getNewBooleanValue()) {
+          purge(resource);
+        }
+        break;
+      case Resource.RESOURCE__CONTENTS:
+        if (!indexedResources.contains(resource)) {
+          // Indexed with the whole resource on a lookup
+          break;
+        }
+        if (notification.getEventType() == Notification.ADD) {
+          indexContents((EObject) notification.getNewValue());
+        } else if (notification.getEventType() == Notification.ADD_MANY) {
+          for (Object root : (List<?>) notification.getNewValue()) {
+            indexContents((EObject) root);
+          }
+        }
+        break;
+      default:
+        break;
+      }
+    }
+
+    @Override
+    public boolean isAdapterForType(Object type) {
+      return type == IdIndex.class;
+    }
+  };
+
+  /**
+   * @param handlers
+   *          handlers used to compute the ids of indexed elements
+   */
+  IdIndex(List<IIdHandler> handlers) {
+    this.handlers = handlers;
+  }
+
+  /**
+   * @return the index of the given resource set, created if needed
+   */
+  static IdIndex getIdIndex(ResourceSet resourceSet, List<IIdHandler> handlers) {
+    synchronized (resourceSet) {
+      IdIndex index = (IdIndex) EcoreUtil.getExistingAdapter(resourceSet, IdIndex.class);
+      if (index == null) {
+        index = new IdIndex(handlers);
+        resourceSet.eAdapters().add(index);
+      }
+      return index;
+    }
+  }
+
+  @Override
+  public boolean isAdapterForType(Object type) {
+    return type == IdIndex.class;
+  }
+
+  @Override
+  public void setTarget(Notifier newTarget) {
+    super.setTarget(newTarget);
+    if (newTarget instanceof ResourceSet) {
+      for (Resource resource : ((ResourceSet) newTarget).getResources()) {
+        attach(resource);
+      }
+    }
+  }
+
+  @Override
+  public void notifyChanged(Notification notification) {
+    if (notification.getFeatureID(ResourceSet.class) != ResourceSet.RESOURCE_SET__RESOURCES) {
+      return;
+    }
+    switch (notification.getEventType()) {
+    case Notification.ADD:
+      attach((Resource) notification.getNewValue());
+      break;
+    case Notification.ADD_MANY:
+      for (Object resource : (List<?>) notification.getNewValue()) {
+        attach((Resource) resource);
+      }
+      break;
+    case Notification.REMOVE:
+      detach((Resource) notification.getOldValue());
+      break;
+    case Notification.REMOVE_MANY:
+      for (Object resource : (List<?>) notification.getOldValue()) {
+        detach((Resource) resource);
+      }
+      break;
+    default:
+      break;
+    }
+  }
+
+  private void attach(Resource resource) {
+    if (!resource.eAdapters().contains(resourceAdapter)) {
+      resource.eAdapters().add(resourceAdapter);
+    }
+  }
+
+  private void detach(Resource resource) {
+    resource.eAdapters().remove(resourceAdapter);
+    purge(resource);
+  }
+
+  /**
+   * Indexes the elements of the given resource, unless it is already indexed or not loaded in the resource set.
+   * @return whether the resource has been indexed
+   */
+  private boolean indexResource(Resource resource) {
+    if (!resource.isLoaded() || resource.getResourceSet() != getTarget() || !indexedResources.add(resource)) {
+      return false;
+    }
+    for (EObject root : resource.getContents()) {
+      indexContents(root);
+    }
+    return true;
+  }
+
+  private void indexContents(EObject root) {
+    index(root);
+    for (TreeIterator<EObject> it = root.eAllContents(); it.hasNext();) {
+      index(it.next());
+    }
+  }
+
+  private void index(EObject object) {
+    for (IIdHandler handler : handlers) {
+      String id = handler.getId(object);
+      if (id != null) {
+        add(id, object);
+      }
+    }
+  }
+
+  /**
+   * Indexes the given element with the given id, unless another element is still indexed with this id.
+   */
+  private void add(String id, EObject object) {
+    Resource resource = object.eResource();
+    if (resource == null) {
+      return;
+    }
+    EObject indexed = idToEObject.compute(id, (key, current) -> current != null && current != object
+        && isInResourceSet(current) && hasId(current, key) ? current : object);
+    if (indexed == object) {
+      resourceToIds.computeIfAbsent(resource, key -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+  }
+
+  /**
+   * Removes the ids indexed for the elements of the given resource, if these elements are no longer in the resource
+   * set. The ids of the elements moved to another resource are kept for their new resource.
+   */
+  private void purge(Resource resource) {
+    indexedResources.remove(resource);
+    Set<String> ids = resourceToIds.remove(resource);
+    if (ids != null) {
+      for (String id : ids) {
+        EObject object = idToEObject.computeIfPresent(id, (key, current) -> isInResourceSet(current) ? current : null);
+        if (object != null) {
+          resourceToIds.computeIfAbsent(object.eResource(), key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+      }
+    }
+  }
+
+  private boolean isInResourceSet(EObject object) {
+    Resource resource = object.eResource();
+    return resource != null && resource.getResourceSet() == getTarget();
+  }
+
+  /**
+   * Indexes the resources of the given scope that are not indexed yet, until an element with the given id is found.
+   * @return the indexed element with the given id if it still has this id and belongs to the scope, else
+   *         <code>null</code>.
+   */
+  public EObject getEObject(String id, IScope scope) {
+    EObject object = getIndexedEObject(id);
+    if (object == null) {
+      for (Iterator<Resource> it = new ArrayList<>(scope.getResources()).iterator(); object == null && it.hasNext();) {
+        Resource resource = it.next();
+        if (scope.contains(resource) && indexResource(resource)) {
+          object = getIndexedEObject(id);
+        }
+      }
+    }
+    return object != null && scope.contains(object.eResource()) ? object : null;
+  }
+
+  /**
+   * @return the indexed element with the given id if it is still in the resource set with this id, else
+   *         <code>null</code>. A stale element is removed from the index.
+   */
+  private EObject getIndexedEObject(String id) {
+    EObject object = idToEObject.get(id);
+    if (object != null) {
+      if (isInResourceSet(object) && hasId(object, id)) {
+        return object;
+      }
+      idToEObject.remove(id, object);
+    }
+    return null;
+  }
+
+  /**
+   * Registers an element found by another mean. Nothing is done if the given id is not an id of the element (for
+   * instance if it is an URI fragment).
+   */
+  public void put(String id, EObject object) {
+    if (hasId(object, id)) {
+      add(id, object);
+    }
+  }
+
+  private boolean hasId(EObject object, String id) {
+    for (IIdHandler handler : handlers) {
+      if (id.equals(handler.getId(object))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the number of indexed ids
+   */
+  public int size() {
+    return idToEObject.size();
+  }
+
+  /**
+   * Detaches the index from its resource set and its resources.
+   */
+  public void dispose() {
+    ResourceSet resourceSet = (ResourceSet) getTarget();
+    if (resourceSet != null) {
+      for (Iterator<Resource> it = resourceSet.getResources().iterator(); it.hasNext();) {
+        it.next().eAdapters().remove(resourceAdapter);
+      }
+      resourceSet.eAdapters().remove(this);
+    }
+    idToEObject.clear();
+    resourceToIds.clear();
+    indexedResources.clear();
+  }
+}
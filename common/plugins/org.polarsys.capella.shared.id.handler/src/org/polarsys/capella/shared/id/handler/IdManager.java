@@ -17,6 +17,7 @@ import java.util.List;
 
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 
 import org.polarsys.capella.common.mdsofa.common.helper.ExtensionPointHelper;
 
@@ -30,6 +31,9 @@ public class IdManager {
   // The cache to store all contributors
   private static List<IIdHandler> __contributedIdHandlers;
 
+  // Contributors and default handler, used to index elements
+  private static List<IIdHandler> __idHandlers;
+
   private IIdHandler defaultIdHandler;
   /**
    * 
@@ -49,9 +53,36 @@ public class IdManager {
   }
 
   /**
-   * 
+   * Lookups in a scope backed by a resource set use the {@link IdIndex} of this resource set, and fall back on the
+   * contributed handlers for ids that are not indexed yet.
    */
   public EObject getEObject(String id, IScope scope) {
+    ResourceSet resourceSet = scope.getResourceSet();
+    if (null == resourceSet || null == id) {
+      return doGetEObject(id, scope);
+    }
+    IdIndex index = getIdIndex(resourceSet);
+    EObject object = index.getEObject(id, scope);
+    if (null == object) {
+      object = doGetEObject(id, scope);
+      if (null != object) {
+        index.put(id, object);
+      }
+    }
+    return object;
+  }
+
+  /**
+   * @return the id index of the given resource set, see {@link IdIndex}
+   */
+  public IdIndex getIdIndex(ResourceSet resourceSet) {
+    return IdIndex.getIdIndex(resourceSet, getIdHandlers());
+  }
+
+  /**
+   * 
+   */
+  private EObject doGetEObject(String id, IScope scope) {
     for (IIdHandler handler : getContributedIdHandlers()) {
       EObject object = handler.getEObject(id, scope);
       if (null != object) return object;
@@ -72,6 +103,18 @@ public class IdManager {
     return id;
   }
 
+  /**
+   * @return contributed handlers followed by the default one
+   */
+  private List<IIdHandler> getIdHandlers() {
+    if (null == __idHandlers) {
+      List<IIdHandler> handlers = new ArrayList<IIdHandler>(getContributedIdHandlers());
+      handlers.add(defaultIdHandler);
+      __idHandlers = handlers;
+    }
+    return __idHandlers;
+  }
+
   /**
    * 
    */
@@ -31,4 +31,14 @@ public class ResourceSetScope implements IScope {
     return _set.getResources();
   }
 
+  @Override
+  public ResourceSet getResourceSet() {
+    return _set;
+  }
+
+  @Override
+  public boolean contains(Resource resource) {
+    return resource != null && resource.getResourceSet() == _set;
+  }
+
 }
@@ -295,7 +295,7 @@ public class CapellaElementsHelperForBusinessQueries {
       Set<EObject> allElements = new HashSet<EObject>();
       if (null != eclasses) {
         for (EClass cls : eclasses) {
-          allElements.addAll(EObjectExt.getAll(dataPkg, cls));
+          allElements.addAll(EObjectExt.getAllInstances(dataPkg, cls));
         }
       } else {
         // If no <code><EClass/code> has been given in parameter, then retrieves all Capella Elements
@@ -1058,7 +1058,7 @@ public class CapellaElementsHelperForBusinessQueries {
     // get all elements from current and upper architectures
     for (BlockArchitecture blkArch : blkArchs) {
       availableElements.addAll(
-          EObjectExt.getAll(blkArch, targetClass).stream().map(CapellaElement.class::cast).collect(Collectors.toSet()));
+          EObjectExt.getAllInstances(blkArch, targetClass).stream().map(CapellaElement.class::cast).collect(Collectors.toSet()));
     }
 
     // get all element from project and all subfolders excluding the modeling architecture packages
@@ -12,11 +12,17 @@
  *******************************************************************************/
 package org.polarsys.capella.core.business.queries;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.edit.domain.EditingDomain;
+import org.polarsys.capella.common.helpers.TransactionHelper;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
 
 /**
  */
@@ -30,6 +36,33 @@ public interface IBusinessQuery {
    */
   public List<EObject> getAvailableElements(EObject element);
 
+  /**
+   * Gets all the available elements for each of the given elements.<br>
+   * The {@link ModelCache} of their editing domain is enabled for the whole batch, so that the computations shared by
+   * the elements, such as the candidates of a layer, are done once.
+   *
+   * @param elements the current elements
+   * @return the available elements of each given element, in the iteration order of the given elements
+   */
+  public default Map<EObject, List<EObject>> getAllAvailableElements(Collection<? extends EObject> elements) {
+    Map<EObject, List<EObject>> result = new LinkedHashMap<>();
+    if (elements.isEmpty()) {
+      return result;
+    }
+    EditingDomain domain = TransactionHelper.getEditingDomain(elements);
+    ModelCache.enable(domain);
+    try {
+      for (EObject element : elements) {
+        if (!result.containsKey(element)) {
+          result.put(element, getAvailableElements(element));
+        }
+      }
+    } finally {
+      ModelCache.disable(domain);
+    }
+    return result;
+  }
+
   /**
    * Gets all the current elements for the business query
    *
@@ -36,12 +36,11 @@ public class MDCHK_JoinForkState_Region extends AbstractModelConstraint {
     // TODO Auto-generated constructor stub
   }
 
-  private boolean isJoinState;
-
   @Override
   public IStatus validate(IValidationContext ctx) {
     Pseudostate state = (Pseudostate) ctx.getTarget();
 
+    final boolean isJoinState;
     if (state instanceof JoinPseudoState) {
       isJoinState = true;
     } else if (state instanceof ForkPseudoState) {
@@ -59,7 +58,6 @@ public class MDCHK_JoinForkState_Region extends AbstractModelConstraint {
     }
 
     Collection<AbstractState> statesAffected = Collections2.transform(transitions, new Function<StateTransition, AbstractState>() {
-      @SuppressWarnings("synthetic-access")
       @Override
       public AbstractState apply(StateTransition arg0) {
         return isJoinState ? arg0.getSource() : arg0.getTarget();
@@ -15,11 +15,9 @@ package org.polarsys.capella.core.data.capellamodeller.validation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IStatus;
@@ -32,17 +30,15 @@ import org.polarsys.capella.core.data.cs.BlockArchitecture;
 import org.polarsys.capella.core.model.helpers.AbstractDependenciesPkgExt;
 import org.polarsys.capella.core.model.helpers.DataPkgExt;
 import org.polarsys.capella.core.model.helpers.InterfacePkgExt;
-import org.polarsys.capella.core.model.helpers.intermodelInconsistencyDetection.TarjanAlgorithm;
+import org.polarsys.capella.core.model.helpers.graph.IntGraph;
+import org.polarsys.capella.core.model.helpers.graph.NodeIndex;
+import org.polarsys.capella.core.model.helpers.graph.StronglyConnectedComponents;
 import org.polarsys.capella.core.validation.rule.AbstractValidationRule;
 
 /**
  */
 public abstract class AbstractPkgDependenciesCycleValidationRule extends AbstractValidationRule {
 
-  private int identifierCounter = 0;
-  private Map<Integer, AbstractDependenciesPkg> ident2Object = new HashMap<>();
-  private Map<AbstractDependenciesPkg, Integer> object2Ident = new HashMap<>();
-
   protected abstract boolean shouldValidate(IValidationContext ctx);
 
   /**
@@ -51,9 +47,7 @@ public abstract class AbstractPkgDependenciesCycleValidationRule extends Abstrac
   @Override
   public IStatus validate(IValidationContext ctx) {
     if (shouldValidate(ctx)) {
-      IStatus status = doValidate(ctx);
-      clearMaps();
-      return status;
+      return doValidate(ctx);
     }
     return ctx.createSuccessStatus();
   }
@@ -100,11 +94,6 @@ public abstract class AbstractPkgDependenciesCycleValidationRule extends Abstrac
     return ConstraintStatus.createMultiStatus(ctx, statuses);
   }
 
-  private void clearMaps() {
-    ident2Object.clear();
-    object2Ident.clear();
-  }
-
   public List<List<AbstractDependenciesPkg>> getInterPackageCycles(EObject context) {
     return getInterPackageCycles(getAllPackages(context));
   }
@@ -116,34 +105,23 @@ public abstract class AbstractPkgDependenciesCycleValidationRule extends Abstrac
     Set<AbstractDependenciesPkg> pkgsToCheck = new HashSet<>(allPkgs);
 
     // Create the graph
-    Map<Integer, Set<Integer>> graphMap = new HashMap<>();
+    NodeIndex<AbstractDependenciesPkg> nodes = new NodeIndex<>();
+    IntGraph.Builder builder = new IntGraph.Builder();
 
-    while (!(pkgsToCheck = buildPkgGraph(pkgsToCheck, allPkgs, graphMap)).isEmpty()) {
+    while (!(pkgsToCheck = buildPkgGraph(pkgsToCheck, allPkgs, nodes, builder)).isEmpty()) {
       allPkgs.addAll(pkgsToCheck);
     }
+    IntGraph graph = builder.ensureNodeCount(nodes.size()).build();
 
-    @SuppressWarnings("unchecked")
-    Set<Integer>[] graph = new HashSet[identifierCounter];
-    for (int i = 0; i < identifierCounter; i++) {
-      Set<Integer> x = graphMap.get(i);
-      if (x == null) {
-        x = new HashSet<>();
-      }
-      graph[i] = x;
-    }
-
-    // Compute using TarjanAlgorithm
-    TarjanAlgorithm t = new TarjanAlgorithm();
-    List<List<Integer>> scComponents = t.getSCComponents(graph);
+    // Compute strongly connected components
+    StronglyConnectedComponents scComponents = new StronglyConnectedComponents(graph);
     List<List<AbstractDependenciesPkg>> cfcs = new ArrayList<>();
-    for (List<Integer> list : scComponents) {
-      if (list.size() > 1) {
-        List<AbstractDependenciesPkg> cfc = new ArrayList<>();
-        for (Integer integer : list) {
-          cfc.add(ident2Object.get(integer));
-        }
-        cfcs.add(cfc);
+    for (int[] component : scComponents.getComponents(2)) {
+      List<AbstractDependenciesPkg> cfc = new ArrayList<>(component.length);
+      for (int node : component) {
+        cfc.add(nodes.get(node));
       }
+      cfcs.add(cfc);
     }
 
     return cfcs;
@@ -162,27 +140,28 @@ public abstract class AbstractPkgDependenciesCycleValidationRule extends Abstrac
   }
 
   /**
-   * Build the graph [Pkg(id of pkg), Set of dependent pkgs(ids)] from input packages.
+   * Build the graph [Pkg(id of pkg) -> dependent pkg(id)] from input packages.
    * 
    * @param pkgsToCheck
    *          the package to check
    * @param allPkgs
    *          all the packages
+   * @param nodes
+   *          the identifiers of the packages in the graph
    * @param graph
    *          the graph to build
    * @return
    */
   protected Set<AbstractDependenciesPkg> buildPkgGraph(Collection<AbstractDependenciesPkg> pkgsToCheck,
-      Collection<AbstractDependenciesPkg> allPkgs, Map<Integer, Set<Integer>> graph) {
+      Collection<AbstractDependenciesPkg> allPkgs, NodeIndex<AbstractDependenciesPkg> nodes, IntGraph.Builder graph) {
     Set<AbstractDependenciesPkg> newObjects = new HashSet<>();
     for (AbstractDependenciesPkg pkgToCheck : pkgsToCheck) {
-      Set<Integer> dependentPkgIdentifiers = new HashSet<>();
-      graph.put(getObjectIdentifier(pkgToCheck), dependentPkgIdentifiers);
+      int pkgIdentifier = nodes.getOrAdd(pkgToCheck);
       for (AbstractDependenciesPkg dependentPkg : getPkgDependencies(pkgToCheck)) {
         if (!allPkgs.contains(dependentPkg)) {
           newObjects.add(dependentPkg);
         }
-        dependentPkgIdentifiers.add(getObjectIdentifier(dependentPkg));
+        graph.addEdge(pkgIdentifier, nodes.getOrAdd(dependentPkg));
       }
     }
     return newObjects;
@@ -192,15 +171,6 @@ public abstract class AbstractPkgDependenciesCycleValidationRule extends Abstrac
     return AbstractDependenciesPkgExt.getDependencies(pkgToCheck);
   }
 
-  private Integer getObjectIdentifier(AbstractDependenciesPkg object) {
-    return object2Ident.computeIfAbsent(object, f -> {
-      Integer res = identifierCounter;
-      identifierCounter++;
-      ident2Object.put(res, object);
-      return res;
-    });
-  }
-
   /**
    * It takes into account only the first 3 packages in order not to have a long marker message. The user can use tha
    * available resolver to check the details of the cycle.
@@ -54,23 +54,18 @@ public class MDCHKPackageVisibility extends AbstractValidationRule{
 		return ((modelElement!=null) && modelElement instanceof  Class) || ((modelElement!=null) && modelElement instanceof  Collection) || ((modelElement!=null) && modelElement instanceof  DataType);
 	}
 	
-		/**
-		 * 
-		 */
-	  private Set<IStatus> statuses ;
-
 	@Override
 	public IStatus validate(IValidationContext context) {
 		EObject eObj = context.getTarget();
 	    EMFEventType eType = context.getEventType();
 	    if (eType == EMFEventType.NULL) {
 	      if (eObj instanceof SystemEngineering) {
-	    	  statuses = new HashSet<IStatus>();
+	    	  Set<IStatus> statuses = new HashSet<IStatus>();
 	    	  SystemEngineering system = (SystemEngineering)eObj;
 	    	  List<DataPkg> allPackages = SystemEngineeringExt.getAllDataPkgs(system);
 			    for (DataPkg aPackage : allPackages) {
-			    	validateAssociation(context, aPackage);
-			    	validateGeneralization(context, aPackage);
+			    	validateAssociation(context, aPackage, statuses);
+			    	validateGeneralization(context, aPackage, statuses);
 			     }
 			    if (!statuses.isEmpty()) {
 		            // There are conflicts returns them as a multi-statuses status
@@ -87,21 +82,23 @@ public class MDCHKPackageVisibility extends AbstractValidationRule{
 	/**
 	 * @param context
 	 * @param aPackage
+	 * @param statuses
 	 */
-	private void validateAssociation(IValidationContext context, DataPkg aPackage) {
+	private void validateAssociation(IValidationContext context, DataPkg aPackage, Set<IStatus> statuses) {
 		EList<Association> associations = aPackage.getOwnedAssociations() ;
 		for (Association association : associations) {
-			validatePackageVisibility(context,association, aPackage);
+			validatePackageVisibility(context,association, aPackage, statuses);
 		}
 	}
 	/**
 	 * @param context
 	 * @param aPackage
+	 * @param statuses
 	 */
-	private void validateGeneralization(IValidationContext context, DataPkg aPackage) {
+	private void validateGeneralization(IValidationContext context, DataPkg aPackage, Set<IStatus> statuses) {
 		Set<Generalization> generalizations = DataPkgExt.getAllGeneralization(aPackage);
 		for (Generalization generalization : generalizations) {
-			validatePackageVisibility(context,generalization, aPackage);
+			validatePackageVisibility(context,generalization, aPackage, statuses);
 		}
 		
 	}
@@ -112,8 +109,9 @@ public class MDCHKPackageVisibility extends AbstractValidationRule{
 	/**
 	 * @param association
 	 * @param aPackage
+	 * @param statuses
 	 */
-	private void validatePackageVisibility(IValidationContext context, Relationship relation,	DataPkg aPackage) {
+	private void validatePackageVisibility(IValidationContext context, Relationship relation,	DataPkg aPackage, Set<IStatus> statuses) {
 		
 		GeneralizableElement sourceElement = null ;
 		GeneralizableElement targetElement = null ;
@@ -154,7 +152,7 @@ public class MDCHKPackageVisibility extends AbstractValidationRule{
 			if (isAncestorNavigablePackage) {
 				String SOURCE_PREFIXE = "\"" + sourceElement.getName()  +"\" ( "+ sourceElement.eClass().getName() + " ) ";
 				String TARGET_PREFIXE = "\"" + targetElement.getName()  +"\" ( "+ targetElement.eClass().getName() + " ) ";
-				this.statuses.add(createFailureStatus(context, new Object[] { SOURCE_PREFIXE,TARGET_PREFIXE })) ;
+				statuses.add(createFailureStatus(context, new Object[] { SOURCE_PREFIXE,TARGET_PREFIXE })) ;
 				
 			}
 		
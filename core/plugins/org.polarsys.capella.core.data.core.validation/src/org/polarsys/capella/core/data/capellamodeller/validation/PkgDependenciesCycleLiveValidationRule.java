@@ -45,7 +45,13 @@ import org.polarsys.capella.core.model.helpers.InterfacePkgExt;
  */
 public class PkgDependenciesCycleLiveValidationRule extends AbstractPkgDependenciesCycleValidationRule {
 
-  private Map<DependencyDescriptor, Collection<EObject>> dependencyCache = new HashMap<>();
+  /**
+   * Origins of the package dependencies computed by the current validation, filled through
+   * {@link #getPkgDependencies(AbstractDependenciesPkg)}. Live validations of different editing domains may run
+   * concurrently.
+   */
+  private final ThreadLocal<Map<DependencyDescriptor, Collection<EObject>>> dependencyCache = ThreadLocal
+      .withInitial(HashMap::new);
 
   @Override
   protected boolean shouldValidate(IValidationContext ctx) {
@@ -60,7 +66,7 @@ public class PkgDependenciesCycleLiveValidationRule extends AbstractPkgDependenc
     if (newValue instanceof Association) {
       status = doValidateNewAssociation((Association) newValue, ctx);
     }
-    dependencyCache.clear();
+    dependencyCache.remove();
     return status;
   }
 
@@ -96,7 +102,7 @@ public class PkgDependenciesCycleLiveValidationRule extends AbstractPkgDependenc
       List<List<AbstractDependenciesPkg>> detectedCycles) {
     List<List<AbstractDependenciesPkg>> relevantCycles = new ArrayList<>();
     for (List<AbstractDependenciesPkg> cycle : detectedCycles) {
-      for (Entry<DependencyDescriptor, Collection<EObject>> entry : dependencyCache.entrySet()) {
+      for (Entry<DependencyDescriptor, Collection<EObject>> entry : dependencyCache.get().entrySet()) {
         if (entry.getKey().isRelatedTo(cycle) && entry.getValue().contains(sourceClass)) {
           relevantCycles.add(cycle);
         }
@@ -126,11 +132,11 @@ public class PkgDependenciesCycleLiveValidationRule extends AbstractPkgDependenc
       Map<AbstractDependenciesPkg, Collection<Couple<EObject, Collection<EObject>>>> dependencies) {
     for (AbstractDependenciesPkg dependentPkg : dependencies.keySet()) {
       DependencyDescriptor descriptor = new DependencyDescriptor(pkgToCheck, dependentPkg);
-      Collection<EObject> cachedCollection = dependencyCache.get(descriptor);
+      Collection<EObject> cachedCollection = dependencyCache.get().get(descriptor);
       if (cachedCollection == null) {
         cachedCollection = new HashSet<>();
         addDependencyOrigin(dependencies, dependentPkg, cachedCollection);
-        dependencyCache.put(descriptor, cachedCollection);
+        dependencyCache.get().put(descriptor, cachedCollection);
       } else {
         addDependencyOrigin(dependencies, dependentPkg, cachedCollection);
       }
@@ -51,18 +51,8 @@ import org.polarsys.capella.common.data.modellingcore.util.ModellingcoreSwitch;
  */
 public abstract class Abstract_MDCHK_NamingConflictRule extends AbstractValidationRule {
 
-  // we check for conflicts via emf switch classes
-  private CapellaSwitch<Boolean> capellaSwitch;
-  private InformationConflictSwitch informationSwitch;
-  private ModellingcoreConflictSwitch modellingcoreSwitch;
-
-  public Abstract_MDCHK_NamingConflictRule() {
-    capellaSwitch = new CapellaSwitch<>();
-    informationSwitch = new InformationConflictSwitch();
-    modellingcoreSwitch = new ModellingcoreConflictSwitch();
-    capellaSwitch.setInformation(informationSwitch);
-    capellaSwitch.setModellingcore(modellingcoreSwitch);
-  }
+  // we check for conflicts via emf switch classes, holding the candidates of the current check: one set per thread
+  private final ThreadLocal<ConflictSwitches> switches = ThreadLocal.withInitial(ConflictSwitches::new);
 
   /**
    * @see org.eclipse.emf.validation.AbstractModelConstraint#validate(org.eclipse.emf.validation.IValidationContext)
@@ -76,8 +66,6 @@ public abstract class Abstract_MDCHK_NamingConflictRule extends AbstractValidati
    */
   private static final String TYPE_PREFIX = " ("; //$NON-NLS-1$
 
-  List<AbstractNamedElement> conflictCandidates = new ArrayList<>();
-
   @Override
   public IStatus validate(IValidationContext ctx) {
     EObject eObj = ctx.getTarget();
@@ -151,7 +139,7 @@ public abstract class Abstract_MDCHK_NamingConflictRule extends AbstractValidati
 
     } else {
       // this type already has a map entry
-      conflictCandidates = typesAndNames.get(currentElement.eClass());
+      List<AbstractNamedElement> conflictCandidates = typesAndNames.get(currentElement.eClass());
 
       Set<AbstractNamedElement> conflictingElements = new HashSet<>();
       for (AbstractNamedElement conflictCandidate : conflictCandidates) {
@@ -220,10 +208,11 @@ public abstract class Abstract_MDCHK_NamingConflictRule extends AbstractValidati
   protected boolean hasConflict(AbstractNamedElement currentElement, List<AbstractNamedElement> conflictCandidates) {
 
     // update the switch internal state rather than recreating a new one for each element
-    modellingcoreSwitch.setConflictCandidates(conflictCandidates);
-    informationSwitch.setConflictCandidates(conflictCandidates);
+    ConflictSwitches conflictSwitches = switches.get();
+    conflictSwitches.modellingcoreSwitch.setConflictCandidates(conflictCandidates);
+    conflictSwitches.informationSwitch.setConflictCandidates(conflictCandidates);
 
-    Boolean result = capellaSwitch.doSwitch(currentElement);
+    Boolean result = conflictSwitches.capellaSwitch.doSwitch(currentElement);
     return result == null ? false : result;
   }
 
@@ -234,6 +223,17 @@ public abstract class Abstract_MDCHK_NamingConflictRule extends AbstractValidati
    */
   protected abstract boolean isImpactedByCurrentRule(EObject eObj);
 
+  class ConflictSwitches {
+    final CapellaSwitch<Boolean> capellaSwitch = new CapellaSwitch<>();
+    final InformationConflictSwitch informationSwitch = new InformationConflictSwitch();
+    final ModellingcoreConflictSwitch modellingcoreSwitch = new ModellingcoreConflictSwitch();
+
+    ConflictSwitches() {
+      capellaSwitch.setInformation(informationSwitch);
+      capellaSwitch.setModellingcore(modellingcoreSwitch);
+    }
+  }
+
   // checks elements in the information package
   class InformationConflictSwitch extends InformationSwitch<Boolean> {
 
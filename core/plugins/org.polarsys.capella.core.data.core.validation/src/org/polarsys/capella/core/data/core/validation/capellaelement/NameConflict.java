@@ -53,7 +53,7 @@ public class NameConflict extends AbstractDelegatedModelConstraint {
   /** 
    * Dynamically provide an AbstractModelConstraint based on the target type.
    */
-  private CapellaSwitch<AbstractModelConstraint> delegate;
+  private final CapellaSwitch<AbstractModelConstraint> delegate;
 
   
   public NameConflict(){
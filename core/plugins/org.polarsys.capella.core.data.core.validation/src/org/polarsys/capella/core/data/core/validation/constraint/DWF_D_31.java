@@ -32,11 +32,10 @@ import org.xml.sax.SAXParseException;
  */
 public class DWF_D_31 extends AbstractValidationRule {
 
-  XMLValidationHelper helper;
-
-  public DWF_D_31() {
-    helper = new XMLValidationHelper();
-  }
+  /**
+   * SAX parsers are not thread-safe, each validating thread uses its own.
+   */
+  private final ThreadLocal<XMLValidationHelper> helper = ThreadLocal.withInitial(XMLValidationHelper::new);
 
   @Override
   public IStatus validate(IValidationContext ctx) {
@@ -75,7 +74,7 @@ public class DWF_D_31 extends AbstractValidationRule {
 
       // replace entity refs with their actual character
       builder = XHTMLEntities.unescapeHTMLRefs(builder);
-      return helper.checkWellFormed(builder.toString());
+      return helper.get().checkWellFormed(builder.toString());
     }
     return Collections.emptyList();
   }
@@ -30,17 +30,11 @@ import org.polarsys.capella.core.validation.rule.AbstractValidationRule;
  * This validation rule ensures that a partition of an element cannot have a partition typed by this element. Thus it avoids "partitions cycles".
  */
 public class MDCHK_ComponentCycle extends AbstractValidationRule {
-  
-  /**
-   * This list allows to store all the partitionable elements already seen in order to detect cycle involving one of them
-   */
-  private List<Component> processedElements;
   /**
    * @see org.eclipse.emf.validation.AbstractModelConstraint#validate(org.eclipse.emf.validation.IValidationContext)
    */
   @Override
   public IStatus validate(IValidationContext ctx) {
-    processedElements = new ArrayList<Component>();
     EObject eObj = ctx.getTarget();
     EMFEventType eType = ctx.getEventType();
     if (eType == EMFEventType.NULL) {
@@ -49,9 +43,9 @@ public class MDCHK_ComponentCycle extends AbstractValidationRule {
         // This is the code>PartitionableElement</code> that will be tested to be sure it is not a part of one of its children
         Component partitionableElement = (Component) eObj;
         // And then process recursively the partitions
-        IStatus status = processPartitions(ctx, partitionableElement, partitionableElement.getContainedParts());
-        processedElements = null;
-        return status;
+        // This list allows to store all the partitionable elements already seen in order to detect cycle involving one of them
+        List<Component> processedElements = new ArrayList<Component>();
+        return processPartitions(ctx, partitionableElement, partitionableElement.getContainedParts(), processedElements);
       }
     }
     // No problem encountered
@@ -65,9 +59,11 @@ public class MDCHK_ComponentCycle extends AbstractValidationRule {
    * @param ctx the <code>IValidationContext</code>
    * @param component the "parent" <code>PartitionableElement</code>
    * @param ownedParts the <code>Partition</code>'s instances to test
+   * @param processedElements the partitionable elements already seen
    * @return a <code>IStatus</code> instance
    */
-  private IStatus processPartitions(IValidationContext ctx, Component component, EList<Part> ownedParts) {
+  private IStatus processPartitions(IValidationContext ctx, Component component, EList<Part> ownedParts,
+      List<Component> processedElements) {
     // Gets the name of the "parent" partitionable element
     processedElements.add(component);
     for (Part part : ownedParts) {
@@ -98,7 +94,7 @@ public class MDCHK_ComponentCycle extends AbstractValidationRule {
         }
         // No cycle has been found yet, so process the inner partitions recursively
         // processes the partitions recursively:
-        return processPartitions(ctx, inner, innerParts);
+        return processPartitions(ctx, inner, innerParts, processedElements);
       }
     }
     return ctx.createSuccessStatus();
@@ -38,17 +38,16 @@ import org.polarsys.capella.common.data.modellingcore.AbstractExchangeItem;
  */
 public class MDCHKInterfaceExchangeItemAllocationConsistency extends AbstractValidationRule {
 
-	private Set<IStatus> statuses ;
 	  /**
 	   * @see org.eclipse.emf.validation.AbstractModelConstraint#validate(org.eclipse.emf.validation.IValidationContext)
 	   */
 	  @Override
 	  public IStatus validate(IValidationContext context) {
-		statuses = new HashSet<IStatus>();
+		Set<IStatus> statuses = new HashSet<IStatus>();
 	    EObject eObj = context.getTarget(); 
 	    	 if (eObj instanceof Interface) {
 	          Interface interfaze = (Interface) eObj;
-	           validateInterface(context, interfaze);
+	           validateInterface(context, interfaze, statuses);
 	           if (!statuses.isEmpty()) {
 		             // There are conflicts Returns them as a multi-statuses status
 		             return ConstraintStatus.createMultiStatus(context, statuses);
@@ -61,9 +60,9 @@ public class MDCHKInterfaceExchangeItemAllocationConsistency extends AbstractVal
 		 * 
 		 * @param context
 		 * @param interfaze
-		 * @return
+		 * @param statuses receives the failures
 		 */
-		private void validateInterface(IValidationContext context, Interface interfaze) {
+		private void validateInterface(IValidationContext context, Interface interfaze, Set<IStatus> statuses) {
 			Set<Component> relatedComponent = (Set<Component>) InterfaceExt.getRelatedComponents(interfaze);
 			Set<AbstractExchangeItem> relatedComponentsExchangeItems = new HashSet<AbstractExchangeItem>(0);
 			  for (Iterator<Component> iterator = relatedComponent.iterator(); iterator.hasNext();) {
@@ -13,6 +13,7 @@
 package org.polarsys.capella.core.data.information.validation.exchangeitem;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.ecore.EObject;
@@ -32,8 +33,6 @@ import org.polarsys.capella.core.validation.rule.AbstractValidationRule;
  */
 public class CheckExchangeItemElementDirection extends AbstractValidationRule {
 
-  private ArrayList<IStatus> statuses;
-
   @Override
   public IStatus validate(IValidationContext ctx) {
     EObject eObj = ctx.getTarget();
@@ -42,15 +41,15 @@ public class CheckExchangeItemElementDirection extends AbstractValidationRule {
       // filter ExchangeItem
       if (eObj instanceof ExchangeItemElement) {
         // collection of status message
-        statuses = new ArrayList<IStatus>();
+        List<IStatus> statuses = new ArrayList<IStatus>();
         ExchangeItemElement exchangeItemElement = (ExchangeItemElement) eObj;
         ExchangeItem exchangeItemParent = (ExchangeItem) exchangeItemElement.eContainer();
         ExchangeMechanism exchangeMechanism = exchangeItemParent.getExchangeMechanism();
         if ((null != exchangeMechanism) && (exchangeMechanism != ExchangeMechanism.OPERATION)) {
           // other exchange mechanism value check
-          validateOtherExchangeMechanism(ctx, exchangeItemParent, exchangeItemElement, exchangeMechanism);
+          validateOtherExchangeMechanism(ctx, exchangeItemParent, exchangeItemElement, exchangeMechanism, statuses);
         } else {
-          validateOperationExchangeMechanism(ctx, exchangeItemParent, exchangeItemElement, exchangeMechanism);
+          validateOperationExchangeMechanism(ctx, exchangeItemParent, exchangeItemElement, exchangeMechanism, statuses);
         }
         if (statuses.size() > 0) {
           return ConstraintStatus.createMultiStatus(ctx, statuses);
@@ -68,9 +67,10 @@ public class CheckExchangeItemElementDirection extends AbstractValidationRule {
    * @param exchangeItemParent
    * @param exchangeItem
    * @param exchangeMechanism
+   * @param statuses receives the failure status
    */
   private void validateOtherExchangeMechanism(IValidationContext ctx, ExchangeItem exchangeItemParent, ExchangeItemElement exchangeItemElement,
-      ExchangeMechanism exchangeMechanism) {
+      ExchangeMechanism exchangeMechanism, List<IStatus> statuses) {
     ParameterDirection direction = exchangeItemElement.getDirection();
     if (!direction.equals(ParameterDirection.UNSET)) {
       String EIE_PARAMETER = "\"" + exchangeItemElement.getName() + "\" ( " + exchangeItemElement.eClass().getName() + " ) ";
@@ -87,9 +87,10 @@ public class CheckExchangeItemElementDirection extends AbstractValidationRule {
    * @param exchangeItemParent
    * @param exchangeItem
    * @param exchangeMechanism
+   * @param statuses receives the failure status
    */
   private void validateOperationExchangeMechanism(IValidationContext ctx, ExchangeItem exchangeItemParent, ExchangeItemElement exchangeItemElement,
-      ExchangeMechanism exchangeMechanism) {
+      ExchangeMechanism exchangeMechanism, List<IStatus> statuses) {
     ParameterDirection direction = exchangeItemElement.getDirection();
     if ((direction == null) || direction.equals(ParameterDirection.UNSET)) {
       String EIE_PARAMETER = "\"" + exchangeItemElement.getName() + "\" ( " + exchangeItemElement.eClass().getName() + " ) ";
@@ -115,6 +115,31 @@ public class MigrationHelpers implements IMigrationContribution {
    */
   public void trigger(IResource resource, Shell shell, boolean runInJob, boolean skipConfirmation, boolean backupModel,
       boolean checkVersion, String[] kinds) {
+    MigrationContext context = new MigrationContext();
+    context.setName(NLS.bind(Messages.MigrationAction_Title, resource.getName()));
+    context.setShell(shell);
+    context.setSkipConfirmation(skipConfirmation);
+    context.setBackupModel(backupModel);
+
+    trigger(resource, context, runInJob, checkVersion, kinds);
+  }
+
+  /**
+   * Migrates the given resource with the given context.
+   * 
+   * @param resource
+   * @param context
+   * @param runInJob
+   *          whether the migration is run in a job
+   * @param checkVersion
+   *          whether resource version is checked
+   * @param kinds
+   *          migration kinds
+   * @return the final status of the migration, {@link Status#OK_STATUS} if there is nothing to migrate,
+   *         <code>null</code> if the migration did not finish
+   */
+  public IStatus trigger(IResource resource, MigrationContext context, boolean runInJob, boolean checkVersion,
+      String[] kinds) {
     Collection<AbstractMigrationContributor> currentContributors = new LinkedList<AbstractMigrationContributor>();
 
     // Retrieve all extensions for the selected kind of migrations
@@ -141,12 +166,6 @@ public class MigrationHelpers implements IMigrationContribution {
       validMigrationCandidates.addAll(migrableFiles);
     }
 
-    MigrationContext context = new MigrationContext();
-    context.setName(NLS.bind(Messages.MigrationAction_Title, resource.getName()));
-    context.setShell(shell);
-    context.setSkipConfirmation(skipConfirmation);
-    context.setBackupModel(backupModel);
-
     // Retrieve all commands that will need to be run to perform the
     // migration
     LinkedList<AbstractMigrationRunnable> runnables = new LinkedList<AbstractMigrationRunnable>();
@@ -161,6 +180,7 @@ public class MigrationHelpers implements IMigrationContribution {
 
     // Run the commands in jobs or not
     new MigrationJobScheduler().run(runnables, context, runInJob, checkVersion);
+    return runnables.isEmpty() ? Status.OK_STATUS : context.getStatus();
   }
 
   private Collection<IResource> extractMigrationCandidates(IResource resource) {
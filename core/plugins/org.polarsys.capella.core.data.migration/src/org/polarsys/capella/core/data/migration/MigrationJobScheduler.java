@@ -19,9 +19,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
-import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.osgi.util.NLS;
@@ -108,49 +106,59 @@ public class MigrationJobScheduler {
     return ((status == null) || status.isOK()) && !(context.getProgressMonitor().isCanceled());
   }
 
+  /**
+   * Runs the remaining runnables in jobs, one after the other, then logs the final status. The status of each job is
+   * read by the calling thread once the job is joined, so that the final status is set in the context before this
+   * method returns.
+   * 
+   * @param status
+   *          the status of the previous runnable
+   * @param context
+   * @param checkVersion
+   */
   protected void executeNextJob(IStatus status, final MigrationContext context, final boolean checkVersion) {
 
     // Avoid to run next jobs if last is not OK :)
-    if (checkStatusOK(status, context)) {
-      if (!_runnables.isEmpty()) {
-        AbstractMigrationRunnable firstJob = _runnables.removeFirst();
-
-        Job job = new MigrationJob(firstJob, context, checkVersion);
-        job.addJobChangeListener(new JobChangeAdapter() {
-          @Override
-          public void done(IJobChangeEvent event) {
-            IStatus jobStatus = event.getResult();
-            IStatus internalStatus = (IStatus) event.getJob().getProperty(MigrationJob.RESULT_PROPERTY);
-            if ((internalStatus != null) && !internalStatus.isOK()) {
-              jobStatus = internalStatus;
-            }
-            executeNextJob(jobStatus, context, checkVersion);
-          }
-        });
-        context.setProgressMonitor(SubMonitor.convert(_monitor, 1));
-        job.schedule();
-
-        // for the automated tests, join the job to be sure that the scheduled jobs are runned in the right order
-        try {
-          job.join();
-        } catch (InterruptedException exception) {
-          exception.printStackTrace();
-        }
-
-      } else {
-        logStatus(context, status);
-        MigrationHelpers.getInstance().dispose(context);
+    while (checkStatusOK(status, context) && !_runnables.isEmpty()) {
+      AbstractMigrationRunnable firstJob = _runnables.removeFirst();
+
+      Job job = new MigrationJob(firstJob, context, checkVersion);
+      context.setProgressMonitor(SubMonitor.convert(_monitor, 1));
+      job.schedule();
+
+      // join the job to be sure that the scheduled jobs are runned in the right order
+      try {
+        job.join();
+        status = getJobStatus(job);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        status = Status.CANCEL_STATUS;
       }
+    }
 
-    } else {
-      logStatus(context, status);
-      MigrationHelpers.getInstance().dispose(context);
+    if (!checkStatusOK(status, context)) {
       _runnables.clear();
     }
+    logStatus(context, status);
+    MigrationHelpers.getInstance().dispose(context);
+  }
 
+  /**
+   * @param job
+   *          a finished migration job
+   * @return the status of the migration run by the job
+   */
+  protected IStatus getJobStatus(Job job) {
+    IStatus jobStatus = job.getResult();
+    IStatus internalStatus = (IStatus) job.getProperty(MigrationJob.RESULT_PROPERTY);
+    if ((internalStatus != null) && !internalStatus.isOK()) {
+      jobStatus = internalStatus;
+    }
+    return jobStatus;
   }
 
   protected void logStatus(MigrationContext context, IStatus status) {
+    context.setStatus(status);
     if (status.isOK()) {
       status = new Status(IStatus.INFO, Activator.PLUGIN_ID, NLS.bind(Messages.MigrationAction_MigrationOK, context.getName()));
     }
@@ -12,12 +12,23 @@
  *******************************************************************************/
 package org.polarsys.capella.core.data.migration.cmdline;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.equinox.app.IApplicationContext;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
@@ -25,8 +36,10 @@ import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.application.WorkbenchAdvisor;
 import org.polarsys.capella.core.commandline.core.CommandLineException;
 import org.polarsys.capella.core.commandline.core.DefaultCommandLine;
+import org.polarsys.capella.core.data.migration.Messages;
 import org.polarsys.capella.core.data.migration.MigrationConstants;
 import org.polarsys.capella.core.data.migration.MigrationHelpers;
+import org.polarsys.capella.core.data.migration.context.MigrationContext;
 import org.polarsys.capella.core.model.handler.command.CapellaResourceHelper;
 
 /**
@@ -42,9 +55,19 @@ import org.polarsys.capella.core.model.handler.command.CapellaResourceHelper;
  * -filepath model <br/>
  * -outputfolder d:/tmp <br/>
  * </p>
+ * <p>
+ * The projects successfully migrated are recorded in a checkpoint file of the output folder: if the migration is
+ * interrupted, next run with the same output folder skips them. The checkpoint file is deleted once all projects are
+ * migrated.
+ * </p>
  */
 public class MigrationCommandLine extends DefaultCommandLine {
 
+  /**
+   * Name of the file of the output folder listing the projects already migrated.
+   */
+  public static final String CHECKPOINT_FILE_NAME = ".migration.checkpoint"; //$NON-NLS-1$
+
   private Display display;
 
   /**
@@ -73,21 +96,99 @@ public class MigrationCommandLine extends DefaultCommandLine {
   }
 
   public void migrateAllImportedProjects(Shell shell) {
-    Set<IProject> capellaProjects = getProjectsFromInput().stream().filter(CapellaResourceHelper::isCapellaProject)
-        .collect(Collectors.toSet());
+    List<IProject> capellaProjects = getProjectsFromInput().stream().filter(CapellaResourceHelper::isCapellaProject)
+        .sorted(Comparator.comparing(IProject::getName)).collect(Collectors.toList());
+
+    File checkpoint = getCheckpointFile();
+    Set<String> migratedProjects = readCheckpoint(checkpoint);
+    boolean allMigrated = true;
+
     for (IProject project : capellaProjects) {
+      if (migratedProjects.contains(project.getName())) {
+        logger.info("Skipping " + project.getName() + ", already migrated according to " + checkpoint); //$NON-NLS-1$ //$NON-NLS-2$
+        continue;
+      }
       try {
-        if (argHelper.isBackupNeeded()) {
-          // Migrate Project
-          MigrationHelpers.getInstance().trigger(project, shell, true, false, MigrationConstants.DEFAULT_KIND_ORDER);
+        if (migrateProject(project, shell)) {
+          writeCheckpoint(checkpoint, project.getName());
         } else {
-          MigrationHelpers.getInstance().trigger(project, shell, true, true, false, false,
-              MigrationConstants.DEFAULT_KIND_ORDER);
+          allMigrated = false;
         }
       } catch (Exception e) {
+        allMigrated = false;
         logError("Error during migration of " + project.getName());
       }
     }
+
+    if (allMigrated && checkpoint != null) {
+      try {
+        Files.deleteIfExists(checkpoint.toPath());
+      } catch (IOException e) {
+        logger.warn("Unable to delete " + checkpoint, e); //$NON-NLS-1$
+      }
+    }
+  }
+
+  /**
+   * @return whether the given project has been migrated successfully
+   */
+  protected boolean migrateProject(IProject project, Shell shell) {
+    MigrationContext context = new MigrationContext();
+    context.setName(NLS.bind(Messages.MigrationAction_Title, project.getName()));
+    context.setShell(shell);
+    context.setSkipConfirmation(true);
+    // Migrate Project
+    context.setBackupModel(argHelper.isBackupNeeded());
+    IStatus status = MigrationHelpers.getInstance().trigger(project, context, true, false,
+        MigrationConstants.DEFAULT_KIND_ORDER);
+    return status != null && status.isOK();
+  }
+
+  /**
+   * @return the checkpoint file of the output folder, <code>null</code> if there is no output folder
+   */
+  protected File getCheckpointFile() {
+    if (isEmtyOrNull(argHelper.getOutputFolder())) {
+      return null;
+    }
+    try {
+      IFolder folder = getOrCreateOutputFolder();
+      if (folder != null && folder.getLocation() != null) {
+        return folder.getLocation().append(CHECKPOINT_FILE_NAME).toFile();
+      }
+    } catch (CommandLineException e) {
+      // The migration is run without checkpoint
+    }
+    return null;
+  }
+
+  private Set<String> readCheckpoint(File checkpoint) {
+    Set<String> projects = new LinkedHashSet<>();
+    if (checkpoint != null && checkpoint.isFile()) {
+      try {
+        for (String line : Files.readAllLines(checkpoint.toPath(), StandardCharsets.UTF_8)) {
+          if (!line.trim().isEmpty()) {
+            projects.add(line.trim());
+          }
+        }
+      } catch (IOException e) {
+        logger.warn("Unable to read " + checkpoint + ", no project is skipped", e); //$NON-NLS-1$ //$NON-NLS-2$
+      }
+    }
+    return projects;
+  }
+
+  private void writeCheckpoint(File checkpoint, String projectName) {
+    if (checkpoint == null) {
+      return;
+    }
+    try {
+      // Append and flush the name of each project as soon as it is migrated
+      Files.write(checkpoint.toPath(), Collections.singletonList(projectName), StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+    } catch (IOException e) {
+      logger.warn("Unable to write " + checkpoint, e); //$NON-NLS-1$
+    }
   }
 
   /**
@@ -17,6 +17,7 @@ import java.util.HashMap;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.PlatformUI;
@@ -39,6 +40,8 @@ public class MigrationContext {
 
   private IFile _resource;
 
+  private IStatus _status = null;
+
   private HashMap<IPath, Version> fileVersions = new HashMap<IPath, Version>();
 
   public Version getCurrentVersion() {
@@ -114,4 +117,15 @@ public class MigrationContext {
     this._resource = file;
 
   }
+
+  /**
+   * @return the final status of the migration, <code>null</code> while the migration is not finished
+   */
+  public IStatus getStatus() {
+    return _status;
+  }
+
+  public void setStatus(IStatus status) {
+    this._status = status;
+  }
 }
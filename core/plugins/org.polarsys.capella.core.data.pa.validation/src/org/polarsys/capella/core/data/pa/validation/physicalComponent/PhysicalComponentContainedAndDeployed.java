@@ -31,7 +31,7 @@ import org.polarsys.capella.core.validation.rule.AbstractValidationRule;
  * DWF_DC_44 - Physical Component NODE/BEHAVIOUR is contained and deployed inside the same parent Component
  */
 public class PhysicalComponentContainedAndDeployed extends AbstractValidationRule {
-  private String validatorMessage = "{0} (PhysicalComponent) of Nature {1} should not be contained and deployed in the same parent {2} (PhysicalComponent)";
+  private static final String VALIDATOR_MESSAGE = "{0} (PhysicalComponent) of Nature {1} should not be contained and deployed in the same parent {2} (PhysicalComponent)";
   
   /**
    * @see org.eclipse.emf.validation.AbstractModelConstraint#validate(org.eclipse.emf.validation.IValidationContext)
@@ -53,7 +53,7 @@ public class PhysicalComponentContainedAndDeployed extends AbstractValidationRul
           resultLocus.add(physicalComponent);
           resultLocus.add(parent);
           return ConstraintStatus.createStatus(ctx, eObj, resultLocus,
-              validatorMessage,
+              VALIDATOR_MESSAGE,
               physicalComponent.getName(), physicalComponent.getNature(), EObjectLabelProviderHelper.getText(parent));
         }
       }
@@ -12,12 +12,14 @@
  *******************************************************************************/
 package org.polarsys.capella.core.libraries.provider;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -29,6 +31,9 @@ import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.Resource.Factory;
@@ -45,8 +50,10 @@ import org.polarsys.capella.common.helpers.EcoreUtil2;
 import org.polarsys.capella.common.libraries.IModel;
 import org.polarsys.capella.common.libraries.IModelIdentifier;
 import org.polarsys.capella.common.libraries.provider.ILibraryProviderListener.LibraryProviderEvent;
+import org.polarsys.capella.core.libraries.Activator;
 import org.polarsys.capella.core.libraries.model.CapellaModel;
 import org.polarsys.capella.core.libraries.model.ModelIdentifier;
+import org.polarsys.capella.core.libraries.provider.LibraryHeaderScanner.Header;
 import org.polarsys.capella.core.libraries.utils.IFileRequestor;
 import org.polarsys.capella.core.model.handler.command.CapellaResourceHelper;
 import org.xml.sax.helpers.DefaultHandler;
@@ -74,9 +81,42 @@ import org.xml.sax.helpers.DefaultHandler;
 public class CapellaWorkspaceProvider extends AbstractCapellaProvider
     implements IResourceChangeListener, IResourceDeltaVisitor {
 
+  private static final String CATALOG_FILE_NAME = "libraryCatalog"; //$NON-NLS-1$
+
+  private static final String CATALOG_SAVE_JOB_NAME = "Saving library catalog"; //$NON-NLS-1$
+
   protected final TransactionalEditingDomain workspaceDomain = CapellaWorkspaceProvider.createEditingDomain();
 
-  protected Collection<IModelIdentifier> _modelIds = null;
+  /**
+   * Snapshot of the available models, <code>null</code> when it has to be computed again.
+   */
+  protected volatile Collection<IModelIdentifier> _modelIds = null;
+
+  /**
+   * Incremented each time the available models change, to not publish a snapshot computed before a change.
+   */
+  private final AtomicLong _modelIdsGeneration = new AtomicLong();
+
+  /**
+   * Headers of the model files, to list available models without loading them.
+   */
+  protected final LibraryCatalog catalog = new LibraryCatalog();
+
+  /**
+   * Saves the catalog in the background, as the available models are often listed from the UI thread.
+   */
+  private final Job catalogSaveJob = Job.create(CATALOG_SAVE_JOB_NAME, monitor -> {
+    File catalogFile = getCatalogFile();
+    if (catalogFile != null) {
+      catalog.save(catalogFile);
+    }
+    return Status.OK_STATUS;
+  });
+
+  /**
+   * Whether the visited resource delta changes the available models.
+   */
+  private boolean changed;
 
   protected final Map<IModelIdentifier, IModel> _models = new HashMap<IModelIdentifier, IModel>();
 
@@ -125,27 +165,42 @@ public class CapellaWorkspaceProvider extends AbstractCapellaProvider
    * Constructor.
    */
   public CapellaWorkspaceProvider() {
+    File catalogFile = getCatalogFile();
+    if (catalogFile != null) {
+      catalog.load(catalogFile);
+    }
+    catalogSaveJob.setSystem(true);
     IWorkspace workspace = ResourcesPlugin.getWorkspace();
     workspace.addResourceChangeListener(this);
   }
 
+  /**
+   * Returns an unmodifiable snapshot of the models of the open projects.<br>
+   * Models are identified from the header of their file, see {@link LibraryCatalog}.
+   */
   @Override
   public Collection<IModelIdentifier> getAvailableModels() {
-    if (_modelIds == null) {
-      _modelIds = new ArrayList<IModelIdentifier>();
+    Collection<IModelIdentifier> modelIds = _modelIds;
+    if (modelIds == null) {
+      long generation = _modelIdsGeneration.get();
+      List<IModelIdentifier> identifiers = new ArrayList<IModelIdentifier>();
       for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
         if (project.isOpen()) {
-          for (IModelIdentifier identifier : getModels(project)) {
-            // FIXME in some cases (not systematic), it seems that '_modelIds' can be cleared by another thread...
-            // needs a deeper analysis to understand why
-            if (_modelIds != null) {
-              _modelIds.add(identifier);
-            }
-          }
+          identifiers.addAll(getModels(project));
         }
       }
+      modelIds = Collections.unmodifiableList(identifiers);
+      synchronized (_modelIdsGeneration) {
+        // A change during the computation may not be part of it
+        if (generation == _modelIdsGeneration.get()) {
+          _modelIds = modelIds;
+        }
+      }
+      if (catalog.isDirty()) {
+        catalogSaveJob.schedule();
+      }
     }
-    return _modelIds;
+    return modelIds;
   }
 
   public Collection<IModelIdentifier> getAvailableModels(TransactionalEditingDomain domain) {
@@ -206,13 +261,42 @@ public class CapellaWorkspaceProvider extends AbstractCapellaProvider
   }
 
   protected Collection<IModelIdentifier> getIdentifiers(IFile mmFile) {
-    URI uri = EcoreUtil2.getURI(mmFile);
-    Resource resource = getResource(workspaceDomain, uri, true);
-    IModelIdentifier identifier = createModelIdentifier(resource);
+    IModelIdentifier identifier = createModelIdentifier(mmFile);
     if (identifier == null) {
       return Collections.emptyList();
     }
-    return Collections.singletonList((IModelIdentifier) createModelIdentifier(resource));
+    return Collections.singletonList(identifier);
+  }
+
+  /**
+   * Creates the identifier of the given model file from its header, without loading it.
+   */
+  protected ModelIdentifier createModelIdentifier(IFile mmFile) {
+    Header header = catalog.getHeader(mmFile);
+    if (header == null) {
+      return null;
+    }
+    return new ModelIdentifier(header.getIdentifier(), EcoreUtil2.getURI(mmFile), false);
+  }
+
+  /**
+   * Returns the workspace file of the given uri, <code>null</code> if it is not a platform resource uri.
+   */
+  protected IFile getFile(URI uri) {
+    if (!uri.isPlatformResource()) {
+      return null;
+    }
+    return ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(uri.toPlatformString(true)));
+  }
+
+  /**
+   * Returns the file where the catalog is saved between sessions, <code>null</code> if none.
+   */
+  protected File getCatalogFile() {
+    if (Activator.plugin == null) {
+      return null;
+    }
+    return Activator.plugin.getStateLocation().append(CATALOG_FILE_NAME).toFile();
   }
 
   /**
@@ -226,16 +310,22 @@ public class CapellaWorkspaceProvider extends AbstractCapellaProvider
     IResourceDelta delta = event.getDelta();
     try {
       if (delta != null) {
+        changed = false;
         delta.accept(this);
+        if (changed) {
+          invalidateModelIds();
+          notifyListeners(new LibraryProviderEvent());
+        }
       }
     } catch (CoreException coreException) {
       // an exception occurs, we remove the cache since we don't really know what happened
+      catalog.clear();
       clear(delta);
     }
   }
 
   protected boolean clear(IResourceDelta delta) {
-    _modelIds = null;
+    invalidateModelIds();
     _models.clear();
 
     workspaceDomain.getResourceSet().getResources().clear();
@@ -243,18 +333,48 @@ public class CapellaWorkspaceProvider extends AbstractCapellaProvider
     return true;
   }
 
+  /**
+   * Removes the cached data of the given model file: its header, its model definition and its resource in the
+   * workspace domain.
+   */
+  protected void clear(IFile file) {
+    catalog.remove(file.getFullPath());
+    URI uri = EcoreUtil2.getURI(file);
+    _models.keySet().removeIf(identifier -> (identifier instanceof ModelIdentifier)
+        && uri.equals(((ModelIdentifier) identifier).getUri()));
+
+    Resource resource = getResource(workspaceDomain, uri, false);
+    if (resource != null) {
+      resource.unload();
+      workspaceDomain.getResourceSet().getResources().remove(resource);
+    }
+  }
+
+  protected void invalidateModelIds() {
+    synchronized (_modelIdsGeneration) {
+      _modelIdsGeneration.incrementAndGet();
+      _modelIds = null;
+    }
+  }
+
   @Override
   public boolean visit(IResourceDelta delta) {
     IResource resource = delta.getResource();
 
     switch (resource.getType()) {
     case IResource.ROOT:
-    case IResource.PROJECT:
     case IResource.FOLDER:
       return true;
+    case IResource.PROJECT:
+      // Models of closed projects are not available
+      if (((delta.getFlags() & IResourceDelta.OPEN) != 0) || (delta.getKind() != IResourceDelta.CHANGED)) {
+        changed = true;
+      }
+      return true;
     case IResource.FILE:
       if (CapellaResourceHelper.CAPELLA_MODEL_FILE_EXTENSION.equals(resource.getFileExtension())) {
-        clear(delta);
+        clear((IFile) resource);
+        changed = true;
       }
       return false;
     }
@@ -267,6 +387,10 @@ public class CapellaWorkspaceProvider extends AbstractCapellaProvider
   @Override
   public IModelIdentifier getModelIdentifier(URI semanticUri) {
     if (isHandled(semanticUri)) {
+      IFile file = getFile(semanticUri);
+      if ((file != null) && CapellaResourceHelper.CAPELLA_MODEL_FILE_EXTENSION.equals(file.getFileExtension())) {
+        return file.exists() ? createModelIdentifier(file) : null;
+      }
       Resource resource = getResource(workspaceDomain, semanticUri, true);
       if ((resource != null) && resource.getErrors().isEmpty()) {
         if (CapellaResourceHelper.isCapellaResource(semanticUri)) {
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.libraries.provider;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.polarsys.capella.core.libraries.Activator;
+import org.polarsys.capella.core.libraries.provider.LibraryHeaderScanner.Header;
+
+/**
+ * A cache of the headers of the Capella model files of the workspace, keyed by file path.<br>
+ * A header is read again by {@link LibraryHeaderScanner} when the modification stamp, the local time stamp or the size
+ * of the file differ from the cached ones: modification stamps alone are not reliable across sessions, as they start
+ * again when a project is deleted and imported again. The catalog can be saved and loaded again in the next session.
+ */
+public class LibraryCatalog {
+
+  private static final int FORMAT_VERSION = 2;
+
+  /**
+   * A cached header, <code>null</code> if the file is not a Capella project.
+   */
+  private static class Entry {
+
+    final long stamp;
+
+    final long localTimeStamp;
+
+    final long length;
+
+    final Header header;
+
+    Entry(long stamp, long localTimeStamp, long length, Header header) {
+      this.stamp = stamp;
+      this.localTimeStamp = localTimeStamp;
+      this.length = length;
+      this.header = header;
+    }
+
+    boolean isUpToDate(long fileStamp, long fileLocalTimeStamp, long fileLength) {
+      return (stamp == fileStamp) && (localTimeStamp == fileLocalTimeStamp) && (length == fileLength);
+    }
+  }
+
+  private final Map<IPath, Entry> entries = new ConcurrentHashMap<>();
+
+  private volatile boolean dirty;
+
+  /**
+   * @param file
+   * @return the header of the given file, read if the file has been modified since it was cached, <code>null</code>
+   *         if the file is not a Capella project
+   */
+  public Header getHeader(IFile file) {
+    long stamp = file.getModificationStamp();
+    if (stamp == IResource.NULL_STAMP) {
+      return null;
+    }
+    long localTimeStamp = file.getLocalTimeStamp();
+    long length = getLength(file);
+    IPath path = file.getFullPath();
+    Entry entry = entries.get(path);
+    if ((entry == null) || !entry.isUpToDate(stamp, localTimeStamp, length)) {
+      entry = new Entry(stamp, localTimeStamp, length, scan(file));
+      entries.put(path, entry);
+      dirty = true;
+    }
+    return entry.header;
+  }
+
+  /**
+   * @return the size of the given file in the file system, -1 if unknown
+   */
+  protected long getLength(IFile file) {
+    IPath location = file.getLocation();
+    if (location == null) {
+      return -1;
+    }
+    return location.toFile().length();
+  }
+
+  /**
+   * Removes the cached header of the given file.
+   */
+  public void remove(IPath path) {
+    if (entries.remove(path) != null) {
+      dirty = true;
+    }
+  }
+
+  public void clear() {
+    entries.clear();
+    dirty = true;
+  }
+
+  /**
+   * @return whether the entries have changed since the last load or save
+   */
+  public boolean isDirty() {
+    return dirty;
+  }
+
+  protected Header scan(IFile file) {
+    try (InputStream input = file.getContents(true)) {
+      return LibraryHeaderScanner.scan(input);
+
+    } catch (CoreException | IOException exception) {
+      return null;
+    }
+  }
+
+  /**
+   * Loads the entries saved in the given file, if any.
+   */
+  public void load(File file) {
+    if (!file.isFile()) {
+      return;
+    }
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (input.readInt() != FORMAT_VERSION) {
+        return;
+      }
+      for (int i = input.readInt(); i > 0; i--) {
+        IPath path = Path.fromPortableString(input.readUTF());
+        long stamp = input.readLong();
+        long localTimeStamp = input.readLong();
+        long length = input.readLong();
+        Header header = null;
+        if (input.readBoolean()) {
+          header = new Header(input.readUTF());
+        }
+        entries.putIfAbsent(path, new Entry(stamp, localTimeStamp, length, header));
+      }
+
+    } catch (IOException exception) {
+      // The catalog will be built again
+      entries.clear();
+      log(exception);
+    }
+  }
+
+  /**
+   * Saves the entries to the given file, if they have changed since the last load or save.
+   */
+  public void save(File file) {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+    List<Map.Entry<IPath, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      output.writeInt(FORMAT_VERSION);
+      output.writeInt(snapshot.size());
+      for (Map.Entry<IPath, Entry> entry : snapshot) {
+        output.writeUTF(entry.getKey().toPortableString());
+        output.writeLong(entry.getValue().stamp);
+        output.writeLong(entry.getValue().localTimeStamp);
+        output.writeLong(entry.getValue().length);
+        Header header = entry.getValue().header;
+        output.writeBoolean(header != null);
+        if (header != null) {
+          output.writeUTF(header.getIdentifier());
+        }
+      }
+
+    } catch (IOException exception) {
+      log(exception);
+    }
+  }
+
+  private void log(IOException exception) {
+    if (Activator.plugin != null) {
+      Activator.plugin.getLog()
+          .log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, exception.getLocalizedMessage(), exception));
+    }
+  }
+}
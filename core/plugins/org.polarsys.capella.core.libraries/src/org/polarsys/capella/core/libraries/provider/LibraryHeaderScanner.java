@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.libraries.provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.polarsys.capella.common.mdsofa.common.constant.ICommonConstants;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads the header of a Capella model file: its root project and the id of its ModelInformation.<br>
+ * Parsing stops once the ModelInformation has been reached, or once the first other content of the project is reached,
+ * so that the cost does not depend on the size of the model.
+ */
+public class LibraryHeaderScanner extends DefaultHandler {
+
+  /**
+   * The header of a Capella model file.
+   */
+  public static class Header {
+
+    private final String identifier;
+
+    public Header(String identifier) {
+      this.identifier = identifier;
+    }
+
+    /**
+     * @return the id of the ModelInformation of the project, an empty string if none
+     */
+    public String getIdentifier() {
+      return identifier;
+    }
+  }
+
+  /**
+   * Thrown to stop parsing once the header has been read.
+   */
+  private static class HeaderReadException extends SAXException {
+
+    private static final long serialVersionUID = -3105584137930592542L;
+
+  }
+
+  private static final String MODELLER_NS_PREFIX = "http://www.polarsys.org/capella/core/modeller/"; //$NON-NLS-1$
+
+  private static final String XSI_NS = "http://www.w3.org/2001/XMLSchema-instance"; //$NON-NLS-1$
+
+  private static final String PROJECT = "Project"; //$NON-NLS-1$
+
+  private static final String LIBRARY = "Library"; //$NON-NLS-1$
+
+  private static final String OWNED_EXTENSIONS = "ownedExtensions"; //$NON-NLS-1$
+
+  private static final String MODEL_INFORMATION = "ModelInformation"; //$NON-NLS-1$
+
+  private static final String ID = "id"; //$NON-NLS-1$
+
+  private static final String TYPE = "type"; //$NON-NLS-1$
+
+  private boolean isProject;
+
+  private String identifier;
+
+  private int depth;
+
+  protected LibraryHeaderScanner() {
+    // Use scan.
+  }
+
+  /**
+   * @param input
+   *          the content of the file, not closed
+   * @return the header of the file, <code>null</code> if the file is not a Capella project
+   */
+  public static Header scan(InputStream input) throws IOException {
+    LibraryHeaderScanner scanner = new LibraryHeaderScanner();
+    try {
+      SAXParserFactory factory = SAXParserFactory.newInstance();
+      factory.setNamespaceAware(true);
+      SAXParser parser = factory.newSAXParser();
+      parser.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, ICommonConstants.EMPTY_STRING);
+      parser.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, ICommonConstants.EMPTY_STRING);
+      parser.parse(input, scanner);
+
+    } catch (HeaderReadException exception) {
+      // The header has been read
+
+    } catch (SAXException | ParserConfigurationException exception) {
+      return null;
+    }
+    return scanner.getHeader();
+  }
+
+  /**
+   * @return the read header, <code>null</code> if the file is not a Capella project
+   */
+  protected Header getHeader() {
+    if (!isProject) {
+      return null;
+    }
+    return new Header(identifier == null ? ICommonConstants.EMPTY_STRING : identifier);
+  }
+
+  @Override
+  public void startElement(String namespace, String localName, String qName, Attributes attributes)
+      throws SAXException {
+    depth++;
+
+    if (depth == 1) {
+      isProject = (namespace != null) && namespace.startsWith(MODELLER_NS_PREFIX)
+          && (PROJECT.equals(localName) || LIBRARY.equals(localName));
+      if (!isProject) {
+        throw new HeaderReadException();
+      }
+
+    } else if (depth == 2) {
+      // Extensions come first, the header ends with them
+      if (!OWNED_EXTENSIONS.equals(localName)) {
+        throw new HeaderReadException();
+      }
+      if (isModelInformation(attributes.getValue(XSI_NS, TYPE))) {
+        identifier = attributes.getValue(ID);
+        throw new HeaderReadException();
+      }
+    }
+  }
+
+  @Override
+  public void endElement(String namespace, String localName, String qName) throws SAXException {
+    depth--;
+  }
+
+  private boolean isModelInformation(String type) {
+    return (type != null) && (type.equals(MODEL_INFORMATION) || type.endsWith(":" + MODEL_INFORMATION)); //$NON-NLS-1$
+  }
+}
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.polarsys.capella.common.libraries.IModel;
 import org.polarsys.capella.core.libraries.model.CapellaModel;
 import org.polarsys.capella.shared.id.handler.IScope;
@@ -36,4 +37,17 @@ public class ScopeModelWrapper implements IScope {
     }
     return Collections.emptyList();
   }
+
+  @Override
+  public ResourceSet getResourceSet() {
+    if (_model instanceof CapellaModel) {
+      return ((CapellaModel) _model).getEditingDomain().getResourceSet();
+    }
+    return null;
+  }
+
+  @Override
+  public boolean contains(Resource resource) {
+    return resource != null && resource.getResourceSet() != null && resource.getResourceSet() == getResourceSet();
+  }
 }
@@ -87,6 +87,16 @@ public class CapellaECrossReferenceAdapter extends SiriusCrossReferenceAdapter {
     }
   }
 
+  /**
+   * Make sure the references of an object attached to a new container are adapted against the inverse cross
+   * referencer.
+   * 
+   * @param object
+   */
+  protected void adaptAttachedObject(EObject object) {
+    adaptAllEReferences(object);
+  }
+
   /**
    * @see org.eclipse.emf.ecore.util.ECrossReferenceAdapter#addAdapter(org.eclipse.emf.common.notify.Notifier)
    */
@@ -129,12 +139,12 @@ public class CapellaECrossReferenceAdapter extends SiriusCrossReferenceAdapter {
       // That's why we adapt its references again.
       
       if (newValue instanceof EObject) {
-        adaptAllEReferences((EObject) newValue);
+        adaptAttachedObject((EObject) newValue);
         
       } else if (newValue instanceof Collection<?>) {
         for (Object value : (Collection<?>) notification.getNewValue()) {
           if (value instanceof EObject) {
-            adaptAllEReferences((EObject) value);
+            adaptAttachedObject((EObject) value);
           }
         }
       }
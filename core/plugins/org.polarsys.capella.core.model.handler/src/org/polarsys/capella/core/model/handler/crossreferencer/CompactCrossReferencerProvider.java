@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.model.handler.crossreferencer;
+
+import org.eclipse.emf.edit.domain.EditingDomain;
+import org.eclipse.sirius.common.tools.api.util.SiriusCrossReferenceAdapter;
+import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.ICrossReferencerProvider;
+
+/**
+ * A cross referencer provider specific to Capella M2, with a memory-lean inverse cross referencer.<br>
+ * This result in a {@link CompactECrossReferenceAdapter}.
+ */
+public class CompactCrossReferencerProvider implements ICrossReferencerProvider {
+
+  /**
+   * System property selecting the compact cross referencer rather than the {@link CapellaCrossReferencerProvider} one,
+   * off by default.
+   */
+  public static final String ENABLED_PROPERTY = "capella.crossReferencer.compact"; //$NON-NLS-1$
+
+  /**
+   * @return whether the compact cross referencer is selected by {@link #ENABLED_PROPERTY}
+   */
+  public static boolean isEnabled() {
+    return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, Boolean.FALSE.toString()));
+  }
+
+  /**
+   * @see org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.ICrossReferencerProvider#getCrossReferencer(org.eclipse.emf.edit.domain.EditingDomain)
+   */
+  @Override
+  public SiriusCrossReferenceAdapter getCrossReferencer(EditingDomain editingDomain) {
+    return new CompactECrossReferenceAdapter(editingDomain);
+  }
+
+}
@@ -0,0 +1,443 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.model.handler.crossreferencer;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature.Setting;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.EContentsEList;
+import org.eclipse.emf.edit.domain.EditingDomain;
+
+/**
+ * A {@link CapellaECrossReferenceAdapter} with a memory-lean inverse cross referencer.<br>
+ * Inverse references of a target are stored as packed (reference, source) pairs in a single array, in an identity
+ * map: no {@link Setting} is kept, they are created when inverse references are asked for. The inverse cross referencer
+ * only supports the read operations of the {@link Map} contract, {@link Map#put(Object, Object)} and
+ * {@link Map#remove(Object)}: its values are unmodifiable views.<br>
+ * An object moved from a container to another one keeps its inverse references: only the objects whose references
+ * were dropped on removal are adapted again when attached, instead of the whole subtree of each attached object.
+ */
+public class CompactECrossReferenceAdapter extends CapellaECrossReferenceAdapter {
+
+  class CompactInverseCrossReferencer extends CapellaInverseCrossReferencer {
+    /**
+     * Generated serial UID.
+     */
+    private static final long serialVersionUID = 4418201983587216532L;
+
+    /**
+     * Inverse references by target: (reference, source) pairs, followed by free slots.
+     */
+    private final transient Map<EObject, Object[]> edges = new IdentityHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void add(InternalEObject eObject, EReference eReference, EObject crossReferencedEObject) {
+      Object[] pairs = edges.get(crossReferencedEObject);
+      if (pairs == null) {
+        pairs = new Object[2];
+        edges.put(crossReferencedEObject, pairs);
+      }
+      int size = size(pairs);
+      if (size == pairs.length) {
+        pairs = Arrays.copyOf(pairs, size + Math.max(2, (size >> 2) << 1));
+        edges.put(crossReferencedEObject, pairs);
+      }
+      pairs[size] = eReference;
+      pairs[size + 1] = eObject;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(EObject eObject, EReference eReference, EObject crossReferencedEObject) {
+      Object[] pairs = edges.get(crossReferencedEObject);
+      if (pairs == null) {
+        return;
+      }
+      int size = size(pairs);
+      for (int i = 0; i < size; i += 2) {
+        if (pairs[i] == eReference && pairs[i + 1] == eObject) {
+          if (size == 2) {
+            edges.remove(crossReferencedEObject);
+          } else {
+            // Used slots are never modified in place, so that the settings returned by get stay valid.
+            Object[] remaining = new Object[size - 2];
+            System.arraycopy(pairs, 0, remaining, 0, i);
+            System.arraycopy(pairs, i + 2, remaining, i, size - i - 2);
+            edges.put(crossReferencedEObject, remaining);
+          }
+          return;
+        }
+      }
+    }
+
+    /**
+     * Remove all the references of the given object from the inverse references of their targets.
+     *
+     * @param eObject
+     */
+    void removeCrossReferences(EObject eObject) {
+      for (EContentsEList.FeatureIterator<EObject> i = getCrossReferences(eObject); i.hasNext();) {
+        EObject crossReferencedEObject = i.next();
+        if (crossReferencedEObject != null) {
+          remove(eObject, (EReference) i.feature(), crossReferencedEObject);
+        }
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object remove(EObject eObject) {
+      return toSettings(edges.remove(eObject));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Setting> remove(Object key) {
+      return toSettings(edges.remove(key));
+    }
+
+    /**
+     * An unmodifiable view of the inverse references of the given target when called, without copy: only free slots
+     * of the pairs are written afterwards.
+     */
+    @Override
+    public Collection<Setting> get(Object key) {
+      return toSettings(edges.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Setting> getOrDefault(Object key, Collection<Setting> defaultValue) {
+      Collection<Setting> result = get(key);
+      return result == null ? defaultValue : result;
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views, use {@link #add(InternalEObject, EReference, EObject)}.
+     */
+    @Override
+    protected Collection<Setting> getCollection(Object key) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Setting> put(EObject key, Collection<Setting> value) {
+      Object[] pairs = new Object[value.size() << 1];
+      int i = 0;
+      for (Setting setting : value) {
+        pairs[i++] = setting.getEStructuralFeature();
+        pairs[i++] = setting.getEObject();
+      }
+      return toSettings(pairs.length == 0 ? edges.remove(key) : edges.put(key, pairs));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void putAll(Map<? extends EObject, ? extends Collection<Setting>> map) {
+      for (Map.Entry<? extends EObject, ? extends Collection<Setting>> entry : map.entrySet()) {
+        put(entry.getKey(), entry.getValue());
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+      return edges.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+      return values().contains(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEach(BiConsumer<? super EObject, ? super Collection<Setting>> action) {
+      for (Map.Entry<EObject, Object[]> entry : edges.entrySet()) {
+        action.accept(entry.getKey(), toSettings(entry.getValue()));
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+      return edges.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+      return edges.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+      edges.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<EObject> keySet() {
+      return Collections.unmodifiableSet(edges.keySet());
+    }
+
+    /**
+     * A snapshot of the inverse references, Settings being created for each one.
+     */
+    @Override
+    public Set<Map.Entry<EObject, Collection<Setting>>> entrySet() {
+      Map<EObject, Collection<Setting>> result = new HashMap<>();
+      for (EObject key : edges.keySet()) {
+        result.put(key, get(key));
+      }
+      return Collections.unmodifiableSet(result.entrySet());
+    }
+
+    /**
+     * A snapshot of the inverse references, Settings being created for each one.
+     */
+    @Override
+    public Collection<Collection<Setting>> values() {
+      List<Collection<Setting>> result = new ArrayList<>(edges.size());
+      for (EObject key : edges.keySet()) {
+        result.add(get(key));
+      }
+      return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views.
+     */
+    @Override
+    public boolean remove(Object key, Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views.
+     */
+    @Override
+    public Collection<Setting> putIfAbsent(EObject key, Collection<Setting> value) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views.
+     */
+    @Override
+    public Collection<Setting> replace(EObject key, Collection<Setting> value) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views.
+     */
+    @Override
+    public boolean replace(EObject key, Collection<Setting> oldValue, Collection<Setting> newValue) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views.
+     */
+    @Override
+    public void replaceAll(
+        BiFunction<? super EObject, ? super Collection<Setting>, ? extends Collection<Setting>> function) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views.
+     */
+    @Override
+    public Collection<Setting> computeIfAbsent(EObject key,
+        Function<? super EObject, ? extends Collection<Setting>> mappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views.
+     */
+    @Override
+    public Collection<Setting> computeIfPresent(EObject key,
+        BiFunction<? super EObject, ? super Collection<Setting>, ? extends Collection<Setting>> remappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views.
+     */
+    @Override
+    public Collection<Setting> compute(EObject key,
+        BiFunction<? super EObject, ? super Collection<Setting>, ? extends Collection<Setting>> remappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: inverse references are unmodifiable views.
+     */
+    @Override
+    public Collection<Setting> merge(EObject key, Collection<Setting> value,
+        BiFunction<? super Collection<Setting>, ? super Collection<Setting>, ? extends Collection<Setting>> remappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: the inverse references are not held by the inherited map.
+     */
+    @Override
+    public Object clone() {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return the number of used slots in the given pairs
+     */
+    private int size(Object[] pairs) {
+      // Pairs are packed, find the first free one.
+      int low = 0;
+      int high = pairs.length >> 1;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (pairs[middle << 1] == null) {
+          high = middle;
+        } else {
+          low = middle + 1;
+        }
+      }
+      return low << 1;
+    }
+
+    private Collection<Setting> toSettings(Object[] pairs) {
+      return pairs == null ? null : new SettingList(pairs, size(pairs));
+    }
+  }
+
+  /**
+   * An unmodifiable list of Settings, created on access from (reference, source) pairs.
+   */
+  private static class SettingList extends AbstractList<Setting> {
+
+    private final Object[] pairs;
+
+    private final int size;
+
+    SettingList(Object[] pairs, int size) {
+      this.pairs = pairs;
+      this.size = size >> 1;
+    }
+
+    @Override
+    public Setting get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException(String.valueOf(index));
+      }
+      return ((InternalEObject) pairs[(index << 1) + 1]).eSetting((EReference) pairs[index << 1]);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /**
+   * Objects still adapted whose references were removed from the inverse cross referencer, when removed from their
+   * container.
+   */
+  private final Set<EObject> detachedObjects = Collections.newSetFromMap(new WeakHashMap<EObject, Boolean>());
+
+  public CompactECrossReferenceAdapter(EditingDomain editingDomain) {
+    super(editingDomain);
+  }
+
+  @Override
+  protected InverseCrossReferencer createInverseCrossReferencer() {
+    return new CompactInverseCrossReferencer();
+  }
+
+  /**
+   * An attached object keeps its inverse references when moved from a container to another one: it is only adapted
+   * again if its references were removed from the inverse cross referencer.
+   *
+   * @see org.polarsys.capella.core.model.handler.crossreferencer.CapellaECrossReferenceAdapter#adaptAttachedObject(org.eclipse.emf.ecore.EObject)
+   */
+  @Override
+  protected void adaptAttachedObject(EObject object) {
+    if (detachedObjects.remove(object)) {
+      // References set while detached are already referenced, remove them before adapting the whole object again.
+      ((CompactInverseCrossReferencer) inverseCrossReferencer).removeCrossReferences(object);
+      setTarget(object);
+    }
+  }
+
+  /**
+   * @see org.eclipse.emf.ecore.util.ECrossReferenceAdapter#unsetTarget(org.eclipse.emf.ecore.EObject)
+   */
+  @Override
+  protected void unsetTarget(EObject target) {
+    super.unsetTarget(target);
+    // The adapter is kept by objects removed from their container, its contents are no longer adapted.
+    if (target.eAdapters().contains(this)) {
+      detachedObjects.add(target);
+    }
+  }
+}
@@ -13,9 +13,12 @@
 package org.polarsys.capella.core.model.handler.helpers;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
@@ -24,7 +27,7 @@ import org.eclipse.emf.ecore.util.ECrossReferenceAdapter;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.polarsys.capella.common.ef.ExecutionManager;
-import org.polarsys.capella.common.ef.command.AbstractReadOnlyCommand;
+import org.polarsys.capella.common.ef.command.AbstractSharedReadOnlyCommand;
 import org.polarsys.capella.common.ef.command.ICommand;
 import org.polarsys.capella.common.helpers.EcoreUtil2;
 import org.polarsys.capella.common.helpers.TransactionHelper;
@@ -47,8 +50,9 @@ public class CrossReferencerHelper {
   public static List<EObject> getReferencingElements(final EObject referencedElement) {
     // Get the execution manager.
     final List<EObject> referencingElements = new ArrayList<EObject>(0);
-    // Create a read only command to make sure computation is performed in a transactional way.
-    ICommand command = new AbstractReadOnlyCommand() {
+    // Create a shared read only command to make sure computation is isolated from write transactions, concurrently
+    // with other readers.
+    ICommand command = new AbstractSharedReadOnlyCommand() {
       /**
        * @see java.lang.Runnable#run()
        */
@@ -67,6 +71,39 @@ public class CrossReferencerHelper {
     return referencingElements;
   }
 
+  /**
+   * Collect all elements that reference (containment relationships are not taken into account) at least one of given
+   * ones, in a single read only command.<br>
+   * Derived features are ignored too.
+   * @param referencedElements elements of the same editing domain
+   * @return a not <code>null</code> collection.
+   */
+  public static Set<EObject> getReferencingElements(final Collection<? extends EObject> referencedElements) {
+    final Set<EObject> referencingElements = new LinkedHashSet<EObject>();
+    if (referencedElements.isEmpty()) {
+      return referencingElements;
+    }
+    final EObject firstElement = referencedElements.iterator().next();
+    // Create a shared read only command to make sure computation is isolated from write transactions, concurrently
+    // with other readers.
+    ICommand command = new AbstractSharedReadOnlyCommand() {
+      @Override
+      public void run() {
+        // Get the cross referencer.
+        ECrossReferenceAdapter crossReferencer = ((SemanticEditingDomain) TransactionHelper.getEditingDomain(firstElement)).getCrossReferencer();
+        for (EObject referencedElement : referencedElements) {
+          referencingElements.addAll(EcoreUtil2.getReferencingElements(referencedElement, crossReferencer));
+        }
+      }
+    };
+    // Run the command.
+    ExecutionManager mgr = TransactionHelper.getExecutionManager(firstElement);
+    if (mgr != null) {
+      mgr.execute(command);
+    }
+    return referencingElements;
+  }
+
   /**
    * Allows to enable or disable crossReferencer resolution
    * @param editingDomain
@@ -0,0 +1,387 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.model.handler.helpers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.sirius.business.api.session.Session;
+import org.eclipse.sirius.business.api.session.resource.AirdResource;
+import org.eclipse.sirius.viewpoint.DAnalysis;
+import org.eclipse.sirius.viewpoint.DRepresentationDescriptor;
+import org.eclipse.sirius.viewpoint.DView;
+
+/**
+ * An index of the representation descriptors of a session by UID, repPath fragment and target.<br>
+ * The index is built on first access, then maintained through the notifications of the resource set, of the aird
+ * resources, of their analyses, views and descriptors: descriptors added, removed or modified are indexed again
+ * without browsing all the descriptors. The index is built again on next access when an aird resource is added,
+ * removed, loaded or unloaded, or when another resource is loaded or unloaded, as its elements targeted by descriptors
+ * are then replaced.<br>
+ * When several descriptors share a UID or a repPath fragment, the first indexed one is returned; the next one is
+ * returned once it is removed.<br>
+ * Lookups return copies.
+ */
+public class RepresentationDescriptorIndex extends AdapterImpl {
+
+  private final ResourceSet resourceSet;
+
+  /**
+   * Whether the index must be built again on next access.
+   */
+  private boolean dirty = true;
+
+  /**
+   * Adapted resources, analyses and views.
+   */
+  private final Set<Notifier> containers = new LinkedHashSet<>();
+
+  private final Map<String, Set<DRepresentationDescriptor>> descriptorsByUid = new HashMap<>();
+
+  private final Map<String, Set<DRepresentationDescriptor>> descriptorsByFragment = new HashMap<>();
+
+  private final Map<EObject, Set<DRepresentationDescriptor>> descriptorsByTarget = new HashMap<>();
+
+  /**
+   * Keys of each indexed descriptor: its UID, repPath fragment and target.
+   */
+  private final Map<DRepresentationDescriptor, Object[]> keys = new LinkedHashMap<>();
+
+  private RepresentationDescriptorIndex(ResourceSet resourceSet) {
+    this.resourceSet = resourceSet;
+  }
+
+  /**
+   * @param session
+   * @return the index of the given session, <code>null</code> if the session has no resource set
+   */
+  public static RepresentationDescriptorIndex getIndex(Session session) {
+    if (session == null || session.getTransactionalEditingDomain() == null) {
+      return null;
+    }
+    return getIndex(session.getTransactionalEditingDomain().getResourceSet());
+  }
+
+  /**
+   * @param resourceSet
+   * @return the index of the given resource set, created if needed
+   */
+  public static synchronized RepresentationDescriptorIndex getIndex(ResourceSet resourceSet) {
+    RepresentationDescriptorIndex index = (RepresentationDescriptorIndex) EcoreUtil.getExistingAdapter(resourceSet,
+        RepresentationDescriptorIndex.class);
+    if (index == null) {
+      index = new RepresentationDescriptorIndex(resourceSet);
+      resourceSet.eAdapters().add(index);
+    }
+    return index;
+  }
+
+  @Override
+  public boolean isAdapterForType(Object type) {
+    return type == RepresentationDescriptorIndex.class;
+  }
+
+  /**
+   * @param id
+   * @return the descriptor whose UID or repPath fragment equals the given id, <code>null</code> if none
+   */
+  public synchronized DRepresentationDescriptor getDescriptor(String id) {
+    build();
+    Set<DRepresentationDescriptor> descriptors = descriptorsByUid.get(id);
+    if (descriptors == null) {
+      descriptors = descriptorsByFragment.get(id);
+    }
+    return descriptors == null ? null : descriptors.iterator().next();
+  }
+
+  /**
+   * @param target
+   * @return the descriptors targeting the given element
+   */
+  public synchronized Collection<DRepresentationDescriptor> getDescriptors(EObject target) {
+    build();
+    Set<DRepresentationDescriptor> result = descriptorsByTarget.get(target);
+    return result == null ? Collections.emptyList() : new ArrayList<>(result);
+  }
+
+  /**
+   * @return all the indexed descriptors
+   */
+  public synchronized Collection<DRepresentationDescriptor> getDescriptors() {
+    build();
+    return new ArrayList<>(keys.keySet());
+  }
+
+  /**
+   * @return the number of indexed descriptors
+   */
+  public synchronized int size() {
+    build();
+    return keys.size();
+  }
+
+  @Override
+  public synchronized void notifyChanged(Notification notification) {
+    Object notifier = notification.getNotifier();
+    if (notification.getEventType() == Notification.REMOVING_ADAPTER) {
+      if (notification.getOldValue() == this && notifier == resourceSet) {
+        // The index is detached: it will be created again on next access.
+        clear();
+      }
+      return;
+    }
+    if (notification.isTouch() || dirty) {
+      return;
+    }
+
+    if (notifier == resourceSet) {
+      if (notification.getFeatureID(ResourceSet.class) == ResourceSet.RESOURCE_SET__RESOURCES) {
+        if (isAird(notification.getOldValue()) || isAird(notification.getNewValue())) {
+          dirty = true;
+        } else {
+          forEachResource(notification.getOldValue(), this::removeResource);
+          forEachResource(notification.getNewValue(), this::addResource);
+        }
+      }
+
+    } else if (notifier instanceof Resource) {
+      int featureID = notification.getFeatureID(Resource.class);
+      if (featureID == Resource.RESOURCE__IS_LOADED
+          || (featureID == Resource.RESOURCE__CONTENTS && notifier instanceof AirdResource)) {
+        dirty = true;
+      }
+
+    } else if (notifier instanceof DRepresentationDescriptor) {
+      DRepresentationDescriptor descriptor = (DRepresentationDescriptor) notifier;
+      if (keys.containsKey(descriptor)) {
+        unindex(descriptor);
+        index(descriptor);
+      }
+
+    } else if (notification.getFeature() instanceof EReference
+        && ((EReference) notification.getFeature()).isContainment()) {
+      forEachElement(notification.getOldValue(), this::removeAll);
+      forEachElement(notification.getNewValue(), this::addAll);
+    }
+  }
+
+  private boolean isAird(Object value) {
+    if (value instanceof AirdResource) {
+      return true;
+    }
+    if (value instanceof Collection<?>) {
+      for (Object element : (Collection<?>) value) {
+        if (element instanceof AirdResource) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private void forEachResource(Object value, Consumer<Resource> action) {
+    if (value instanceof Resource) {
+      action.accept((Resource) value);
+    } else if (value instanceof Collection<?>) {
+      for (Object element : (Collection<?>) value) {
+        if (element instanceof Resource) {
+          action.accept((Resource) element);
+        }
+      }
+    }
+  }
+
+  private void addResource(Resource resource) {
+    if (containers.add(resource)) {
+      resource.eAdapters().add(this);
+    }
+  }
+
+  private void removeResource(Resource resource) {
+    if (containers.remove(resource)) {
+      resource.eAdapters().remove(this);
+    }
+  }
+
+  private void forEachElement(Object value, Consumer<EObject> action) {
+    if (value instanceof EObject) {
+      action.accept((EObject) value);
+    } else if (value instanceof Collection<?>) {
+      for (Object element : (Collection<?>) value) {
+        if (element instanceof EObject) {
+          action.accept((EObject) element);
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds the index if it is dirty.
+   */
+  private void build() {
+    if (!dirty) {
+      return;
+    }
+    clear();
+    dirty = false;
+    for (Resource resource : new ArrayList<>(resourceSet.getResources())) {
+      // Other resources are only adapted to follow their loading
+      addResource(resource);
+      if (resource instanceof AirdResource) {
+        if (resource.isLoaded()) {
+          for (EObject root : resource.getContents()) {
+            addAll(root);
+          }
+        }
+      }
+    }
+  }
+
+  private void clear() {
+    for (DRepresentationDescriptor descriptor : keys.keySet()) {
+      descriptor.eAdapters().remove(this);
+    }
+    for (Notifier container : containers) {
+      container.eAdapters().remove(this);
+    }
+    containers.clear();
+    keys.clear();
+    descriptorsByUid.clear();
+    descriptorsByFragment.clear();
+    descriptorsByTarget.clear();
+    dirty = true;
+  }
+
+  /**
+   * Indexes the descriptors of the given analysis, view or descriptor.
+   */
+  private void addAll(EObject element) {
+    if (element instanceof DAnalysis) {
+      if (containers.add(element)) {
+        element.eAdapters().add(this);
+      }
+      for (DView view : ((DAnalysis) element).getOwnedViews()) {
+        addAll(view);
+      }
+
+    } else if (element instanceof DView) {
+      if (containers.add(element)) {
+        element.eAdapters().add(this);
+      }
+      for (DRepresentationDescriptor descriptor : ((DView) element).getOwnedRepresentationDescriptors()) {
+        addAll(descriptor);
+      }
+
+    } else if (element instanceof DRepresentationDescriptor) {
+      DRepresentationDescriptor descriptor = (DRepresentationDescriptor) element;
+      if (!keys.containsKey(descriptor)) {
+        descriptor.eAdapters().add(this);
+        index(descriptor);
+      }
+    }
+  }
+
+  /**
+   * Removes the descriptors of the given analysis, view or descriptor from the index.
+   */
+  private void removeAll(EObject element) {
+    if (element instanceof DAnalysis) {
+      if (containers.remove(element)) {
+        element.eAdapters().remove(this);
+      }
+      for (DView view : ((DAnalysis) element).getOwnedViews()) {
+        removeAll(view);
+      }
+
+    } else if (element instanceof DView) {
+      if (containers.remove(element)) {
+        element.eAdapters().remove(this);
+      }
+      for (DRepresentationDescriptor descriptor : ((DView) element).getOwnedRepresentationDescriptors()) {
+        removeAll(descriptor);
+      }
+
+    } else if (element instanceof DRepresentationDescriptor) {
+      DRepresentationDescriptor descriptor = (DRepresentationDescriptor) element;
+      if (keys.containsKey(descriptor)) {
+        unindex(descriptor);
+        keys.remove(descriptor);
+        descriptor.eAdapters().remove(this);
+      }
+    }
+  }
+
+  private void index(DRepresentationDescriptor descriptor) {
+    String uid = descriptor.getUid();
+    String fragment = getFragment(descriptor);
+    EObject target = descriptor.getTarget();
+    addToIndex(descriptorsByUid, uid, descriptor);
+    addToIndex(descriptorsByFragment, fragment, descriptor);
+    addToIndex(descriptorsByTarget, target, descriptor);
+    keys.put(descriptor, new Object[] { uid, fragment, target });
+  }
+
+  private void unindex(DRepresentationDescriptor descriptor) {
+    Object[] descriptorKeys = keys.get(descriptor);
+    if (descriptorKeys == null) {
+      return;
+    }
+    removeFromIndex(descriptorsByUid, descriptorKeys[0], descriptor);
+    removeFromIndex(descriptorsByFragment, descriptorKeys[1], descriptor);
+    removeFromIndex(descriptorsByTarget, descriptorKeys[2], descriptor);
+  }
+
+  private static <K> void addToIndex(Map<K, Set<DRepresentationDescriptor>> index, K key,
+      DRepresentationDescriptor descriptor) {
+    if (key != null) {
+      index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(descriptor);
+    }
+  }
+
+  private static void removeFromIndex(Map<?, Set<DRepresentationDescriptor>> index, Object key,
+      DRepresentationDescriptor descriptor) {
+    if (key != null) {
+      Set<DRepresentationDescriptor> descriptors = index.get(key);
+      if (descriptors != null) {
+        descriptors.remove(descriptor);
+        if (descriptors.isEmpty()) {
+          index.remove(key);
+        }
+      }
+    }
+  }
+
+  private static String getFragment(DRepresentationDescriptor descriptor) {
+    if (descriptor.getRepPath() == null) {
+      return null;
+    }
+    URI uri = descriptor.getRepPath().getResourceURI();
+    return uri == null ? null : uri.fragment();
+  }
+}
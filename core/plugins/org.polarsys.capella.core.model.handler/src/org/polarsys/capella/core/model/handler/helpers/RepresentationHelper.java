@@ -106,15 +106,16 @@ public class RepresentationHelper {
     Iterable<EObject> semanticEObjects = Iterables.filter(semanticElements, EObject.class);
     for (EObject semanticEObject : semanticEObjects) {
       Session session = SessionManager.INSTANCE.getSession(semanticEObject);
-      if (session != null) { // can happen during tests
-        representations.addAll(DialectManager.INSTANCE.getRepresentationDescriptors(semanticEObject, session));
+      RepresentationDescriptorIndex index = RepresentationDescriptorIndex.getIndex(session);
+      if (index != null) { // can happen during tests
+        representations.addAll(index.getDescriptors(semanticEObject));
         // Go trough element's subtree (sub elements have the same session as their parent).
         TreeIterator<EObject> allChildrenOfCurrentElement = semanticEObject.eAllContents();
 
         while (allChildrenOfCurrentElement != null && allChildrenOfCurrentElement.hasNext()) {
           EObject child = allChildrenOfCurrentElement.next();
 
-          representations.addAll(DialectManager.INSTANCE.getRepresentationDescriptors(child, session));
+          representations.addAll(index.getDescriptors(child));
         }
       }
     }
@@ -123,25 +124,27 @@ public class RepresentationHelper {
   }
 
   /**
-   * Get all representations where the specified semantic element appears.
+   * Get all representations where the specified semantic elements appear, with a single query.
    * 
-   * @param semanticElement
+   * @param session
+   * @param semanticElements
    * @param representationDescriptors
    */
-  private static void getRelatedRepresentations(EObject semanticElement,
+  private static void getRelatedRepresentations(Session session, Collection<? extends EObject> semanticElements,
       Set<DRepresentationDescriptor> representationDescriptors) {
     // Use Set instead of list to avoid dulicate
     Set<EObject> semanticElementsToCheck = new HashSet<>();
 
-    // The semantic element itself needs to be checked
-    semanticElementsToCheck.add(semanticElement);
+    for (EObject semanticElement : semanticElements) {
+      // The semantic element itself needs to be checked
+      semanticElementsToCheck.add(semanticElement);
 
-    // For a Component, we want to see representations related to its allocated functions.
-    if (semanticElement instanceof Component) {
-      semanticElementsToCheck.addAll(((Component) semanticElement).getAllocatedFunctions());
+      // For a Component, we want to see representations related to its allocated functions.
+      if (semanticElement instanceof Component) {
+        semanticElementsToCheck.addAll(((Component) semanticElement).getAllocatedFunctions());
+      }
     }
 
-    Session session = SessionManager.INSTANCE.getSession(semanticElement);
     Map<EObject, Collection<DRepresentationDescriptor>> impactedRepresentationDescriptors = ((DAnalysisSessionImpl) session)
         .getSiriusReferenceFinder().getImpactedRepresentationDescriptors(semanticElementsToCheck,
             SiriusReferenceFinder.SearchScope.ALL_REPRESENTATIONS_SCOPE);
@@ -168,10 +171,28 @@ public class RepresentationHelper {
     if (null == session) {
       return Collections.emptySet();
     }
+    return getAllRepresentationDescriptorsWhereSemanticElementsAreDisplayed(session,
+        Collections.singleton(semanticElement), filteringCondition);
+  }
+
+  /**
+   * Get all representationDescriptors where at least one of the specified semantic elements is displayed, with a single
+   * query for all the elements.
+   *
+   * @param session
+   * @param semanticElements
+   * @param filteringCondition
+   * @return a not <code>null</code> collection.
+   */
+  public static Collection<DRepresentationDescriptor> getAllRepresentationDescriptorsWhereSemanticElementsAreDisplayed(
+      Session session, Collection<? extends EObject> semanticElements, RunnableWithBooleanResult filteringCondition) {
+    if (null == session || semanticElements.isEmpty()) {
+      return Collections.emptySet();
+    }
     // Collect all representations related to the given semantic elements and some other related ones (following
     // specific kind of references).
     Set<DRepresentationDescriptor> unfilteredRepresentationDescs = new HashSet<DRepresentationDescriptor>();
-    getRelatedRepresentations(semanticElement, unfilteredRepresentationDescs);
+    getRelatedRepresentations(session, semanticElements, unfilteredRepresentationDescs);
 
     // Do some filtering.
     Set<DRepresentationDescriptor> filteredRepresentationDescs = new HashSet<DRepresentationDescriptor>();
@@ -206,17 +227,9 @@ public class RepresentationHelper {
    * @return
    */
   public static Collection<Resource> collectDependentResources(EObject semanticRoot) {
-    Collection<Resource> resources = new HashSet<Resource>();
-    // Find all elements that reference semantic root.
-    for (EObject referencingElement : CrossReferencerHelper.getReferencingElements(semanticRoot)) {
-      resources.add(referencingElement.eResource());
-    }
-    // Get all representation descriptors that reference semantic root.
-    for (DRepresentationDescriptor representationDescriptor : getAllRepresentationDescriptorsWhereSemanticElementIsDisplayed(
-        semanticRoot, null)) {
-      resources.add(representationDescriptor.eResource());
-    }
-    // Loop over semantic root sub tree to collect all dependent resources.
+    // Collect semantic root and its sub tree.
+    List<EObject> elements = new ArrayList<EObject>();
+    elements.add(semanticRoot);
     Resource semanticRootResource = semanticRoot.eResource();
     TreeIterator<EObject> semanticRootEAllContents = semanticRoot.eAllContents();
     while (semanticRootEAllContents.hasNext()) {
@@ -224,17 +237,20 @@ public class RepresentationHelper {
       // Exclude child contained in its own resource (e.g sub fragments).
       Resource childResource = EcoreUtil2.getResourceContainer(child).eResource();
       if (semanticRootResource.equals(childResource)) {
-        // Find all elements that reference current child.
-        for (EObject referencingElement : CrossReferencerHelper.getReferencingElements(child)) {
-          resources.add(referencingElement.eResource());
-        }
-        // Get all representation descriptors that reference current child.
-        for (DRepresentationDescriptor representationDescriptor : getAllRepresentationDescriptorsWhereSemanticElementIsDisplayed(
-            child, null)) {
-          resources.add(representationDescriptor.eResource());
-        }
+        elements.add(child);
       }
     }
+
+    Collection<Resource> resources = new HashSet<Resource>();
+    // Find all elements that reference collected elements.
+    for (EObject referencingElement : CrossReferencerHelper.getReferencingElements(elements)) {
+      resources.add(referencingElement.eResource());
+    }
+    // Get all representation descriptors that reference collected elements.
+    for (DRepresentationDescriptor representationDescriptor : getAllRepresentationDescriptorsWhereSemanticElementsAreDisplayed(
+        SessionManager.INSTANCE.getSession(semanticRoot), elements, null)) {
+      resources.add(representationDescriptor.eResource());
+    }
     return resources;
   }
 
@@ -390,24 +406,11 @@ public class RepresentationHelper {
     List<Resource> capellaSemanticResources = capellaSemanticResourceScope.getResources();
     Resource resource = capellaSemanticResources.stream().findFirst().orElse(null);
     Session session = SessionManager.INSTANCE.getSession(resource);
-    Collection<DRepresentationDescriptor> representationDescriptors = DialectManager.INSTANCE
-        .getAllRepresentationDescriptors(session);
-    for (DRepresentationDescriptor representationDescriptor : representationDescriptors) {
-
-      String descriptorFragment;
-      try {
-        descriptorFragment = representationDescriptor.getRepPath().getResourceURI().fragment();
-      } catch (NullPointerException e) {
-        descriptorFragment = "";
-      }
-
-      String descriptorUid = representationDescriptor.getUid();
-
-      if (id.equals(descriptorFragment) || id.equals(descriptorUid)) {
-        return representationDescriptor;
-      }
+    RepresentationDescriptorIndex index = RepresentationDescriptorIndex.getIndex(session);
+    if (index == null) {
+      return null;
     }
-    return null;
+    return index.getDescriptor(id);
   }
 
   /**
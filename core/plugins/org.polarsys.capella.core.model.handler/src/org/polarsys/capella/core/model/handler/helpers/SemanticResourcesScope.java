@@ -37,4 +37,14 @@ public class SemanticResourcesScope implements IScope {
         .collect(Collectors.toList());
   }
 
+  @Override
+  public ResourceSet getResourceSet() {
+    return _set;
+  }
+
+  @Override
+  public boolean contains(Resource resource) {
+    return resource != null && resource.getResourceSet() == _set && CapellaResourceHelper.isCapellaResource(resource);
+  }
+
 }
@@ -22,6 +22,7 @@ import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFact
 import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.ITransactionChangeRecorderProvider;
 import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.SemanticEditingDomain;
 import org.polarsys.capella.core.model.handler.crossreferencer.CapellaCrossReferencerProvider;
+import org.polarsys.capella.core.model.handler.crossreferencer.CompactCrossReferencerProvider;
 
 /**
  * Customize the {@link SemanticEditingDomain} for Capella needs.
@@ -65,7 +66,11 @@ public class CapellaSemanticEditingDomainProviders implements ISemanticEditingDo
       }
       if (null == _capellaCrossReferencerProvider) {
         // Default implementation.
-        _capellaCrossReferencerProvider = new CapellaCrossReferencerProvider();
+        if (CompactCrossReferencerProvider.isEnabled()) {
+          _capellaCrossReferencerProvider = new CompactCrossReferencerProvider();
+        } else {
+          _capellaCrossReferencerProvider = new CapellaCrossReferencerProvider();
+        }
       }
     }
     return _capellaCrossReferencerProvider;
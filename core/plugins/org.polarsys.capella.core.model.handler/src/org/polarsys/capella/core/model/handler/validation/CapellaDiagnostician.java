@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.polarsys.capella.core.model.handler.validation;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -19,6 +20,7 @@ import org.eclipse.emf.common.notify.AdapterFactory;
 import org.eclipse.emf.common.util.DiagnosticChain;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EValidator;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.edit.provider.IItemLabelProvider;
@@ -40,12 +42,27 @@ public class CapellaDiagnostician extends Diagnostician {
   	progressMonitor = progressMonitor_p;
   }
 
+  /**
+   * @param eValidatorRegistry_p the validators of the validated packages, instead of the global ones
+   * @param adapterFactory_p
+   * @param progressMonitor_p
+   */
+  public CapellaDiagnostician(EValidator.Registry eValidatorRegistry_p, AdapterFactory adapterFactory_p,
+      IProgressMonitor progressMonitor_p) {
+    super(eValidatorRegistry_p);
+    adapterFactory = adapterFactory_p;
+    progressMonitor = progressMonitor_p;
+  }
+
 	@Override
   public String getObjectLabel(EObject eObject) {
     if (adapterFactory != null && !eObject.eIsProxy()) {
-      IItemLabelProvider itemLabelProvider = (IItemLabelProvider)adapterFactory.adapt(eObject, IItemLabelProvider.class);
-      if (itemLabelProvider != null) {
-        return itemLabelProvider.getText(eObject);
+      // Labels may be requested concurrently by a partitioned validation, see PartitionedValidator
+      synchronized (adapterFactory) {
+        IItemLabelProvider itemLabelProvider = (IItemLabelProvider)adapterFactory.adapt(eObject, IItemLabelProvider.class);
+        if (itemLabelProvider != null) {
+          return itemLabelProvider.getText(eObject);
+        }
       }
     }
     return super.getObjectLabel(eObject);
@@ -57,18 +74,42 @@ public class CapellaDiagnostician extends Diagnostician {
     return super.validate(eClass, eObject, diagnostics, context);
   }
 
+  @Override
+  protected boolean doValidate(EValidator eValidator, EClass eClass, EObject eObject, DiagnosticChain diagnostics,
+      Map<Object, Object> context) {
+    if (context != null && Boolean.FALSE.equals(context.get(PartitionedValidator.THREAD_SAFE_RULES))
+        && !(eValidator instanceof IThreadSafeRulesValidator)) {
+      // sequential pass of a partitioned validation: other validators have been run by the concurrent pass
+      return true;
+    }
+    return super.doValidate(eValidator, eClass, eObject, diagnostics, context);
+  }
+
 	@Override
 	protected boolean doValidateContents(EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
+    if (context != null && Boolean.TRUE.equals(context.get(PartitionedValidator.SHALLOW_VALIDATION))) {
+      // contents are validated by other partitions
+      return true;
+    }
 		boolean result = super.doValidateContents(eObject, diagnostics, context);
 		if (eObject instanceof Part) {
 			// also launch validation on representedInstance
 			AbstractType component = ((Part) eObject).getAbstractType();
-      if ((null != component) && !component.eIsProxy() && !EcoreUtil.isAncestor(component, eObject)) {
+      if ((null != component) && !component.eIsProxy() && !EcoreUtil.isAncestor(component, eObject)
+          && !isInValidationScope(component, context)) {
 			  // FIXME doing that might throw duplicated validations
-			  // TODO workaround : if component is already included in validation scope, do nothing
 			  result &= validate(component, diagnostics, context);
 			}
 		}		
 		return result;
 	}
+
+  /**
+   * @return whether the given element is validated anyway, as a content of the validation scope of a partitioned
+   *         validation (see {@link PartitionedValidator#VALIDATION_SCOPE})
+   */
+  private boolean isInValidationScope(EObject eObject, Map<Object, Object> context) {
+    Object scope = (context == null) ? null : context.get(PartitionedValidator.VALIDATION_SCOPE);
+    return (scope instanceof Collection<?>) && EcoreUtil.isAncestor((Collection<?>) scope, eObject);
+  }
 }
@@ -0,0 +1,25 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.model.handler.validation;
+
+import org.eclipse.emf.ecore.EValidator;
+
+/**
+ * A validator honoring the {@link PartitionedValidator#THREAD_SAFE_RULES} context entry: it only evaluates the rules
+ * selected by this entry.<br>
+ * During the sequential pass of a partitioned validation, only such validators are run, other validators being run
+ * during the concurrent pass.
+ */
+public interface IThreadSafeRulesValidator extends EValidator {
+  // Marker interface
+}
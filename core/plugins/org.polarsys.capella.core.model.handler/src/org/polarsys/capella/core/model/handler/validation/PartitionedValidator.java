@@ -0,0 +1,435 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.model.handler.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.notify.AdapterFactory;
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.DiagnosticChain;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.Diagnostician;
+import org.eclipse.emf.ecore.util.EObjectValidator;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.edit.domain.EditingDomain;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
+
+/**
+ * Validates containment subtrees of a model concurrently.<br>
+ * The validated elements are split into partitions: the largest subtrees are split into their children until there are
+ * enough partitions for the available threads. Split elements are validated alone on the calling thread, other
+ * partitions are validated with their whole contents on a fork-join pool. Results are merged in containment order, so
+ * that the resulting diagnostic does not depend on the scheduling.<br>
+ * Only thread-safe rules are evaluated concurrently (see {@link #THREAD_SAFE_RULES}): once partitions are validated,
+ * the other rules are evaluated on the whole scope by the calling thread, and their diagnostics are merged with the
+ * other ones by validated element, as a sequential validation orders them.<br>
+ * The calling thread is expected to hold a read transaction (e.g. within a read-only command) during the whole
+ * validation, preventing any concurrent write from other threads. Proxies of the validated resources are resolved
+ * before the workers start.<br>
+ * Partitioning relies on the {@link #SHALLOW_VALIDATION} context entry being honored by the diagnostician (see
+ * {@link CapellaDiagnostician}). Other diagnosticians are run sequentially.
+ */
+public class PartitionedValidator {
+
+  /**
+   * System property for the default number of validation threads. Validation is sequential by default.
+   */
+  public static final String THREADS_PROPERTY = "capella.validation.threads"; //$NON-NLS-1$
+
+  /**
+   * Context entry set to {@link Boolean#TRUE} when validated elements must be validated without their contents.
+   */
+  public static final String SHALLOW_VALIDATION = "org.polarsys.capella.core.model.handler.validation.shallow"; //$NON-NLS-1$
+
+  /**
+   * Context entry holding the collection of all validated roots during a partitioned validation.
+   */
+  public static final String VALIDATION_SCOPE = "org.polarsys.capella.core.model.handler.validation.scope"; //$NON-NLS-1$
+
+  /**
+   * Context entry set to {@link Boolean#TRUE} when only thread-safe rules must be evaluated, to {@link Boolean#FALSE}
+   * when only the other ones must be evaluated. Validators honoring this entry implement
+   * {@link IThreadSafeRulesValidator}.
+   */
+  public static final String THREAD_SAFE_RULES = "org.polarsys.capella.core.model.handler.validation.threadSafeRules"; //$NON-NLS-1$
+
+  private static final int PARTITIONS_PER_THREAD = 4;
+
+  private static final long PROGRESS_PERIOD = 100;
+
+  private final AbstractDiagnosticianProvider diagnosticianProvider;
+
+  private final AdapterFactory adapterFactory;
+
+  private final EditingDomain domain;
+
+  private final int threads;
+
+  /**
+   * A subtree of the model, validated as a whole or, if shallow, the root element alone.
+   */
+  private static class Partition {
+
+    final EObject root;
+
+    final boolean shallow;
+
+    final BasicDiagnostic diagnostic = new BasicDiagnostic();
+
+    Partition(EObject root, boolean shallow) {
+      this.root = root;
+      this.shallow = shallow;
+    }
+  }
+
+  /**
+   * Progress monitor shared by the workers. Work is forwarded to the actual monitor by the calling thread.
+   */
+  private static class PartitionMonitor extends NullProgressMonitor {
+
+    private final AtomicInteger worked = new AtomicInteger();
+
+    private volatile boolean canceled;
+
+    @Override
+    public void worked(int work) {
+      worked.addAndGet(work);
+    }
+
+    @Override
+    public boolean isCanceled() {
+      return canceled;
+    }
+
+    @Override
+    public void setCanceled(boolean canceled) {
+      this.canceled = canceled;
+    }
+
+    void forwardTo(IProgressMonitor progressMonitor) {
+      int work = worked.getAndSet(0);
+      if (work > 0) {
+        progressMonitor.worked(work);
+      }
+      if (progressMonitor.isCanceled()) {
+        canceled = true;
+      }
+    }
+  }
+
+  /**
+   * @param diagnosticianProvider
+   *          provides a diagnostician for each partition
+   * @param adapterFactory
+   *          the adapter factory given to diagnosticians, may be <code>null</code>
+   * @param domain
+   *          the editing domain of the validated elements, used to activate its model cache on workers
+   * @param threads
+   *          the number of threads validating partitions
+   */
+  public PartitionedValidator(AbstractDiagnosticianProvider diagnosticianProvider, AdapterFactory adapterFactory,
+      EditingDomain domain, int threads) {
+    this.diagnosticianProvider = diagnosticianProvider;
+    this.adapterFactory = adapterFactory;
+    this.domain = domain;
+    this.threads = Math.max(1, threads);
+  }
+
+  /**
+   * @return the number of validation threads given by the {@link #THREADS_PROPERTY} system property, 1 if not set.
+   */
+  public static int getDefaultThreads() {
+    return Math.max(1, Integer.getInteger(THREADS_PROPERTY, 1).intValue());
+  }
+
+  /**
+   * Validates the given elements and their contents.
+   *
+   * @param roots
+   *          validated elements
+   * @param diagnostics
+   *          receives the diagnostics of all elements, in containment order
+   * @param progressMonitor
+   *          receives one unit of work per validated element
+   */
+  public void validate(Collection<? extends EObject> roots, DiagnosticChain diagnostics,
+      IProgressMonitor progressMonitor) {
+    PartitionMonitor monitor = new PartitionMonitor();
+    if (threads == 1
+        || !(diagnosticianProvider.getDiagnostician(adapterFactory, monitor) instanceof CapellaDiagnostician)) {
+      validateSequentially(roots, diagnostics, progressMonitor);
+      return;
+    }
+
+    List<EObject> scope = EcoreUtil.filterDescendants(roots);
+    resolveProxies(scope);
+    List<Partition> partitions = partition(scope);
+    Collection<EObject> unmodifiableScope = Collections.unmodifiableList(scope);
+    boolean cacheEnabled = ModelCache.isEnabled();
+
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (Partition partition : partitions) {
+        if (!partition.shallow) {
+          tasks.add(pool.submit(() -> validatePartition(partition, unmodifiableScope, monitor, cacheEnabled)));
+        }
+      }
+      // Meanwhile, split elements are validated on the calling thread.
+      validateShallowPartitions(partitions, unmodifiableScope, monitor);
+      await(tasks, monitor, progressMonitor);
+    } finally {
+      pool.shutdownNow();
+    }
+
+    List<Diagnostic> children = new ArrayList<>();
+    for (Partition partition : partitions) {
+      children.addAll(partition.diagnostic.getChildren());
+    }
+    if (!monitor.isCanceled()) {
+      BasicDiagnostic sequentialDiagnostic = new BasicDiagnostic();
+      validateSequentialRules(unmodifiableScope, sequentialDiagnostic, progressMonitor);
+      if (!sequentialDiagnostic.getChildren().isEmpty()) {
+        children = merge(scope, children, sequentialDiagnostic.getChildren());
+      }
+    }
+    for (Diagnostic child : children) {
+      diagnostics.add(child);
+    }
+  }
+
+  /**
+   * Merges the diagnostics of both passes as a sequential validation orders them: by validated element, in
+   * containment order. The merge is stable: diagnostics of an element keep the order of their pass, the concurrent pass
+   * first. Diagnostics of elements out of the scope (e.g. components of parts, see {@link CapellaDiagnostician}) follow
+   * the diagnostic preceding them in their pass.
+   */
+  private List<Diagnostic> merge(List<EObject> scope, List<Diagnostic> concurrentDiagnostics,
+      List<Diagnostic> sequentialDiagnostics) {
+    Map<EObject, Integer> positions = new HashMap<>();
+    for (TreeIterator<EObject> it = EcoreUtil.getAllContents(scope, false); it.hasNext();) {
+      positions.put(it.next(), Integer.valueOf(positions.size()));
+    }
+    Map<Diagnostic, Integer> keys = new IdentityHashMap<>();
+    computeKeys(concurrentDiagnostics, positions, keys);
+    computeKeys(sequentialDiagnostics, positions, keys);
+
+    List<Diagnostic> result = new ArrayList<>(concurrentDiagnostics);
+    result.addAll(sequentialDiagnostics);
+    result.sort(Comparator.comparingInt(keys::get));
+    return result;
+  }
+
+  private void computeKeys(List<Diagnostic> diagnostics, Map<EObject, Integer> positions,
+      Map<Diagnostic, Integer> keys) {
+    Integer key = Integer.valueOf(-1);
+    for (Diagnostic diagnostic : diagnostics) {
+      for (Object datum : diagnostic.getData()) {
+        Integer position = positions.get(datum);
+        if (null != position) {
+          key = position;
+          break;
+        }
+      }
+      keys.put(diagnostic, key);
+    }
+  }
+
+  private void validateSequentially(Collection<? extends EObject> roots, DiagnosticChain diagnostics,
+      IProgressMonitor progressMonitor) {
+    Diagnostician diagnostician = diagnosticianProvider.getDiagnostician(adapterFactory, progressMonitor);
+    Map<Object, Object> context = diagnostician.createDefaultContext();
+    for (EObject root : roots) {
+      diagnostician.validate(root, diagnostics, context);
+      context.remove(EObjectValidator.ROOT_OBJECT);
+    }
+  }
+
+  private void validatePartition(Partition partition, Collection<EObject> scope, PartitionMonitor monitor,
+      boolean cacheEnabled) {
+    if (monitor.isCanceled()) {
+      return;
+    }
+    if (cacheEnabled) {
+      ModelCache.enable(domain);
+    }
+    try {
+      Diagnostician diagnostician = diagnosticianProvider.getDiagnostician(adapterFactory, monitor);
+      Map<Object, Object> context = diagnostician.createDefaultContext();
+      context.put(VALIDATION_SCOPE, scope);
+      context.put(THREAD_SAFE_RULES, Boolean.TRUE);
+      diagnostician.validate(partition.root, partition.diagnostic, context);
+    } finally {
+      if (cacheEnabled) {
+        ModelCache.disable(domain);
+      }
+    }
+  }
+
+  private void validateShallowPartitions(List<Partition> partitions, Collection<EObject> scope,
+      PartitionMonitor monitor) {
+    Diagnostician diagnostician = diagnosticianProvider.getDiagnostician(adapterFactory, monitor);
+    Map<Object, Object> context = diagnostician.createDefaultContext();
+    context.put(VALIDATION_SCOPE, scope);
+    context.put(SHALLOW_VALIDATION, Boolean.TRUE);
+    context.put(THREAD_SAFE_RULES, Boolean.TRUE);
+    for (Partition partition : partitions) {
+      if (partition.shallow && !monitor.isCanceled()) {
+        diagnostician.validate(partition.root, partition.diagnostic, context);
+        context.remove(EObjectValidator.ROOT_OBJECT);
+      }
+    }
+  }
+
+  /**
+   * Evaluates the rules that are not thread-safe on the whole scope, on the calling thread.<br>
+   * Elements have already been counted by the concurrent pass, the given monitor is only checked for cancellation.
+   */
+  private void validateSequentialRules(Collection<EObject> scope, DiagnosticChain diagnostics,
+      IProgressMonitor progressMonitor) {
+    IProgressMonitor cancelMonitor = new NullProgressMonitor() {
+      @Override
+      public boolean isCanceled() {
+        return progressMonitor.isCanceled();
+      }
+    };
+    Diagnostician diagnostician = diagnosticianProvider.getDiagnostician(adapterFactory, cancelMonitor);
+    Map<Object, Object> context = diagnostician.createDefaultContext();
+    context.put(VALIDATION_SCOPE, scope);
+    context.put(THREAD_SAFE_RULES, Boolean.FALSE);
+    for (EObject root : scope) {
+      if (cancelMonitor.isCanceled()) {
+        return;
+      }
+      diagnostician.validate(root, diagnostics, context);
+      context.remove(EObjectValidator.ROOT_OBJECT);
+    }
+  }
+
+  /**
+   * Waits for the given tasks while forwarding their progress to the given monitor.
+   */
+  private void await(List<ForkJoinTask<?>> tasks, PartitionMonitor monitor, IProgressMonitor progressMonitor) {
+    for (ForkJoinTask<?> task : tasks) {
+      while (!task.isDone()) {
+        monitor.forwardTo(progressMonitor);
+        try {
+          task.get(PROGRESS_PERIOD, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException exception) {
+          // Still running, or failed: failures are thrown below.
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+          monitor.setCanceled(true);
+          progressMonitor.setCanceled(true);
+        }
+      }
+    }
+    monitor.forwardTo(progressMonitor);
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+  }
+
+  /**
+   * Loads resources referenced by the validated ones, so that workers never trigger a resource loading.
+   */
+  private void resolveProxies(List<EObject> scope) {
+    Set<Resource> resources = new LinkedHashSet<>();
+    for (EObject root : scope) {
+      if (root.eResource() != null) {
+        resources.add(root.eResource());
+      }
+    }
+    for (Resource resource : resources) {
+      EcoreUtil.resolveAll(resource);
+    }
+  }
+
+  /**
+   * Splits the largest subtrees until there are enough partitions, then lists partitions in containment order.
+   */
+  private List<Partition> partition(List<EObject> scope) {
+    int targetPartitions = threads * PARTITIONS_PER_THREAD;
+    PriorityQueue<Subtree> subtrees = new PriorityQueue<>(Comparator.comparingInt((Subtree s) -> s.size).reversed());
+    for (EObject root : scope) {
+      subtrees.add(new Subtree(root));
+    }
+    Set<EObject> split = new HashSet<>();
+    while (subtrees.size() < targetPartitions && !subtrees.isEmpty()) {
+      Subtree largest = subtrees.peek();
+      if (largest.root.eContents().isEmpty()) {
+        break;
+      }
+      subtrees.poll();
+      split.add(largest.root);
+      for (EObject child : largest.root.eContents()) {
+        subtrees.add(new Subtree(child));
+      }
+    }
+
+    List<Partition> partitions = new ArrayList<>();
+    for (EObject root : scope) {
+      collectPartitions(root, split, partitions);
+    }
+    return partitions;
+  }
+
+  private void collectPartitions(EObject object, Set<EObject> split, List<Partition> partitions) {
+    if (split.contains(object)) {
+      partitions.add(new Partition(object, true));
+      for (EObject child : object.eContents()) {
+        collectPartitions(child, split, partitions);
+      }
+    } else {
+      partitions.add(new Partition(object, false));
+    }
+  }
+
+  private static class Subtree {
+
+    final EObject root;
+
+    final int size;
+
+    Subtree(EObject root) {
+      this.root = root;
+      int count = 1;
+      for (TreeIterator<EObject> it = root.eAllContents(); it.hasNext(); it.next()) {
+        count++;
+      }
+      this.size = count;
+    }
+  }
+}
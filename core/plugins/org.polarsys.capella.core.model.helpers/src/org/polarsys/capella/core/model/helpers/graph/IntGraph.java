@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.model.helpers.graph;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable directed graph on nodes 0..n-1, in compressed sparse row form: the successors of a node are the
+ * targets of the edges getEdgeStart(node) to getEdgeEnd(node) - 1.<br>
+ * Nodes can be mapped to objects with a {@link NodeIndex}, graphs are created with a {@link Builder}.
+ */
+public final class IntGraph {
+
+  /**
+   * Collects edges, then creates the graph.
+   */
+  public static class Builder {
+
+    private int nodeCount;
+
+    private int edgeCount;
+
+    private int[] sources;
+
+    private int[] targets;
+
+    public Builder() {
+      this(16);
+    }
+
+    public Builder(int expectedEdgeCount) {
+      sources = new int[Math.max(expectedEdgeCount, 16)];
+      targets = new int[sources.length];
+    }
+
+    /**
+     * Ensures the graph has at least the given number of nodes, even without edges.
+     */
+    public Builder ensureNodeCount(int count) {
+      nodeCount = Math.max(nodeCount, count);
+      return this;
+    }
+
+    public Builder addEdge(int source, int target) {
+      if (source < 0 || target < 0) {
+        throw new IllegalArgumentException(source + " -> " + target); //$NON-NLS-1$
+      }
+      if (edgeCount == sources.length) {
+        sources = Arrays.copyOf(sources, edgeCount << 1);
+        targets = Arrays.copyOf(targets, edgeCount << 1);
+      }
+      sources[edgeCount] = source;
+      targets[edgeCount] = target;
+      edgeCount++;
+      nodeCount = Math.max(nodeCount, Math.max(source, target) + 1);
+      return this;
+    }
+
+    /**
+     * @return the graph of the added edges, duplicated edges being added once
+     */
+    public IntGraph build() {
+      // Counting sort of the edges by source
+      int[] offsets = new int[nodeCount + 1];
+      for (int i = 0; i < edgeCount; i++) {
+        offsets[sources[i] + 1]++;
+      }
+      for (int node = 0; node < nodeCount; node++) {
+        offsets[node + 1] += offsets[node];
+      }
+      int[] sorted = new int[edgeCount];
+      int[] next = Arrays.copyOf(offsets, nodeCount);
+      for (int i = 0; i < edgeCount; i++) {
+        sorted[next[sources[i]]++] = targets[i];
+      }
+
+      // Remove duplicated successors, in place
+      int count = 0;
+      int start = 0;
+      for (int node = 0; node < nodeCount; node++) {
+        int end = offsets[node + 1];
+        Arrays.sort(sorted, start, end);
+        offsets[node] = count;
+        for (int i = start; i < end; i++) {
+          if (i == start || sorted[i] != sorted[i - 1]) {
+            sorted[count++] = sorted[i];
+          }
+        }
+        start = end;
+      }
+      offsets[nodeCount] = count;
+      return new IntGraph(offsets, count == edgeCount ? sorted : Arrays.copyOf(sorted, count));
+    }
+  }
+
+  private final int[] offsets;
+
+  private final int[] targets;
+
+  private IntGraph(int[] offsets, int[] targets) {
+    this.offsets = offsets;
+    this.targets = targets;
+  }
+
+  public int getNodeCount() {
+    return offsets.length - 1;
+  }
+
+  public int getEdgeCount() {
+    return targets.length;
+  }
+
+  /**
+   * @return the first edge of the given node
+   */
+  public int getEdgeStart(int node) {
+    return offsets[node];
+  }
+
+  /**
+   * @return the edge following the last edge of the given node
+   */
+  public int getEdgeEnd(int node) {
+    return offsets[node + 1];
+  }
+
+  /**
+   * @return the target of the given edge
+   */
+  public int getTarget(int edge) {
+    return targets[edge];
+  }
+
+  public int getOutDegree(int node) {
+    return offsets[node + 1] - offsets[node];
+  }
+
+  public void forEachSuccessor(int node, IntConsumer consumer) {
+    for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+      consumer.accept(targets[edge]);
+    }
+  }
+
+  /**
+   * @return the graph with the same nodes and reversed edges
+   */
+  public IntGraph transpose() {
+    int nodeCount = getNodeCount();
+    int[] reversedOffsets = new int[nodeCount + 1];
+    for (int target : targets) {
+      reversedOffsets[target + 1]++;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      reversedOffsets[node + 1] += reversedOffsets[node];
+    }
+    int[] reversedTargets = new int[targets.length];
+    int[] next = Arrays.copyOf(reversedOffsets, nodeCount);
+    for (int node = 0; node < nodeCount; node++) {
+      for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+        reversedTargets[next[targets[edge]]++] = node;
+      }
+    }
+    return new IntGraph(reversedOffsets, reversedTargets);
+  }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.model.helpers.graph;
+
+import java.util.Arrays;
+
+/**
+ * Dense int identifiers for the nodes of an {@link IntGraph}: the n-th added node gets the identifier n.<br>
+ * Identifiers are stored in an open addressing table, without boxing.
+ */
+public class NodeIndex<T> {
+
+  private static final int NONE = -1;
+
+  /**
+   * Nodes by identifier.
+   */
+  private Object[] nodes;
+
+  /**
+   * Hash table of node identifiers.
+   */
+  private int[] table;
+
+  private int size;
+
+  public NodeIndex() {
+    this(16);
+  }
+
+  public NodeIndex(int expectedSize) {
+    nodes = new Object[Math.max(expectedSize, 16)];
+    table = new int[tableSize(nodes.length)];
+    Arrays.fill(table, NONE);
+  }
+
+  /**
+   * @return the identifier of the given node, a new one if the node is not indexed yet
+   */
+  public int getOrAdd(T node) {
+    int slot = slot(node);
+    if (table[slot] != NONE) {
+      return table[slot];
+    }
+    if (size == nodes.length) {
+      grow();
+      slot = slot(node);
+    }
+    int id = size++;
+    nodes[id] = node;
+    table[slot] = id;
+    return id;
+  }
+
+  /**
+   * @return the identifier of the given node, -1 if the node is not indexed
+   */
+  public int indexOf(T node) {
+    return table[slot(node)];
+  }
+
+  public boolean contains(T node) {
+    return indexOf(node) != NONE;
+  }
+
+  /**
+   * @return the node of the given identifier
+   */
+  @SuppressWarnings("unchecked")
+  public T get(int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException(String.valueOf(id));
+    }
+    return (T) nodes[id];
+  }
+
+  /**
+   * @return the number of indexed nodes, which is the next identifier
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the slot of the given node, or the free slot where it would be added
+   */
+  private int slot(Object node) {
+    int mask = table.length - 1;
+    int slot = mix(node.hashCode()) & mask;
+    while (table[slot] != NONE && !node.equals(nodes[table[slot]])) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void grow() {
+    nodes = Arrays.copyOf(nodes, nodes.length << 1);
+    table = new int[tableSize(nodes.length)];
+    Arrays.fill(table, NONE);
+    int mask = table.length - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = mix(nodes[id].hashCode()) & mask;
+      while (table[slot] != NONE) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = id;
+    }
+  }
+
+  /**
+   * @return a power of two keeping the table at most half full
+   */
+  private static int tableSize(int capacity) {
+    return Integer.highestOneBit(capacity - 1) << 2;
+  }
+
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
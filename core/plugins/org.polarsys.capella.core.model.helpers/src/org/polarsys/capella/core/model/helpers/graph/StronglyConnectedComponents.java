@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.model.helpers.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The strongly connected components of an {@link IntGraph}, computed by an iterative Tarjan algorithm: the depth of
+ * the graph is not limited by the call stack.<br>
+ * Components are numbered in reverse topological order: a component only has edges towards components of lower
+ * numbers.
+ */
+public class StronglyConnectedComponents {
+
+  private final int[] components;
+
+  private int componentCount;
+
+  public StronglyConnectedComponents(IntGraph graph) {
+    int nodeCount = graph.getNodeCount();
+    components = new int[nodeCount];
+    Arrays.fill(components, -1);
+
+    int[] index = new int[nodeCount];
+    Arrays.fill(index, -1);
+    int[] low = new int[nodeCount];
+    int counter = 0;
+
+    // Nodes of the components being built
+    int[] stack = new int[nodeCount];
+    int stackSize = 0;
+
+    // Depth-first path, with the next edge to visit of each node
+    int[] path = new int[nodeCount];
+    int[] nextEdges = new int[nodeCount];
+    int pathSize = 0;
+
+    for (int root = 0; root < nodeCount; root++) {
+      if (index[root] != -1) {
+        continue;
+      }
+      index[root] = low[root] = counter++;
+      stack[stackSize++] = root;
+      path[pathSize] = root;
+      nextEdges[pathSize++] = graph.getEdgeStart(root);
+
+      while (pathSize > 0) {
+        int node = path[pathSize - 1];
+        int edge = nextEdges[pathSize - 1];
+
+        if (edge < graph.getEdgeEnd(node)) {
+          nextEdges[pathSize - 1]++;
+          int successor = graph.getTarget(edge);
+          if (index[successor] == -1) {
+            index[successor] = low[successor] = counter++;
+            stack[stackSize++] = successor;
+            path[pathSize] = successor;
+            nextEdges[pathSize++] = graph.getEdgeStart(successor);
+
+          } else if (components[successor] == -1 && index[successor] < low[node]) {
+            // The successor is on the stack
+            low[node] = index[successor];
+          }
+
+        } else {
+          pathSize--;
+          if (low[node] == index[node]) {
+            int member;
+            do {
+              member = stack[--stackSize];
+              components[member] = componentCount;
+            } while (member != node);
+            componentCount++;
+          }
+          if (pathSize > 0) {
+            int parent = path[pathSize - 1];
+            low[parent] = Math.min(low[parent], low[node]);
+          }
+        }
+      }
+    }
+  }
+
+  public int getComponentCount() {
+    return componentCount;
+  }
+
+  /**
+   * @return the component of the given node
+   */
+  public int getComponent(int node) {
+    return components[node];
+  }
+
+  /**
+   * @return the nodes of the components having at least the given number of nodes, by component number
+   */
+  public List<int[]> getComponents(int minSize) {
+    int[] sizes = new int[componentCount];
+    for (int component : components) {
+      sizes[component]++;
+    }
+    int[][] members = new int[componentCount][];
+    List<int[]> result = new ArrayList<>();
+    for (int component = 0; component < componentCount; component++) {
+      if (sizes[component] >= minSize) {
+        members[component] = new int[sizes[component]];
+        result.add(members[component]);
+      }
+    }
+    int[] filled = new int[componentCount];
+    for (int node = 0; node < components.length; node++) {
+      int component = components[node];
+      if (members[component] != null) {
+        members[component][filled[component]++] = node;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return whether the graph has a cycle of at least two nodes
+   */
+  public boolean hasCycle() {
+    return componentCount < components.length;
+  }
+}
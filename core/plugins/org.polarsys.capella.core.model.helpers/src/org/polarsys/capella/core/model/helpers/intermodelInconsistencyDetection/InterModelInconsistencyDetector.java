@@ -14,10 +14,8 @@
 package org.polarsys.capella.core.model.helpers.intermodelInconsistencyDetection;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.emf.common.util.TreeIterator;
@@ -27,6 +25,9 @@ import org.polarsys.capella.common.helpers.TransactionHelper;
 import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.SemanticEditingDomain;
 import org.polarsys.capella.core.data.capellamodeller.SystemEngineering;
 import org.polarsys.capella.core.model.handler.command.CapellaResourceHelper;
+import org.polarsys.capella.core.model.helpers.graph.IntGraph;
+import org.polarsys.capella.core.model.helpers.graph.NodeIndex;
+import org.polarsys.capella.core.model.helpers.graph.StronglyConnectedComponents;
 
 /**
  * Algorithm based on Tarjan algorithm that detect:
@@ -39,10 +40,8 @@ import org.polarsys.capella.core.model.handler.command.CapellaResourceHelper;
  */
 public class InterModelInconsistencyDetector {
 
-  protected Map<Integer, EObject> ident2Object = new HashMap<>();
-  protected Map<EObject, Integer> object2Ident = new HashMap<>();
+  protected NodeIndex<EObject> nodes = new NodeIndex<>();
   protected List<InterModelInconsistency> errors = new ArrayList<>();
-  protected int identifierCounter = 0;
   protected DependencyChecker linkChecker;
 
   @SuppressWarnings("unchecked")
@@ -53,32 +52,21 @@ public class InterModelInconsistencyDetector {
     Set<EObject> allObjects = getAllContents(systemEngineering);
 
     // Create graph representation
-    Map<Integer, Set<Integer>> g = new HashMap<>();
+    IntGraph.Builder g = new IntGraph.Builder(allObjects.size());
     Set<EObject> objectsToTreat = allObjects;
     while (!(objectsToTreat = treatObjects(objectsToTreat, allObjects, g)).isEmpty())
       allObjects.addAll(objectsToTreat);
-
-    Set<Integer>[] graph = new HashSet[identifierCounter];
-    for (int i = 0; i < identifierCounter; i++) {
-      Set<Integer> x = g.get(i);
-      if (x == null) {
-        x = new HashSet<>();
-      }
-      graph[i] = x;
-    }
+    IntGraph graph = g.ensureNodeCount(nodes.size()).build();
 
     // compute CFC
-    TarjanAlgorithm t = new TarjanAlgorithm();
-    List<List<Integer>> scComponents = t.getSCComponents(graph);
+    StronglyConnectedComponents scComponents = new StronglyConnectedComponents(graph);
     List<List<EObject>> cfcs = new ArrayList<>();
-    for (List<Integer> list : scComponents) {
-      if (list.size() > 1) {
-        List<EObject> cfc = new ArrayList<>();
-        for (Integer integer : list) {
-          cfc.add(ident2Object.get(integer));
-        }
-        cfcs.add(cfc);
+    for (int[] component : scComponents.getComponents(2)) {
+      List<EObject> cfc = new ArrayList<>(component.length);
+      for (int node : component) {
+        cfc.add(nodes.get(node));
       }
+      cfcs.add(cfc);
     }
     // Analyse CFC
     for (List<EObject> cfc : cfcs) {
@@ -109,26 +97,20 @@ public class InterModelInconsistencyDetector {
     return new DependencyChecker((SemanticEditingDomain) TransactionHelper.getEditingDomain(systemEngineering));
   }
 
-  protected Integer getObjectIdentifier(EObject object) {
-    return object2Ident.computeIfAbsent(object, f -> {
-      Integer res = identifierCounter;
-      identifierCounter++;
-      ident2Object.put(res, object);
-      return res;
-    });
+  protected int getObjectIdentifier(EObject object) {
+    return nodes.getOrAdd(object);
   }
 
-  protected Set<EObject> treatObjects(Set<EObject> objects, Set<EObject> allObjects, Map<Integer, Set<Integer>> g) {
+  protected Set<EObject> treatObjects(Set<EObject> objects, Set<EObject> allObjects, IntGraph.Builder g) {
     Set<EObject> newObjects = new HashSet<>();
     for (EObject currentNode : objects) {
-      Set<Integer> targetedNodeIdent = new HashSet<>();
-      g.put(getObjectIdentifier(currentNode), targetedNodeIdent);
+      int currentNodeIdent = getObjectIdentifier(currentNode);
       HashSet<EObject> targetedObjects = LinkHelper.getTargetedObjects(currentNode);
       for (EObject targetedObject : targetedObjects) {
         if (!allObjects.contains(targetedObject)) {
           newObjects.add((EObject) targetedObject);          
         }
-        targetedNodeIdent.add(getObjectIdentifier((EObject) targetedObject));
+        g.addEdge(currentNodeIdent, getObjectIdentifier((EObject) targetedObject));
         linkChecker.checkLink(currentNode, targetedObject, null);
       }
     }
@@ -17,6 +17,11 @@ import java.util.List;
 import java.util.Set;
 import java.util.Stack;
 
+/**
+ * @deprecated recursive, use {@link org.polarsys.capella.core.model.helpers.graph.StronglyConnectedComponents} on an
+ *             {@link org.polarsys.capella.core.model.helpers.graph.IntGraph}
+ */
+@Deprecated
 public class TarjanAlgorithm {
 
 	/** number of vertices **/
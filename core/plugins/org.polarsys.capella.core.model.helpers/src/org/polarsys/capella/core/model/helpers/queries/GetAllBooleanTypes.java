@@ -19,6 +19,7 @@ import java.util.List;
 import org.eclipse.emf.ecore.EObject;
 import org.polarsys.capella.common.helpers.EObjectExt;
 import org.polarsys.capella.common.queries.AbstractQuery;
+import org.polarsys.capella.common.queries.ICacheableQuery;
 import org.polarsys.capella.common.queries.exceptions.QueryException;
 import org.polarsys.capella.common.queries.queryContext.IQueryContext;
 import org.polarsys.capella.core.data.cs.BlockArchitecture;
@@ -27,7 +28,7 @@ import org.polarsys.capella.core.model.helpers.BlockArchitectureExt;
 
 /**
  */
-public class GetAllBooleanTypes extends AbstractQuery {
+public class GetAllBooleanTypes extends AbstractQuery implements ICacheableQuery {
 
   @Override
   public List<Object> execute(Object input, IQueryContext context) throws QueryException {
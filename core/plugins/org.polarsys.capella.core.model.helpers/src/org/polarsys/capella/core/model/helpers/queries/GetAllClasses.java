@@ -19,6 +19,7 @@ import java.util.List;
 import org.eclipse.emf.ecore.EObject;
 import org.polarsys.capella.common.helpers.EObjectExt;
 import org.polarsys.capella.common.queries.AbstractQuery;
+import org.polarsys.capella.common.queries.ICacheableQuery;
 import org.polarsys.capella.common.queries.exceptions.QueryException;
 import org.polarsys.capella.common.queries.internal.NoneValue;
 import org.polarsys.capella.common.queries.queryContext.IQueryContext;
@@ -28,7 +29,7 @@ import org.polarsys.capella.core.model.helpers.BlockArchitectureExt;
 
 /**
  */
-public class GetAllClasses extends AbstractQuery {
+public class GetAllClasses extends AbstractQuery implements ICacheableQuery {
 
   @Override
   public List<Object> execute(Object input, IQueryContext context) throws QueryException {
@@ -19,13 +19,14 @@ import java.util.List;
 import org.eclipse.emf.ecore.EObject;
 import org.polarsys.capella.common.helpers.EObjectExt;
 import org.polarsys.capella.common.queries.AbstractQuery;
+import org.polarsys.capella.common.queries.ICacheableQuery;
 import org.polarsys.capella.common.queries.exceptions.QueryException;
 import org.polarsys.capella.common.queries.queryContext.IQueryContext;
 import org.polarsys.capella.core.data.cs.BlockArchitecture;
 import org.polarsys.capella.core.data.cs.CsPackage;
 import org.polarsys.capella.core.model.helpers.BlockArchitectureExt;
 
-public class GetAllComponents extends AbstractQuery {
+public class GetAllComponents extends AbstractQuery implements ICacheableQuery {
 
   @Override
   public List<Object> execute(Object input, IQueryContext context) throws QueryException {
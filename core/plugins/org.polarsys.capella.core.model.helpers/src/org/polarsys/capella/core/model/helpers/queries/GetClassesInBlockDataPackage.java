@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.polarsys.capella.common.queries.AbstractQuery;
+import org.polarsys.capella.common.queries.ICacheableQuery;
 import org.polarsys.capella.common.queries.exceptions.QueryException;
 import org.polarsys.capella.common.queries.queryContext.IQueryContext;
 import org.polarsys.capella.core.data.cs.BlockArchitecture;
@@ -25,7 +26,7 @@ import org.polarsys.capella.core.model.helpers.DataPkgExt;
 
 /**
  */
-public class GetClassesInBlockDataPackage extends AbstractQuery {
+public class GetClassesInBlockDataPackage extends AbstractQuery implements ICacheableQuery {
 
   @Override
   public List<Object> execute(Object input, IQueryContext context) throws QueryException {
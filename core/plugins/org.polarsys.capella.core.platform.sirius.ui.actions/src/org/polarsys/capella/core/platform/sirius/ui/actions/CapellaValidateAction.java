@@ -15,6 +15,7 @@ package org.polarsys.capella.core.platform.sirius.ui.actions;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.core.resources.IFile;
@@ -23,10 +24,13 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.common.notify.AdapterFactory;
+import org.eclipse.emf.common.util.BasicDiagnostic;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.util.Diagnostician;
+import org.eclipse.emf.ecore.util.EObjectValidator;
+import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
 import org.eclipse.emf.edit.ui.EMFEditUIPlugin;
 import org.eclipse.emf.edit.ui.action.ValidateAction;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
@@ -47,6 +51,8 @@ import org.polarsys.capella.common.tools.report.appenders.usage.UsageMonitoringL
 import org.polarsys.capella.common.tools.report.appenders.usage.util.UsageMonitoring.EventStatus;
 import org.polarsys.capella.core.commands.preferences.service.AbstractPreferencesInitializer;
 import org.polarsys.capella.core.model.handler.markers.ICapellaValidationConstants;
+import org.polarsys.capella.core.model.handler.validation.AbstractDiagnosticianProvider;
+import org.polarsys.capella.core.model.handler.validation.PartitionedValidator;
 import org.polarsys.capella.core.model.handler.validation.PluggableDiagnosticianProvider;
 import org.polarsys.capella.core.platform.sirius.ui.preferences.ICapellaValidationPreferences;
 
@@ -60,6 +66,11 @@ public class CapellaValidateAction extends ValidateAction {
    */
   protected Resource _currentResource;
 
+  /**
+   * Number of threads validating the selection, see {@link #setThreads(int)}.
+   */
+  private int _threads = PartitionedValidator.getDefaultThreads();
+
   /**
    * Constructor.
    */
@@ -95,16 +106,17 @@ public class CapellaValidateAction extends ValidateAction {
       public void deleteMarkers(Object object, boolean includeSubtypes, int depth) {
         boolean cleanup = AbstractPreferencesInitializer.getBoolean(ICapellaValidationPreferences.P_CLEAN_PREVIOUS_VALIDATION_RESULTS, false);
         if (cleanup) {
-          List<IMarker> markers = new ArrayList<IMarker>(LightMarkerRegistry.getInstance().getMarkers());
-          for (IMarker marker : markers) {
+          List<IMarker> markers = new ArrayList<IMarker>();
+          for (IMarker marker : LightMarkerRegistry.getInstance().getMarkers()) {
             try {
               if (marker.getType().equals(getMarkerID())) {
-                marker.delete();
+                markers.add(marker);
               }
             } catch (CoreException e) {
               CapellaActionsActivator.getDefault().log(IStatus.ERROR, e.getMessage(), e);
             }
           }
+          LightMarkerRegistry.getInstance().deleteMarkers(markers);
         }
       }
 
@@ -140,6 +152,55 @@ public class CapellaValidateAction extends ValidateAction {
     return new PluggableDiagnosticianProvider().getDiagnostician(adapterFactory, progressMonitor);
   }
 
+  /**
+   * Set the number of threads validating the selection.
+   * @param threads if greater than 1, the selection is split into partitions validated concurrently (see
+   *          {@link PartitionedValidator})
+   */
+  public void setThreads(int threads) {
+    _threads = threads;
+  }
+
+  /**
+   * @see org.eclipse.emf.edit.ui.action.ValidateAction#validate(org.eclipse.core.runtime.IProgressMonitor)
+   */
+  @Override
+  protected Diagnostic validate(IProgressMonitor progressMonitor) {
+    if (_threads <= 1 || selectedObjects.isEmpty()) {
+      return super.validate(progressMonitor);
+    }
+    int count = selectedObjects.size();
+    for (EObject eObject : selectedObjects) {
+      for (Iterator<EObject> it = eObject.eAllContents(); it.hasNext(); it.next()) {
+        ++count;
+      }
+    }
+    progressMonitor.beginTask(ICommonConstants.EMPTY_STRING, count);
+
+    AdapterFactory adapterFactory = (domain instanceof AdapterFactoryEditingDomain)
+        ? ((AdapterFactoryEditingDomain) domain).getAdapterFactory()
+        : null;
+    BasicDiagnostic diagnostic;
+    if (selectedObjects.size() == 1) {
+      diagnostic = createDiagnostician(adapterFactory, progressMonitor).createDefaultDiagnostic(selectedObjects.get(0));
+    } else {
+      diagnostic = new BasicDiagnostic(EObjectValidator.DIAGNOSTIC_SOURCE, 0,
+          EMFEditUIPlugin.INSTANCE.getString("_UI_DiagnosisOfNObjects_message", //$NON-NLS-1$
+              new String[] { Integer.toString(selectedObjects.size()) }),
+          selectedObjects.toArray());
+    }
+
+    AbstractDiagnosticianProvider diagnosticianProvider = new AbstractDiagnosticianProvider() {
+      @Override
+      public Diagnostician getDiagnostician(AdapterFactory adapterFactory_p, IProgressMonitor progressMonitor_p) {
+        return createDiagnostician(adapterFactory_p, progressMonitor_p);
+      }
+    };
+    new PartitionedValidator(diagnosticianProvider, adapterFactory, domain, _threads).validate(selectedObjects,
+        diagnostic, progressMonitor);
+    return diagnostic;
+  }
+
   /**
    * @see org.eclipse.emf.edit.ui.action.ValidateAction#run()
    */
@@ -178,7 +239,7 @@ public class CapellaValidateAction extends ValidateAction {
       @Override
       public void run(final IProgressMonitor progressMonitor) throws InvocationTargetException, InterruptedException {
         try {
-          ModelCache.enable();
+          ModelCache.enable(domain);
           final Diagnostic diagnostic = validate(progressMonitor);
           shell.getDisplay().asyncExec(new Runnable() {
             public void run() {
@@ -190,7 +251,7 @@ public class CapellaValidateAction extends ValidateAction {
             }
           });
         } finally {
-          ModelCache.disable();
+          ModelCache.disable(domain);
           progressMonitor.done();
         }
       }
@@ -244,7 +305,8 @@ public class CapellaValidateAction extends ValidateAction {
       }
       // Go for default behavior.
       // Markers will be tagged with current resource at creation time (see constructor).
-      super.handleDiagnostic(diagnostic);
+      // Listeners are notified once about all created markers.
+      LightMarkerRegistry.getInstance().runInBatch(() -> super.handleDiagnostic(diagnostic));
     } finally {
       // Reset current resource, whatever its value may be.
       _currentResource = null;
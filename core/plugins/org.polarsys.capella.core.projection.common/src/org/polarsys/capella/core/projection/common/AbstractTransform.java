@@ -23,6 +23,7 @@ import org.polarsys.capella.core.tiger.ITransfo;
 import org.polarsys.capella.core.tiger.ITransfoEngine;
 import org.polarsys.capella.core.tiger.ITransfoRuleBase;
 import org.polarsys.capella.core.tiger.TransfoException;
+import org.polarsys.capella.core.tiger.impl.TransfoEngine;
 
 /**
  * Default abstract template transformation.
@@ -54,6 +55,10 @@ public abstract class AbstractTransform implements ITransform {
 
       ITransfoRuleBase ruleBase = createTransfoRuleBase();
       ITransfoEngine engine = createTransfoEngine();
+      if (engine instanceof TransfoEngine) {
+        // Transformation rules look up transformed elements many times during a run
+        ((TransfoEngine) engine).setTraceIndexEnabled(true);
+      }
       ITransfo transfo = createTransfo(ruleBase);
       for (EObject contextElement : _context) {
         if (retainContextElement(contextElement, transfo)) {
@@ -49,7 +49,6 @@ import com.google.common.base.Predicate;
 public abstract class AbstractComplianceConstraint extends AbstractValidationRule {
 
   private final boolean validateUnsynchronizedFeatures;
-  private final EqualityHelper equalityHelper = new EqualityHelper();
   private final Predicate<CompliancyDefinition> compliancyPredicate;
 
   public AbstractComplianceConstraint(Predicate<CompliancyDefinition> compliancyPredicate, boolean validateUnsynchronizedFeatures){
@@ -392,7 +391,7 @@ public abstract class AbstractComplianceConstraint extends AbstractValidationRul
   protected IStatus validateAttribute(ComplianceValidationContext ctx) {
     if (ctx.getValidationContext().getFeature() == ModellingcorePackage.Literals.ABSTRACT_NAMED_ELEMENT__NAME) {
       return validateName(ctx);
-    } else if (!equalityHelper.validateAttribute(ctx.getRecElement(), ctx.getRplElement(), (EAttribute) ctx.getValidationContext().getFeature())) {
+    } else if (!new EqualityHelper().validateAttribute(ctx.getRecElement(), ctx.getRplElement(), (EAttribute) ctx.getValidationContext().getFeature())) {
       return ctx.createFailureStatus();
     }
     return Status.OK_STATUS;
@@ -17,8 +17,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.sirius.diagram.AbstractDNode;
@@ -32,14 +34,16 @@ import org.eclipse.sirius.diagram.description.DiagramDescription;
 import org.eclipse.sirius.diagram.description.DiagramElementMapping;
 import org.eclipse.sirius.viewpoint.DSemanticDecorator;
 import org.polarsys.capella.common.helpers.EcoreUtil2;
-import org.polarsys.capella.core.sirius.analysis.tool.HashMapSet;
+import org.polarsys.capella.core.sirius.analysis.cache.DiagramViewIndex;
 
 /**
  * A handler to content of a diagram. This class is made to avoid multiple/low performance accesses to views from their
  * semantic target.
  * 
- * A browse of diagram contents is performed only on access. This handler is not synchronized with added/removed views,
- * so methods addView/removeView has to be called to access to views.
+ * Views are looked up through the {@link DiagramViewIndex} of the diagram, which is built on first access and follows
+ * the views added to or removed from the diagram. Methods addView/removeView remain available to register views that
+ * are not contained by the diagram yet, or to forget views that are still contained by it: they only change this
+ * handler (and the handlers linked to it), never the index shared by all the users of the diagram.
  * 
  */
 public class DDiagramContents {
@@ -54,7 +58,17 @@ public class DDiagramContents {
   /**
    * diagram elements sorted by target
    */
-  protected HashMapSet<EObject, DDiagramElement> _elementsTargets = null;
+  protected DiagramViewIndex _elementsTargets = null;
+
+  /**
+   * views registered by addView, sorted by target
+   */
+  protected HashMap<EObject, Set<DDiagramElement>> _addedViews = null;
+
+  /**
+   * views forgotten by removeView
+   */
+  protected HashSet<DDiagramElement> _removedViews = null;
 
   protected HashSet<DDiagramElement> _elementsToShow = null;
 
@@ -90,6 +104,8 @@ public class DDiagramContents {
   public DDiagramContents(DDiagram diagram) {
     _currentDiagram = (DSemanticDiagram) diagram;
     _currentDescription = _currentDiagram.getDescription();
+    _addedViews = new HashMap<>();
+    _removedViews = new HashSet<>();
     _elementsToShow = new HashSet<>();
     _elementsToHide = new HashSet<>();
   }
@@ -104,6 +120,8 @@ public class DDiagramContents {
     this._currentDiagram = diagramContent._currentDiagram;
     this._currentDescription = diagramContent.getDescription();
     this._elementsTargets = diagramContent._elementsTargets;
+    this._addedViews = diagramContent._addedViews;
+    this._removedViews = diagramContent._removedViews;
     _elementsToShow = new HashSet<>();
     _elementsToHide = new HashSet<>();
   }
@@ -120,14 +138,11 @@ public class DDiagramContents {
   }
 
   /**
-   * @return the map of elements
+   * @return the index of elements
    */
-  private HashMapSet<EObject, DDiagramElement> getMapDiagramElements() {
+  private DiagramViewIndex getMapDiagramElements() {
     if (_elementsTargets == null) {
-      _elementsTargets = new HashMapSet<>();
-      for (DDiagramElement element : getDiagramElements()) {
-        _elementsTargets.put(element.getTarget(), element);
-      }
+      _elementsTargets = DiagramViewIndex.getIndex(_currentDiagram);
     }
     return _elementsTargets;
   }
@@ -138,7 +153,8 @@ public class DDiagramContents {
    * @param diagramElement
    */
   public void addView(DDiagramElement diagramElement) {
-    getMapDiagramElements().put(diagramElement.getTarget(), diagramElement);
+    _removedViews.remove(diagramElement);
+    _addedViews.computeIfAbsent(diagramElement.getTarget(), target -> new LinkedHashSet<>()).add(diagramElement);
   }
 
   /**
@@ -147,7 +163,32 @@ public class DDiagramContents {
    * @param diagramElement
    */
   public void removeView(DDiagramElement diagramElement) {
-    getMapDiagramElements().remove(diagramElement.getTarget(), diagramElement);
+    Set<DDiagramElement> added = _addedViews.get(diagramElement.getTarget());
+    if (added != null) {
+      added.remove(diagramElement);
+      if (added.isEmpty()) {
+        _addedViews.remove(diagramElement.getTarget());
+      }
+    }
+    _removedViews.add(diagramElement);
+  }
+
+  /**
+   * @return the views of the diagram targeting the given element, with the views registered by addView and without the
+   *         views forgotten by removeView
+   */
+  private Collection<DDiagramElement> getViewsByTarget(EObject target) {
+    Collection<DDiagramElement> views = getViewsByTarget(target);
+    Set<DDiagramElement> added = _addedViews.get(target);
+    if (added == null && _removedViews.isEmpty()) {
+      return views;
+    }
+    Set<DDiagramElement> result = new LinkedHashSet<>(views);
+    if (added != null) {
+      result.addAll(added);
+    }
+    result.removeAll(_removedViews);
+    return new ArrayList<>(result);
   }
 
   /**
@@ -224,7 +265,7 @@ public class DDiagramContents {
    * @return
    */
   public Collection<DDiagramElement> getDiagramElements(EObject target) {
-    return getMapDiagramElements().get(target);
+    return getViewsByTarget(target);
   }
 
   /**
@@ -252,7 +293,7 @@ public class DDiagramContents {
    * @return
    */
   public boolean containsView(EObject target) {
-    return getMapDiagramElements().containsKey(target);
+    return !getViewsByTarget(target).isEmpty();
   }
 
   /**
@@ -263,10 +304,10 @@ public class DDiagramContents {
    * @return
    */
   public boolean containsView(EObject target, DiagramElementMapping mapping) {
-    if (!getMapDiagramElements().containsKey(target)) {
+    if (!containsView(target)) {
       return false;
     }
-    if ((mapping == null) && getMapDiagramElements().containsKey(target)) {
+    if (mapping == null) {
       return true;
     }
 
@@ -286,15 +327,13 @@ public class DDiagramContents {
    * @return
    */
   public Collection<DDiagramElement> getDiagramElements(EObject target, DiagramElementMapping mapping) {
-    if (!getMapDiagramElements().containsKey(target)) {
-      return Collections.emptyList();
-    }
-    if ((mapping == null) && getMapDiagramElements().containsKey(target)) {
-      return getMapDiagramElements().get(target);
+    Collection<DDiagramElement> views = getViewsByTarget(target);
+    if (views.isEmpty() || mapping == null) {
+      return views;
     }
 
     ArrayList<DDiagramElement> result = new ArrayList<>();
-    for (DDiagramElement view : getMapDiagramElements().get(target)) {
+    for (DDiagramElement view : views) {
       if (mapping != null && DiagramServices.getDiagramServices().isMapping(view, mapping)) {
         result.add(view);
       }
@@ -314,12 +353,13 @@ public class DDiagramContents {
    */
   public Collection<DDiagramElement> getDiagramElements(EObject target, DiagramElementMapping mapping,
       DSemanticDecorator containerView) {
-    if (!getMapDiagramElements().containsKey(target)) {
+    Collection<DDiagramElement> views = getViewsByTarget(target);
+    if (views.isEmpty()) {
       return Collections.emptyList();
     }
 
     ArrayList<DDiagramElement> result = new ArrayList<>();
-    for (DDiagramElement view : getMapDiagramElements().get(target)) {
+    for (DDiagramElement view : views) {
       if (mapping == null || DiagramServices.getDiagramServices().isMapping(view, mapping)) {
         if ((containerView == null) || EcoreUtil2.isContainedBy(view, containerView)) {
           result.add(view);
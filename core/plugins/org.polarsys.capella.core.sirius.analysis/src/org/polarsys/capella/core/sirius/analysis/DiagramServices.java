@@ -116,6 +116,7 @@ import org.polarsys.capella.core.diagram.helpers.naming.DiagramNamingConstants;
 import org.polarsys.capella.core.model.helpers.FunctionalChainExt;
 import org.polarsys.capella.core.model.helpers.PhysicalPathExt;
 import org.polarsys.capella.core.model.utils.CapellaLayerCheckingExt;
+import org.polarsys.capella.core.sirius.analysis.cache.DiagramViewIndex;
 
 import com.google.common.collect.Lists;
 
@@ -753,6 +754,9 @@ public class DiagramServices {
    * @return a stream containing elements for the diagram target that have the specified semantic target.
    */
   protected Stream<DDiagramElement> getDiagramElementsStream(DRepresentation diagramTarget, EObject semanticTarget) {
+    if (diagramTarget instanceof DDiagram) {
+      return DiagramViewIndex.getIndex((DDiagram) diagramTarget).getViews(semanticTarget).stream();
+    }
     Session session = SessionManager.INSTANCE.getSession(semanticTarget);
     return session.getSemanticCrossReferencer().getInverseReferences(semanticTarget).stream()
         .filter(isValidTargetFeature()).filter(setting -> setting.getEObject() instanceof DDiagramElement)
@@ -833,9 +837,9 @@ public class DiagramServices {
   public DDiagramElement getDiagramElement(DDiagram diagramTarget, DiagramElementMapping mappingTarget,
       EObject semanticTarget) {
 
-    return getDiagramElementsStream(diagramTarget, semanticTarget).filter(DDiagramElement.class::isInstance)
-        .map(DDiagramElement.class::cast).filter(element -> element.getMapping().equals(mappingTarget)).findFirst()
-        .orElse(null);
+    Iterator<DDiagramElement> elements = DiagramViewIndex.getIndex(diagramTarget)
+        .getViews(semanticTarget, mappingTarget).iterator();
+    return elements.hasNext() ? elements.next() : null;
   }
   
   /**
@@ -852,9 +856,7 @@ public class DiagramServices {
   public Collection<DDiagramElement> getDiagramElements(DDiagram diagramTarget, DiagramElementMapping mappingTarget,
       EObject semanticTarget) {
 
-    return getDiagramElementsStream(diagramTarget, semanticTarget).filter(DDiagramElement.class::isInstance)
-        .map(DDiagramElement.class::cast).filter(element -> element.getMapping().equals(mappingTarget))
-        .collect(Collectors.toSet());
+    return new HashSet<>(DiagramViewIndex.getIndex(diagramTarget).getViews(semanticTarget, mappingTarget));
   }
 
   /**
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.sirius.analysis.cache;
+
+import org.eclipse.sirius.business.api.session.Session;
+import org.eclipse.sirius.business.api.session.SessionListener;
+import org.eclipse.sirius.business.api.session.SessionManagerListener;
+
+/**
+ * This {@link SessionManagerListener} evicts the diagram caches of a session when it is closed, and disposes the pie
+ * icons that are not used anymore.
+ */
+public class CacheSessionManagerListener extends SessionManagerListener.Stub {
+
+  @Override
+  public void notify(Session updated, int notification) {
+    if (notification == SessionListener.CLOSING) {
+      evict(updated);
+    }
+  }
+
+  @Override
+  public void notifyRemoveSession(Session removedSession) {
+    evict(removedSession);
+  }
+
+  protected void evict(Session session) {
+    DEdgeIconCache.getInstance().evict(session);
+    FunctionalChainCache.getInstance().reset();
+    PhysicalPathCache.getInstance().reset();
+    PieIconCache.getInstance().purge();
+  }
+}
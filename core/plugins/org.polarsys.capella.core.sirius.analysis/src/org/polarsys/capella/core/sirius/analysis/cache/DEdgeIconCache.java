@@ -12,10 +12,20 @@
  *******************************************************************************/
 package org.polarsys.capella.core.sirius.analysis.cache;
 
-import java.util.HashMap;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
 
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.sirius.business.api.session.Session;
+import org.eclipse.sirius.diagram.DDiagram;
 import org.eclipse.sirius.diagram.DEdge;
 import org.eclipse.sirius.viewpoint.RGBValues;
 import org.eclipse.swt.graphics.Image;
@@ -26,7 +36,14 @@ import org.eclipse.swt.graphics.Image;
  * Paths or Functional Chains displayed. This cache is only reset on the beforeRefresh of diagram but not in postRefresh
  * because on diagram opening, icons are initialized after diagram refresh (see method
  * {@link org.eclipse.sirius.diagram.ui.tools.internal.editor.DDiagramEditorImpl#initializeGraphicalViewer
- * initializeGraphicalViewer})
+ * initializeGraphicalViewer})<br>
+ * Icons and labels are cached by diagram, with weak keys. The pie icons used by a diagram are held from
+ * {@link PieIconCache} until the diagram is evicted, or until the refresh following its reset has set the new icons
+ * (see {@link #releasePreviousIcons(DDiagram)}): the figures of an opened diagram keep painting the previous icons
+ * during the refresh.<br>
+ * A diagram is evicted when its editor is closed (see {@link #evict(DDiagram)}), when its session is closed, when it
+ * is unloaded or deleted, and when it is garbage collected: the icons of the collected diagrams are released on the
+ * next access to the cache.
  */
 @SuppressWarnings("restriction")
 public class DEdgeIconCache {
@@ -40,38 +57,254 @@ public class DEdgeIconCache {
     return instance;
   }
 
-  private Map<DEdge, Image> edge2Icon = new HashMap<>();
-  private Map<DEdge, String> edge2Label = new HashMap<>();
+  /**
+   * The icons and labels of the edges of a diagram.
+   */
+  private static class DiagramIcons {
+
+    private Map<DEdge, Image> edge2Icon = new WeakHashMap<>();
+
+    private Map<DEdge, String> edge2Label = new WeakHashMap<>();
+
+    /**
+     * Pie icons held by the diagram.
+     */
+    private Set<Image> icons = new HashSet<>();
+
+    /**
+     * Pie icons held by the diagram before its last reset.
+     */
+    private Set<Image> previousIcons = new HashSet<>();
+
+    Image setIcon(DEdge plEdge, List<RGBValues> colors) {
+      return edge2Icon.computeIfAbsent(plEdge, k -> {
+        Image icon = PieIconCache.getInstance().acquire(colors);
+        if (!icons.add(icon)) {
+          PieIconCache.getInstance().release(icon);
+        }
+        return icon;
+      });
+    }
+
+    void reset() {
+      releasePreviousIcons();
+      Set<Image> released = previousIcons;
+      previousIcons = icons;
+      icons = released;
+      edge2Icon.clear();
+      edge2Label.clear();
+    }
+
+    void releasePreviousIcons() {
+      for (Image icon : previousIcons) {
+        PieIconCache.getInstance().release(icon);
+      }
+      previousIcons.clear();
+    }
+
+    void dispose() {
+      releasePreviousIcons();
+      for (Image icon : icons) {
+        PieIconCache.getInstance().release(icon);
+      }
+      icons.clear();
+      edge2Icon.clear();
+      edge2Label.clear();
+    }
+  }
+
+  /**
+   * A weak reference to a diagram, holding its icons so that they are released once the diagram is garbage collected.
+   */
+  private static class DiagramReference extends WeakReference<DDiagram> {
+
+    private final DiagramIcons icons = new DiagramIcons();
+
+    DiagramReference(DDiagram diagram, ReferenceQueue<DDiagram> queue) {
+      super(diagram, queue);
+    }
+  }
+
+  private Map<DDiagram, DiagramReference> diagram2Icons = new WeakHashMap<>();
+
+  /**
+   * The references of the cached diagrams, strongly held so that they are enqueued once their diagram is garbage
+   * collected.
+   */
+  private Set<DiagramReference> references = new HashSet<>();
+
+  private ReferenceQueue<DDiagram> collectedDiagrams = new ReferenceQueue<>();
 
   private DEdgeIconCache() {
   }
 
-  public Image setIcon(DEdge plEdge, List<RGBValues> colors) {
-    return edge2Icon.computeIfAbsent(plEdge, k -> PieIconCache.getInstance().getIcon(colors));
+  /**
+   * Sets the pie icon of the given colors to the given edge, held by the diagram of the edge until its next refresh.
+   * 
+   * @param plEdge
+   * @param colors
+   * @return the icon of the edge, <code>null</code> if the edge is not in a diagram
+   */
+  public synchronized Image setIcon(DEdge plEdge, List<RGBValues> colors) {
+    DiagramIcons diagramIcons = getDiagramIcons(plEdge, true);
+    if (diagramIcons == null) {
+      // No diagram would release the icon
+      return null;
+    }
+    return diagramIcons.setIcon(plEdge, colors);
   }
   
-  public Image getIcon(DEdge plEdge) {
-    return edge2Icon.get(plEdge);
+  public synchronized Image getIcon(DEdge plEdge) {
+    DiagramIcons diagramIcons = getDiagramIcons(plEdge, false);
+    return diagramIcons == null ? null : diagramIcons.edge2Icon.get(plEdge);
   }
 
-  public String setLabel(DEdge plEdge, String label) {
-    return edge2Label.computeIfAbsent(plEdge, k -> label);
+  public synchronized String setLabel(DEdge plEdge, String label) {
+    DiagramIcons diagramIcons = getDiagramIcons(plEdge, true);
+    if (diagramIcons == null) {
+      return label;
+    }
+    return diagramIcons.edge2Label.computeIfAbsent(plEdge, k -> label);
   }
 
-  public String getLabel(DEdge plEdge) {
-    return edge2Label.get(plEdge);
+  public synchronized String getLabel(DEdge plEdge) {
+    DiagramIcons diagramIcons = getDiagramIcons(plEdge, false);
+    return diagramIcons == null ? null : diagramIcons.edge2Label.get(plEdge);
   }
   
-  public void reset() {
-    edge2Icon.clear();
-    edge2Label.clear();
+  /**
+   * Resets the icons and labels of all diagrams.
+   */
+  public synchronized void reset() {
+    for (DiagramReference reference : references) {
+      reference.clear();
+      reference.icons.dispose();
+    }
+    references.clear();
+    diagram2Icons.clear();
+    releaseCollectedDiagrams();
+  }
+
+  /**
+   * Resets the icons and labels of the given diagram, and evicts the diagrams that have been unloaded or deleted.<br>
+   * The icons previously used by the diagram are still held, until {@link #releasePreviousIcons(DDiagram)} is called
+   * once the diagram refresh has set the new icons.
+   * 
+   * @param diagram
+   */
+  public synchronized void reset(DDiagram diagram) {
+    DiagramReference reference = diagram2Icons.get(diagram);
+    if (reference != null) {
+      reference.icons.reset();
+    }
+    evictIf(resource -> resource == null);
+  }
+
+  /**
+   * Releases the icons used by the given diagram before its last {@link #reset(DDiagram)}. The icons still used after
+   * the refresh are kept.
+   * 
+   * @param diagram
+   */
+  public synchronized void releasePreviousIcons(DDiagram diagram) {
+    releaseCollectedDiagrams();
+    DiagramReference reference = diagram2Icons.get(diagram);
+    if (reference != null) {
+      reference.icons.releasePreviousIcons();
+    }
+  }
+
+  /**
+   * Evicts the icons and labels of the given diagram, typically once its editor is closed. They are computed again by
+   * the next refresh of the diagram.
+   * 
+   * @param diagram
+   */
+  public synchronized void evict(DDiagram diagram) {
+    DiagramReference reference = diagram2Icons.remove(diagram);
+    if (reference != null) {
+      dispose(reference);
+    }
+    releaseCollectedDiagrams();
+  }
+
+  /**
+   * Evicts the icons and labels of the diagrams of the given session, and of the diagrams that have been unloaded or
+   * deleted.
+   * 
+   * @param session
+   */
+  public synchronized void evict(Session session) {
+    evictIf(resource -> resource == null || resource.getResourceSet() == null
+        || resource.getResourceSet() == session.getTransactionalEditingDomain().getResourceSet());
+  }
+
+  /**
+   * @return the number of diagrams having cached icons or labels
+   */
+  public synchronized int getDiagramCount() {
+    releaseCollectedDiagrams();
+    return references.size();
   }
   
-  public void removeIcon(DEdge dEdge) {
-    edge2Icon.remove(dEdge);
+  public synchronized void removeIcon(DEdge dEdge) {
+    DiagramIcons diagramIcons = getDiagramIcons(dEdge, false);
+    if (diagramIcons != null) {
+      diagramIcons.edge2Icon.remove(dEdge);
+    }
   }
   
-  public void removeLabel(DEdge dEdge) {
-    edge2Label.remove(dEdge);
+  public synchronized void removeLabel(DEdge dEdge) {
+    DiagramIcons diagramIcons = getDiagramIcons(dEdge, false);
+    if (diagramIcons != null) {
+      diagramIcons.edge2Label.remove(dEdge);
+    }
+  }
+
+  private DiagramIcons getDiagramIcons(DEdge edge, boolean create) {
+    releaseCollectedDiagrams();
+    DDiagram diagram = edge.getParentDiagram();
+    if (diagram == null) {
+      return null;
+    }
+    DiagramReference reference = diagram2Icons.get(diagram);
+    if (reference == null && create) {
+      reference = new DiagramReference(diagram, collectedDiagrams);
+      diagram2Icons.put(diagram, reference);
+      references.add(reference);
+    }
+    return reference == null ? null : reference.icons;
+  }
+
+  private void evictIf(Predicate<Resource> evicted) {
+    Iterator<Map.Entry<DDiagram, DiagramReference>> iterator = diagram2Icons.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<DDiagram, DiagramReference> entry = iterator.next();
+      if (evicted.test(entry.getKey().eResource())) {
+        dispose(entry.getValue());
+        iterator.remove();
+      }
+    }
+    releaseCollectedDiagrams();
+  }
+
+  private void dispose(DiagramReference reference) {
+    // A cleared reference is not enqueued anymore
+    reference.clear();
+    references.remove(reference);
+    reference.icons.dispose();
+  }
+
+  /**
+   * Releases the icons of the diagrams that have been garbage collected.
+   */
+  private void releaseCollectedDiagrams() {
+    Reference<? extends DDiagram> collected = collectedDiagrams.poll();
+    while (collected != null) {
+      if (references.remove(collected)) {
+        ((DiagramReference) collected).icons.dispose();
+      }
+      collected = collectedDiagrams.poll();
+    }
   }
 }
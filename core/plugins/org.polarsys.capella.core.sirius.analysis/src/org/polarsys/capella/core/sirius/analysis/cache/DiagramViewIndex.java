@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.sirius.analysis.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.sirius.diagram.DDiagram;
+import org.eclipse.sirius.diagram.DDiagramElement;
+import org.eclipse.sirius.diagram.description.DiagramElementMapping;
+import org.eclipse.sirius.viewpoint.ViewpointPackage;
+
+/**
+ * An index of the views of a diagram by semantic element.<br>
+ * A view is indexed by its target and by its semantic elements. The index is built on first access, then maintained
+ * through the notifications of the diagram and of its views: it follows the views added, removed or retargeted by
+ * refreshes and commands, without browsing the diagram again.<br>
+ * Lookups return copies, so that the diagram can be modified while iterating on their results. The index is shared by
+ * all the users of the diagram, so it only reflects the contents of the diagram.
+ */
+public class DiagramViewIndex extends AdapterImpl {
+
+  private final DDiagram diagram;
+
+  /**
+   * Views by target and semantic elements.
+   */
+  private final Map<EObject, Set<DDiagramElement>> views = new HashMap<>();
+
+  /**
+   * Keys of each indexed view in {@link #views}.
+   */
+  private final Map<DDiagramElement, Set<EObject>> keys = new HashMap<>();
+
+  private DiagramViewIndex(DDiagram diagram) {
+    this.diagram = diagram;
+  }
+
+  /**
+   * @param diagram
+   * @return the index of the given diagram, built if needed
+   */
+  public static DiagramViewIndex getIndex(DDiagram diagram) {
+    DiagramViewIndex index = (DiagramViewIndex) EcoreUtil.getExistingAdapter(diagram, DiagramViewIndex.class);
+    if (index == null) {
+      // Only lookups of the same diagram wait for the build.
+      synchronized (diagram) {
+        index = (DiagramViewIndex) EcoreUtil.getExistingAdapter(diagram, DiagramViewIndex.class);
+        if (index == null) {
+          index = new DiagramViewIndex(diagram);
+          index.build();
+        }
+      }
+    }
+    return index;
+  }
+
+  private synchronized void build() {
+    diagram.eAdapters().add(this);
+    for (DDiagramElement view : diagram.getOwnedDiagramElements()) {
+      addAll(view);
+    }
+  }
+
+  @Override
+  public boolean isAdapterForType(Object type) {
+    return type == DiagramViewIndex.class;
+  }
+
+  /**
+   * @return the indexed diagram
+   */
+  public DDiagram getDiagram() {
+    return diagram;
+  }
+
+  /**
+   * @param semantic
+   * @return the views whose target or semantic elements contain the given element
+   */
+  public synchronized Collection<DDiagramElement> getViews(EObject semantic) {
+    Set<DDiagramElement> result = views.get(semantic);
+    return result == null ? Collections.emptyList() : new ArrayList<>(result);
+  }
+
+  /**
+   * @param semantic
+   * @param mapping
+   * @return the views of the given mapping whose target or semantic elements contain the given element
+   */
+  public synchronized Collection<DDiagramElement> getViews(EObject semantic, DiagramElementMapping mapping) {
+    Set<DDiagramElement> result = views.get(semantic);
+    if (result == null) {
+      return Collections.emptyList();
+    }
+    List<DDiagramElement> filtered = new ArrayList<>();
+    for (DDiagramElement view : result) {
+      if (mapping.equals(view.getMapping())) {
+        filtered.add(view);
+      }
+    }
+    return filtered;
+  }
+
+  /**
+   * @param target
+   * @return the views targeting the given element
+   */
+  public synchronized Collection<DDiagramElement> getViewsByTarget(EObject target) {
+    Set<DDiagramElement> result = views.get(target);
+    if (result == null) {
+      return Collections.emptyList();
+    }
+    List<DDiagramElement> filtered = new ArrayList<>();
+    for (DDiagramElement view : result) {
+      if (target.equals(view.getTarget())) {
+        filtered.add(view);
+      }
+    }
+    return filtered;
+  }
+
+  /**
+   * @param target
+   * @return whether a view targets the given element
+   */
+  public synchronized boolean hasViewByTarget(EObject target) {
+    Set<DDiagramElement> result = views.get(target);
+    if (result != null) {
+      for (DDiagramElement view : result) {
+        if (target.equals(view.getTarget())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized void notifyChanged(Notification notification) {
+    if (notification.getEventType() == Notification.REMOVING_ADAPTER) {
+      if (notification.getOldValue() == this && notification.getNotifier() == diagram) {
+        // The index is detached: it will be built again on next access.
+        for (DDiagramElement view : new ArrayList<>(keys.keySet())) {
+          view.eAdapters().remove(this);
+        }
+        views.clear();
+        keys.clear();
+      }
+      return;
+    }
+    if (notification.isTouch()) {
+      return;
+    }
+    Object feature = notification.getFeature();
+    if (feature == ViewpointPackage.Literals.DSEMANTIC_DECORATOR__TARGET
+        || feature == ViewpointPackage.Literals.DREPRESENTATION_ELEMENT__SEMANTIC_ELEMENTS) {
+      Object notifier = notification.getNotifier();
+      if (notifier instanceof DDiagramElement && keys.containsKey(notifier)) {
+        unindex((DDiagramElement) notifier);
+        index((DDiagramElement) notifier);
+      }
+    } else if (feature instanceof EReference && ((EReference) feature).isContainment()) {
+      forEachView(notification.getOldValue(), this::removeAll);
+      forEachView(notification.getNewValue(), this::addAll);
+    }
+  }
+
+  private void forEachView(Object value, Consumer<DDiagramElement> action) {
+    if (value instanceof DDiagramElement) {
+      action.accept((DDiagramElement) value);
+    } else if (value instanceof Collection<?>) {
+      for (Object element : (Collection<?>) value) {
+        if (element instanceof DDiagramElement) {
+          action.accept((DDiagramElement) element);
+        }
+      }
+    }
+  }
+
+  /**
+   * Indexes the given view and its sub views.
+   */
+  private void addAll(DDiagramElement view) {
+    if (!keys.containsKey(view)) {
+      view.eAdapters().add(this);
+      index(view);
+    }
+    for (EObject child : view.eContents()) {
+      if (child instanceof DDiagramElement) {
+        addAll((DDiagramElement) child);
+      }
+    }
+  }
+
+  /**
+   * Removes the given view and its sub views from the index.
+   */
+  private void removeAll(DDiagramElement view) {
+    if (keys.containsKey(view)) {
+      unindex(view);
+      keys.remove(view);
+      view.eAdapters().remove(this);
+    }
+    for (EObject child : view.eContents()) {
+      if (child instanceof DDiagramElement) {
+        removeAll((DDiagramElement) child);
+      }
+    }
+  }
+
+  private void index(DDiagramElement view) {
+    Set<EObject> viewKeys = new LinkedHashSet<>();
+    if (view.getTarget() != null) {
+      viewKeys.add(view.getTarget());
+    }
+    viewKeys.addAll(view.getSemanticElements());
+    for (EObject key : viewKeys) {
+      views.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(view);
+    }
+    keys.put(view, viewKeys);
+  }
+
+  private void unindex(DDiagramElement view) {
+    Set<EObject> viewKeys = keys.get(view);
+    if (viewKeys != null) {
+      for (EObject key : viewKeys) {
+        Set<DDiagramElement> keyViews = views.get(key);
+        if (keyViews != null) {
+          keyViews.remove(view);
+          if (keyViews.isEmpty()) {
+            views.remove(key);
+          }
+        }
+      }
+    }
+  }
+}
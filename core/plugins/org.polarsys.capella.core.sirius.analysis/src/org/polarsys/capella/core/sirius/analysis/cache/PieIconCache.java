@@ -12,8 +12,10 @@
  *******************************************************************************/
 package org.polarsys.capella.core.sirius.analysis.cache;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -28,7 +30,9 @@ import org.eclipse.swt.widgets.Display;
 
 /**
  * 
- *  A cache of pie icon created from input colors
+ * A cache of pie icon created from input colors.<br>
+ * Icons are shared by all their holders and reference counted: an icon acquired by {@link #acquire(List)} is disposed
+ * when it has been released by all its holders.
  */
 public class PieIconCache {
 
@@ -41,7 +45,30 @@ public class PieIconCache {
     return instance;
   }
 
-  private Map<List<RGBValues>, Image> colors2Icons = new HashMap<>();
+  /**
+   * A cached icon and its number of holders.
+   */
+  private static class Entry {
+
+    final List<RGBValues> colors;
+
+    final Image image;
+
+    int references;
+
+    Entry(List<RGBValues> colors, Image image) {
+      this.colors = colors;
+      this.image = image;
+    }
+  }
+
+  private Map<List<RGBValues>, Entry> colors2Icons = new HashMap<>();
+
+  private Map<Image, Entry> icons = new IdentityHashMap<>();
+
+  private long hitCount;
+
+  private long missCount;
 
   private PieIconCache() {
   }
@@ -57,57 +84,145 @@ public class PieIconCache {
     return l.getBlue() - r.getBlue();
   };
 
-  public Image getIcon(List<RGBValues> colors) {
-    if (!colors2Icons.containsKey(colors)) {
-      // Sort colors to always have the same icon regardless of the order of the input colors
-      colors.sort(colorComparator);
-      Display display = Display.getDefault();
-      Image canvas = new Image(display, 16, 16);
-      GC gc = new GC(canvas);
-      gc.setAntialias(SWT.ON);
-      
-      // First set the alpha on the entire canvas to transparent
-      gc.setAlpha(0);
-      gc.fillRectangle(0, 0, 16, 16);
-      // Reset the alpha to opaque
-      gc.setAlpha(255);
-      
-      // Draw the circle
-      int diameter = 16;
-      int radius = diameter/2;
-      int nbOfColors = colors.size();
-      int angle = 360 / nbOfColors;
-      Iterator<RGBValues> iterator = colors.iterator();
-      int i = 0;
-      while (iterator.hasNext()) {
-        RGBValues rgbValues = iterator.next();
-        gc.setBackground(new Color(gc.getDevice(), rgbValues.getRed(), rgbValues.getGreen(), rgbValues.getBlue()));
-        gc.fillArc(0, 0, diameter, diameter, i * angle, angle);
-        i++;
-      }
-      
-      // Draw lines to separate different colors
-      for (int j = 0; j < colors.size(); j++) {
-        gc.setForeground(new Color(gc.getDevice(), 255, 255, 255));
-        int xCoord = radius + (int) Math.floor(radius * Math.cos(Math.toRadians(j * (double) angle)) + 0.5);
-        int yCoord = radius + (int) Math.floor(radius * Math.sin(Math.toRadians(j * (double) angle)) + 0.5);
-        gc.drawLine(radius, radius, xCoord, yCoord);
-      }
-      
-      // Update alphaData with the alpha byte (the 4th byte in case of 32bit image data) to make the uncolored region
-      // transparent
-      ImageData canvasData = canvas.getImageData();
-      canvasData.alphaData = new byte[16 * 16];
-      for (int idx = 0; idx < (16 * 16); idx++) {
-        int coord = (idx * 4) + 3;
-        canvasData.alphaData[idx] = canvasData.data[coord];
+  /**
+   * @param colors
+   * @return the icon of the given colors, created if needed. The icon is owned by the cache: it is disposed when all
+   *         its holders have released it, or by {@link #purge()} if it is not held.
+   */
+  public synchronized Image getIcon(List<RGBValues> colors) {
+    return getEntry(colors).image;
+  }
+
+  /**
+   * @param colors
+   * @return the icon of the given colors, created if needed, held until it is released by {@link #release(Image)}
+   */
+  public synchronized Image acquire(List<RGBValues> colors) {
+    Entry entry = getEntry(colors);
+    entry.references++;
+    return entry.image;
+  }
+
+  /**
+   * Releases an icon returned by {@link #acquire(List)}, the icon is disposed if it is not held anymore.
+   * 
+   * @param icon
+   */
+  public synchronized void release(Image icon) {
+    Entry entry = icons.get(icon);
+    if (entry != null && --entry.references <= 0) {
+      dispose(entry);
+    }
+  }
+
+  /**
+   * Disposes the icons that are not held.
+   */
+  public synchronized void purge() {
+    for (Entry entry : new ArrayList<>(icons.values())) {
+      if (entry.references <= 0) {
+        dispose(entry);
       }
+    }
+  }
+
+  /**
+   * @return the number of icons currently allocated
+   */
+  public synchronized int getLiveImageCount() {
+    return icons.size();
+  }
+
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the ratio of requests served by an existing icon, 0 if no icon has been requested
+   */
+  public synchronized double getHitRate() {
+    long requestCount = hitCount + missCount;
+    return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+  }
 
-      Image finalImage = new Image(gc.getDevice(), canvasData);
-      canvas.dispose();
-      gc.dispose();
-      colors2Icons.put(colors, finalImage);
+  private Entry getEntry(List<RGBValues> colors) {
+    // Sort colors to always have the same icon regardless of the order of the input colors
+    List<RGBValues> key = new ArrayList<>(colors);
+    key.sort(colorComparator);
+    Entry entry = colors2Icons.get(key);
+    if (entry == null || entry.image.isDisposed()) {
+      missCount++;
+      entry = new Entry(key, createIcon(key));
+      colors2Icons.put(key, entry);
+      icons.put(entry.image, entry);
+    } else {
+      hitCount++;
     }
-    return colors2Icons.get(colors);
+    return entry;
+  }
+
+  private void dispose(Entry entry) {
+    colors2Icons.remove(entry.colors);
+    icons.remove(entry.image);
+    if (!entry.image.isDisposed()) {
+      entry.image.dispose();
+    }
+  }
+
+  private Image createIcon(List<RGBValues> colors) {
+    Display display = Display.getDefault();
+    Image canvas = new Image(display, 16, 16);
+    GC gc = new GC(canvas);
+    gc.setAntialias(SWT.ON);
+    
+    // First set the alpha on the entire canvas to transparent
+    gc.setAlpha(0);
+    gc.fillRectangle(0, 0, 16, 16);
+    // Reset the alpha to opaque
+    gc.setAlpha(255);
+    
+    // Draw the circle
+    int diameter = 16;
+    int radius = diameter/2;
+    int nbOfColors = colors.size();
+    int angle = 360 / nbOfColors;
+    Iterator<RGBValues> iterator = colors.iterator();
+    int i = 0;
+    while (iterator.hasNext()) {
+      RGBValues rgbValues = iterator.next();
+      Color color = new Color(gc.getDevice(), rgbValues.getRed(), rgbValues.getGreen(), rgbValues.getBlue());
+      gc.setBackground(color);
+      gc.fillArc(0, 0, diameter, diameter, i * angle, angle);
+      color.dispose();
+      i++;
+    }
+    
+    // Draw lines to separate different colors
+    Color white = new Color(gc.getDevice(), 255, 255, 255);
+    gc.setForeground(white);
+    for (int j = 0; j < colors.size(); j++) {
+      int xCoord = radius + (int) Math.floor(radius * Math.cos(Math.toRadians(j * (double) angle)) + 0.5);
+      int yCoord = radius + (int) Math.floor(radius * Math.sin(Math.toRadians(j * (double) angle)) + 0.5);
+      gc.drawLine(radius, radius, xCoord, yCoord);
+    }
+    white.dispose();
+    
+    // Update alphaData with the alpha byte (the 4th byte in case of 32bit image data) to make the uncolored region
+    // transparent
+    ImageData canvasData = canvas.getImageData();
+    canvasData.alphaData = new byte[16 * 16];
+    for (int idx = 0; idx < (16 * 16); idx++) {
+      int coord = (idx * 4) + 3;
+      canvasData.alphaData[idx] = canvasData.data[coord];
+    }
+
+    Image finalImage = new Image(gc.getDevice(), canvasData);
+    canvas.dispose();
+    gc.dispose();
+    return finalImage;
   }
 }
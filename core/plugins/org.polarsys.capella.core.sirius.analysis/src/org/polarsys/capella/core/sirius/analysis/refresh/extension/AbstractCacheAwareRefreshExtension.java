@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.polarsys.capella.core.sirius.analysis.refresh.extension;
 
+import org.eclipse.emf.transaction.util.TransactionUtil;
 import org.eclipse.sirius.diagram.DDiagram;
 import org.eclipse.sirius.diagram.business.api.refresh.IRefreshExtension;
 import org.polarsys.capella.common.helpers.cache.ModelCache;
@@ -19,11 +20,13 @@ import org.polarsys.capella.common.helpers.cache.ModelCache;
 public abstract class AbstractCacheAwareRefreshExtension extends AbstractRefreshExtension implements IRefreshExtension {
 
   /**
-   * Subclasses should call super.beforeRefresh at the beginning of the overridden beforeRefresh.
+   * Subclasses should call super.beforeRefresh at the beginning of the overridden beforeRefresh.<br>
+   * Activates the cache scope of the diagram editing domain, so that concurrent refreshes or validations on other
+   * sessions do not interfere with this one.
    */
   @Override
   public void beforeRefresh(DDiagram dDiagram) {
-    ModelCache.enable();
+    ModelCache.enable(TransactionUtil.getEditingDomain(dDiagram));
   }
 
   /**
@@ -31,6 +34,6 @@ public abstract class AbstractCacheAwareRefreshExtension extends AbstractRefresh
    */
   @Override
   public void postRefresh(DDiagram dDiagram) {
-    ModelCache.disable();
+    ModelCache.disable(TransactionUtil.getEditingDomain(dDiagram));
   }
 }
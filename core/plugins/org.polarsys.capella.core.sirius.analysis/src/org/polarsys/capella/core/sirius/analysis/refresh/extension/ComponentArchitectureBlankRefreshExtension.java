@@ -77,11 +77,8 @@ public class ComponentArchitectureBlankRefreshExtension extends AbstractCacheAwa
 
     FunctionalChainCache.getInstance().reset();
     PhysicalPathCache.getInstance().reset();
-    DDiagram openingDiagram = DiagramServices.getDiagramServices().getOpeningDiagram();
-    // Avoid resetting the icon cache if it's not on the diagram currently being opened
-    if (openingDiagram == null || openingDiagram == diagram) {
-      DEdgeIconCache.getInstance().reset();
-    }
+    // Only reset the icons of the refreshed diagram, the icons of a diagram being opened are kept
+    DEdgeIconCache.getInstance().reset(diagram);
 
     DRepresentationDescriptor descriptor = RepresentationHelper.getRepresentationDescriptor(diagram);
 
@@ -494,6 +491,8 @@ public class ComponentArchitectureBlankRefreshExtension extends AbstractCacheAwa
 
     FunctionalChainCache.getInstance().reset();
     PhysicalPathCache.getInstance().reset();
+    // The new icons are set, the icons of the previous refresh can be released
+    DEdgeIconCache.getInstance().releasePreviousIcons(diagram);
     super.postRefresh(diagram);
   }
 
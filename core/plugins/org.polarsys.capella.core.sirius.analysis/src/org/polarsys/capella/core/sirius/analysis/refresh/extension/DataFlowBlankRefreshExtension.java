@@ -27,7 +27,6 @@ import org.polarsys.capella.core.data.fa.ExchangeCategory;
 import org.polarsys.capella.core.diagram.helpers.ContextualDiagramHelper;
 import org.polarsys.capella.core.model.handler.helpers.RepresentationHelper;
 import org.polarsys.capella.core.sirius.analysis.DDiagramContents;
-import org.polarsys.capella.core.sirius.analysis.DiagramServices;
 import org.polarsys.capella.core.sirius.analysis.FaServices;
 import org.polarsys.capella.core.sirius.analysis.FunctionalChainServices;
 import org.polarsys.capella.core.sirius.analysis.cache.DEdgeIconCache;
@@ -46,11 +45,8 @@ public class DataFlowBlankRefreshExtension extends AbstractCacheAwareRefreshExte
     super.beforeRefresh(diagram);
 
     FunctionalChainCache.getInstance().reset();
-    DDiagram openingDiagram = DiagramServices.getDiagramServices().getOpeningDiagram();
-    // Avoid resetting the icon cache if it's not on the diagram currently being opened
-    if (openingDiagram == null || openingDiagram == diagram) {
-      DEdgeIconCache.getInstance().reset();
-    }
+    // Only reset the icons of the refreshed diagram, the icons of a diagram being opened are kept
+    DEdgeIconCache.getInstance().reset(diagram);
     
     // -------------------------------------
     // Show in diagram related contextual elements
@@ -105,6 +101,8 @@ public class DataFlowBlankRefreshExtension extends AbstractCacheAwareRefreshExte
     }
 
     FunctionalChainCache.getInstance().reset();
+    // The new icons are set, the icons of the previous refresh can be released
+    DEdgeIconCache.getInstance().releasePreviousIcons(diagram);
     
     super.postRefresh(diagram);
   }
@@ -19,8 +19,12 @@ import org.eclipse.gmf.runtime.common.ui.services.action.global.AbstractGlobalAc
 import org.eclipse.gmf.runtime.common.ui.services.action.global.IGlobalActionHandler;
 import org.eclipse.gmf.runtime.common.ui.services.action.global.IGlobalActionHandlerContext;
 import org.eclipse.gmf.runtime.common.ui.services.action.global.IGlobalActionHandlerProvider;
+import org.eclipse.sirius.diagram.DDiagram;
+import org.eclipse.sirius.ui.business.api.dialect.DialectEditor;
+import org.eclipse.sirius.viewpoint.DRepresentation;
 import org.eclipse.ui.IPartListener;
 import org.eclipse.ui.IWorkbenchPart;
+import org.polarsys.capella.core.sirius.analysis.cache.DEdgeIconCache;
 
 public class CapellaGlobalActionHandlerProvider extends AbstractGlobalActionHandlerProvider
     implements IGlobalActionHandlerProvider {
@@ -51,7 +55,8 @@ public class CapellaGlobalActionHandlerProvider extends AbstractGlobalActionHand
   }
 
   /**
-   * A dispose listener, that will clear the associated action handler when the part is disposed
+   * A dispose listener, that will clear the associated action handler when the part is disposed, and evict the edge
+   * icons of its diagram
    * 
    * @param context
    *          the initial context
@@ -62,12 +67,21 @@ public class CapellaGlobalActionHandlerProvider extends AbstractGlobalActionHand
 
       private IWorkbenchPart initialPart = context.getActivePart();
 
+      // The representation of a closed editor may not be available anymore
+      private DRepresentation representation = initialPart instanceof DialectEditor
+          ? ((DialectEditor) initialPart).getRepresentation()
+          : null;
+
       @Override
       public void partClosed(IWorkbenchPart part) {
         if (part != null && part == initialPart && getActionHandlers().containsKey(part)) {
           getActionHandlers().remove(part);
           initialPart.getSite().getPage().removePartListener(this);
           initialPart = null;
+          if (representation instanceof DDiagram) {
+            DEdgeIconCache.getInstance().evict((DDiagram) representation);
+          }
+          representation = null;
         }
       }
 
@@ -70,6 +70,34 @@ public class Query {
     return element.getOutgoingTraces();
   }
 
+  /**
+   * Get the elements transformed from the specified element, from the trace index of the transformation if any.
+   * @param element
+   * @param transfo
+   * @return
+   */
+  private static List<? extends EObject> getTransformedElements(CapellaElement element, ITransfo transfo) {
+    TransfoTraceIndex index = TransfoTraceIndex.getIndex(transfo);
+    if (index != null) {
+      return index.getTransformedElements(element);
+    }
+
+    try {
+      // load rules for the given element if wasn't loaded to load all related transfo link (FunctionalRealization, PortRealization etc)
+      transfo.findCachedMatchingRule(element);
+    } catch (TransfoException exception) {
+      // Nothing to do
+    }
+
+    List<EObject> result = new ArrayList<EObject>();
+    for (AbstractTrace trace : getIncomingTraces(element, transfo)) {
+      if (isLinkOfTransfo(trace, transfo)) {
+        result.add(trace.getSourceElement());
+      }
+    }
+    return result;
+  }
+
   /**
    * Retrieve a resolver
    * @param transfo
@@ -380,20 +408,9 @@ public class Query {
     if (object instanceof CapellaElement) {
       CapellaElement element = (CapellaElement) object;
 
-      try {
-        // load rules for the given element if wasn't loaded to load all related transfo link (FunctionalRealization, PortRealization etc)
-        transfo.findCachedMatchingRule(object);
-      } catch (TransfoException exception) {
-        // Nothing to do
-      }
-
-      List<AbstractTrace> traceList = getIncomingTraces(element, transfo);
-      for (AbstractTrace trace : traceList) {
-        if (isLinkOfTransfo(trace, transfo)) {
-          TraceableElement srcElement = trace.getSourceElement();
-          if ((expectedTarget == null) || EcoreUtil2.isEqualOrSuperClass(expectedTarget, srcElement.eClass())) {
-            result.add(srcElement);
-          }
+      for (EObject srcElement : getTransformedElements(element, transfo)) {
+        if ((expectedTarget == null) || EcoreUtil2.isEqualOrSuperClass(expectedTarget, srcElement.eClass())) {
+          result.add(srcElement);
         }
       }
     }
@@ -430,20 +447,9 @@ public class Query {
     if ((object != null) && (object instanceof CapellaElement)) {
       CapellaElement element = (CapellaElement) object;
 
-      try {
-        // load rules for the given element if wasn't loaded to load all related transfo link (FunctionalRealization, PortRealization etc)
-        transfo.findCachedMatchingRule(object);
-      } catch (TransfoException exception) {
-        // Nothing to do
-      }
-
-      List<AbstractTrace> traceList = getIncomingTraces(element, transfo);
-      for (AbstractTrace trace : traceList) {
-        if (isLinkOfTransfo(trace, transfo)) {
-          TraceableElement srcElement = trace.getSourceElement();
-          if ((expectedTarget == null) || EcoreUtil2.isEqualOrSuperClass(expectedTarget, srcElement.eClass())) {
-            results.add(srcElement);
-          }
+      for (EObject srcElement : getTransformedElements(element, transfo)) {
+        if ((expectedTarget == null) || EcoreUtil2.isEqualOrSuperClass(expectedTarget, srcElement.eClass())) {
+          results.add(srcElement);
         }
       }
     }
@@ -462,21 +468,10 @@ public class Query {
     if (object instanceof CapellaElement) {
       CapellaElement element = (CapellaElement) object;
 
-      try {
-        // load rules for the given element if wasn't loaded to load all related transfo link (FunctionalRealization, PortRealization etc)
-        transfo.findCachedMatchingRule(object);
-      } catch (TransfoException exception) {
-        // Nothing to do
-      }
-
-      List<AbstractTrace> traceList = getIncomingTraces(element, transfo);
-      for (AbstractTrace trace : traceList) {
-        if (isLinkOfTransfo(trace, transfo)) {
-          TraceableElement srcElement = trace.getSourceElement();
-          if ((expectedTarget == null) || EcoreUtil2.isEqualOrSuperClass(expectedTarget, srcElement.eClass())) {
-            if (srcElement.eContainer() == null) {
-              result.add(srcElement);
-            }
+      for (EObject srcElement : getTransformedElements(element, transfo)) {
+        if ((expectedTarget == null) || EcoreUtil2.isEqualOrSuperClass(expectedTarget, srcElement.eClass())) {
+          if (srcElement.eContainer() == null) {
+            result.add(srcElement);
           }
         }
       }
@@ -760,9 +760,18 @@ protected static final Logger logger = ReportManagerRegistry.getInstance().subsc
       // 2- Create the transformation link
       abstractTrace = createAbstractTrace(sourceElement, targetElement, transfo);
       if (abstractTrace != null) {
+        // An existing link is returned as is
+        boolean created = abstractTrace.getTargetElement() == null;
+
         // 3- Update relationships and roles
         abstractTrace.setSourceElement(targetElement);
         abstractTrace.setTargetElement(sourceElement);
+
+        // 4- Keep the trace index of the current run up to date
+        TransfoTraceIndex index = TransfoTraceIndex.getIndex(transfo);
+        if (created && (index != null)) {
+          index.add(abstractTrace);
+        }
       }
 
     }
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.tiger.helpers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.polarsys.capella.common.data.modellingcore.AbstractTrace;
+import org.polarsys.capella.core.data.capellacore.CapellaElement;
+import org.polarsys.capella.core.tiger.ITransfo;
+import org.polarsys.capella.core.tiger.TransfoException;
+import org.polarsys.capella.core.tiger.impl.TransfoEngine;
+
+/**
+ * An index of the elements transformed by a transformation, by source element, used by {@link Query} during a run of
+ * the transformation.<br>
+ * The index is filled for the elements of the agenda when the transformation starts, then for other elements on first
+ * lookup. The links created by {@link TigerRelationshipHelper#createTransfoLink(EObject, EObject, ITransfo)} are added as
+ * they are created, links created or deleted by other means during the run are not seen.
+ * @see TransfoEngine#setTraceIndexEnabled(boolean)
+ */
+public class TransfoTraceIndex {
+
+  private final ITransfo transfo;
+
+  /**
+   * Transformed elements by source element, in the order of the incoming traces of the source element.
+   */
+  private final Map<EObject, List<EObject>> transformedElements = new HashMap<EObject, List<EObject>>();
+
+  public TransfoTraceIndex(ITransfo transfo) {
+    this.transfo = transfo;
+  }
+
+  /**
+   * @param transfo
+   * @return the index of the current run of the given transformation, <code>null</code> if none
+   */
+  public static TransfoTraceIndex getIndex(ITransfo transfo) {
+    if (transfo == null) {
+      return null;
+    }
+    Object index = transfo.get(TransfoEngine.TRACE_INDEX);
+    return index instanceof TransfoTraceIndex ? (TransfoTraceIndex) index : null;
+  }
+
+  /**
+   * Indexes the given source elements.
+   * @param elements
+   */
+  public void addAll(Collection<? extends EObject> elements) {
+    for (EObject element : elements) {
+      getTransformedElements(element);
+    }
+  }
+
+  /**
+   * Adds a link created during the run.
+   * @param link
+   */
+  public void add(AbstractTrace link) {
+    if (Query.isLinkOfTransfo(link, transfo)) {
+      List<EObject> elements = transformedElements.get(link.getTargetElement());
+      // Not indexed elements will see the link on first lookup
+      if (elements != null) {
+        elements.add(link.getSourceElement());
+      }
+    }
+  }
+
+  /**
+   * @param element
+   * @return the elements transformed from the given element, whatever their type
+   */
+  public List<EObject> getTransformedElements(EObject element) {
+    List<EObject> elements = transformedElements.get(element);
+    if (elements == null) {
+      elements = retrieveTransformedElements(element);
+      transformedElements.put(element, elements);
+    }
+    return elements;
+  }
+
+  private List<EObject> retrieveTransformedElements(EObject object) {
+    List<EObject> elements = new ArrayList<EObject>();
+    if (!(object instanceof CapellaElement)) {
+      return elements;
+    }
+    try {
+      // load rules for the given element if wasn't loaded to load all related transfo link (FunctionalRealization, PortRealization etc)
+      transfo.findCachedMatchingRule(object);
+    } catch (TransfoException exception) {
+      // Nothing to do
+    }
+
+    for (AbstractTrace trace : ((CapellaElement) object).getIncomingTraces()) {
+      if (Query.isLinkOfTransfo(trace, transfo)) {
+        elements.add(trace.getSourceElement());
+      }
+    }
+    return elements;
+  }
+}
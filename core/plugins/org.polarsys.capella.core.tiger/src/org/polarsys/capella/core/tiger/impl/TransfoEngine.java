@@ -12,10 +12,11 @@
  *******************************************************************************/
 package org.polarsys.capella.core.tiger.impl;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Observable;
 
@@ -49,6 +50,7 @@ import org.polarsys.capella.core.tiger.TransfoException;
 import org.polarsys.capella.core.tiger.extension.ITransfoEngineExecuteExt;
 import org.polarsys.capella.core.tiger.helpers.Query;
 import org.polarsys.capella.core.tiger.helpers.TigerRelationshipHelper;
+import org.polarsys.capella.core.tiger.helpers.TransfoTraceIndex;
 
 /**
  * The abstract transformation engine. This abstraction contains the transformation algorithm chosen for the bridge.
@@ -100,6 +102,11 @@ public abstract class TransfoEngine extends ITransfoEngine {
    */
   public static final String TRANSFORMED_ELEMENTS = "transformedElements"; //$NON-NLS-1$
 
+  /**
+   * TRACE_INDEX tag's property, set while the engine runs with {@link #setTraceIndexEnabled(boolean)}
+   */
+  public static final String TRACE_INDEX = "traceIndex"; //$NON-NLS-1$
+
   /**
    * The agenda
    */
@@ -134,6 +141,11 @@ public abstract class TransfoEngine extends ITransfoEngine {
 
   private String _alreadyTransitionedTemplate = "''{0}'' is already transitioned."; //$NON-NLS-1$
 
+  /**
+   * Whether transformed elements are looked up in a {@link TransfoTraceIndex} built for each run
+   */
+  private boolean _traceIndexEnabled;
+
   /**
    * Default constructor
    */
@@ -280,6 +292,7 @@ public abstract class TransfoEngine extends ITransfoEngine {
       throw new TransfoException(exception.getMessage() + "(" + exception.getClass().getSimpleName() + ")",
           _transfo != null ? (EObject) _transfo.get(TRANSFO_SOURCE) : null, exception);
     } finally {
+      transfo.remove(TRACE_INDEX);
       postExecute(transfo);
     }
 
@@ -489,12 +502,11 @@ public abstract class TransfoEngine extends ITransfoEngine {
 
     _dependingModels.clear();
 
+    Collection<EObject> dependingModels = new LinkedHashSet<EObject>();
     for (EObject element : _agenda) {
-      EObject object = Query.retrieveModelRoot(element);
-      if (!_dependingModels.contains(object)) {
-        _dependingModels.add(object);
-      }
+      dependingModels.add(Query.retrieveModelRoot(element));
     }
+    _dependingModels.addAll(dependingModels);
 
     if (_logger.isDebugEnabled()) {
       _logger.debug(_dependingModels.size() + " depending models had been detected."); //$NON-NLS-1$
@@ -521,17 +533,21 @@ public abstract class TransfoEngine extends ITransfoEngine {
       _logger.debug("===================================="); //$NON-NLS-1$
     }
 
-    LinkedList<EObject> agenda = new LinkedList<EObject>();
+    ArrayDeque<EObject> agenda = new ArrayDeque<EObject>();
     HashSet<EObject> visited = new HashSet<EObject>();
 
     // Add the bootstrap in the agenda
     List<EObject> bootstrap = (List<EObject>) _transfo.get(BOOTSTRAP);
+    // No 'null' element in the agenda
+    if (bootstrap.contains(null)) {
+      throw new TransfoException("The parsed element is 'null'"); //$NON-NLS-1$
+    }
     agenda.addAll(bootstrap);
 
     if (!agenda.isEmpty() && _logger.isInfoEnabled()) {
-      String startMessage = formatTransitionStartMessage(agenda.get(0));
+      String startMessage = formatTransitionStartMessage(agenda.peekFirst());
       if (startMessage != null) {
-        _logger.info(new EmbeddedMessage(startMessage, _logger.getName(), agenda.get(0)));
+        _logger.info(new EmbeddedMessage(startMessage, _logger.getName(), agenda.peekFirst()));
       }
     }
 
@@ -546,16 +562,10 @@ public abstract class TransfoEngine extends ITransfoEngine {
         _logger.debug("   - The current element is : " + EObjectExt.getText(currentElement)); //$NON-NLS-1$
       }
 
-      // No 'null' element in the agenda
-      if (currentElement == null) {
-        throw new TransfoException("The parsed element is 'null'", currentElement); //$NON-NLS-1$
-      }
-
-      if (visited.contains(currentElement)) {
+      if (!visited.add(currentElement)) {
         continue;
       }
 
-      visited.add(currentElement);
       _agenda.add(currentElement);
 
       ITransfoRule rule = _transfo.findCachedMatchingRule(currentElement);
@@ -565,7 +575,6 @@ public abstract class TransfoEngine extends ITransfoEngine {
           // New version : just a warning
           _logger.debug("      -> Warning no rule found for " + EObjectExt.getText(currentElement)); //$NON-NLS-1$
         }
-        agenda.remove(currentElement);
 
         // ////////////////////////////////
         // Old version (stop here)
@@ -639,6 +648,11 @@ public abstract class TransfoEngine extends ITransfoEngine {
       _logger.debug("===================================="); //$NON-NLS-1$
       _logger.debug("Nb of element to be transformed: " + _agenda.size()); //$NON-NLS-1$
     }
+    if (_traceIndexEnabled) {
+      TransfoTraceIndex index = new TransfoTraceIndex(_transfo);
+      index.addAll(_agenda);
+      _transfo.put(TRACE_INDEX, index);
+    }
     int step = 0;
     for (EObject sourceElement : _agenda) {
       if (_logger.isDebugEnabled()) {
@@ -711,6 +725,21 @@ public abstract class TransfoEngine extends ITransfoEngine {
   }
 
 
+  /**
+   * Enables the lookup of transformed elements in an index of the transformation links, built once for each run from
+   * the elements of the agenda and updated with the links created by
+   * {@link TigerRelationshipHelper#createTransfoLink(EObject, EObject, ITransfo)}.<br>
+   * Rules must not create or delete transformation links by other means while the index is enabled.
+   * @param enabled
+   */
+  public void setTraceIndexEnabled(boolean enabled) {
+    _traceIndexEnabled = enabled;
+  }
+
+  public boolean isTraceIndexEnabled() {
+    return _traceIndexEnabled;
+  }
+
   /**
    * Set a custom NLS template string to show at beginning of the transition.
    * @param template the string to be formatted
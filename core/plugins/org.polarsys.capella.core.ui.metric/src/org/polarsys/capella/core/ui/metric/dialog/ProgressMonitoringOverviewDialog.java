@@ -13,6 +13,7 @@
 package org.polarsys.capella.core.ui.metric.dialog;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.eclipse.emf.ecore.EObject;
@@ -44,6 +45,9 @@ import org.polarsys.capella.core.model.handler.helpers.CapellaProjectHelper;
 import org.polarsys.capella.core.model.helpers.ProjectExt;
 import org.polarsys.capella.core.ui.metric.MetricMessages;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
 /**
  */
 public class ProgressMonitoringOverviewDialog extends AbstractExportDialog {
@@ -201,33 +205,44 @@ public class ProgressMonitoringOverviewDialog extends AbstractExportDialog {
    */
   @Override
   protected List<String[]> getExportableData() {
-    List<String[]> result = super.getExportableData(ProjectExt.getProject(root).getName());
+    return Lists.newArrayList(getExportableRows());
+  }
 
+  /**
+   * Rows of the monitored elements are computed while they are written.
+   */
+  @Override
+  protected Iterable<String[]> getExportableRows() {
     @SuppressWarnings("unchecked")
     List<? extends EObject> allTaggedElements = (List<? extends EObject>) ((TreeData) getData()).getValidElements();
 
-    for (EObject current : allTaggedElements) {
-      if (current instanceof CapellaElement) {
-        CapellaElement ce = (CapellaElement) current;
-        result.add(new String[] { ce.eClass().getName(), ce.getFullLabel(), ce.getLabel(),
-            null == ce.getStatus() ? "" : ce.getStatus().getLabel(), null == ce.getReview() ? "" : ce.getReview() });
-        
-      } else if (current instanceof DRepresentationDescriptor) {
-        DRepresentationDescriptor representationDesc = (DRepresentationDescriptor) current;
-
-        EnumerationPropertyLiteral status = RepresentationAnnotationHelper.getProgressStatus(representationDesc);
-        String review = RepresentationAnnotationHelper.getStatusReview(representationDesc);
-
-        EObject target = representationDesc.getTarget();
-        if (target != null) {
-          String className = representationDesc.getDescription().getName().replace(" ", "");
-          result.add(
-              new String[] { className, ((CapellaElement) target).getFullLabel() + "/" + representationDesc.getName(),
-                  representationDesc.getName(), null == status ? "" : status.getLabel(), review });
-        }
+    return Iterables.concat(super.getExportableData(ProjectExt.getProject(root).getName()),
+        Iterables.filter(Iterables.transform(allTaggedElements, this::getExportableRow), Objects::nonNull));
+  }
+
+  /**
+   * @return the exported row of the given element, <code>null</code> if it is not exported
+   */
+  private String[] getExportableRow(EObject current) {
+    if (current instanceof CapellaElement) {
+      CapellaElement ce = (CapellaElement) current;
+      return new String[] { ce.eClass().getName(), ce.getFullLabel(), ce.getLabel(),
+          null == ce.getStatus() ? "" : ce.getStatus().getLabel(), null == ce.getReview() ? "" : ce.getReview() };
+
+    } else if (current instanceof DRepresentationDescriptor) {
+      DRepresentationDescriptor representationDesc = (DRepresentationDescriptor) current;
+
+      EnumerationPropertyLiteral status = RepresentationAnnotationHelper.getProgressStatus(representationDesc);
+      String review = RepresentationAnnotationHelper.getStatusReview(representationDesc);
+
+      EObject target = representationDesc.getTarget();
+      if (target != null) {
+        String className = representationDesc.getDescription().getName().replace(" ", "");
+        return new String[] { className, ((CapellaElement) target).getFullLabel() + "/" + representationDesc.getName(),
+            representationDesc.getName(), null == status ? "" : status.getLabel(), review };
       }
     }
-    return result;
+    return null;
   }
   
   @Override
@@ -13,11 +13,16 @@
 package org.polarsys.capella.core.ui.properties;
 
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.edit.domain.EditingDomain;
+import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.LabelProviderChangedEvent;
+import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.part.IPageSite;
 import org.eclipse.ui.views.properties.tabbed.ITabbedPropertySheetPageContributor;
 import org.eclipse.ui.views.properties.tabbed.TabbedPropertySheetPage;
+import org.polarsys.capella.common.helpers.TransactionHelper;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
 
 /**
  */
@@ -56,6 +61,24 @@ public class CapellaTabbedPropertySheetPage extends TabbedPropertySheetPage {
     }
   }
 
+  /**
+   * Query results are reused between selections until the model changes.
+   */
+  @Override
+  public void selectionChanged(IWorkbenchPart part, ISelection selection) {
+    EditingDomain domain = null;
+    if (selection instanceof IStructuredSelection
+        && ((IStructuredSelection) selection).getFirstElement() instanceof EObject) {
+      domain = TransactionHelper.getEditingDomain((EObject) ((IStructuredSelection) selection).getFirstElement());
+    }
+    ModelCache.enable(domain);
+    try {
+      super.selectionChanged(part, selection);
+    } finally {
+      ModelCache.disable(domain);
+    }
+  }
+
   protected boolean isValidSelection() {
     if(getCurrentSelection() instanceof IStructuredSelection) {
       Object firstElement = ((IStructuredSelection)getCurrentSelection()).getFirstElement();
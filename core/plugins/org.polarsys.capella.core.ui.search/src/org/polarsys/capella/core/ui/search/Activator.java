@@ -12,8 +12,13 @@
  *******************************************************************************/
 package org.polarsys.capella.core.ui.search;
 
+import org.eclipse.sirius.business.api.session.Session;
+import org.eclipse.sirius.business.api.session.SessionListener;
+import org.eclipse.sirius.business.api.session.SessionManager;
+import org.eclipse.sirius.business.api.session.SessionManagerListener;
 import org.eclipse.sirius.common.ui.tools.api.plugin.AbstractUIActivator;
 import org.osgi.framework.BundleContext;
+import org.polarsys.capella.core.ui.search.index.CapellaSearchIndex;
 
 public class Activator extends AbstractUIActivator {
 
@@ -23,8 +28,25 @@ public class Activator extends AbstractUIActivator {
   // The shared instance
   private static Activator plugin = new Activator();
 
+  // Releases the search index of closed sessions
+  private final SessionManagerListener sessionListener = new SessionManagerListener.Stub() {
+    @Override
+    public void notify(Session updated, int notification) {
+      if (notification == SessionListener.CLOSING) {
+        CapellaSearchIndex.dispose(updated);
+      }
+    }
+  };
+
+  @Override
+  public void start(BundleContext context) throws Exception {
+    super.start(context);
+    SessionManager.INSTANCE.addSessionsListener(sessionListener);
+  }
+
   @Override
   public void stop(BundleContext context) throws Exception {
+    SessionManager.INSTANCE.removeSessionsListener(sessionListener);
     super.stop(context);
     plugin = null;
   }
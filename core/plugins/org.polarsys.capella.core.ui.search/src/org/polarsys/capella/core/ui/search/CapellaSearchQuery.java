@@ -13,8 +13,21 @@
 package org.polarsys.capella.core.ui.search;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -27,25 +40,38 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
 import org.eclipse.gmf.runtime.diagram.core.util.ViewType;
 import org.eclipse.gmf.runtime.notation.Diagram;
 import org.eclipse.gmf.runtime.notation.Shape;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.search.ui.ISearchQuery;
+import org.eclipse.search.ui.text.Match;
+import org.eclipse.sirius.business.api.session.Session;
+import org.eclipse.sirius.business.api.session.SessionManager;
 import org.eclipse.sirius.diagram.DDiagram;
 import org.eclipse.sirius.diagram.ui.business.api.query.DDiagramGraphicalQuery;
 import org.eclipse.sirius.ext.base.Option;
 import org.eclipse.sirius.viewpoint.DRepresentation;
 import org.eclipse.sirius.viewpoint.DRepresentationDescriptor;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.common.ef.ExecutionManagerRegistry;
+import org.polarsys.capella.common.ef.command.AbstractSharedReadOnlyCommand;
 import org.polarsys.capella.core.commands.preferences.util.PreferencesHelper;
 import org.polarsys.capella.core.platform.sirius.ui.navigator.viewer.CapellaNavigatorContentProvider;
+import org.polarsys.capella.core.sirius.ui.helper.SessionHelper;
+import org.polarsys.capella.core.ui.search.index.CapellaSearchIndex;
 import org.polarsys.capella.core.ui.search.match.LineSearchMatchChild;
 import org.polarsys.capella.core.ui.search.match.ListElementSearchMatchChild;
 import org.polarsys.capella.core.ui.search.match.SearchMatch;
 import org.polarsys.capella.core.ui.search.result.CapellaSearchResult;
 import org.polarsys.capella.core.ui.search.searchfor.item.SearchForAttributeItem;
 import org.polarsys.capella.core.ui.search.searchfor.item.SearchForClassItem;
+import org.polarsys.capella.core.ui.search.searchfor.item.SearchForDiagramItem;
 import org.polarsys.capella.core.ui.search.searchfor.item.SearchForNoteItem;
 
 public class CapellaSearchQuery implements ISearchQuery {
@@ -78,6 +104,28 @@ public class CapellaSearchQuery implements ISearchQuery {
     }
   };
 
+  /**
+   * The attributes searched on the instances of each class, resolved once per search by the search job before any
+   * element is searched.
+   */
+  private final Map<EClass, ClassSearchPlan> classSearchPlans = new HashMap<>();
+
+  /**
+   * Adds the matches to the search result.
+   */
+  private final MatchCollector resultCollector = new MatchCollector() {
+    @Override
+    public void addMatch(Match match) {
+      capellaSearchResult.addMatch(match);
+    }
+
+    @Override
+    public void addTreeElement(EObject element) {
+      // use tree data if we want to display the result as a tree
+      capellaSearchResult.getTreeData().addElement(element);
+    }
+  };
+
   public CapellaSearchQuery(CapellaSearchSettings capellaSearchSettings) {
     this.capellaSearchSettings = capellaSearchSettings;
   }
@@ -85,6 +133,7 @@ public class CapellaSearchQuery implements ISearchQuery {
   @Override
   public IStatus run(IProgressMonitor monitor) {
     capellaSearchResult.removeAll();
+    classSearchPlans.clear();
     try {
       Pattern pattern = capellaSearchSettings.createPattern();
       IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
@@ -104,7 +153,7 @@ public class CapellaSearchQuery implements ISearchQuery {
         }
         // search the pattern in the projects
         if (project != null) {
-          search(pattern, selectedObj, project);
+          search(pattern, selectedObj, project, subMonitor);
           subMonitor.split(1);
         }
       }
@@ -120,40 +169,266 @@ public class CapellaSearchQuery implements ISearchQuery {
   }
 
   /**
+   * Searches the pattern in the given element and its descendants.
    * 
    * @param pattern
    * @param element
    *          the entry point to launch the search
    * @param project
+   * @param monitor
+   */
+  private void search(Pattern pattern, Object element, IProject project, IProgressMonitor monitor) {
+    Collection<EObject> candidates = isIndexable() ? getIndexedCandidates(element, project) : null;
+    if (candidates != null) {
+      Map<Object, Boolean> scope = new HashMap<>();
+      Map<Object, Set<Object>> children = new HashMap<>();
+      for (EObject candidate : candidates) {
+        if (monitor.isCanceled()) {
+          return;
+        }
+        if (isInScope(candidate, element, scope, children)) {
+          getClassSearchPlan(candidate);
+          search(pattern, candidate, project, resultCollector);
+        }
+      }
+    } else {
+      scan(pattern, element, project, monitor);
+    }
+  }
+
+  /**
+   * Searches the pattern in all the elements of the project tree below the given element.<br>
+   * The tree is walked first. Then the elements of each resource are searched by the threads of a dedicated executor,
+   * each resource within a shared read-only command of its editing domain, so that the search is isolated from write
+   * transactions without blocking them for the whole scan. The matches of each resource are added to the result by the
+   * search job as soon as the resource is searched, in tree order within the resource.
    */
-  private void search(Pattern pattern, Object element, IProject project) {
+  private void scan(Pattern pattern, Object element, IProject project, IProgressMonitor monitor) {
+    List<EObject> elements = new ArrayList<>();
+    collect(element, elements);
+
+    Map<Resource, List<EObject>> partitions = new LinkedHashMap<>();
+    for (EObject eObj : elements) {
+      partitions.computeIfAbsent(eObj.eResource(), r -> new ArrayList<>()).add(eObj);
+    }
+    searchPartitions(pattern, project, partitions, monitor);
+  }
+
+  /**
+   * Searches the given partitions of the elements concurrently, and adds the matches of each partition to the result
+   * once it is searched.
+   */
+  private void searchPartitions(Pattern pattern, IProject project, Map<Resource, List<EObject>> partitions,
+      IProgressMonitor monitor) {
+    int threads = Math.min(partitions.size(), Runtime.getRuntime().availableProcessors());
+    if (threads <= 1) {
+      for (Map.Entry<Resource, List<EObject>> partition : partitions.entrySet()) {
+        searchPartition(pattern, project, partition.getKey(), partition.getValue(), monitor).addTo(resultCollector);
+        if (monitor.isCanceled()) {
+          return;
+        }
+      }
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CompletionService<PartitionMatches> completionService = new ExecutorCompletionService<>(executor);
+      for (Map.Entry<Resource, List<EObject>> partition : partitions.entrySet()) {
+        completionService.submit(
+            () -> searchPartition(pattern, project, partition.getKey(), partition.getValue(), monitor));
+      }
+      for (int i = 0; i < partitions.size() && !monitor.isCanceled(); i++) {
+        completionService.take().get().addTo(resultCollector);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      monitor.setCanceled(true);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Searches the given elements of a resource, within a shared read-only command of the editing domain of the resource
+   * if any.
+   * 
+   * @return the matches of the elements, in the order of the elements
+   */
+  private PartitionMatches searchPartition(Pattern pattern, IProject project, Resource resource,
+      List<EObject> partition, IProgressMonitor monitor) {
+    PartitionMatches matches = new PartitionMatches();
+    Runnable partitionSearch = () -> {
+      for (EObject eObj : partition) {
+        if (monitor.isCanceled()) {
+          return;
+        }
+        search(pattern, eObj, project, matches);
+      }
+    };
+    TransactionalEditingDomain domain = resource == null ? null : TransactionUtil.getEditingDomain(resource);
+    ExecutionManager executionManager = domain == null ? null
+        : ExecutionManagerRegistry.getInstance().getExecutionManager(domain);
+    if (executionManager == null) {
+      partitionSearch.run();
+    } else {
+      executionManager.execute(new AbstractSharedReadOnlyCommand() {
+        @Override
+        public void run() {
+          partitionSearch.run();
+        }
+
+        @Override
+        public void commandInterrupted() {
+          monitor.setCanceled(true);
+        }
+      });
+    }
+    return matches;
+  }
+
+  private void collect(Object element, List<EObject> elements) {
     if (element instanceof EObject) {
       EObject eObj = (EObject) element;
+      // Resolve the searched attributes here, as the elements are searched concurrently
+      getClassSearchPlan(eObj);
+      elements.add(eObj);
+    }
 
-      Set<Object> searchClassItems = capellaSearchSettings.getSearchClassItems();
-      for (Object searchClassItem : searchClassItems) {
-        if (searchClassItem instanceof SearchForClassItem && ((SearchForClassItem) searchClassItem).covers(eObj)) {
-
-          if (searchClassItem instanceof SearchForNoteItem) {
-            searchForAttribute(pattern, project, eObj, (SearchForNoteItem) searchClassItem);
-          } else {
-            Set<Object> searchAttributeItems = capellaSearchSettings.getSearchAttributeItems();
-            for (Object searchAttributeItem : searchAttributeItems) {
-              if (searchAttributeItem instanceof SearchForAttributeItem) {
-                searchForAttribute(pattern, project, eObj, (SearchForAttributeItem) searchAttributeItem);
-              }
+    Object[] children = contentProvider.getChildren(element);
+    for (int i = 0; i < children.length; i++) {
+      // collect recursively all the elements in the project tree
+      collect(children[i], elements);
+    }
+  }
+
+  /**
+   * Searches the pattern in the attributes of the given element.
+   */
+  private void search(Pattern pattern, EObject eObj, IProject project, MatchCollector collector) {
+    ClassSearchPlan plan = classSearchPlans.get(eObj.eClass());
+    for (SearchForNoteItem noteItem : plan.noteItems) {
+      if (noteItem.covers(eObj)) {
+        searchForAttribute(pattern, project, eObj, noteItem, collector);
+      }
+    }
+    for (int i = 0; i < plan.coveringItems; i++) {
+      for (Object attribute : plan.attributes) {
+        searchForAttribute(pattern, project, eObj, attribute, eObj.eGet((EAttribute) attribute), collector);
+      }
+    }
+  }
+
+  private ClassSearchPlan getClassSearchPlan(EObject eObj) {
+    return classSearchPlans.computeIfAbsent(eObj.eClass(), eClass -> {
+      ClassSearchPlan plan = new ClassSearchPlan();
+      for (Object searchClassItem : capellaSearchSettings.getSearchClassItems()) {
+        if (searchClassItem instanceof SearchForNoteItem) {
+          plan.noteItems.add((SearchForNoteItem) searchClassItem);
+        } else if (searchClassItem instanceof SearchForClassItem
+            && ((SearchForClassItem) searchClassItem).covers(eObj)) {
+          plan.coveringItems++;
+        }
+      }
+      if (plan.coveringItems > 0) {
+        for (Object searchAttributeItem : capellaSearchSettings.getSearchAttributeItems()) {
+          if (searchAttributeItem instanceof SearchForAttributeItem) {
+            Object attribute = ((SearchForAttributeItem) searchAttributeItem).getAttributeFor(eObj);
+            if (attribute instanceof EAttribute) {
+              plan.attributes.add(attribute);
             }
+          }
+        }
+      }
+      return plan;
+    });
+  }
 
+  /**
+   * @return whether the candidates of the search can be taken from the index: the pattern is not a regular
+   *         expression, and only indexed attributes of semantic elements are searched.
+   */
+  private boolean isIndexable() {
+    if (capellaSearchSettings.isRegExSearch()) {
+      return false;
+    }
+    for (Object searchClassItem : capellaSearchSettings.getSearchClassItems()) {
+      if (searchClassItem instanceof SearchForNoteItem || searchClassItem instanceof SearchForDiagramItem) {
+        return false;
+      }
+    }
+    for (Object searchAttributeItem : capellaSearchSettings.getSearchAttributeItems()) {
+      Object attributes = searchAttributeItem instanceof SearchForAttributeItem
+          ? ((SearchForAttributeItem) searchAttributeItem).getObject()
+          : null;
+      if (attributes instanceof Collection<?>) {
+        for (Object attribute : (Collection<?>) attributes) {
+          if (attribute instanceof EAttribute && !CapellaSearchIndex.isIndexed((EAttribute) attribute)) {
+            return false;
           }
         }
       }
     }
+    return true;
+  }
 
-    Object[] children = contentProvider.getChildren(element);
-    for (int i = 0; i < children.length; i++) {
-      // search recursively in all the elements in the project tree
-      search(pattern, children[i], project);
+  /**
+   * @return the indexed elements which may match the pattern, or <code>null</code> if the index cannot be used
+   */
+  private Collection<EObject> getIndexedCandidates(Object element, IProject project) {
+    Collection<Session> sessions;
+    if (element instanceof EObject) {
+      Session session = SessionManager.INSTANCE.getSession((EObject) element);
+      sessions = session == null ? Collections.emptyList() : Collections.singletonList(session);
+    } else {
+      sessions = SessionHelper.getExistingSessions(project);
+    }
+    if (sessions.isEmpty()) {
+      return null;
+    }
+    Set<EObject> candidates = new LinkedHashSet<>();
+    for (Session session : sessions) {
+      Collection<EObject> sessionCandidates = CapellaSearchIndex.getIndex(session)
+          .getCandidates(capellaSearchSettings.getTextPattern());
+      if (sessionCandidates == null) {
+        return null;
+      }
+      candidates.addAll(sessionCandidates);
     }
+    return candidates;
+  }
+
+  /**
+   * @return whether the given object is in the project tree below the given element, as walked by {@link #scan}: each
+   *         parent up to the element shall be in scope and show the object among its children.
+   * @param scope
+   *          the objects already known to be in scope or not
+   * @param children
+   *          the children of the parents already walked
+   */
+  private boolean isInScope(Object object, Object element, Map<Object, Boolean> scope,
+      Map<Object, Set<Object>> children) {
+    if (object.equals(element)) {
+      return true;
+    }
+    Boolean inScope = scope.get(object);
+    if (inScope == null) {
+      Object parent = contentProvider.getParent(object);
+      inScope = parent != null && isInScope(parent, element, scope, children)
+          && children.computeIfAbsent(parent, p -> new HashSet<>(Arrays.asList(contentProvider.getChildren(p))))
+              .contains(object);
+      scope.put(object, inScope);
+    }
+    return inScope;
   }
 
   protected void searchForAttribute(Pattern pattern, IProject project, EObject inputObject,
@@ -161,72 +436,85 @@ public class CapellaSearchQuery implements ISearchQuery {
 
     Object searchAttribute = attributeItem.getAttributeFor(inputObject);
     if (searchAttribute != null) {
-      Object searchData = attributeItem.getRelevantSearchData(inputObject);
+      searchForAttribute(pattern, project, inputObject, searchAttribute,
+          attributeItem.getRelevantSearchData(inputObject), resultCollector);
+    }
+  }
 
-      if (searchData instanceof String) {
-        String searchText = (String) searchData;
-        String[] searchTextLines = searchText.split("\n");
+  private void searchForAttribute(Pattern pattern, IProject project, EObject inputObject, Object searchAttribute,
+      Object searchData, MatchCollector collector) {
+    if (searchData instanceof String) {
+      String searchText = (String) searchData;
+      // A plain text pattern cannot match a line without matching the whole text
+      if (!capellaSearchSettings.isRegExSearch() && !isMatchOccurrences(pattern, searchText)) {
+        return;
+      }
+      String[] searchTextLines = searchText.split("\n");
 
-        if (searchTextLines.length == 1) {
-          if (isMatchOccurrences(pattern, searchText)) {
-            SearchMatch result = new SearchMatch(inputObject, searchText, project, searchAttribute);
-            capellaSearchResult.addMatch(result);
-            capellaSearchResult.getTreeData().addElement(inputObject);
-          }
-        } else {
-          SearchMatch parentSearchMatch = new SearchMatch(inputObject, null, project, searchAttribute);
-          boolean matched = false;
-          for (int number = 0; number < searchTextLines.length; number++) {
-            String searchTextLine = searchTextLines[number];
-
-            if (isMatchOccurrences(pattern, searchTextLine)) {
-              LineSearchMatchChild childSearchMatch = new LineSearchMatchChild(inputObject, searchTextLine, project,
-                  parentSearchMatch, number);
-
-              parentSearchMatch.getChildren().add(childSearchMatch);
-              capellaSearchResult.addMatch(childSearchMatch);
-              matched = true;
-            }
-          }
+      if (searchTextLines.length == 1) {
+        if (isMatchOccurrences(pattern, searchText)) {
+          SearchMatch result = new SearchMatch(inputObject, searchText, project, searchAttribute);
+          collector.addMatch(result);
+          collector.addTreeElement(inputObject);
+        }
+      } else {
+        SearchMatch parentSearchMatch = new SearchMatch(inputObject, null, project, searchAttribute);
+        boolean matched = false;
+        for (int number = 0; number < searchTextLines.length; number++) {
+          String searchTextLine = searchTextLines[number];
+
+          if (isMatchOccurrences(pattern, searchTextLine)) {
+            LineSearchMatchChild childSearchMatch = new LineSearchMatchChild(inputObject, searchTextLine, project,
+                parentSearchMatch, number);
 
-          if (matched) {
-            capellaSearchResult.addMatch(parentSearchMatch);
-            capellaSearchResult.getTreeData().addElement(inputObject);
+            parentSearchMatch.getChildren().add(childSearchMatch);
+            collector.addMatch(childSearchMatch);
+            matched = true;
           }
         }
 
+        if (matched) {
+          collector.addMatch(parentSearchMatch);
+          collector.addTreeElement(inputObject);
+        }
       }
 
-      else if (searchData instanceof List) {
-        List<?> searchDataList = ((List<?>) searchData);
-        SearchMatch parentSearchMatch = new SearchMatch(inputObject, null, project, searchAttribute);
-        boolean matched = false;
+    }
 
-        for (int index = 0; index < searchDataList.size(); index++) {
-          Object searchElement = searchDataList.get(index);
+    else if (searchData instanceof List) {
+      List<?> searchDataList = ((List<?>) searchData);
+      SearchMatch parentSearchMatch = new SearchMatch(inputObject, null, project, searchAttribute);
+      boolean matched = false;
 
-          if (searchElement instanceof String) {
-            String searchText = (String) searchDataList.get(index);
+      for (int index = 0; index < searchDataList.size(); index++) {
+        Object searchElement = searchDataList.get(index);
 
-            if (isMatchOccurrences(pattern, searchText)) {
-              ListElementSearchMatchChild childSearchMatch = new ListElementSearchMatchChild(inputObject, searchText,
-                  project, parentSearchMatch, index);
-              parentSearchMatch.getChildren().add(childSearchMatch);
-              capellaSearchResult.addMatch(childSearchMatch);
-              matched = true;
-            }
+        if (searchElement instanceof String) {
+          String searchText = (String) searchDataList.get(index);
+
+          if (isMatchOccurrences(pattern, searchText)) {
+            ListElementSearchMatchChild childSearchMatch = new ListElementSearchMatchChild(inputObject, searchText,
+                project, parentSearchMatch, index);
+            parentSearchMatch.getChildren().add(childSearchMatch);
+            collector.addMatch(childSearchMatch);
+            matched = true;
           }
         }
+      }
 
-        if (matched) {
-          capellaSearchResult.addMatch(parentSearchMatch);
-          capellaSearchResult.getTreeData().addElement(inputObject);
-        }
+      if (matched) {
+        collector.addMatch(parentSearchMatch);
+        collector.addTreeElement(inputObject);
       }
     }
   }
 
   protected void searchForAttribute(Pattern pattern, IProject project, EObject eObj, SearchForNoteItem searchNoteItem) {
+    searchForAttribute(pattern, project, eObj, searchNoteItem, resultCollector);
+  }
+
+  private void searchForAttribute(Pattern pattern, IProject project, EObject eObj, SearchForNoteItem searchNoteItem,
+      MatchCollector collector) {
     Object searchData = searchNoteItem.getRelevantSearchData(eObj);
 
     if (searchData instanceof String) {
@@ -234,9 +522,8 @@ public class CapellaSearchQuery implements ISearchQuery {
       EAttribute shapeDescriptionAttribute = searchNoteItem.getContentAttribute();
       if (isMatchOccurrences(pattern, textToSearch)) {
         SearchMatch result = new SearchMatch(eObj, textToSearch, project, shapeDescriptionAttribute);
-        capellaSearchResult.addMatch(result);
-        // use tree data if we want to display the result as a tree
-        capellaSearchResult.getTreeData().addElement(eObj);
+        collector.addMatch(result);
+        collector.addTreeElement(eObj);
       }
     }
   }
@@ -279,4 +566,51 @@ public class CapellaSearchQuery implements ISearchQuery {
   public CapellaSearchSettings getCapellaSearchSettings() {
     return capellaSearchSettings;
   }
+
+  /**
+   * Receives the matches found in the elements.
+   */
+  private interface MatchCollector {
+    void addMatch(Match match);
+
+    void addTreeElement(EObject element);
+  }
+
+  /**
+   * The matches found in a partition, kept in the order they were found.
+   */
+  private static class PartitionMatches implements MatchCollector {
+    final List<Object> entries = new ArrayList<>();
+
+    @Override
+    public void addMatch(Match match) {
+      entries.add(match);
+    }
+
+    @Override
+    public void addTreeElement(EObject element) {
+      entries.add(element);
+    }
+
+    void addTo(MatchCollector collector) {
+      for (Object entry : entries) {
+        if (entry instanceof Match) {
+          collector.addMatch((Match) entry);
+        } else {
+          collector.addTreeElement((EObject) entry);
+        }
+      }
+    }
+  }
+
+  private static class ClassSearchPlan {
+    final List<SearchForNoteItem> noteItems = new ArrayList<>();
+
+    final List<Object> attributes = new ArrayList<>();
+
+    /**
+     * The number of class items covering the class: attributes are searched once per item.
+     */
+    int coveringItems;
+  }
 }
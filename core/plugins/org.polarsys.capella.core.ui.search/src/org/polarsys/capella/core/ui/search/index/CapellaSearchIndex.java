@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.ui.search.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListener;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.sirius.business.api.session.Session;
+import org.polarsys.capella.common.ef.command.AbstractReadOnlyCommand;
+import org.polarsys.capella.common.helpers.TransactionHelper;
+
+/**
+ * An inverted index of the string attributes of the semantic elements of a session.<br>
+ * The search matches substrings, so the index maps the trigrams (sequences of 3 characters, case folded) of the
+ * attribute values to the elements holding them. The index only returns candidates: an element containing all the
+ * trigrams of a pattern may not match it, and the caller must check the candidates.<br>
+ * The index is kept current from the post-commit notifications of the session: changed or added elements are
+ * returned as candidates of all queries until the index is rebuilt, and removed elements are kept until then.
+ */
+public class CapellaSearchIndex {
+
+  /**
+   * Minimal number of changed elements before the index is rebuilt.
+   */
+  private static final int MIN_STALE_ELEMENTS = 1024;
+
+  private static final Map<Session, CapellaSearchIndex> indexes = new ConcurrentHashMap<>();
+
+  private static final Map<EClass, EAttribute[]> indexedAttributes = new ConcurrentHashMap<>();
+
+  private final Session session;
+
+  private final ResourceSetListener listener = new ResourceSetListenerImpl() {
+    @Override
+    public void resourceSetChanged(ResourceSetChangeEvent event) {
+      for (Notification notification : event.getNotifications()) {
+        changed(notification);
+      }
+    }
+
+    @Override
+    public boolean isPostcommitOnly() {
+      return true;
+    }
+  };
+
+  /**
+   * Elements changed or added since the last build.
+   */
+  private final Set<EObject> staleElements = ConcurrentHashMap.newKeySet();
+
+  private volatile boolean invalid = true;
+
+  private Set<Resource> indexedResources = Collections.emptySet();
+
+  private EObject[] elements = new EObject[0];
+
+  private Map<Long, int[]> postings = Collections.emptyMap();
+
+  protected CapellaSearchIndex(Session session) {
+    this.session = session;
+  }
+
+  /**
+   * @return the index of the given session, created on first call.
+   */
+  public static CapellaSearchIndex getIndex(Session session) {
+    return indexes.computeIfAbsent(session, s -> {
+      CapellaSearchIndex index = new CapellaSearchIndex(s);
+      index.install();
+      return index;
+    });
+  }
+
+  /**
+   * Removes the index of the given session, if any.
+   */
+  public static void dispose(Session session) {
+    CapellaSearchIndex index = indexes.remove(session);
+    if (index != null) {
+      index.uninstall();
+    }
+  }
+
+  /**
+   * @return whether the values of the given attribute are indexed
+   */
+  public static boolean isIndexed(EAttribute attribute) {
+    EDataType type = attribute.getEAttributeType();
+    return !attribute.isDerived() && type != null && String.class.equals(type.getInstanceClass());
+  }
+
+  private static EAttribute[] getIndexedAttributes(EClass eClass) {
+    return indexedAttributes.computeIfAbsent(eClass, c -> c.getEAllAttributes().stream()
+        .filter(CapellaSearchIndex::isIndexed).toArray(EAttribute[]::new));
+  }
+
+  private void install() {
+    TransactionalEditingDomain domain = session.getTransactionalEditingDomain();
+    if (domain != null) {
+      domain.addResourceSetListener(listener);
+    }
+  }
+
+  private void uninstall() {
+    TransactionalEditingDomain domain = session.getTransactionalEditingDomain();
+    if (domain != null) {
+      domain.removeResourceSetListener(listener);
+    }
+    synchronized (this) {
+      elements = new EObject[0];
+      postings = Collections.emptyMap();
+      indexedResources = Collections.emptySet();
+    }
+    staleElements.clear();
+  }
+
+  /**
+   * Returns the elements whose indexed attributes may contain a match of the given pattern. The pattern uses the
+   * syntax of the plain text search: <code>*</code> and <code>?</code> are wildcards, and <code>\</code> escapes
+   * them.
+   * 
+   * @return the candidates in containment order, or <code>null</code> if the pattern has no literal part of at least 3
+   *         characters
+   */
+  public Collection<EObject> getCandidates(String textPattern) {
+    long[] trigrams = getPatternTrigrams(textPattern);
+    if (trigrams.length == 0) {
+      return null;
+    }
+    Set<EObject> candidates = new LinkedHashSet<>();
+    synchronized (this) {
+      if (isOutdated()) {
+        TransactionHelper.getExecutionManager(session).execute(new AbstractReadOnlyCommand() {
+          @Override
+          public void run() {
+            build();
+          }
+        });
+      }
+      int[][] lists = new int[trigrams.length][];
+      for (int i = 0; i < trigrams.length; i++) {
+        lists[i] = postings.get(Long.valueOf(trigrams[i]));
+        if (lists[i] == null) {
+          lists = null;
+          break;
+        }
+      }
+      if (lists != null) {
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        for (int id : lists[0]) {
+          if (containsAll(lists, id)) {
+            candidates.add(elements[id]);
+          }
+        }
+      }
+    }
+    candidates.addAll(staleElements);
+    return candidates;
+  }
+
+  private static boolean containsAll(int[][] lists, int id) {
+    for (int i = 1; i < lists.length; i++) {
+      if (Arrays.binarySearch(lists[i], id) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isOutdated() {
+    return invalid || staleElements.size() > Math.max(MIN_STALE_ELEMENTS, elements.length / 8)
+        || !indexedResources.equals(new LinkedHashSet<>(session.getSemanticResources()));
+  }
+
+  /**
+   * Indexes all the elements of the semantic resources of the session, within a read-only transaction.
+   */
+  private void build() {
+    // Changes notified during the build are kept as stale elements
+    invalid = false;
+    staleElements.clear();
+
+    Set<Resource> resources = new LinkedHashSet<>(session.getSemanticResources());
+    List<EObject> newElements = new ArrayList<>();
+    Map<Long, IntList> newPostings = new HashMap<>();
+    TrigramBuffer buffer = new TrigramBuffer();
+    for (Resource resource : resources) {
+      for (TreeIterator<EObject> it = resource.getAllContents(); it.hasNext();) {
+        EObject element = it.next();
+        buffer.clear();
+        for (EAttribute attribute : getIndexedAttributes(element.eClass())) {
+          Object value = element.eGet(attribute);
+          if (value instanceof String) {
+            buffer.addTrigrams((String) value);
+          } else if (value instanceof Collection<?>) {
+            for (Object item : (Collection<?>) value) {
+              if (item instanceof String) {
+                buffer.addTrigrams((String) item);
+              }
+            }
+          }
+        }
+        if (buffer.size > 0) {
+          int id = newElements.size();
+          newElements.add(element);
+          for (long trigram : buffer.distinct()) {
+            newPostings.computeIfAbsent(Long.valueOf(trigram), t -> new IntList()).add(id);
+          }
+        }
+      }
+    }
+
+    Map<Long, int[]> trimmedPostings = new HashMap<>(newPostings.size() * 4 / 3 + 1);
+    newPostings.forEach((trigram, list) -> trimmedPostings.put(trigram, list.toArray()));
+    elements = newElements.toArray(new EObject[newElements.size()]);
+    postings = trimmedPostings;
+    indexedResources = resources;
+  }
+
+  /**
+   * Records a model change.
+   */
+  protected void changed(Notification notification) {
+    if (notification.isTouch()) {
+      return;
+    }
+    Object notifier = notification.getNotifier();
+    if (notifier instanceof Resource) {
+      int featureId = notification.getFeatureID(Resource.class);
+      if (featureId == Resource.RESOURCE__CONTENTS || featureId == Resource.RESOURCE__IS_LOADED) {
+        invalid = true;
+      }
+    } else if (notifier instanceof EObject) {
+      Object feature = notification.getFeature();
+      if (feature instanceof EAttribute && isIndexed((EAttribute) feature)) {
+        staleElements.add((EObject) notifier);
+      } else if (feature instanceof EReference && ((EReference) feature).isContainment()) {
+        addStaleContents(notification.getNewValue());
+      }
+    }
+  }
+
+  private void addStaleContents(Object value) {
+    if (value instanceof Collection<?>) {
+      for (Object item : (Collection<?>) value) {
+        addStaleContents(item);
+      }
+    } else if (value instanceof EObject) {
+      EObject element = (EObject) value;
+      staleElements.add(element);
+      for (TreeIterator<EObject> it = element.eAllContents(); it.hasNext();) {
+        staleElements.add(it.next());
+      }
+    }
+  }
+
+  /**
+   * @return the distinct trigrams of the literal parts of the given plain text pattern, sorted
+   */
+  public static long[] getPatternTrigrams(String textPattern) {
+    TrigramBuffer buffer = new TrigramBuffer();
+    if (textPattern != null) {
+      int start = 0;
+      for (int i = 0; i <= textPattern.length(); i++) {
+        // Escaped characters are simply ignored: the literal parts around them are enough to select candidates
+        if (i == textPattern.length() || "*?\\".indexOf(textPattern.charAt(i)) >= 0) { //$NON-NLS-1$
+          buffer.addTrigrams(textPattern.substring(start, i));
+          start = i + 1;
+        }
+      }
+    }
+    return buffer.distinct();
+  }
+
+  /**
+   * Folds the case the same way for the pattern and the indexed values, so that a case insensitive match is always
+   * found.
+   */
+  private static long fold(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  private static class TrigramBuffer {
+    long[] trigrams = new long[64];
+
+    int size;
+
+    void clear() {
+      size = 0;
+    }
+
+    void addTrigrams(String text) {
+      if (text.length() < 3) {
+        return;
+      }
+      long trigram = fold(text.charAt(0)) << 16 | fold(text.charAt(1));
+      for (int i = 2; i < text.length(); i++) {
+        trigram = (trigram << 16 | fold(text.charAt(i))) & 0xFFFFFFFFFFFFL;
+        if (size == trigrams.length) {
+          trigrams = Arrays.copyOf(trigrams, size * 2);
+        }
+        trigrams[size++] = trigram;
+      }
+    }
+
+    long[] distinct() {
+      Arrays.sort(trigrams, 0, size);
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        if (count == 0 || trigrams[count - 1] != trigrams[i]) {
+          trigrams[count++] = trigrams[i];
+        }
+      }
+      size = count;
+      return Arrays.copyOf(trigrams, count);
+    }
+  }
+
+  private static class IntList {
+    int[] values = new int[4];
+
+    int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -89,6 +89,7 @@ import org.eclipse.ui.views.properties.tabbed.TabbedPropertySheetPage;
 import org.eclipse.ui.views.properties.tabbed.TabbedPropertySheetWidgetFactory;
 import org.polarsys.capella.common.helpers.EObjectLabelProviderHelper;
 import org.polarsys.capella.common.helpers.TransactionHelper;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
 import org.polarsys.capella.common.tools.report.EmbeddedMessage;
 import org.polarsys.capella.common.tools.report.config.registry.ReportManagerRegistry;
 import org.polarsys.capella.common.tools.report.util.IReportManagerDefaultComponents;
@@ -1163,7 +1164,14 @@ public abstract class SemanticBrowserView extends ViewPart implements ISemanticB
       // Store the original selection to detect a further change
       this.previousOriginalSelection = this.currentOriginalSelection;
       // Broadcast "set input" signal to all viewers.
-      setInputOnViewers(input);
+      // Query results are reused between refreshes until the model changes
+      EditingDomain domain = input instanceof EObject ? TransactionHelper.getEditingDomain((EObject) input) : null;
+      ModelCache.enable(domain);
+      try {
+        setInputOnViewers(input);
+      } finally {
+        ModelCache.disable(domain);
+      }
 
       CapellaReadOnlyHelper.unregister((EObject) lastInput, this);
       CapellaReadOnlyHelper.register((EObject) input, this);
@@ -12,24 +12,70 @@
  *******************************************************************************/
 package org.polarsys.capella.core.validation.commandline;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.notify.AdapterFactory;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EValidator;
+import org.eclipse.emf.ecore.impl.EValidatorRegistryImpl;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.transaction.util.TransactionUtil;
 import org.polarsys.capella.common.ef.ExecutionManager;
 import org.polarsys.capella.common.helpers.TransactionHelper;
 import org.polarsys.capella.common.helpers.cache.ModelCache;
+import org.polarsys.capella.common.tools.report.appenders.reportlogview.LightMarkerRegistry;
+import org.polarsys.capella.core.model.handler.validation.CapellaDiagnostician;
 import org.polarsys.capella.core.platform.sirius.ui.actions.CapellaValidateAction;
+import org.polarsys.capella.core.validation.CapellaValidationActivator;
+import org.polarsys.capella.core.validation.CapellaValidatorAdapter;
+import org.polarsys.capella.core.validation.ValidationRuleTimer;
 
 /**
+ * Validates a model of the command line.<br>
+ * Several models may be validated at the same time: each action validates its model with its own validator, rather
+ * than with the global one.
  */
 public class CapellaValidateComlineAction extends CapellaValidateAction {
 
   private Resource resourceToValidate;
   private Diagnostic diagnostic;
+  private final CapellaValidatorAdapter validatorAdapter = new CapellaValidatorAdapter();
+  private final EValidator.Registry validatorRegistry = createValidatorRegistry();
+
+  /**
+   * @return a registry delegating to the global one, where the packages validated by the global Capella validator are
+   *         validated by the validator of this action
+   */
+  private EValidator.Registry createValidatorRegistry() {
+    EValidator.Registry registry = new EValidatorRegistryImpl(EValidator.Registry.INSTANCE);
+    CapellaValidatorAdapter globalAdapter = CapellaValidationActivator.getDefault().getCapellaValidatorAdapter();
+    for (Map.Entry<EPackage, Object> entry : EValidator.Registry.INSTANCE.entrySet()) {
+      if (entry.getValue() == globalAdapter) {
+        registry.put(entry.getKey(), validatorAdapter);
+      }
+    }
+    return registry;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected Diagnostician createDiagnostician(AdapterFactory adapterFactory, IProgressMonitor progressMonitor) {
+    return new CapellaDiagnostician(validatorRegistry, adapterFactory, progressMonitor);
+  }
 
   public void setSelectedObjects(List<EObject> selectedObjects) {
     this.selectedObjects = selectedObjects;
@@ -43,15 +89,30 @@ public class CapellaValidateComlineAction extends CapellaValidateAction {
     if(isSetEditingDomain()){
       // works fine
       try {
-        ModelCache.enable();
+        ModelCache.enable(domain);
         diagnostic = super.validate(new NullProgressMonitor());
       } finally {
-        ModelCache.disable();
+        ModelCache.disable(domain);
       }
       handleDiagnostic(diagnostic);
     }
   }
   
+  /**
+   * Measures the time spent by each rule of the validator of this action on the validated elements.
+   * @param timer
+   */
+  public void measure(ValidationRuleTimer timer) {
+    if(isSetEditingDomain()){
+      try {
+        ModelCache.enable(domain);
+        timer.measure(validatorAdapter.getValidator(), selectedObjects, new NullProgressMonitor());
+      } finally {
+        ModelCache.disable(domain);
+      }
+    }
+  }
+
   private boolean isSetEditingDomain(){
     if(domain == null && !selectedObjects.isEmpty()){
       ExecutionManager executionManager = TransactionHelper.getExecutionManager(selectedObjects);
@@ -78,9 +139,25 @@ public class CapellaValidateComlineAction extends CapellaValidateAction {
     resourceToValidate = airdSemanticModel;
   }
   
-  public void deleteMarkers() {
-    for (Diagnostic childDiagnostic : diagnostic.getChildren()) {
-      eclipseResourcesUtil.deleteMarkers(childDiagnostic);
+  /**
+   * @return the markers created for this validation. Several models may be validated at the same time, so markers of
+   *         the registry are filtered by diagnostic.
+   */
+  public Collection<IMarker> getMarkers() {
+    List<IMarker> result = new ArrayList<IMarker>();
+    if (diagnostic != null) {
+      Set<Diagnostic> childDiagnostics = Collections.newSetFromMap(new IdentityHashMap<Diagnostic, Boolean>());
+      childDiagnostics.addAll(diagnostic.getChildren());
+      for (IMarker marker : new ArrayList<IMarker>(LightMarkerRegistry.getInstance().getMarkers())) {
+        if (childDiagnostics.contains(marker.getAdapter(Diagnostic.class))) {
+          result.add(marker);
+        }
+      }
     }
+    return result;
+  }
+
+  public void deleteMarkers() {
+    LightMarkerRegistry.getInstance().deleteMarkers(getMarkers());
   }
 }
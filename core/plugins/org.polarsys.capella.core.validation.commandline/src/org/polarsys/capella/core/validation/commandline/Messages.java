@@ -18,8 +18,10 @@ import org.eclipse.osgi.util.NLS;
  */
 public class Messages extends NLS {
   private static final String BUNDLE_NAME = "org.polarsys.capella.core.validation.commandline.messages"; //$NON-NLS-1$
+  public static String invalidThreads;
   public static String resource_prefix;
   public static String resultsFileName;
+  public static String timesFileName;
   public static String validationStatus;
   static {
     // initialize resource bundle
@@ -19,6 +19,9 @@ import org.polarsys.capella.core.commandline.core.CommandLineArgumentHelper;
 public class ValidationArgumentHelper extends CommandLineArgumentHelper {
   private String validationContext;
   private String validationRuleSet;
+  private int threads = 1;
+  private String invalidThreads;
+  private boolean timings;
 
   /**
    * {@inheritDoc}
@@ -36,6 +39,15 @@ public class ValidationArgumentHelper extends CommandLineArgumentHelper {
 
       } else if (ValidationCommandLineConstants.VALIDATION_RULE_SET.equalsIgnoreCase(arg)) {
         validationRuleSet = args[++i];
+
+      } else if (ValidationCommandLineConstants.THREADS.equalsIgnoreCase(arg)) {
+        String value = (i + 1 < args.length) ? args[++i] : ""; //$NON-NLS-1$
+        threads = parseThreads(value);
+        invalidThreads = (threads < 1) ? value : null;
+        threads = Math.max(1, threads);
+
+      } else if (ValidationCommandLineConstants.TIMINGS.equalsIgnoreCase(arg)) {
+        timings = true;
       }
     }
   }
@@ -53,4 +65,34 @@ public class ValidationArgumentHelper extends CommandLineArgumentHelper {
   public String getValidationRuleSet() {
     return validationRuleSet;
   }
+
+  /**
+   * @return the number of validation threads, shared between the validated models
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * @return the value given to {@link ValidationCommandLineConstants#THREADS} if it is not a positive integer,
+   *         <code>null</code> otherwise
+   */
+  public String getInvalidThreads() {
+    return invalidThreads;
+  }
+
+  /**
+   * @return whether the evaluation time of each rule must be measured after the validation
+   */
+  public boolean isTimings() {
+    return timings;
+  }
+
+  private int parseThreads(String value) {
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException exception) {
+      return 0;
+    }
+  }
 }
@@ -24,6 +24,11 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -44,6 +49,7 @@ import org.eclipse.emf.validation.model.Category;
 import org.eclipse.emf.validation.preferences.EMFModelValidationPreferences;
 import org.eclipse.emf.validation.service.ModelValidationService;
 import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.sirius.business.api.session.Session;
 import org.eclipse.sirius.business.api.session.SessionManager;
 import org.eclipse.ui.views.markers.MarkerViewUtil;
@@ -53,7 +59,6 @@ import org.osgi.service.prefs.Preferences;
 import org.polarsys.capella.common.data.modellingcore.ModelElement;
 import org.polarsys.capella.common.helpers.validation.ConstraintStatusDiagnostic;
 import org.polarsys.capella.common.tools.report.EmbeddedMessage;
-import org.polarsys.capella.common.tools.report.appenders.reportlogview.LightMarkerRegistry;
 import org.polarsys.capella.common.tools.report.appenders.reportlogview.MarkerViewHelper;
 import org.polarsys.capella.common.tools.report.util.IReportManagerDefaultComponents;
 import org.polarsys.capella.core.commandline.core.CommandLineException;
@@ -62,6 +67,8 @@ import org.polarsys.capella.core.data.capellamodeller.Project;
 import org.polarsys.capella.core.model.handler.markers.ICapellaValidationConstants;
 import org.polarsys.capella.core.model.helpers.query.CapellaQueries;
 import org.polarsys.capella.core.sirius.ui.helper.SessionHelper;
+import org.polarsys.capella.core.validation.ValidationRuleTimer;
+import org.polarsys.capella.core.validation.ValidationRuleTimer.RuleTime;
 
 public class ValidationCommandLine extends AbstractWorkbenchCommandLine {
   static final String CONSTRAINT_DISABLED_PREFIX = "org.eclipse.emf.validation//con.disabled/"; //$NON-NLS-1$
@@ -82,25 +89,80 @@ public class ValidationCommandLine extends AbstractWorkbenchCommandLine {
     // load the AIRDs
     MultiStatus status = new MultiStatus(Activator.PLUGIN_ID, IStatus.OK, Messages.validationStatus, null);
     List<IFile> airdFiles = getAirdFilesFromInput();
-    for (IFile file : airdFiles) {
-      URI uri = URI.createPlatformResourceURI(file.getFullPath().toString(), true);
-      status.add(execute(uri));
+
+    // threads are shared between models validated at the same time
+    int threads = ((ValidationArgumentHelper) argHelper).getThreads();
+    int concurrentModels = Math.max(1, Math.min(threads, airdFiles.size()));
+    int threadsPerModel = Math.max(1, threads / concurrentModels);
+
+    // rules are timed after the validation of each model, on demand
+    ValidationRuleTimer timer = ((ValidationArgumentHelper) argHelper).isTimings() ? new ValidationRuleTimer() : null;
+    ExecutorService executor = concurrentModels > 1 ? Executors.newFixedThreadPool(concurrentModels) : null;
+    try {
+      // models are loaded one after another, then validated concurrently
+      List<ModelValidation> validations = new ArrayList<ModelValidation>();
+      for (IFile file : airdFiles) {
+        URI uri = URI.createPlatformResourceURI(file.getFullPath().toString(), true);
+        ModelValidation validation = prepare(uri, threadsPerModel);
+        if (validation.status.isOK()) {
+          Runnable run = () -> {
+            validation.action.run();
+            if (timer != null) {
+              validation.action.measure(timer);
+            }
+          };
+          if (executor != null) {
+            validation.result = executor.submit(run);
+          } else {
+            run.run();
+          }
+        }
+        validations.add(validation);
+      }
+      for (ModelValidation validation : validations) {
+        status.add(complete(validation));
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+    if (timer != null) {
+      try {
+        storeTimesToFile(getOrCreateOutputFolder(), timer);
+      } catch (CommandLineException exception) {
+        status.add(new Status(IStatus.ERROR, FrameworkUtil.getBundle(this.getClass()).getSymbolicName(), exception.getMessage(), exception));
+      }
     }
-    
+
     return status;
   }
 
-  private IStatus execute(final URI airdURI) {
+  /**
+   * A model being validated.
+   */
+  private static class ModelValidation {
+    URI airdURI;
+    CapellaValidateComlineAction action;
     IStatus status = Status.OK_STATUS;
+    Future<?> result;
+  }
+
+  private ModelValidation prepare(final URI airdURI, int threads) {
+    ModelValidation validation = new ModelValidation();
+    validation.airdURI = airdURI;
     try {
 
       // Create the validate action.
       CapellaValidateComlineAction capellaValidateCLineAction = new CapellaValidateComlineAction();
+      capellaValidateCLineAction.setThreads(threads);
+      validation.action = capellaValidateCLineAction;
 
       // load
       Project semanticRootElement = loadSemanticRootElement(airdURI);
       if (semanticRootElement == null) {
-        return new Status(IStatus.ERROR, FrameworkUtil.getBundle(this.getClass()).getSymbolicName(), "No semantic model found!");
+        validation.status = new Status(IStatus.ERROR, FrameworkUtil.getBundle(this.getClass()).getSymbolicName(), "No semantic model found!");
+        return validation;
       }
       Resource semanticRootResource = semanticRootElement.eResource();
       capellaValidateCLineAction.setResource(semanticRootResource);
@@ -127,21 +189,36 @@ public class ValidationCommandLine extends AbstractWorkbenchCommandLine {
         capellaValidateCLineAction.setSelectedObjects(semanticRootResource.getContents());
       }
 
-      // Run the validation
-      capellaValidateCLineAction.run();
-
-      storeResultsToFile(getOrCreateOutputFolderForAird(airdURI));
-      
-      capellaValidateCLineAction.deleteMarkers();
-
     } catch (FileNotFoundException exception) {
-      status = new Status(IStatus.ERROR, FrameworkUtil.getBundle(this.getClass()).getSymbolicName(), exception.getMessage(), exception);
+      validation.status = new Status(IStatus.ERROR, FrameworkUtil.getBundle(this.getClass()).getSymbolicName(), exception.getMessage(), exception);
       
     } catch (CoreException exception) {
-      status = new Status(IStatus.ERROR, FrameworkUtil.getBundle(this.getClass()).getSymbolicName(), exception.getMessage(), exception);
+      validation.status = new Status(IStatus.ERROR, FrameworkUtil.getBundle(this.getClass()).getSymbolicName(), exception.getMessage(), exception);
     }
 
-    return status;
+    return validation;
+  }
+
+  private IStatus complete(ModelValidation validation) {
+    if (!validation.status.isOK()) {
+      return validation.status;
+    }
+    if (validation.result != null) {
+      try {
+        validation.result.get();
+      } catch (ExecutionException exception) {
+        return new Status(IStatus.ERROR, FrameworkUtil.getBundle(this.getClass()).getSymbolicName(), exception.getCause().getMessage(), exception.getCause());
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        return Status.CANCEL_STATUS;
+      }
+    }
+
+    storeResultsToFile(getOrCreateOutputFolderForAird(validation.airdURI), validation.action.getMarkers());
+
+    validation.action.deleteMarkers();
+
+    return Status.OK_STATUS;
   }
 
   /**
@@ -235,8 +312,7 @@ public class ValidationCommandLine extends AbstractWorkbenchCommandLine {
   /**
    * @param outputFolder
    */
-  private void storeResultsToFile(IFolder outputFolder) {
-    Collection<IMarker> markers = LightMarkerRegistry.getInstance().getMarkers();
+  private void storeResultsToFile(IFolder outputFolder, Collection<IMarker> markers) {
     try {
       Collection<IMarker> validationMarkers = filterValidationMarkers(markers);
 
@@ -258,6 +334,37 @@ public class ValidationCommandLine extends AbstractWorkbenchCommandLine {
 
   }
 
+  /**
+   * Writes the evaluation time of each validation rule, the most expensive first.
+   * @param outputFolder
+   * @param timer
+   */
+  private void storeTimesToFile(IFolder outputFolder, ValidationRuleTimer timer) {
+    StringBuilder result = new StringBuilder();
+    result.append("Rule id,Evaluations,Time (ms)\n"); //$NON-NLS-1$
+    for (RuleTime ruleTime : timer.getRuleTimes()) {
+      result.append(ruleTime.getRuleId());
+      result.append(',');
+      result.append(ruleTime.getEvaluations());
+      result.append(',');
+      result.append(TimeUnit.NANOSECONDS.toMillis(ruleTime.getNanos()));
+      result.append('\n');
+    }
+    try {
+      IFile file = outputFolder.getFile(new Path(Messages.timesFileName));
+      ByteArrayInputStream outputContent = new ByteArrayInputStream(result.toString().getBytes());
+      if (file.exists()) {
+        file.setContents(outputContent, true, false, null);
+      } else {
+        file.create(outputContent, false, null);
+      }
+
+    } catch (CoreException exception) {
+      String loggerMessage = "ValidationComandlineApp.storeTimesToFile(..) _ "; //$NON-NLS-1$
+      logger.error(new EmbeddedMessage(loggerMessage, IReportManagerDefaultComponents.VALIDATION));
+    }
+  }
+
   /**
    * @param markers
    * @return
@@ -380,5 +487,9 @@ public class ValidationCommandLine extends AbstractWorkbenchCommandLine {
     if (argHelper.getOutputFolder() == null) {
       logger.error(org.polarsys.capella.core.commandline.core.Messages.outputfolder_mandatory);
     }
+    String invalidThreads = ((ValidationArgumentHelper) argHelper).getInvalidThreads();
+    if (invalidThreads != null) {
+      logErrorAndThrowException(NLS.bind(Messages.invalidThreads, invalidThreads));
+    }
   }
 }
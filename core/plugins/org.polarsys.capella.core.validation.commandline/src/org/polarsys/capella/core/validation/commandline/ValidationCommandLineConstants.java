@@ -18,5 +18,7 @@ public class ValidationCommandLineConstants {
 
   public static final String VALIDATION_CONTEXT = "-validationcontext";//$NON-NLS-1$
   public static final String VALIDATION_RULE_SET = "-validationruleset";//$NON-NLS-1$
+  public static final String THREADS = "-threads";//$NON-NLS-1$
+  public static final String TIMINGS = "-timings";//$NON-NLS-1$
 
 }
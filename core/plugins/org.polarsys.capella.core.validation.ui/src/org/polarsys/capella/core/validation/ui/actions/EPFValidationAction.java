@@ -345,16 +345,17 @@ public class EPFValidationAction extends CapellaValidateAction {
       public void deleteMarkers(Object object, boolean includeSubtypes, int depth) {
         boolean cleanup = AbstractPreferencesInitializer.getBoolean(ICapellaValidationPreferences.P_CLEAN_PREVIOUS_VALIDATION_RESULTS, true);
         if (cleanup) {
-          List<IMarker> markers = new ArrayList<IMarker>(LightMarkerRegistry.getInstance().getMarkers());
-          for (IMarker marker : markers) {
+          List<IMarker> markers = new ArrayList<IMarker>();
+          for (IMarker marker : LightMarkerRegistry.getInstance().getMarkers()) {
             try {
               if (marker.getType().equals(ICapellaValidationConstants.CAPELLA_MARKER_ID)) {
-                marker.delete();
+                markers.add(marker);
               }
             } catch (CoreException e) {
               CapellaValidationUIActivator.getDefault().log(IStatus.ERROR, e.getMessage(), e);
             }
           }
+          LightMarkerRegistry.getInstance().deleteMarkers(markers);
         }
 
       }
@@ -389,7 +390,8 @@ public class EPFValidationAction extends CapellaValidateAction {
       // Go for default behavior.
       // Markers will be tagged with current resource at creation time
       // (see constructor).
-      super.handleDiagnostic(diagnostic);
+      // Listeners are notified once about all created markers.
+      LightMarkerRegistry.getInstance().runInBatch(() -> super.handleDiagnostic(diagnostic));
     } finally {
       // Reset current resource, whatever its value may be.
       currentResource = null;
@@ -26,17 +26,39 @@ import org.eclipse.emf.ecore.util.EObjectValidator;
 import org.eclipse.emf.validation.model.EvaluationMode;
 import org.eclipse.emf.validation.model.IConstraintStatus;
 import org.eclipse.emf.validation.service.IBatchValidator;
+import org.eclipse.emf.validation.service.IConstraintFilter;
+import org.eclipse.emf.validation.service.ITraversalStrategy;
 import org.eclipse.emf.validation.service.ModelValidationService;
+import org.polarsys.capella.core.model.handler.validation.IThreadSafeRulesValidator;
+import org.polarsys.capella.core.model.handler.validation.PartitionedValidator;
+import org.polarsys.capella.core.validation.filter.ThreadSafeConstraintFilter;
+import org.polarsys.capella.core.validation.incremental.IncrementalValidation;
+import org.polarsys.capella.core.validation.incremental.IncrementalValidationRun;
 
 /**
  * An adapter that plugs the EMF Model Validation Service API into the {@link org.eclipse.emf.ecore.EValidator} API.
  */
-public class EValidatorAdapter extends EObjectValidator {
+public class EValidatorAdapter extends EObjectValidator implements IThreadSafeRulesValidator {
   /**
    * Model Validation Service interface for batch validation of EMF elements.
    */
   private IBatchValidator _validator;
 
+  /**
+   * Context key of the validator of a partition, see {@link #getValidator(Map)}.
+   */
+  private final Object _partitionValidatorKey = new Object();
+
+  /**
+   * Context key of the incremental run of a validation, see {@link #getIncrementalRun(EObject, Map)}.
+   */
+  private final Object _incrementalRunKey = new Object();
+
+  /**
+   * Context key recording whether some enabled constraints are not thread-safe, see {@link #hasSequentialRules(Map)}.
+   */
+  private final Object _sequentialRulesKey = new Object();
+
   /**
    * Constructor.<br>
    * Default constructor includes live constraints, does not report successes.
@@ -53,6 +75,100 @@ public class EValidatorAdapter extends EObjectValidator {
     return _validator;
   }
 
+  /**
+   * Get the batch validator to use within the given validation context.<br>
+   * Partitions of a {@link PartitionedValidator} are validated concurrently: each of them gets its own validator,
+   * configured as the underlying one. Validators of shallow validations do not validate contents of given elements.
+   * Validators of partitions only evaluate the rules selected by {@link PartitionedValidator#THREAD_SAFE_RULES}.
+   * Incremental validations also get their own validator, filtered by their incremental run.
+   * @param context_p the context (may be <code>null</code>)
+   * @return the validator
+   */
+  protected IBatchValidator getValidator(Map<Object, Object> context_p) {
+    if ((null == context_p)
+        || (!context_p.containsKey(PartitionedValidator.VALIDATION_SCOPE) && !context_p.containsKey(_incrementalRunKey))) {
+      return getValidator();
+    }
+    IBatchValidator validator = (IBatchValidator) context_p.get(_partitionValidatorKey);
+    if (null == validator) {
+      IBatchValidator sharedValidator = getValidator();
+      validator = (IBatchValidator) ModelValidationService.getInstance().newValidator(EvaluationMode.BATCH);
+      validator.setIncludeLiveConstraints(sharedValidator.isIncludeLiveConstraints());
+      validator.setReportSuccesses(sharedValidator.isReportSuccesses());
+      for (IConstraintFilter filter : sharedValidator.getConstraintFilters()) {
+        validator.addConstraintFilter(filter);
+      }
+      Boolean threadSafeRules = getThreadSafeRules(context_p);
+      if (null != threadSafeRules) {
+        validator.addConstraintFilter(new ThreadSafeConstraintFilter(threadSafeRules.booleanValue()));
+      }
+      IncrementalValidationRun run = (IncrementalValidationRun) context_p.get(_incrementalRunKey);
+      if (null != run) {
+        // Last filter, so that skipped evaluations are the ones other filters accept.
+        validator.addConstraintFilter(run);
+      }
+      if (isShallow(context_p)) {
+        validator.setTraversalStrategy(new ITraversalStrategy.Flat());
+      }
+      context_p.put(_partitionValidatorKey, validator);
+    }
+    return validator;
+  }
+
+  /**
+   * Get the incremental run of the given validation context, started on first call if the incremental validation is
+   * enabled on the domain of the given element.<br>
+   * Partitioned validations evaluating rules in two passes are not incremental: a pass would mark elements as validated
+   * before the other one evaluates its rules.
+   * @param eObject_p the validated element
+   * @param context_p the context (may be <code>null</code>)
+   * @return the run, <code>null</code> if the validation is not incremental
+   */
+  protected IncrementalValidationRun getIncrementalRun(EObject eObject_p, Map<Object, Object> context_p) {
+    if (null == context_p) {
+      return null;
+    }
+    IncrementalValidationRun run = (IncrementalValidationRun) context_p.get(_incrementalRunKey);
+    if ((null == run) && !context_p.containsKey(_partitionValidatorKey)
+        && ((null == getThreadSafeRules(context_p)) || !hasSequentialRules(context_p))) {
+      IncrementalValidation incrementalValidation = IncrementalValidation.getIncrementalValidation(eObject_p);
+      if (null != incrementalValidation) {
+        run = incrementalValidation.startRun(getValidator());
+        context_p.put(_incrementalRunKey, run);
+      }
+    }
+    return run;
+  }
+
+  /**
+   * @param context_p the context (may be <code>null</code>)
+   * @return whether elements must be validated without their contents, see {@link PartitionedValidator#SHALLOW_VALIDATION}
+   */
+  protected boolean isShallow(Map<Object, Object> context_p) {
+    return (null != context_p) && Boolean.TRUE.equals(context_p.get(PartitionedValidator.SHALLOW_VALIDATION));
+  }
+
+  /**
+   * @param context_p the context (may be <code>null</code>)
+   * @return the rules to evaluate, see {@link PartitionedValidator#THREAD_SAFE_RULES}; <code>null</code> for all rules
+   */
+  protected Boolean getThreadSafeRules(Map<Object, Object> context_p) {
+    return (null == context_p) ? null : (Boolean) context_p.get(PartitionedValidator.THREAD_SAFE_RULES);
+  }
+
+  /**
+   * @param context_p the context of a partitioned validation
+   * @return whether some enabled constraints are not thread-safe, computed once per context
+   */
+  protected boolean hasSequentialRules(Map<Object, Object> context_p) {
+    Boolean result = (Boolean) context_p.get(_sequentialRulesKey);
+    if (null == result) {
+      result = Boolean.valueOf(ThreadSafeConstraintFilter.hasSequentialConstraints());
+      context_p.put(_sequentialRulesKey, result);
+    }
+    return result.booleanValue();
+  }
+
   /**
    * Constructor.
    * @param includeLiveConstraints_p
@@ -78,8 +194,15 @@ public class EValidatorAdapter extends EObjectValidator {
    */
   @Override
   public boolean validate(EClass eClass_p, EObject eObject_p, DiagnosticChain diagnostics_p, Map<Object, Object> context_p) {
-    // First, do whatever the basic EcoreValidator does
-    super.validate(eClass_p, eObject_p, diagnostics_p, context_p);
+    boolean sequentialPass = Boolean.FALSE.equals(getThreadSafeRules(context_p));
+    if (sequentialPass && !hasSequentialRules(context_p)) {
+      // nothing left to evaluate after the concurrent pass
+      return true;
+    }
+    if (!sequentialPass) {
+      // First, do whatever the basic EcoreValidator does (once, by the concurrent pass of a partitioned validation)
+      super.validate(eClass_p, eObject_p, diagnostics_p, context_p);
+    }
 
     IStatus status = Status.OK_STATUS;
     // No point in validating if we can't report results
@@ -89,8 +212,14 @@ public class EValidatorAdapter extends EObjectValidator {
       // then don't repeat (the Diagnostician does the recursion
       // externally). If there is no context map, then we can't
       // help it
-      if (!hasProcessed(eObject_p, context_p)) {
-        status = getValidator().validate(eObject_p, new NullProgressMonitor());
+      // shallow validations only validate the given elements, whatever their containers
+      boolean shallow = isShallow(context_p);
+      if (shallow ? !context_p.containsKey(eObject_p) : !hasProcessed(eObject_p, context_p)) {
+        IncrementalValidationRun run = getIncrementalRun(eObject_p, context_p);
+        status = getValidator(context_p).validate(eObject_p, new NullProgressMonitor());
+        if (null != run) {
+          status = run.complete(status);
+        }
         processed(eObject_p, context_p, status);
         appendDiagnostics(status, diagnostics_p);
       }
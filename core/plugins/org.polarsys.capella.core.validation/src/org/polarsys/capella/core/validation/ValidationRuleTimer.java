@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.validation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.validation.model.EvaluationMode;
+import org.eclipse.emf.validation.service.IBatchValidator;
+import org.eclipse.emf.validation.service.IConstraintDescriptor;
+import org.eclipse.emf.validation.service.IConstraintFilter;
+import org.eclipse.emf.validation.service.ITraversalStrategy;
+import org.eclipse.emf.validation.service.ModelValidationService;
+
+/**
+ * Measures the time spent in each validation rule.<br>
+ * The validation service gives no access to the evaluation of a single constraint, so rules are timed directly by
+ * evaluating them one at a time: each element is validated alone by a validator evaluating a single rule, once per rule
+ * applying to it, and the time of the same validation evaluating no rule is deducted. Measuring thus costs a validation
+ * per evaluation: it is a dedicated pass (see {@link #measure(IBatchValidator, Collection, IProgressMonitor)}), run
+ * after the actual validation rather than during it.<br>
+ * Times are the CPU times of the measuring thread when the JVM supports them, so that concurrent measures, e.g. of
+ * several models, do not charge rules with the time of other threads. Measures are thread-safe and cumulated across
+ * passes.
+ */
+public class ValidationRuleTimer {
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  /**
+   * Cumulated measures of a rule.
+   */
+  public static class RuleTime {
+
+    private final String ruleId;
+
+    private final LongAdder evaluations = new LongAdder();
+
+    private final LongAdder nanos = new LongAdder();
+
+    RuleTime(String ruleId) {
+      this.ruleId = ruleId;
+    }
+
+    public String getRuleId() {
+      return ruleId;
+    }
+
+    /**
+     * @return the number of evaluations of the rule
+     */
+    public long getEvaluations() {
+      return evaluations.sum();
+    }
+
+    /**
+     * @return the cumulated evaluation time of the rule, in nanoseconds
+     */
+    public long getNanos() {
+      return nanos.sum();
+    }
+  }
+
+  /**
+   * Last filter of a measuring validator: either collects the rules accepted by the other filters without evaluating
+   * them, or accepts the single rule being measured.
+   */
+  private static class RuleSelection implements IConstraintFilter {
+
+    private final Set<IConstraintDescriptor> candidates = new LinkedHashSet<>();
+
+    private IConstraintDescriptor selected;
+
+    @Override
+    public boolean accept(IConstraintDescriptor constraint_p, EObject target_p) {
+      if (null == selected) {
+        candidates.add(constraint_p);
+        return false;
+      }
+      return selected == constraint_p;
+    }
+
+    void select(IConstraintDescriptor rule_p) {
+      selected = rule_p;
+    }
+
+    List<IConstraintDescriptor> takeCandidates() {
+      List<IConstraintDescriptor> result = new ArrayList<>(candidates);
+      candidates.clear();
+      return result;
+    }
+  }
+
+  private final Map<String, RuleTime> times = new ConcurrentHashMap<>();
+
+  private final boolean cpuTime = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+      && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+
+  /**
+   * Measures the rules evaluated by the given validator on the given elements and their contents.<br>
+   * The validator is not modified: elements are validated by validators configured as the given one, whose results
+   * are ignored. Models must not be modified meanwhile.
+   * @param validator_p the validator whose rules are measured
+   * @param roots_p the measured elements
+   * @param monitor_p checked for cancellation
+   */
+  public void measure(IBatchValidator validator_p, Collection<? extends EObject> roots_p, IProgressMonitor monitor_p) {
+    IBatchValidator validator = (IBatchValidator) ModelValidationService.getInstance()
+        .newValidator(EvaluationMode.BATCH);
+    validator.setIncludeLiveConstraints(validator_p.isIncludeLiveConstraints());
+    validator.setTraversalStrategy(new ITraversalStrategy.Flat());
+    for (IConstraintFilter filter : validator_p.getConstraintFilters()) {
+      validator.addConstraintFilter(filter);
+    }
+    RuleSelection selection = new RuleSelection();
+    validator.addConstraintFilter(selection);
+
+    for (TreeIterator<EObject> it = EcoreUtil.getAllContents(EcoreUtil.filterDescendants(roots_p)); it.hasNext()
+        && !monitor_p.isCanceled();) {
+      measure(validator, selection, it.next());
+    }
+  }
+
+  private void measure(IBatchValidator validator_p, RuleSelection selection_p, EObject target_p) {
+    selection_p.select(null);
+    long overhead = time(validator_p, target_p);
+    for (IConstraintDescriptor rule : selection_p.takeCandidates()) {
+      selection_p.select(rule);
+      long nanos = time(validator_p, target_p) - overhead;
+      RuleTime ruleTime = times.computeIfAbsent(rule.getId(), RuleTime::new);
+      ruleTime.evaluations.increment();
+      ruleTime.nanos.add(Math.max(0, nanos));
+    }
+  }
+
+  private long time(IBatchValidator validator_p, EObject target_p) {
+    long start = now();
+    validator_p.validate(target_p, new NullProgressMonitor());
+    return now() - start;
+  }
+
+  private long now() {
+    return cpuTime ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+  }
+
+  /**
+   * @return measures of all evaluated rules, the most expensive first
+   */
+  public List<RuleTime> getRuleTimes() {
+    List<RuleTime> result = new ArrayList<>(times.values());
+    result.sort(Comparator.comparingLong(RuleTime::getNanos).reversed());
+    return result;
+  }
+
+  /**
+   * Forgets all measures.
+   */
+  public void reset() {
+    times.clear();
+  }
+}
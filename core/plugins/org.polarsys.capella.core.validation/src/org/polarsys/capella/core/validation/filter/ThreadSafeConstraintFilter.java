@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.validation.filter;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.validation.model.EvaluationMode;
+import org.eclipse.emf.validation.service.ConstraintRegistry;
+import org.eclipse.emf.validation.service.IConstraintDescriptor;
+import org.eclipse.emf.validation.service.IConstraintFilter;
+import org.eclipse.emf.validation.service.IParameterizedConstraintDescriptor;
+
+/**
+ * Accepts either the thread-safe constraints or the other ones, so that a partitioned validation evaluates the latter
+ * sequentially.<br>
+ * A constraint declares that it may be evaluated concurrently with the <code>threadSafe</code> parameter, once its rule
+ * is known to keep no state between evaluations. Rules relying on the state of the whole validation, such as the
+ * constraint data or the skipped targets of the validation context, are not thread-safe: each partition has its own
+ * context.
+ *
+ * <pre>
+ * &lt;param name="threadSafe" value="true"/&gt;
+ * </pre>
+ *
+ * Without this parameter, constraints are not thread-safe.
+ */
+public class ThreadSafeConstraintFilter implements IConstraintFilter {
+
+  /**
+   * Constraint parameter declaring whether the rule can be evaluated concurrently.
+   */
+  public static final String THREAD_SAFE_PARAM = "threadSafe"; //$NON-NLS-1$
+
+  private final boolean threadSafe;
+
+  /**
+   * @param threadSafe
+   *          whether thread-safe constraints are accepted, rather than the other ones
+   */
+  public ThreadSafeConstraintFilter(boolean threadSafe) {
+    this.threadSafe = threadSafe;
+  }
+
+  /**
+   * @see org.eclipse.emf.validation.service.IConstraintFilter#accept(org.eclipse.emf.validation.service.IConstraintDescriptor,
+   *      org.eclipse.emf.ecore.EObject)
+   */
+  @Override
+  public boolean accept(IConstraintDescriptor constraint, EObject target) {
+    return isThreadSafe(constraint) == threadSafe;
+  }
+
+  /**
+   * @return whether the given constraint can be evaluated concurrently
+   */
+  public static boolean isThreadSafe(IConstraintDescriptor constraint) {
+    if (constraint instanceof IParameterizedConstraintDescriptor) {
+      String value = ((IParameterizedConstraintDescriptor) constraint).getParameterValue(THREAD_SAFE_PARAM);
+      return value != null && Boolean.parseBoolean(value.trim());
+    }
+    return false;
+  }
+
+  /**
+   * @return whether some enabled constraints cannot be evaluated concurrently
+   */
+  public static boolean hasSequentialConstraints() {
+    for (IConstraintDescriptor descriptor : ConstraintRegistry.getInstance().getAllDescriptors()) {
+      if (descriptor.isEnabled() && !descriptor.isError() && descriptor.getEvaluationMode() != EvaluationMode.NULL
+          && !isThreadSafe(descriptor)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,407 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.validation.incremental;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListener;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.TransactionalEditingDomainEvent;
+import org.eclipse.emf.transaction.TransactionalEditingDomainListenerImpl;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+import org.eclipse.emf.validation.model.EvaluationMode;
+import org.eclipse.emf.validation.model.IConstraintStatus;
+import org.eclipse.emf.validation.service.ConstraintRegistry;
+import org.eclipse.emf.validation.service.IBatchValidator;
+import org.eclipse.emf.validation.service.IConstraintDescriptor;
+import org.eclipse.emf.validation.service.IConstraintFilter;
+import org.polarsys.capella.common.platform.sirius.ted.DataNotifier;
+import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.SemanticEditingDomain;
+
+/**
+ * Incremental validation of the models of an editing domain.<br>
+ * Model changes are recorded as they happen. On the next validation, a rule is only evaluated on an element if a
+ * change since the last evaluation may impact it (see {@link ValidationRuleFootprint}), otherwise the failures found by
+ * the last evaluation are reported again:
+ * <ul>
+ * <li>rules declaring a target-only footprint are evaluated on elements whose declared features changed,</li>
+ * <li>rules declaring a model footprint are evaluated on all their targets when one of the declared features or
+ * classes changed anywhere,</li>
+ * <li>other rules are evaluated on all their targets after any change.</li>
+ * </ul>
+ * New elements, and elements moved to another container, are evaluated by all rules. Results are forgotten when a
+ * resource is loaded or unloaded, and when constraint filters of the validator change. Rules enabled since the last
+ * validation are evaluated on all elements.<br>
+ * The incremental validation is used by all validations on the domain once enabled, see
+ * {@link #enable(TransactionalEditingDomain)}, or on all domains if the {@link #INCREMENTAL_PROPERTY} system property
+ * is set.
+ */
+public class IncrementalValidation {
+
+  /**
+   * System property enabling the incremental validation on all editing domains.
+   */
+  public static final String INCREMENTAL_PROPERTY = "capella.validation.incremental"; //$NON-NLS-1$
+
+  private static final boolean enabledByDefault = Boolean.getBoolean(INCREMENTAL_PROPERTY);
+
+  private static final long NEVER = -1;
+
+  private static final Map<TransactionalEditingDomain, IncrementalValidation> validations = new ConcurrentHashMap<>();
+
+  /**
+   * The validation state of an element.
+   */
+  static class ElementState {
+
+    /**
+     * Generation of the last validation of the element.
+     */
+    volatile long validated = NEVER;
+
+    /**
+     * Features of the element to the generation of their last change, since the last validation.
+     */
+    final Map<EStructuralFeature, Long> changes = new HashMap<>();
+
+    /**
+     * Constraint id to the failures of its last evaluation on the element.
+     */
+    final Map<String, List<IConstraintStatus>> failures = new ConcurrentHashMap<>();
+
+    synchronized void changed(EStructuralFeature feature, long generation) {
+      changes.put(feature, Long.valueOf(generation));
+    }
+
+    synchronized boolean hasChanged(Collection<EStructuralFeature> features, long since) {
+      for (EStructuralFeature feature : features) {
+        Long change = changes.get(feature);
+        if (change != null && change.longValue() > since) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    synchronized void validated(long generation) {
+      validated = generation;
+      changes.values().removeIf(change -> change.longValue() <= generation);
+    }
+  }
+
+  private final TransactionalEditingDomain domain;
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private volatile long lastChange = NEVER;
+
+  private final Map<EObject, ElementState> states = new ConcurrentHashMap<>();
+
+  private final Map<EStructuralFeature, Long> featureChanges = new ConcurrentHashMap<>();
+
+  private final Map<EClass, Long> classChanges = new ConcurrentHashMap<>();
+
+  /**
+   * Enabled constraint id to the generation since which it is enabled.
+   */
+  private final Map<String, Long> enabledConstraints = new ConcurrentHashMap<>();
+
+  private List<IConstraintFilter> filters = Collections.emptyList();
+
+  /**
+   * Listener used when the domain has no {@link DataNotifier}.
+   */
+  private ResourceSetListener postCommitListener;
+
+  private final AdapterImpl changeAdapter = new AdapterImpl() {
+    @Override
+    public void notifyChanged(Notification notification) {
+      changed(notification);
+    }
+  };
+
+  IncrementalValidation(TransactionalEditingDomain domain) {
+    this.domain = domain;
+  }
+
+  /**
+   * Enables the incremental validation of the models of the given domain, until the domain is disposed or
+   * {@link #disable(TransactionalEditingDomain)} is called.
+   *
+   * @return the incremental validation of the domain
+   */
+  public static IncrementalValidation enable(TransactionalEditingDomain domain) {
+    IncrementalValidation validation = validations.get(domain);
+    if (validation == null) {
+      synchronized (validations) {
+        validation = validations.get(domain);
+        if (validation == null) {
+          validation = new IncrementalValidation(domain);
+          validation.install();
+          validations.put(domain, validation);
+          TransactionalEditingDomain.Lifecycle lifecycle = TransactionUtil.getAdapter(domain,
+              TransactionalEditingDomain.Lifecycle.class);
+          if (lifecycle != null) {
+            lifecycle.addTransactionalEditingDomainListener(new TransactionalEditingDomainListenerImpl() {
+              @Override
+              public void editingDomainDisposing(TransactionalEditingDomainEvent event) {
+                disable(event.getSource());
+              }
+            });
+          }
+        }
+      }
+    }
+    return validation;
+  }
+
+  /**
+   * Disables the incremental validation of the models of the given domain, and forgets all results.
+   */
+  public static void disable(TransactionalEditingDomain domain) {
+    IncrementalValidation validation = validations.remove(domain);
+    if (validation != null) {
+      validation.dispose();
+    }
+  }
+
+  /**
+   * @return the incremental validation of the domain of the given element, <code>null</code> if not enabled.
+   */
+  public static IncrementalValidation getIncrementalValidation(EObject object) {
+    if (validations.isEmpty() && !enabledByDefault) {
+      return null;
+    }
+    TransactionalEditingDomain editingDomain = TransactionUtil.getEditingDomain(object);
+    if (editingDomain == null) {
+      return null;
+    }
+    return enabledByDefault ? enable(editingDomain) : validations.get(editingDomain);
+  }
+
+  /**
+   * Registers the change listener on the domain, see {@link org.polarsys.capella.common.helpers.cache.ModelCacheScope}.
+   */
+  private void install() {
+    if (domain instanceof SemanticEditingDomain) {
+      DataNotifier notifier = ((SemanticEditingDomain) domain).getDataNotifier();
+      if (notifier != null) {
+        notifier.addAdapter(EObject.class, changeAdapter);
+        return;
+      }
+    }
+    postCommitListener = new ResourceSetListenerImpl() {
+      @Override
+      public void resourceSetChanged(ResourceSetChangeEvent event) {
+        for (Notification notification : event.getNotifications()) {
+          changed(notification);
+        }
+      }
+
+      @Override
+      public boolean isPostcommitOnly() {
+        return true;
+      }
+    };
+    domain.addResourceSetListener(postCommitListener);
+  }
+
+  private void dispose() {
+    if (domain instanceof SemanticEditingDomain) {
+      DataNotifier notifier = ((SemanticEditingDomain) domain).getDataNotifier();
+      if (notifier != null) {
+        notifier.remove(changeAdapter);
+      }
+    }
+    if (postCommitListener != null) {
+      domain.removeResourceSetListener(postCommitListener);
+    }
+    reset();
+  }
+
+  /**
+   * Forgets all results.
+   */
+  public void reset() {
+    states.clear();
+  }
+
+  /**
+   * Records a model change.
+   */
+  protected void changed(Notification notification) {
+    if (notification.isTouch()) {
+      return;
+    }
+    Object notifier = notification.getNotifier();
+    if (notifier instanceof Resource) {
+      int featureId = notification.getFeatureID(Resource.class);
+      if (featureId == Resource.RESOURCE__CONTENTS || featureId == Resource.RESOURCE__IS_LOADED) {
+        reset();
+      }
+      return;
+    }
+    if (!(notifier instanceof EObject) || !(notification.getFeature() instanceof EStructuralFeature)) {
+      return;
+    }
+    EObject object = (EObject) notifier;
+    EStructuralFeature feature = (EStructuralFeature) notification.getFeature();
+    Long change = Long.valueOf(generation.incrementAndGet());
+    lastChange = change.longValue();
+    featureChanges.put(feature, change);
+    classChanges.put(object.eClass(), change);
+    ElementState state = states.get(object);
+    if (state != null) {
+      state.changed(feature, change.longValue());
+    }
+    if (feature instanceof EReference) {
+      EReference reference = (EReference) feature;
+      if (reference.getEOpposite() != null) {
+        featureChanges.put(reference.getEOpposite(), change);
+      }
+      if (reference.isContainment()) {
+        // Added, removed or moved elements are validated again by all rules.
+        forget(notification.getOldValue(), change);
+        forget(notification.getNewValue(), change);
+      }
+    }
+  }
+
+  private void forget(Object value, Long change) {
+    if (value instanceof Collection<?>) {
+      for (Object object : (Collection<?>) value) {
+        forget(object, change);
+      }
+    } else if (value instanceof EObject) {
+      EObject root = (EObject) value;
+      classChanges.put(root.eClass(), change);
+      states.remove(root);
+      for (TreeIterator<EObject> it = root.eAllContents(); it.hasNext();) {
+        EObject object = it.next();
+        classChanges.put(object.eClass(), change);
+        states.remove(object);
+      }
+    }
+  }
+
+  /**
+   * Starts a validation with the given validator.<br>
+   * The returned run must be added as the last constraint filter of the validator, so that the other filters are
+   * consulted first, and must complete each validation of the validator (see {@link IncrementalValidationRun}).
+   */
+  public IncrementalValidationRun startRun(IBatchValidator validator) {
+    synchronized (this) {
+      List<IConstraintFilter> currentFilters = new ArrayList<>(validator.getConstraintFilters());
+      if (!currentFilters.equals(filters)) {
+        reset();
+        filters = currentFilters;
+      }
+      updateEnabledConstraints();
+    }
+    return new IncrementalValidationRun(this, generation.get());
+  }
+
+  /**
+   * Records the generation since which each constraint is enabled, so that newly enabled rules are evaluated on
+   * elements validated before.
+   */
+  private void updateEnabledConstraints() {
+    Set<String> enabled = new HashSet<>();
+    for (IConstraintDescriptor descriptor : ConstraintRegistry.getInstance().getAllDescriptors()) {
+      if (descriptor.isEnabled() && !descriptor.isError() && descriptor.getEvaluationMode() != EvaluationMode.NULL) {
+        enabled.add(descriptor.getId());
+      }
+    }
+    enabledConstraints.keySet().retainAll(enabled);
+    for (String id : enabled) {
+      enabledConstraints.computeIfAbsent(id, key -> Long.valueOf(generation.incrementAndGet()));
+    }
+  }
+
+  ElementState getState(EObject object) {
+    return states.computeIfAbsent(object, key -> new ElementState());
+  }
+
+  /**
+   * @return whether the last failures of the given constraint on the given element are still valid.
+   */
+  boolean isUpToDate(IConstraintDescriptor constraint, ElementState state) {
+    long validated = state.validated;
+    if (validated == NEVER) {
+      return false;
+    }
+    Long enabled = enabledConstraints.get(constraint.getId());
+    if (enabled == null || enabled.longValue() > validated) {
+      return false;
+    }
+    ValidationRuleFootprint footprint = ValidationRuleFootprint.getFootprint(constraint);
+    if (footprint == null) {
+      return lastChange <= validated;
+    }
+    if (hasChanged(footprint.getClasses(), validated)) {
+      return false;
+    }
+    if (footprint.isTargetOnly()) {
+      return !state.hasChanged(footprint.getFeatures(), validated);
+    }
+    for (EStructuralFeature feature : footprint.getFeatures()) {
+      Long change = featureChanges.get(feature);
+      if (change != null && change.longValue() > validated) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean hasChanged(Set<EClass> classes, long since) {
+    if (classes.isEmpty()) {
+      return false;
+    }
+    for (Map.Entry<EClass, Long> change : classChanges.entrySet()) {
+      if (change.getValue().longValue() > since) {
+        for (EClass eClass : classes) {
+          if (eClass.isSuperTypeOf(change.getKey())) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the number of elements with recorded results
+   */
+  public int size() {
+    return states.size();
+  }
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.validation.incremental;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.validation.model.IConstraintStatus;
+import org.eclipse.emf.validation.service.IConstraintDescriptor;
+import org.eclipse.emf.validation.service.IConstraintFilter;
+import org.polarsys.capella.core.validation.incremental.IncrementalValidation.ElementState;
+
+/**
+ * A validation using the results of previous validations.<br>
+ * As a constraint filter, the run skips the evaluation of rules whose last failures are still valid and collects these
+ * failures. {@link #complete(IStatus)} records the new failures and adds the collected ones to the validation
+ * result.<br>
+ * A run is not thread-safe: concurrent validations must use their own run and validator.
+ */
+public class IncrementalValidationRun implements IConstraintFilter {
+
+  private final IncrementalValidation validation;
+
+  private final long generation;
+
+  private final Set<ElementState> visited = new HashSet<>();
+
+  private final List<IStatus> reused = new ArrayList<>();
+
+  IncrementalValidationRun(IncrementalValidation validation, long generation) {
+    this.validation = validation;
+    this.generation = generation;
+  }
+
+  /**
+   * @see org.eclipse.emf.validation.service.IConstraintFilter#accept(org.eclipse.emf.validation.service.IConstraintDescriptor,
+   *      org.eclipse.emf.ecore.EObject)
+   */
+  @Override
+  public boolean accept(IConstraintDescriptor constraint, EObject target) {
+    ElementState state = validation.getState(target);
+    visited.add(state);
+    if (validation.isUpToDate(constraint, state)) {
+      reused.addAll(state.failures.getOrDefault(constraint.getId(), Collections.emptyList()));
+      return false;
+    }
+    state.failures.remove(constraint.getId());
+    return true;
+  }
+
+  /**
+   * Records the failures found by the validation, and marks the visited elements as validated.
+   *
+   * @param status
+   *          the result of the validation
+   * @return the result of the validation completed with the failures of skipped evaluations
+   */
+  public IStatus complete(IStatus status) {
+    record(status);
+    for (ElementState state : visited) {
+      state.validated(generation);
+    }
+    visited.clear();
+    if (reused.isEmpty()) {
+      return status;
+    }
+    List<IStatus> children = new ArrayList<>();
+    if (status.isMultiStatus()) {
+      Collections.addAll(children, status.getChildren());
+    } else if (!status.isOK()) {
+      children.add(status);
+    }
+    children.addAll(reused);
+    reused.clear();
+    return new MultiStatus(status.getPlugin(), status.getCode(), children.toArray(new IStatus[0]), status.getMessage(),
+        null);
+  }
+
+  private void record(IStatus status) {
+    if (status.isMultiStatus()) {
+      for (IStatus child : status.getChildren()) {
+        record(child);
+      }
+    } else if (status instanceof IConstraintStatus && !status.isOK()) {
+      IConstraintStatus failure = (IConstraintStatus) status;
+      String constraintId = failure.getConstraint().getDescriptor().getId();
+      validation.getState(failure.getTarget()).failures.computeIfAbsent(constraintId, id -> new ArrayList<>())
+          .add(failure);
+    }
+  }
+}
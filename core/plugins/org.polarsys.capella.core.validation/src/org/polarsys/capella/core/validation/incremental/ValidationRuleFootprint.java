@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.core.validation.incremental;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.ILog;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.validation.service.IConstraintDescriptor;
+import org.eclipse.emf.validation.service.IParameterizedConstraintDescriptor;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * The model elements read by a validation rule, as declared by the parameters of its constraint:
+ *
+ * <pre>
+ * &lt;param name="dependencies" value="CapellaElement.summary AbstractNamedElement.name"/&gt;
+ * &lt;param name="dependencyScope" value="target"/&gt;
+ * </pre>
+ *
+ * Dependencies are separated by spaces or commas. Each dependency is either a feature (<code>Class.feature</code>) or
+ * a class (<code>Class</code>, for rules reading instances of this class anywhere in the model). Classes are looked up
+ * by name in the loaded packages, a name defined by several packages standing for all of these classes.<br>
+ * The <code>target</code> scope means that the declared features are only read on the validated element itself, so that
+ * the rule is only impacted by changes of this element. Otherwise (<code>model</code> scope, the default), the features
+ * may be read on any element.<br>
+ * Constraints without declared dependencies, or with a dependency that cannot be resolved, have no footprint: they are
+ * impacted by any change.
+ */
+public class ValidationRuleFootprint {
+
+  /**
+   * Constraint parameter declaring the dependencies.
+   */
+  public static final String DEPENDENCIES_PARAM = "dependencies"; //$NON-NLS-1$
+
+  /**
+   * Constraint parameter declaring the scope of the dependencies.
+   */
+  public static final String DEPENDENCY_SCOPE_PARAM = "dependencyScope"; //$NON-NLS-1$
+
+  /**
+   * Value of {@link #DEPENDENCY_SCOPE_PARAM} for rules reading features of their target only.
+   */
+  public static final String TARGET_SCOPE = "target"; //$NON-NLS-1$
+
+  private static final String SEPARATORS = "[\\s,]+"; //$NON-NLS-1$
+
+  private static final Map<String, Optional<ValidationRuleFootprint>> footprints = new ConcurrentHashMap<>();
+
+  private final Set<EStructuralFeature> features;
+
+  private final Set<EClass> classes;
+
+  private final boolean targetOnly;
+
+  ValidationRuleFootprint(Set<EStructuralFeature> features, Set<EClass> classes, boolean targetOnly) {
+    this.features = Collections.unmodifiableSet(features);
+    this.classes = Collections.unmodifiableSet(classes);
+    this.targetOnly = targetOnly;
+  }
+
+  /**
+   * @return the footprint declared by the given constraint, <code>null</code> if none.
+   */
+  public static ValidationRuleFootprint getFootprint(IConstraintDescriptor constraint) {
+    return footprints.computeIfAbsent(constraint.getId(), id -> Optional.ofNullable(parse(constraint))).orElse(null);
+  }
+
+  private static ValidationRuleFootprint parse(IConstraintDescriptor constraint) {
+    if (!(constraint instanceof IParameterizedConstraintDescriptor)) {
+      return null;
+    }
+    IParameterizedConstraintDescriptor descriptor = (IParameterizedConstraintDescriptor) constraint;
+    String dependencies = descriptor.getParameterValue(DEPENDENCIES_PARAM);
+    if (dependencies == null || dependencies.trim().isEmpty()) {
+      return null;
+    }
+    Set<EStructuralFeature> features = new HashSet<>();
+    Set<EClass> classes = new HashSet<>();
+    for (String dependency : dependencies.trim().split(SEPARATORS)) {
+      int dot = dependency.indexOf('.');
+      List<EClass> eClasses = findClasses(dot < 0 ? dependency : dependency.substring(0, dot));
+      List<EStructuralFeature> dependencyFeatures = new ArrayList<>();
+      if (dot >= 0) {
+        for (EClass eClass : eClasses) {
+          EStructuralFeature feature = eClass.getEStructuralFeature(dependency.substring(dot + 1));
+          if (feature != null) {
+            dependencyFeatures.add(feature);
+          }
+        }
+      }
+      if (eClasses.isEmpty() || (dot >= 0 && dependencyFeatures.isEmpty())) {
+        ILog log = Platform.getLog(FrameworkUtil.getBundle(ValidationRuleFootprint.class));
+        log.log(new Status(IStatus.WARNING, log.getBundle().getSymbolicName(),
+            "Unknown dependency " + dependency + " of constraint " + constraint.getId())); //$NON-NLS-1$ //$NON-NLS-2$
+        return null;
+      }
+      if (dot >= 0) {
+        features.addAll(dependencyFeatures);
+      } else {
+        classes.addAll(eClasses);
+      }
+    }
+    return new ValidationRuleFootprint(features, classes,
+        TARGET_SCOPE.equals(descriptor.getParameterValue(DEPENDENCY_SCOPE_PARAM)));
+  }
+
+  /**
+   * @return the classes with the given name in the loaded packages. Several packages may define a class with the same
+   *         name: all of them are returned, so that the footprint is never narrower than the declared one.
+   */
+  private static List<EClass> findClasses(String name) {
+    List<Object> packages;
+    synchronized (EPackage.Registry.INSTANCE) {
+      packages = new ArrayList<>(EPackage.Registry.INSTANCE.values());
+    }
+    List<EClass> result = new ArrayList<>();
+    for (Object ePackage : packages) {
+      // Package descriptors are not resolved: a rule cannot depend on a package that is not loaded yet.
+      if (ePackage instanceof EPackage) {
+        EClassifier classifier = ((EPackage) ePackage).getEClassifier(name);
+        if (classifier instanceof EClass && !result.contains(classifier)) {
+          result.add((EClass) classifier);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the features read by the rule
+   */
+  public Set<EStructuralFeature> getFeatures() {
+    return features;
+  }
+
+  /**
+   * @return the classes whose instances are read by the rule
+   */
+  public Set<EClass> getClasses() {
+    return classes;
+  }
+
+  /**
+   * @return whether the features are only read on the validated element
+   */
+  public boolean isTargetOnly() {
+    return targetOnly;
+  }
+}
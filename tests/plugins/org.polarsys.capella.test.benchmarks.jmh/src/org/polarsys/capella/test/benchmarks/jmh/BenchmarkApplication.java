@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.benchmarks.jmh;
+
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this plug-in in a headless platform.<br>
+ * Arguments are the ones of the JMH command line, e.g. <code>-application
+ * org.polarsys.capella.test.benchmarks.jmh.application QueryBenchmark -p size=100000 -rf json -rff result.json</code>.
+ * <br>
+ * Benchmarks run in the platform process, as they need the Capella plug-ins: forks are disabled. Results are written
+ * as JSON to {@link #DEFAULT_RESULT} if no result file is given.
+ */
+public class BenchmarkApplication implements IApplication {
+
+  public static final String DEFAULT_RESULT = "jmh-result.json"; //$NON-NLS-1$
+
+  @Override
+  public Object start(IApplicationContext context) throws Exception {
+    String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+    CommandLineOptions options = new CommandLineOptions(args == null ? new String[0] : args);
+    if (options.shouldHelp()) {
+      options.showHelp();
+      return IApplication.EXIT_OK;
+    }
+
+    ChainedOptionsBuilder builder = new OptionsBuilder().parent(options).forks(0);
+    if (!options.getResult().hasValue()) {
+      builder.result(DEFAULT_RESULT);
+    }
+    if (!options.getResultFormat().hasValue()) {
+      builder.resultFormat(ResultFormatType.JSON);
+    }
+
+    Runner runner = new Runner(builder.build());
+    if (options.shouldList()) {
+      runner.list();
+    } else {
+      runner.run();
+    }
+    return IApplication.EXIT_OK;
+  }
+
+  @Override
+  public void stop() {
+    // Benchmarks are not interrupted
+  }
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.benchmarks.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.common.ef.ExecutionManagerRegistry;
+import org.polarsys.capella.core.data.capellamodeller.Project;
+import org.polarsys.capella.test.benchmarks.jmh.model.SyntheticModelGenerator;
+
+/**
+ * A generated model shared by the iterations of a benchmark.<br>
+ * The model is generated and saved once per trial, then loaded in its own editing domain.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkModel {
+
+  /**
+   * Approximate number of generated elements.
+   */
+  @Param({ "10000", "100000" })
+  public int size;
+
+  /**
+   * Seed of the generated model.
+   */
+  @Param({ "1" })
+  public long seed;
+
+  private File directory;
+
+  private URI uri;
+
+  private ExecutionManager manager;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("capella-benchmark").toFile(); //$NON-NLS-1$
+    uri = URI.createFileURI(new File(directory, "model.capella").getAbsolutePath()); //$NON-NLS-1$
+    ExecutionManager generation = ExecutionManagerRegistry.getInstance().addNewManager();
+    try {
+      new SyntheticModelGenerator(seed, size).generate(generation, uri);
+      save(generation);
+    } finally {
+      dispose(generation);
+    }
+    manager = load();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    dispose(manager);
+    try (Stream<Path> paths = Files.walk(directory.toPath())) {
+      // Children first
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  /**
+   * @return the manager of the loaded model
+   */
+  public ExecutionManager getManager() {
+    return manager;
+  }
+
+  /**
+   * @return the project of the loaded model
+   */
+  public Project getProject() {
+    return getProject(manager);
+  }
+
+  /**
+   * @param eClass
+   * @param count
+   * @return at most the given count of elements of the given class in the loaded model, picked from the seed
+   */
+  public <T extends EObject> List<T> sample(EClass eClass, int count) {
+    return sample(getProject(), eClass, count);
+  }
+
+  /**
+   * @param root
+   * @param eClass
+   * @param count
+   * @return at most the given count of elements of the given class contained by the given root, picked from the seed
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends EObject> List<T> sample(EObject root, EClass eClass, int count) {
+    List<T> result = new ArrayList<>();
+    for (Iterator<EObject> iterator = root.eAllContents(); iterator.hasNext();) {
+      EObject object = iterator.next();
+      if (eClass.isInstance(object)) {
+        result.add((T) object);
+      }
+    }
+    Collections.shuffle(result, new Random(seed));
+    return result.size() > count ? new ArrayList<>(result.subList(0, count)) : result;
+  }
+
+  /**
+   * @return the uri of the saved model
+   */
+  public URI getURI() {
+    return uri;
+  }
+
+  /**
+   * Loads the saved model and its fragments in a new editing domain.
+   *
+   * @return the manager of the loaded model, to be disposed
+   */
+  public ExecutionManager load() {
+    ExecutionManager result = ExecutionManagerRegistry.getInstance().addNewManager();
+    ResourceSet resourceSet = result.getEditingDomain().getResourceSet();
+    resourceSet.getResource(uri, true);
+    EcoreUtil.resolveAll(resourceSet);
+    return result;
+  }
+
+  /**
+   * @param manager
+   * @return the project of the model loaded by the given manager
+   */
+  public Project getProject(ExecutionManager manager) {
+    Resource resource = manager.getEditingDomain().getResourceSet().getResource(uri, false);
+    return (Project) resource.getContents().get(0);
+  }
+
+  /**
+   * Saves all the resources of the given manager.
+   *
+   * @param manager
+   */
+  public static void save(ExecutionManager manager) throws IOException {
+    for (Resource resource : new ArrayList<>(manager.getEditingDomain().getResourceSet().getResources())) {
+      resource.save(Collections.emptyMap());
+    }
+  }
+
+  /**
+   * Unloads the resources of the given manager and disposes its editing domain.
+   *
+   * @param manager
+   */
+  public static void dispose(ExecutionManager manager) {
+    if (manager != null) {
+      for (Resource resource : new ArrayList<>(manager.getEditingDomain().getResourceSet().getResources())) {
+        resource.unload();
+      }
+      ExecutionManagerRegistry.getInstance().removeManager(manager);
+      manager.getEditingDomain().dispose();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.benchmarks.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.ECrossReferenceAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.polarsys.capella.common.data.modellingcore.ModellingcorePackage;
+import org.polarsys.capella.common.helpers.EObjectExt;
+import org.polarsys.capella.core.data.fa.AbstractFunction;
+import org.polarsys.capella.core.data.fa.FaPackage;
+
+/**
+ * Reads the inverse references of functions, through the cross referencer of the semantic editing domain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CrossReferencerBenchmark {
+
+  private static final int SAMPLE_SIZE = 1000;
+
+  private List<AbstractFunction> functions;
+
+  private ECrossReferenceAdapter crossReferencer;
+
+  @Setup(Level.Trial)
+  public void setUp(BenchmarkModel model) {
+    functions = model.sample(FaPackage.Literals.ABSTRACT_FUNCTION, SAMPLE_SIZE);
+    crossReferencer = ECrossReferenceAdapter.getCrossReferenceAdapter(model.getProject());
+  }
+
+  @Benchmark
+  public void inverseReferences(Blackhole blackhole) {
+    for (AbstractFunction function : functions) {
+      blackhole.consume(crossReferencer.getInverseReferences(function, true));
+    }
+  }
+
+  @Benchmark
+  public void referencers(Blackhole blackhole) {
+    for (AbstractFunction function : functions) {
+      List<EObject> allocations = EObjectExt.getReferencers(function,
+          FaPackage.Literals.COMPONENT_FUNCTIONAL_ALLOCATION, ModellingcorePackage.Literals.ABSTRACT_TRACE__TARGET_ELEMENT);
+      blackhole.consume(allocations);
+    }
+  }
+}
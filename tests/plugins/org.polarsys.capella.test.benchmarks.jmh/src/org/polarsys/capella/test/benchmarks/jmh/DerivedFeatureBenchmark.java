@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.benchmarks.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.polarsys.capella.common.data.modellingcore.ModellingcorePackage;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
+import org.polarsys.capella.common.model.helpers.IModelConstants;
+
+/**
+ * Reads the derived features computed by helpers on a sample of model elements, with or without the model cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DerivedFeatureBenchmark {
+
+  private static final int SAMPLE_SIZE = 1000;
+
+  /**
+   * Whether derived values are memoized in the model cache of the editing domain.
+   */
+  @Param({ "false", "true" })
+  public boolean cache;
+
+  private List<EObject> elements;
+
+  private List<EStructuralFeature[]> features;
+
+  private BenchmarkModel model;
+
+  @Setup(Level.Trial)
+  public void setUp(BenchmarkModel model) {
+    this.model = model;
+    elements = model.sample(ModellingcorePackage.Literals.MODEL_ELEMENT, SAMPLE_SIZE);
+    features = new ArrayList<>(elements.size());
+    for (EObject element : elements) {
+      List<EStructuralFeature> derived = new ArrayList<>();
+      for (EStructuralFeature feature : element.eClass().getEAllStructuralFeatures()) {
+        if (feature.isDerived() && feature.getEAnnotation(IModelConstants.HELPER_ANNOTATION_SOURCE) != null) {
+          derived.add(feature);
+        }
+      }
+      features.add(derived.toArray(new EStructuralFeature[derived.size()]));
+    }
+    if (cache) {
+      ModelCache.enable(model.getManager().getEditingDomain());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (cache) {
+      ModelCache.disable(model.getManager().getEditingDomain());
+    }
+  }
+
+  @Benchmark
+  public void derivedFeatures(Blackhole blackhole) {
+    for (int i = 0; i < elements.size(); i++) {
+      EObject element = elements.get(i);
+      for (EStructuralFeature feature : features.get(i)) {
+        blackhole.consume(element.eGet(feature));
+      }
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.benchmarks.jmh;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.diffmerge.diffdata.impl.EComparisonImpl;
+import org.eclipse.emf.diffmerge.impl.scopes.RootedModelScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.core.compare.CapellaDiffPolicy;
+import org.polarsys.capella.core.compare.CapellaMatchPolicy;
+import org.polarsys.capella.core.compare.CapellaMergePolicy;
+import org.polarsys.capella.core.data.capellacore.CapellacorePackage;
+import org.polarsys.capella.core.data.capellacore.NamedElement;
+
+/**
+ * Compares the generated model with a copy in which some elements are renamed.<br>
+ * Each invocation works on a freshly loaded copy.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class DiffMergeBenchmark {
+
+  private static final int RENAMED_ELEMENTS = 100;
+
+  private BenchmarkModel model;
+
+  private ExecutionManager manager;
+
+  @Setup(Level.Invocation)
+  public void setUp(BenchmarkModel model) {
+    this.model = model;
+    manager = model.load();
+    List<NamedElement> elements = model.sample(model.getProject(manager),
+        CapellacorePackage.Literals.NAMED_ELEMENT, RENAMED_ELEMENTS);
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        for (NamedElement element : elements) {
+          element.setName(element.getName() + " (renamed)"); //$NON-NLS-1$
+        }
+      }
+    });
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDown() {
+    BenchmarkModel.dispose(manager);
+  }
+
+  @Benchmark
+  public EComparisonImpl compare() {
+    RootedModelScope reference = new RootedModelScope(Collections.singletonList(model.getProject()));
+    RootedModelScope target = new RootedModelScope(Collections.singletonList(model.getProject(manager)));
+    EComparisonImpl comparison = new EComparisonImpl(target, reference);
+    comparison.compute(new CapellaMatchPolicy(), new CapellaDiffPolicy(), new CapellaMergePolicy(),
+        new NullProgressMonitor());
+    return comparison;
+  }
+}
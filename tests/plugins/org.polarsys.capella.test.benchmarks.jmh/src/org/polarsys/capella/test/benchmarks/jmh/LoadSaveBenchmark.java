@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.benchmarks.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.core.data.capellamodeller.Project;
+
+/**
+ * Loads and saves the generated model and its fragments.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoadSaveBenchmark {
+
+  @Benchmark
+  public Project load(BenchmarkModel model) {
+    ExecutionManager manager = model.load();
+    try {
+      return model.getProject(manager);
+    } finally {
+      BenchmarkModel.dispose(manager);
+    }
+  }
+
+  @Benchmark
+  public void save(BenchmarkModel model) throws IOException {
+    BenchmarkModel.save(model.getManager());
+  }
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.benchmarks.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
+import org.polarsys.capella.common.queries.interpretor.QueryInterpretor;
+import org.polarsys.capella.core.data.cs.BlockArchitecture;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.data.cs.CsPackage;
+import org.polarsys.capella.core.model.helpers.queries.QueryIdentifierConstants;
+
+/**
+ * Executes {@link QueryInterpretor} queries on a sample of components, with or without the model cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class QueryBenchmark {
+
+  private static final int SAMPLE_SIZE = 20;
+
+  /**
+   * Whether query results are cached in the model cache of the editing domain.
+   */
+  @Param({ "false", "true" })
+  public boolean cache;
+
+  private List<Component> components;
+
+  private List<BlockArchitecture> architectures;
+
+  private BenchmarkModel model;
+
+  @Setup(Level.Trial)
+  public void setUp(BenchmarkModel model) {
+    this.model = model;
+    components = model.sample(CsPackage.Literals.COMPONENT, SAMPLE_SIZE);
+    architectures = model.sample(CsPackage.Literals.BLOCK_ARCHITECTURE, SAMPLE_SIZE);
+    if (cache) {
+      ModelCache.enable(model.getManager().getEditingDomain());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (cache) {
+      ModelCache.disable(model.getManager().getEditingDomain());
+    }
+  }
+
+  @Benchmark
+  public void allComponents(Blackhole blackhole) {
+    for (Component component : components) {
+      blackhole.consume(QueryInterpretor.executeQuery(QueryIdentifierConstants.GET_ALL_COMPONENTS, component));
+    }
+  }
+
+  @Benchmark
+  public void brotherComponents(Blackhole blackhole) {
+    for (Component component : components) {
+      blackhole.consume(QueryInterpretor.executeQuery(QueryIdentifierConstants.GET_BROTHER_COMPONENTS, component));
+    }
+  }
+
+  @Benchmark
+  public void subDefinedComponents(Blackhole blackhole) {
+    for (BlockArchitecture architecture : architectures) {
+      blackhole
+          .consume(QueryInterpretor.executeQuery(QueryIdentifierConstants.GET_SUB_DEFINED_COMPONENTS, architecture));
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.benchmarks.jmh;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.core.data.ctx.SystemAnalysis;
+import org.polarsys.capella.core.model.helpers.BlockArchitectureExt;
+import org.polarsys.capella.core.model.skeleton.CapellaModelSkeleton;
+import org.polarsys.capella.core.transition.system.topdown.commands.TransitionCommandHelper;
+
+/**
+ * Transitions the system functions of the generated model to the logical architecture.<br>
+ * Each invocation works on a freshly loaded model.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class TransitionBenchmark {
+
+  private ExecutionManager manager;
+
+  private Collection<?> elements;
+
+  @Setup(Level.Invocation)
+  public void setUp(BenchmarkModel model) {
+    manager = model.load();
+    SystemAnalysis systemAnalysis = CapellaModelSkeleton.asSkeleton(model.getProject(manager)).getSystemAnalysis();
+    elements = Collections.singletonList(BlockArchitectureExt.getRootFunction(systemAnalysis));
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDown() {
+    BenchmarkModel.dispose(manager);
+  }
+
+  @Benchmark
+  public void functionalTransition() {
+    manager.execute(
+        TransitionCommandHelper.getInstance().getFunctionalTransitionCommand(elements, new NullProgressMonitor()));
+  }
+}
@@ -0,0 +1,409 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.benchmarks.jmh.model;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.core.data.capellacore.NamedElement;
+import org.polarsys.capella.core.data.cs.BlockArchitecture;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.data.cs.CsPackage;
+import org.polarsys.capella.core.data.ctx.CtxPackage;
+import org.polarsys.capella.core.data.fa.AbstractFunction;
+import org.polarsys.capella.core.data.fa.ComponentExchange;
+import org.polarsys.capella.core.data.fa.ComponentFunctionalAllocation;
+import org.polarsys.capella.core.data.fa.ComponentPort;
+import org.polarsys.capella.core.data.fa.FaFactory;
+import org.polarsys.capella.core.data.fa.FaPackage;
+import org.polarsys.capella.core.data.fa.FunctionInputPort;
+import org.polarsys.capella.core.data.fa.FunctionOutputPort;
+import org.polarsys.capella.core.data.fa.FunctionalChain;
+import org.polarsys.capella.core.data.fa.FunctionalChainInvolvementFunction;
+import org.polarsys.capella.core.data.fa.FunctionalChainInvolvementLink;
+import org.polarsys.capella.core.data.fa.FunctionalExchange;
+import org.polarsys.capella.core.data.la.LaPackage;
+import org.polarsys.capella.core.data.oa.OaPackage;
+import org.polarsys.capella.core.data.pa.PaPackage;
+import org.polarsys.capella.core.model.handler.command.CapellaResourceHelper;
+import org.polarsys.capella.core.model.helpers.BlockArchitectureExt;
+import org.polarsys.capella.core.model.skeleton.CapellaModelSkeleton;
+
+/**
+ * Generates Capella models of a given size, from a seed.<br>
+ * On top of a model skeleton, each architecture is filled with a tree of functions linked by functional exchanges,
+ * functional chains involving them, and a tree of components linked by component exchanges, to which functions are
+ * allocated. Top level functions are stored in fragments.<br>
+ * Two generations with the same seed and size produce the same structure, with different ids.
+ */
+public class SyntheticModelGenerator {
+
+  /**
+   * Share of the elements generated in each architecture, in percent: OA, SA, LA, PA.
+   */
+  private static final int[] ARCHITECTURE_SHARES = { 10, 20, 30, 40 };
+
+  /**
+   * Number of elements created by a single command.
+   */
+  private static final int BATCH_SIZE = 5000;
+
+  /**
+   * Number of functions created for a component.
+   */
+  private static final int FUNCTIONS_PER_COMPONENT = 4;
+
+  /**
+   * Number of functions created for a functional chain.
+   */
+  private static final int FUNCTIONS_PER_CHAIN = 25;
+
+  /**
+   * Maximal number of exchanges involved in a functional chain.
+   */
+  private static final int CHAIN_LENGTH = 6;
+
+  /**
+   * Number of top level functions stored in a fragment.
+   */
+  private static final int FUNCTIONS_PER_FRAGMENT = 20;
+
+  private final Random random;
+
+  private final int size;
+
+  private final List<Resource> fragments = new ArrayList<>();
+
+  private int count;
+
+  /**
+   * @param seed
+   *          the seed of the generated structure
+   * @param size
+   *          the approximate number of elements to generate
+   */
+  public SyntheticModelGenerator(long seed, int size) {
+    this.random = new Random(seed);
+    this.size = size;
+  }
+
+  /**
+   * Generates a model in the editing domain of the given manager.
+   *
+   * @param manager
+   * @param uri
+   *          the uri of the model resource, fragments are created next to it
+   * @return the skeleton of the generated model
+   */
+  public CapellaModelSkeleton generate(ExecutionManager manager, URI uri) {
+    CapellaModelSkeleton skeleton = new CapellaModelSkeleton.Builder(manager).setURI(uri)
+        .setName(uri.trimFileExtension().lastSegment()).build();
+    BlockArchitecture[] architectures = { skeleton.getOperationalAnalysis(), skeleton.getSystemAnalysis(),
+        skeleton.getLogicalArchitecture(), skeleton.getPhysicalArchitecture() };
+    for (int i = 0; i < architectures.length; i++) {
+      Layer layer = new Layer(architectures[i]);
+      manager.execute(new AbstractReadWriteCommand() {
+        @Override
+        public void run() {
+          layer.initialize();
+        }
+      });
+      int total = size * ARCHITECTURE_SHARES[i] / 100;
+      int limit = 0;
+      while (layer.count < total) {
+        limit = Math.min(total, limit + BATCH_SIZE);
+        int batchLimit = limit;
+        manager.execute(new AbstractReadWriteCommand() {
+          @Override
+          public void run() {
+            while (layer.count < batchLimit) {
+              layer.generateUnit(uri);
+            }
+          }
+        });
+        // Generation is not undone, do not keep the commands.
+        manager.getEditingDomain().getCommandStack().flush();
+      }
+      count += layer.count;
+    }
+    return skeleton;
+  }
+
+  /**
+   * @return the number of generated elements
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * @return the generated fragments
+   */
+  public List<Resource> getFragments() {
+    return fragments;
+  }
+
+  /**
+   * The generation of the elements of an architecture.
+   */
+  private class Layer {
+
+    private final BlockArchitecture architecture;
+
+    private final boolean operational;
+
+    private final EClass functionClass;
+
+    private final EClass componentClass;
+
+    private final EClass chainClass;
+
+    private final EReference componentsFeature;
+
+    private final EReference subComponentsFeature;
+
+    private final List<AbstractFunction> functions = new ArrayList<>();
+
+    /**
+     * The exchange generated toward each function, if any.
+     */
+    private final Map<AbstractFunction, FunctionalExchange> incomingExchanges = new IdentityHashMap<>();
+
+    private final List<Component> components = new ArrayList<>();
+
+    private AbstractFunction rootFunction;
+
+    private EObject componentPkg;
+
+    private Resource fragment;
+
+    private int topLevelFunctions;
+
+    private int count;
+
+    Layer(BlockArchitecture architecture) {
+      this.architecture = architecture;
+      EClass eClass = architecture.eClass();
+      operational = eClass == OaPackage.Literals.OPERATIONAL_ANALYSIS;
+      if (operational) {
+        functionClass = OaPackage.Literals.OPERATIONAL_ACTIVITY;
+        componentClass = OaPackage.Literals.ENTITY;
+        chainClass = OaPackage.Literals.OPERATIONAL_PROCESS;
+        componentsFeature = OaPackage.Literals.ENTITY_PKG__OWNED_ENTITIES;
+        subComponentsFeature = OaPackage.Literals.ENTITY__OWNED_ENTITIES;
+      } else if (eClass == CtxPackage.Literals.SYSTEM_ANALYSIS) {
+        functionClass = CtxPackage.Literals.SYSTEM_FUNCTION;
+        componentClass = CtxPackage.Literals.SYSTEM_COMPONENT;
+        chainClass = FaPackage.Literals.FUNCTIONAL_CHAIN;
+        componentsFeature = CtxPackage.Literals.SYSTEM_COMPONENT_PKG__OWNED_SYSTEM_COMPONENTS;
+        subComponentsFeature = CtxPackage.Literals.SYSTEM_COMPONENT__OWNED_SYSTEM_COMPONENTS;
+      } else if (eClass == LaPackage.Literals.LOGICAL_ARCHITECTURE) {
+        functionClass = LaPackage.Literals.LOGICAL_FUNCTION;
+        componentClass = LaPackage.Literals.LOGICAL_COMPONENT;
+        chainClass = FaPackage.Literals.FUNCTIONAL_CHAIN;
+        componentsFeature = LaPackage.Literals.LOGICAL_COMPONENT_PKG__OWNED_LOGICAL_COMPONENTS;
+        subComponentsFeature = LaPackage.Literals.LOGICAL_COMPONENT__OWNED_LOGICAL_COMPONENTS;
+      } else {
+        functionClass = PaPackage.Literals.PHYSICAL_FUNCTION;
+        componentClass = PaPackage.Literals.PHYSICAL_COMPONENT;
+        chainClass = FaPackage.Literals.FUNCTIONAL_CHAIN;
+        componentsFeature = PaPackage.Literals.PHYSICAL_COMPONENT_PKG__OWNED_PHYSICAL_COMPONENTS;
+        subComponentsFeature = PaPackage.Literals.PHYSICAL_COMPONENT__OWNED_PHYSICAL_COMPONENTS;
+      }
+    }
+
+    void initialize() {
+      rootFunction = BlockArchitectureExt.getRootFunction(architecture, true);
+      componentPkg = BlockArchitectureExt.getComponentPkg(architecture, true);
+    }
+
+    /**
+     * Generates a function and its exchange, and from time to time a component and a functional chain.
+     */
+    void generateUnit(URI uri) {
+      if (functions.size() % FUNCTIONS_PER_COMPONENT == 0) {
+        generateComponent();
+      }
+      AbstractFunction function = generateFunction(uri);
+      generateExchange(function);
+      generateAllocation(function);
+      if (functions.size() % FUNCTIONS_PER_CHAIN == 0) {
+        generateChain();
+      }
+    }
+
+    private AbstractFunction generateFunction(URI uri) {
+      AbstractFunction function = create(functionClass, "Function"); //$NON-NLS-1$
+      // Functions are added to a random function, functions added to the root function are top level ones.
+      int parentIndex = functions.isEmpty() ? -1 : random.nextInt(functions.size() + 1) - 1;
+      if (parentIndex < 0) {
+        rootFunction.getOwnedFunctions().add(function);
+        addToFragment(function, uri);
+      } else {
+        functions.get(parentIndex).getOwnedFunctions().add(function);
+      }
+      functions.add(function);
+      if (!operational) {
+        FunctionInputPort input = FaFactory.eINSTANCE.createFunctionInputPort();
+        input.setName(function.getName() + " input"); //$NON-NLS-1$
+        FunctionOutputPort output = FaFactory.eINSTANCE.createFunctionOutputPort();
+        output.setName(function.getName() + " output"); //$NON-NLS-1$
+        function.getInputs().add(input);
+        function.getOutputs().add(output);
+        count += 2;
+      }
+      return function;
+    }
+
+    /**
+     * Adds a top level function to the current fragment, a new fragment being created when it is full.
+     */
+    private void addToFragment(AbstractFunction function, URI uri) {
+      if (fragment == null || topLevelFunctions % FUNCTIONS_PER_FRAGMENT == 0) {
+        URI fragmentURI = uri.trimSegments(1).appendSegment("fragments") //$NON-NLS-1$
+            .appendSegment(uri.trimFileExtension().lastSegment() + "_" + fragments.size()) //$NON-NLS-1$
+            .appendFileExtension(CapellaResourceHelper.CAPELLA_FRAGMENT_FILE_EXTENSION);
+        fragment = architecture.eResource().getResourceSet().createResource(fragmentURI);
+        fragments.add(fragment);
+      }
+      fragment.getContents().add(function);
+      topLevelFunctions++;
+    }
+
+    /**
+     * Generates an exchange from a random previous function to the given one.
+     */
+    private void generateExchange(AbstractFunction function) {
+      FunctionalExchange exchange = null;
+      if (functions.size() > 1) {
+        AbstractFunction source = functions.get(random.nextInt(functions.size() - 1));
+        exchange = FaFactory.eINSTANCE.createFunctionalExchange();
+        exchange.setName(source.getName() + " to " + function.getName()); //$NON-NLS-1$
+        if (operational) {
+          exchange.setSource(source);
+          exchange.setTarget(function);
+        } else {
+          exchange.setSource((FunctionOutputPort) source.getOutputs().get(0));
+          exchange.setTarget((FunctionInputPort) function.getInputs().get(0));
+        }
+        rootFunction.getOwnedFunctionalExchanges().add(exchange);
+        count++;
+      }
+      incomingExchanges.put(function, exchange);
+    }
+
+    private void generateComponent() {
+      Component component = create(componentClass, "Component"); //$NON-NLS-1$
+      // Components are added to a random component, or to the component package.
+      int parentIndex = components.isEmpty() ? -1 : random.nextInt(components.size() + 1) - 1;
+      if (parentIndex < 0) {
+        add(componentPkg, componentsFeature, component);
+      } else {
+        add(components.get(parentIndex), subComponentsFeature, component);
+      }
+      if (!operational) {
+        ComponentPort port = FaFactory.eINSTANCE.createComponentPort();
+        port.setName(component.getName() + " port"); //$NON-NLS-1$
+        component.getOwnedFeatures().add(port);
+        count++;
+        if (!components.isEmpty()) {
+          Component source = components.get(random.nextInt(components.size()));
+          ComponentExchange exchange = FaFactory.eINSTANCE.createComponentExchange();
+          exchange.setName(source.getName() + " to " + component.getName()); //$NON-NLS-1$
+          exchange.setSource(getPort(source));
+          exchange.setTarget(port);
+          add(componentPkg, CsPackage.Literals.COMPONENT_PKG__OWNED_COMPONENT_EXCHANGES, exchange);
+          count++;
+        }
+      }
+      components.add(component);
+    }
+
+    private ComponentPort getPort(Component component) {
+      for (EObject feature : component.getOwnedFeatures()) {
+        if (feature instanceof ComponentPort) {
+          return (ComponentPort) feature;
+        }
+      }
+      return null;
+    }
+
+    private void generateAllocation(AbstractFunction function) {
+      Component component = components.get(random.nextInt(components.size()));
+      ComponentFunctionalAllocation allocation = FaFactory.eINSTANCE.createComponentFunctionalAllocation();
+      allocation.setSourceElement(component);
+      allocation.setTargetElement(function);
+      component.getOwnedFunctionalAllocation().add(allocation);
+      count++;
+    }
+
+    /**
+     * Generates a chain following the incoming exchanges of a random function, backwards.
+     */
+    private void generateChain() {
+      AbstractFunction function = functions.get(random.nextInt(functions.size()));
+      FunctionalExchange exchange = incomingExchanges.get(function);
+      if (exchange == null) {
+        return;
+      }
+      FunctionalChain chain = create(chainClass, "Chain"); //$NON-NLS-1$
+      rootFunction.getOwnedFunctionalChains().add(chain);
+      FunctionalChainInvolvementFunction target = involve(chain, function);
+      for (int i = 0; i < CHAIN_LENGTH && exchange != null; i++) {
+        AbstractFunction sourceFunction = (AbstractFunction) (operational ? exchange.getSource()
+            : exchange.getSource().eContainer());
+        FunctionalChainInvolvementFunction source = involve(chain, sourceFunction);
+        FunctionalChainInvolvementLink link = FaFactory.eINSTANCE.createFunctionalChainInvolvementLink();
+        link.setInvolved(exchange);
+        link.setSource(source);
+        link.setTarget(target);
+        chain.getOwnedFunctionalChainInvolvements().add(link);
+        count++;
+        target = source;
+        exchange = incomingExchanges.get(sourceFunction);
+      }
+    }
+
+    private FunctionalChainInvolvementFunction involve(FunctionalChain chain, AbstractFunction function) {
+      FunctionalChainInvolvementFunction involvement = FaFactory.eINSTANCE.createFunctionalChainInvolvementFunction();
+      involvement.setInvolved(function);
+      chain.getOwnedFunctionalChainInvolvements().add(involvement);
+      count++;
+      return involvement;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends NamedElement> T create(EClass eClass, String prefix) {
+      T element = (T) EcoreUtil.create(eClass);
+      element.setName(prefix + " " + architecture.getName() + " " + count); //$NON-NLS-1$ //$NON-NLS-2$
+      count++;
+      return element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(EObject container, EReference feature, EObject element) {
+      ((List<EObject>) container.eGet(feature)).add(element);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.business.queries.ju.interpretor;
+
+import org.polarsys.capella.common.queries.ICacheableQuery;
+
+/**
+ * A {@link CountingQuery} declared cacheable.
+ */
+public class CacheableCountingQuery extends CountingQuery implements ICacheableQuery {
+  // Only depends on the semantic model.
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.business.queries.ju.interpretor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.emf.ecore.EObject;
+import org.polarsys.capella.common.queries.AbstractQuery;
+import org.polarsys.capella.common.queries.queryContext.IQueryContext;
+
+/**
+ * Returns the contents of its input, counting its executions by query identifier.
+ */
+public class CountingQuery extends AbstractQuery {
+
+  private static final Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+  @Override
+  public List<Object> execute(Object input, IQueryContext context) {
+    executions.computeIfAbsent(getIdentifier(), identifier -> new AtomicInteger()).incrementAndGet();
+    List<Object> result = new ArrayList<Object>();
+    if (input instanceof EObject) {
+      result.addAll(((EObject) input).eContents());
+    }
+    return result;
+  }
+
+  public static int getExecutions(String queryIdentifier) {
+    AtomicInteger count = executions.get(queryIdentifier);
+    return count == null ? 0 : count.get();
+  }
+
+  public static void reset() {
+    executions.clear();
+  }
+}
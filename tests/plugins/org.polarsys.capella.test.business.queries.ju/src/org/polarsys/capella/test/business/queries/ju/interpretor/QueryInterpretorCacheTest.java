@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.business.queries.ju.interpretor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.polarsys.capella.common.ef.ExecutionManagerRegistry;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
+import org.polarsys.capella.common.queries.ICacheableQuery;
+import org.polarsys.capella.common.queries.interpretor.QueryInterpretor;
+import org.polarsys.capella.common.queries.queryContext.QueryContext;
+import org.polarsys.capella.core.data.capellamodeller.Project;
+import org.polarsys.capella.core.libraries.model.CapellaModel;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that the results of top-level executions of {@link ICacheableQuery cacheable} queries are reused while a
+ * {@link ModelCache} is enabled and until the semantic model changes, and that other queries are always executed.
+ */
+public class QueryInterpretorCacheTest extends BasicTestCase {
+
+  public static final String CACHEABLE = "QueryInterpretorCacheTest_Cacheable"; //$NON-NLS-1$
+
+  public static final String NOT_CACHEABLE = "QueryInterpretorCacheTest_NotCacheable"; //$NON-NLS-1$
+
+  public static final String EXTENDED = "QueryInterpretorCacheTest_Extended"; //$NON-NLS-1$
+
+  public static final String EXTENDING = "QueryInterpretorCacheTest_Extending"; //$NON-NLS-1$
+
+  public static final String CONCURRENT = "QueryInterpretorCacheTest_Concurrent"; //$NON-NLS-1$
+
+  private static final String MODEL_NAME = "sysmodel"; //$NON-NLS-1$
+
+  private static final String PARAMETER = "parameter"; //$NON-NLS-1$
+
+  private static final int THREADS = 8;
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(MODEL_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    CountingQuery.reset();
+    CapellaModel model = getTestModel(MODEL_NAME);
+    TransactionalEditingDomain domain = model.getEditingDomain();
+    Project project = model.getProject(domain);
+    List<Object> expected = new ArrayList<Object>(project.eContents());
+
+    // Without model cache, each call executes the query
+    assertEquals(expected, QueryInterpretor.executeQuery(CACHEABLE, project));
+    QueryInterpretor.executeQuery(CACHEABLE, project);
+    assertEquals(2, CountingQuery.getExecutions(CACHEABLE));
+
+    ModelCache.enable(domain);
+    try {
+      assertEquals(expected, QueryInterpretor.executeQuery(CACHEABLE, project));
+      assertEquals(expected, QueryInterpretor.executeQuery(CACHEABLE, project));
+      assertEquals(3, CountingQuery.getExecutions(CACHEABLE));
+
+      // The values of the context are part of the key
+      QueryContext context = new QueryContext();
+      context.putValue(PARAMETER, "value"); //$NON-NLS-1$
+      QueryInterpretor.executeQuery(CACHEABLE, project, context);
+      assertEquals(4, CountingQuery.getExecutions(CACHEABLE));
+
+      // Queries not declared cacheable, or extended by such queries, are always executed
+      QueryInterpretor.executeQuery(NOT_CACHEABLE, project);
+      QueryInterpretor.executeQuery(NOT_CACHEABLE, project);
+      assertEquals(2, CountingQuery.getExecutions(NOT_CACHEABLE));
+      assertEquals(expected, QueryInterpretor.executeQuery(EXTENDED, project));
+      QueryInterpretor.executeQuery(EXTENDED, project);
+      assertEquals(2, CountingQuery.getExecutions(EXTENDED));
+      assertEquals(2, CountingQuery.getExecutions(EXTENDING));
+    } finally {
+      ModelCache.disable(domain);
+    }
+
+    // Results survive between activations, until the semantic model changes
+    ModelCache.enable(domain);
+    try {
+      QueryInterpretor.executeQuery(CACHEABLE, project);
+      assertEquals(4, CountingQuery.getExecutions(CACHEABLE));
+    } finally {
+      ModelCache.disable(domain);
+    }
+    String name = project.getName();
+    rename(domain, project, name + "_renamed"); //$NON-NLS-1$
+    try {
+      ModelCache.enable(domain);
+      try {
+        QueryInterpretor.executeQuery(CACHEABLE, project);
+        assertEquals(5, CountingQuery.getExecutions(CACHEABLE));
+      } finally {
+        ModelCache.disable(domain);
+      }
+    } finally {
+      rename(domain, project, name);
+    }
+
+    testConcurrentFirstExecutions(project, expected);
+  }
+
+  /**
+   * The query definitions are resolved on first execution, possibly by several threads at once.
+   */
+  protected void testConcurrentFirstExecutions(EObject input, List<Object> expected) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<List<Object>>> results = new ArrayList<Future<List<Object>>>();
+      for (int i = 0; i < THREADS; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return QueryInterpretor.<Object> executeQuery(CONCURRENT, input);
+        }));
+      }
+      start.countDown();
+      for (Future<List<Object>> result : results) {
+        assertEquals(expected, result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(THREADS, CountingQuery.getExecutions(CONCURRENT));
+  }
+
+  private void rename(TransactionalEditingDomain domain, Project project, String name) {
+    ExecutionManagerRegistry.getInstance().getExecutionManager(domain).execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        project.setName(name);
+      }
+    });
+  }
+}
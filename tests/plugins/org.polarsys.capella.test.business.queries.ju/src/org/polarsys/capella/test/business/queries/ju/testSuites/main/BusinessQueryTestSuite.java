@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.polarsys.capella.test.business.queries.ju.interpretor.QueryInterpretorCacheTest;
 import org.polarsys.capella.test.business.queries.ju.testSuites.partial.CapellaCommonBusinessQueryTestSuite;
 import org.polarsys.capella.test.business.queries.ju.testSuites.partial.CapellaCoreBusinessQueryTestSuite;
 import org.polarsys.capella.test.business.queries.ju.testSuites.partial.CapellaModellerBusinessQueryTestSuite;
@@ -73,6 +74,7 @@ public class BusinessQueryTestSuite extends BasicTestSuite {
 		tests.add(new LaBusinessQueryTestSuite());
 		tests.add(new OaBusinessQueryTestSuite());
 		tests.add(new PaBusinessQueryTestSuite());
+		tests.add(new QueryInterpretorCacheTest());
 		return tests;
 	}
 }
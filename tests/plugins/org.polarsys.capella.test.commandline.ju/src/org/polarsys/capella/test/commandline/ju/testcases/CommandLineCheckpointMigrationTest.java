@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.commandline.ju.testcases;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.swt.widgets.Shell;
+import org.polarsys.capella.core.commandline.core.CommandLineConstants;
+import org.polarsys.capella.core.data.migration.cmdline.MigrationCommandLine;
+import org.polarsys.capella.test.commandline.ju.utils.MockApplicationContext;
+
+/**
+ * Interrupts a migration of several projects, then checks that the next migration with the same output folder only
+ * migrates the projects left.
+ */
+public class CommandLineCheckpointMigrationTest extends CommandLineMigrationTest {
+
+  private static final String OUTPUT_FOLDER = "migrationCheckpoint/output"; //$NON-NLS-1$
+
+  /**
+   * A migration command line recording the projects it migrates, and failing the migration of a given project.
+   */
+  private static class RecordingMigrationCommandLine extends MigrationCommandLine {
+
+    private final List<String> migratedProjects = new ArrayList<>();
+
+    private final String failingProject;
+
+    RecordingMigrationCommandLine(String failingProject) {
+      this.failingProject = failingProject;
+    }
+
+    @Override
+    protected boolean migrateProject(IProject project, Shell shell) {
+      migratedProjects.add(project.getName());
+      if (project.getName().equals(failingProject)) {
+        return false;
+      }
+      return super.migrateProject(project, shell);
+    }
+  }
+
+  @Override
+  public void test() throws Exception {
+    File superLibFolder = getFolderInTestModelRepository("sysmodelLibrary_Super");
+    File subLibFolder = getFolderInTestModelRepository("sysmodelLibrary_Sub");
+    File sysmodelFolder = getFolderInTestModelRepository("sysmodelProject");
+
+    // First migration, interrupted on the last project
+    String[] firstArguments = { CommandLineConstants.ID, "org.polarsys.capella.migration",
+        CommandLineConstants.IMPORT,
+        superLibFolder.getAbsolutePath() + "|" + subLibFolder.getAbsolutePath() + "|" + sysmodelFolder.getAbsolutePath(),
+        CommandLineConstants.INPUT, "sysmodelLibrary_Super | sysmodelLibrary_Sub | sysmodelProject",
+        CommandLineConstants.OUTPUTFOLDER, OUTPUT_FOLDER, CommandLineConstants.FORCEOUTPUTFOLDERCREATION };
+    RecordingMigrationCommandLine firstMigration = new RecordingMigrationCommandLine("sysmodelProject");
+    launchApplication(new MockApplicationContext(firstArguments), firstMigration);
+
+    assertEquals(Arrays.asList("sysmodelLibrary_Sub", "sysmodelLibrary_Super", "sysmodelProject"),
+        firstMigration.migratedProjects);
+    // The output folder exists once the command line is prepared
+    File checkpoint = ResourcesPlugin.getWorkspace().getRoot().getFolder(new Path(OUTPUT_FOLDER)).getLocation()
+        .append(MigrationCommandLine.CHECKPOINT_FILE_NAME).toFile();
+    // Projects are checkpointed only once their migration status is known to be OK
+    assertTrue("Checkpoint file shall exist after an interrupted migration", checkpoint.isFile());
+    assertEquals(Arrays.asList("sysmodelLibrary_Sub", "sysmodelLibrary_Super"),
+        Files.readAllLines(checkpoint.toPath(), StandardCharsets.UTF_8));
+
+    // Second migration, resumed from the checkpoint
+    String[] secondArguments = { CommandLineConstants.ID, "org.polarsys.capella.migration",
+        CommandLineConstants.INPUT, "sysmodelLibrary_Super | sysmodelLibrary_Sub | sysmodelProject",
+        CommandLineConstants.OUTPUTFOLDER, OUTPUT_FOLDER, CommandLineConstants.FORCEOUTPUTFOLDERCREATION };
+    RecordingMigrationCommandLine secondMigration = new RecordingMigrationCommandLine(null);
+    launchApplication(new MockApplicationContext(secondArguments), secondMigration);
+
+    assertEquals(Collections.singletonList("sysmodelProject"), secondMigration.migratedProjects);
+    assertFalse("Checkpoint file shall be deleted once all projects are migrated", checkpoint.exists());
+
+    openSession("sysmodelProject");
+    openSession("sysmodelLibrary_Sub");
+    openSession("sysmodelLibrary_Super");
+  }
+}
@@ -15,6 +15,7 @@ package org.polarsys.capella.test.commandline.ju.testsuites;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.polarsys.capella.test.commandline.ju.testcases.CommandLineCheckpointMigrationTest;
 import org.polarsys.capella.test.commandline.ju.testcases.CommandLineExportRepresentationsTest;
 import org.polarsys.capella.test.commandline.ju.testcases.CommandLineFolderMigrationTest;
 import org.polarsys.capella.test.commandline.ju.testcases.CommandLineRefreshAirdTest;
@@ -34,6 +35,7 @@ public class CommandLineTestSuite extends BasicTestSuite {
     tests.add(new CommandLineValidationTest());
     tests.add(new CommandLineZipMigrationTest());
     tests.add(new CommandLineFolderMigrationTest());
+    tests.add(new CommandLineCheckpointMigrationTest());
     tests.add(new CommandLineRemoveHiddenElementsTest());
     tests.add(new CommandLineExportRepresentationsTest());
     tests.add(new CommandLineRefreshAirdTest());
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.diagram.misc.ju.testcases;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.sirius.business.api.dialect.DialectManager;
+import org.eclipse.sirius.business.api.session.Session;
+import org.eclipse.sirius.diagram.DDiagramElement;
+import org.eclipse.sirius.diagram.DNode;
+import org.eclipse.sirius.diagram.DSemanticDiagram;
+import org.eclipse.sirius.diagram.DiagramFactory;
+import org.eclipse.sirius.viewpoint.DRepresentation;
+import org.eclipse.sirius.viewpoint.DRepresentationDescriptor;
+import org.polarsys.capella.core.sirius.analysis.DDiagramContents;
+import org.polarsys.capella.core.sirius.analysis.cache.DiagramViewIndex;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that the views registered or forgotten by a {@link DDiagramContents} are only seen by this handler and the
+ * handlers linked to it, not by the {@link DiagramViewIndex} shared by all the users of the diagram.
+ */
+public class DDiagramContentsViewsTest extends BasicTestCase {
+
+  private static final String PROJECT_NAME = "component-breakdown"; //$NON-NLS-1$
+
+  private static final String DIAGRAM_NAME = "[LCBD] Structure"; //$NON-NLS-1$
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(PROJECT_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    Session session = getSession(PROJECT_NAME);
+    DSemanticDiagram diagram = null;
+    for (DRepresentationDescriptor descriptor : DialectManager.INSTANCE.getAllRepresentationDescriptors(session)) {
+      DRepresentation representation = descriptor.getRepresentation();
+      if (DIAGRAM_NAME.equals(descriptor.getName()) && representation instanceof DSemanticDiagram) {
+        diagram = (DSemanticDiagram) representation;
+      }
+    }
+    assertNotNull(diagram);
+
+    DDiagramElement view = null;
+    for (DDiagramElement element : diagram.getDiagramElements()) {
+      if (element.getTarget() != null) {
+        view = element;
+        break;
+      }
+    }
+    assertNotNull(view);
+    EObject target = view.getTarget();
+    DiagramViewIndex index = DiagramViewIndex.getIndex(diagram);
+
+    DDiagramContents contents = new DDiagramContents(diagram);
+    DDiagramContents linkedContents = new DDiagramContents(contents);
+    assertTrue(contents.getDiagramElements(target).contains(view));
+
+    // A forgotten view is only forgotten by the handler and the handlers linked to it
+    contents.removeView(view);
+    assertFalse(contents.getDiagramElements(target).contains(view));
+    assertFalse(contents.getDiagramElements(target, view.getMapping()).contains(view));
+    assertFalse(linkedContents.getDiagramElements(target).contains(view));
+    assertTrue(new DDiagramContents(diagram).getDiagramElements(target).contains(view));
+    assertTrue(index.getViewsByTarget(target).contains(view));
+
+    // A registered view is only seen by the handler and the handlers linked to it
+    DNode newView = DiagramFactory.eINSTANCE.createDNode();
+    newView.setTarget(target);
+    contents.addView(newView);
+    assertTrue(contents.getDiagramElements(target).contains(newView));
+    assertTrue(contents.containsView(target));
+    assertTrue(linkedContents.getDiagramElements(target).contains(newView));
+    assertFalse(new DDiagramContents(diagram).getDiagramElements(target).contains(newView));
+    assertFalse(index.getViewsByTarget(target).contains(newView));
+
+    // A forgotten view can be registered again
+    contents.addView(view);
+    assertTrue(contents.getDiagramElements(target).contains(view));
+    contents.removeView(newView);
+    assertFalse(contents.getDiagramElements(target).contains(newView));
+    assertEquals(index.getViewsByTarget(target), contents.getDiagramElements(target));
+  }
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.diagram.misc.ju.testcases;
+
+import java.util.List;
+
+import org.polarsys.capella.core.model.helpers.graph.IntGraph;
+import org.polarsys.capella.core.model.helpers.graph.NodeIndex;
+import org.polarsys.capella.core.model.helpers.graph.StronglyConnectedComponents;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+public class IntGraphTest extends BasicTestCase {
+
+  @Override
+  public void test() throws Exception {
+
+    NodeIndex<String> index = new NodeIndex<>();
+    int a = index.getOrAdd("A");
+    int b = index.getOrAdd("B");
+    int c = index.getOrAdd("C");
+    int d = index.getOrAdd("D");
+    assertEquals(b, index.getOrAdd("B"));
+    assertEquals(-1, index.indexOf("E"));
+    assertEquals("C", index.get(c));
+
+    // A <-> B -> C -> D -> C, with a duplicated edge
+    IntGraph g = new IntGraph.Builder().addEdge(a, b).addEdge(b, a).addEdge(b, c).addEdge(b, c).addEdge(c, d)
+        .addEdge(d, c).build();
+    assertEquals(4, g.getNodeCount());
+    assertEquals(5, g.getEdgeCount());
+    assertEquals(2, g.getOutDegree(b));
+    assertEquals(1, g.transpose().getOutDegree(b));
+
+    StronglyConnectedComponents scc = new StronglyConnectedComponents(g);
+    assertEquals(2, scc.getComponentCount());
+    assertEquals(scc.getComponent(a), scc.getComponent(b));
+    assertEquals(scc.getComponent(c), scc.getComponent(d));
+    // Components are numbered in reverse topological order
+    assertTrue(scc.getComponent(c) < scc.getComponent(a));
+    assertTrue(scc.hasCycle());
+
+    List<int[]> components = scc.getComponents(2);
+    assertEquals(2, components.size());
+
+    // No recursion on long paths
+    int length = 100000;
+    IntGraph.Builder builder = new IntGraph.Builder(length);
+    for (int i = 0; i < length - 1; i++) {
+      builder.addEdge(i, i + 1);
+    }
+    scc = new StronglyConnectedComponents(builder.build());
+    assertEquals(length, scc.getComponentCount());
+    assertFalse(scc.hasCycle());
+
+    builder.addEdge(length - 1, 0);
+    scc = new StronglyConnectedComponents(builder.build());
+    assertEquals(1, scc.getComponentCount());
+  }
+
+}
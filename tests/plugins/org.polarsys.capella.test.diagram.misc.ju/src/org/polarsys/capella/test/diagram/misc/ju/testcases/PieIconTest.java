@@ -31,6 +31,7 @@ import org.polarsys.capella.core.data.fa.FunctionalExchange;
 import org.polarsys.capella.core.sirius.analysis.CapellaServices;
 import org.polarsys.capella.core.sirius.analysis.DiagramServices;
 import org.polarsys.capella.core.sirius.analysis.cache.DEdgeIconCache;
+import org.polarsys.capella.core.sirius.analysis.cache.PieIconCache;
 import org.polarsys.capella.test.diagram.common.ju.wrapper.utils.DiagramHelper;
 import org.polarsys.capella.test.framework.api.BasicTestCase;
 import org.polarsys.capella.test.framework.context.SessionContext;
@@ -125,7 +126,16 @@ public class PieIconTest extends BasicTestCase {
     assertTrue(hasPieIconOnFunctionalExchange(diagram));
     if (testPL)
       assertTrue(hasPieIconOnPhysicalLink(diagram));
+
+    // Pie icons are held by the opened diagram
+    assertTrue(PieIconCache.getInstance().getLiveImageCount() > 0);
     DiagramHelper.closeEditor(session, diagram);
+
+    // Pie icons are disposed once released by all diagrams
+    DEdgeIconCache.getInstance().evict(diagram);
+    assertEquals(0, DEdgeIconCache.getInstance().getDiagramCount());
+    PieIconCache.getInstance().purge();
+    assertEquals(0, PieIconCache.getInstance().getLiveImageCount());
   }
   
   public void testPieIconsOnPhysicalLinks(Session session, String diagramUID){
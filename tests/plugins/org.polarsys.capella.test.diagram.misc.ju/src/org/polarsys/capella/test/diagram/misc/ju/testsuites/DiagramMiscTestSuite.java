@@ -28,10 +28,12 @@ import org.polarsys.capella.test.diagram.misc.ju.testcases.CheckDiagramDirtyStat
 import org.polarsys.capella.test.diagram.misc.ju.testcases.CheckPhysCompNatureOptionTestCase;
 import org.polarsys.capella.test.diagram.misc.ju.testcases.CloneDiagramTestCase;
 import org.polarsys.capella.test.diagram.misc.ju.testcases.ColorNameConstantsTest;
+import org.polarsys.capella.test.diagram.misc.ju.testcases.DDiagramContentsViewsTest;
 import org.polarsys.capella.test.diagram.misc.ju.testcases.DDiagramEditorUndoRedoHandlerTest;
 import org.polarsys.capella.test.diagram.misc.ju.testcases.DecompositionWizardTestCase;
 import org.polarsys.capella.test.diagram.misc.ju.testcases.DiagramTargetUpdateDuringRefreshTest;
 import org.polarsys.capella.test.diagram.misc.ju.testcases.GraphTest;
+import org.polarsys.capella.test.diagram.misc.ju.testcases.IntGraphTest;
 import org.polarsys.capella.test.diagram.misc.ju.testcases.InsertRemoveComponentsWithNoParts;
 import org.polarsys.capella.test.diagram.misc.ju.testcases.InteractionSourceTarget;
 import org.polarsys.capella.test.diagram.misc.ju.testcases.InterfacePortSizeTestCase;
@@ -71,6 +73,8 @@ public class DiagramMiscTestSuite extends BasicTestSuite {
     tests.add(new RefreshFCContextualElementsTest());
     tests.add(new DDiagramEditorUndoRedoHandlerTest());
     tests.add(new GraphTest());
+    tests.add(new IntGraphTest());
+    tests.add(new DDiagramContentsViewsTest());
     tests.add(new Bug1006TestCase());
     tests.add(new Bug1024TestCase());
     tests.add(new Bug1512TestCase());
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.libraries.ju.testcases.basic;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.polarsys.capella.common.helpers.EcoreUtil2;
+import org.polarsys.capella.core.data.capellamodeller.Project;
+import org.polarsys.capella.core.libraries.model.CapellaLibraryExt;
+import org.polarsys.capella.core.libraries.model.CapellaModel;
+import org.polarsys.capella.core.libraries.provider.LibraryCatalog;
+import org.polarsys.capella.core.libraries.provider.LibraryHeaderScanner;
+import org.polarsys.capella.core.libraries.provider.LibraryHeaderScanner.Header;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks the headers read by {@link LibraryHeaderScanner}, and that {@link LibraryCatalog} reads them again only when
+ * the files change, within a session and across sessions.
+ */
+public class LibraryCatalog_getHeader extends BasicTestCase {
+
+  private static final String PROJECT_START = "<org.polarsys.capella.core.data.capellamodeller:Project" //$NON-NLS-1$
+      + " xmlns:org.polarsys.capella.core.data.capellamodeller=\"http://www.polarsys.org/capella/core/modeller/7.0.0\"" //$NON-NLS-1$
+      + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">"; //$NON-NLS-1$
+
+  private static final String PROJECT_END = "</org.polarsys.capella.core.data.capellamodeller:Project>"; //$NON-NLS-1$
+
+  /**
+   * A catalog counting the files it scans.
+   */
+  static class CountingCatalog extends LibraryCatalog {
+
+    int scans;
+
+    @Override
+    protected Header scan(IFile file) {
+      scans++;
+      return super.scan(file);
+    }
+  }
+
+  @SuppressWarnings("nls")
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList("MyProject1", "MyLibrary1");
+  }
+
+  @SuppressWarnings("nls")
+  @Override
+  public void test() throws Exception {
+    IFile projectFile = getModelFile("MyProject1");
+    IFile libraryFile = getModelFile("MyLibrary1");
+    testScanner(projectFile, libraryFile);
+    testCatalog(projectFile);
+  }
+
+  @SuppressWarnings("nls")
+  protected void testScanner(IFile projectFile, IFile libraryFile) throws Exception {
+    // Projects and libraries are identified by their ModelInformation
+    assertEquals(getIdentifier("MyProject1"), scan(projectFile).getIdentifier());
+    assertEquals(getIdentifier("MyLibrary1"), scan(libraryFile).getIdentifier());
+
+    // Other files are not Capella projects
+    assertNull(scan("<xmi:XMI xmlns:xmi=\"http://www.omg.org/XMI\"/>"));
+    assertNull(scan("<org.polarsys.capella.core.data.capellamodeller:Project"));
+    assertNull(scan(""));
+
+    // The header ends with the extensions of the project
+    assertEquals("", scan(PROJECT_START + PROJECT_END).getIdentifier());
+    assertEquals("", scan(PROJECT_START + "<ownedModelRoots/>" + "<ownedExtensions xsi:type=\"ModelInformation\" id=\"late\"/>" + PROJECT_END).getIdentifier());
+    assertEquals("info", scan(PROJECT_START + "<ownedExtensions id=\"other\"><ownedExtensions/></ownedExtensions>"
+        + "<ownedExtensions xsi:type=\"libraries:ModelInformation\" id=\"info\"/>" + PROJECT_END).getIdentifier());
+    // Parsing stops at the ModelInformation, whatever follows
+    assertEquals("info", scan(PROJECT_START + "<ownedExtensions xsi:type=\"ModelInformation\" id=\"info\"/><unclosed>")
+        .getIdentifier());
+  }
+
+  protected void testCatalog(IFile file) throws Exception {
+    CountingCatalog catalog = new CountingCatalog();
+    String identifier = catalog.getHeader(file).getIdentifier();
+    catalog.getHeader(file);
+    assertEquals(1, catalog.scans);
+    assertTrue(catalog.isDirty());
+
+    // Headers are kept across sessions
+    File catalogFile = File.createTempFile("libraryCatalog", null); //$NON-NLS-1$
+    try {
+      catalog.save(catalogFile);
+      assertFalse(catalog.isDirty());
+      CountingCatalog loadedCatalog = new CountingCatalog();
+      loadedCatalog.load(catalogFile);
+      assertEquals(identifier, loadedCatalog.getHeader(file).getIdentifier());
+      assertEquals(0, loadedCatalog.scans);
+
+      // A file of another size is read again, even with the same modification stamp
+      File localFile = file.getLocation().toFile();
+      byte[] content = Files.readAllBytes(localFile.toPath());
+      long stamp = file.getModificationStamp();
+      try {
+        Files.write(localFile.toPath(), "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND); //$NON-NLS-1$
+        assertEquals(stamp, file.getModificationStamp());
+        assertEquals(identifier, loadedCatalog.getHeader(file).getIdentifier());
+        assertEquals(1, loadedCatalog.scans);
+      } finally {
+        Files.write(localFile.toPath(), content);
+        file.refreshLocal(IResource.DEPTH_ZERO, new NullProgressMonitor());
+      }
+
+      // A modified file is read again
+      catalog.getHeader(file);
+      assertEquals(2, catalog.scans);
+
+      // A removed entry is read again
+      catalog.remove(file.getFullPath());
+      catalog.getHeader(file);
+      assertEquals(3, catalog.scans);
+
+    } finally {
+      catalogFile.delete();
+    }
+  }
+
+  private IFile getModelFile(String modelName) {
+    CapellaModel model = getTestModel(modelName);
+    Project project = model.getProject(model.getEditingDomain());
+    return EcoreUtil2.getFile(project.eResource());
+  }
+
+  private String getIdentifier(String modelName) {
+    CapellaModel model = getTestModel(modelName);
+    Project project = model.getProject(model.getEditingDomain());
+    return CapellaLibraryExt.getModelInformation(project.eResource(), false).getId();
+  }
+
+  private Header scan(IFile file) throws Exception {
+    try (InputStream input = file.getContents(true)) {
+      return LibraryHeaderScanner.scan(input);
+    }
+  }
+
+  private Header scan(String content) throws IOException {
+    return LibraryHeaderScanner.scan(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -20,6 +20,7 @@ import junit.framework.Test;
 import org.polarsys.capella.test.framework.api.BasicTestArtefact;
 import org.polarsys.capella.test.framework.api.BasicTestSuite;
 import org.polarsys.capella.test.libraries.ju.testcases.basic.CapellaModel_unicity;
+import org.polarsys.capella.test.libraries.ju.testcases.basic.LibraryCatalog_getHeader;
 import org.polarsys.capella.test.libraries.ju.testcases.basic.LibraryManager_addReference;
 import org.polarsys.capella.test.libraries.ju.testcases.basic.LibraryManager_addReference_cacheFocus;
 import org.polarsys.capella.test.libraries.ju.testcases.basic.LibraryManager_addReference_cycleCase;
@@ -56,6 +57,7 @@ public class LibrariesBasicTestSuite extends BasicTestSuite {
   protected List<BasicTestArtefact> getTests() {
     List<BasicTestArtefact> tests = new ArrayList<BasicTestArtefact>();
     tests.add(new CapellaModel_unicity());
+    tests.add(new LibraryCatalog_getHeader());
     tests.add(new LibraryManager_addReference_cacheFocus());
     tests.add(new LibraryManager_addReference_cycleCase());
     tests.add(new LibraryManager_addReference());
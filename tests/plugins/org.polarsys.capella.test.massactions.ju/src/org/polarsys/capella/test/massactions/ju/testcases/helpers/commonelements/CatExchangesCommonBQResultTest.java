@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.massactions.ju.testcases.helpers.commonelements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.polarsys.capella.common.ui.massactions.core.shared.helper.CommonElementsHelper;
+import org.polarsys.capella.common.ui.massactions.core.shared.helper.container.CommonBQInput;
+import org.polarsys.capella.common.ui.massactions.core.shared.helper.container.CommonBQResult;
+import org.polarsys.capella.core.business.queries.IBusinessQuery;
+import org.polarsys.capella.test.massactions.ju.model.AbstractCapellaMATestCase;
+
+/**
+ * Checks the batch evaluation of a business query, and the common business query result of several cells: the elements
+ * available for all the cells, or current in some of them, and the elements current in all the cells, in the order of
+ * the results of the first cell.
+ */
+public class CatExchangesCommonBQResultTest extends AbstractCapellaMATestCase {
+
+  private static final String FEATURE_NAME = "exchanges";
+
+  @Override
+  public void performTest() throws Exception {
+
+    List<EObject> cats = new ArrayList<>(getObjects(CAT_DISPLAYED_IMPOSED_VIDEO_DATA, CAT_DISPLAYED_VOD_MOVIE_DATA,
+        CAT_MOVIE_CONTENT, CAT_MEDIA_CONTENT));
+    EStructuralFeature feature = getFeatureByName(cats.get(0), FEATURE_NAME).get();
+    IBusinessQuery query = CommonElementsHelper.getBusinessQuery(feature);
+    assertNotNull(query);
+
+    // a batch gets the results of each element, in the order of the elements
+    Map<EObject, List<EObject>> batch = query.getAllAvailableElements(cats);
+    assertEquals(cats, new ArrayList<>(batch.keySet()));
+    for (EObject cat : cats) {
+      assertEquals(query.getAvailableElements(cat), batch.get(cat));
+    }
+    assertTrue(query.getAllAvailableElements(Collections.<EObject> emptyList()).isEmpty());
+
+    // no cell, no change
+    assertTrue(CommonElementsHelper.getAllCommonBusinessQueryResults(Collections.<CommonBQInput> emptyList()).isEmpty());
+
+    // a single cell gets the results of its query
+    CommonBQResult result = getCommonResult(cats.subList(0, 1), feature);
+    assertEquals(distinct(query.getAvailableElements(cats.get(0))), result.getCommonAvailableElements());
+    assertEquals(distinct(query.getCurrentElements(cats.get(0), false)), result.getCommonCurrentElements());
+
+    // several cells get the common results of their queries
+    for (int i = 2; i <= cats.size(); i++) {
+      List<EObject> rowObjects = cats.subList(0, i);
+      result = getCommonResult(rowObjects, feature);
+      assertEquals(getExpectedAvailableElements(query, rowObjects), result.getCommonAvailableElements());
+      assertEquals(getExpectedCurrentElements(query, rowObjects), result.getCommonCurrentElements());
+    }
+
+    // the order of the cells only changes the order of the results
+    List<EObject> reversed = new ArrayList<>(cats);
+    Collections.reverse(reversed);
+    CommonBQResult reversedResult = getCommonResult(reversed, feature);
+    assertEquals(getExpectedAvailableElements(query, reversed), reversedResult.getCommonAvailableElements());
+    assertEquals(getExpectedCurrentElements(query, reversed), reversedResult.getCommonCurrentElements());
+    assertEquals(new HashSet<>(result.getCommonAvailableElements()),
+        new HashSet<>(reversedResult.getCommonAvailableElements()));
+    assertEquals(new HashSet<>(result.getCommonCurrentElements()),
+        new HashSet<>(reversedResult.getCommonCurrentElements()));
+  }
+
+  private CommonBQResult getCommonResult(List<EObject> rowObjects, EStructuralFeature feature) {
+    List<CommonBQInput> inputs = new ArrayList<>();
+    for (EObject rowObject : rowObjects) {
+      inputs.add(new CommonBQInput(rowObject, feature));
+    }
+    return CommonElementsHelper.getAllCommonBusinessQueryResults(inputs);
+  }
+
+  /**
+   * @return the elements available or current for all the given row objects, in the order of the first one
+   */
+  private List<EObject> getExpectedAvailableElements(IBusinessQuery query, List<EObject> rowObjects) {
+    List<EObject> expected = new ArrayList<>();
+    for (EObject element : concat(query.getAvailableElements(rowObjects.get(0)),
+        query.getCurrentElements(rowObjects.get(0), false))) {
+      if (!expected.contains(element) && isAvailableOrCurrentForAll(query, rowObjects, element)) {
+        expected.add(element);
+      }
+    }
+    return expected;
+  }
+
+  /**
+   * @return the elements current for all the given row objects, in the order of the first one
+   */
+  private List<EObject> getExpectedCurrentElements(IBusinessQuery query, List<EObject> rowObjects) {
+    List<EObject> expected = new ArrayList<>();
+    for (EObject element : query.getCurrentElements(rowObjects.get(0), false)) {
+      boolean common = !expected.contains(element);
+      for (EObject rowObject : rowObjects) {
+        common = common && query.getCurrentElements(rowObject, false).contains(element);
+      }
+      if (common) {
+        expected.add(element);
+      }
+    }
+    return expected;
+  }
+
+  private boolean isAvailableOrCurrentForAll(IBusinessQuery query, List<EObject> rowObjects, EObject element) {
+    for (EObject rowObject : rowObjects) {
+      if (!query.getAvailableElements(rowObject).contains(element)
+          && !query.getCurrentElements(rowObject, false).contains(element)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private List<EObject> distinct(List<EObject> elements) {
+    return new ArrayList<>(new LinkedHashSet<>(elements));
+  }
+
+  private List<EObject> concat(List<EObject> first, List<EObject> second) {
+    List<EObject> result = new ArrayList<>(first);
+    result.addAll(second);
+    return result;
+  }
+
+}
@@ -22,6 +22,7 @@ import org.polarsys.capella.test.framework.api.BasicTestSuite;
 import org.polarsys.capella.test.massactions.ju.model.AbstractCapellaMATestCase;
 import org.polarsys.capella.test.massactions.ju.testcases.helpers.commonelements.CatAppliedPropertyValuesBQTest;
 import org.polarsys.capella.test.massactions.ju.testcases.helpers.commonelements.CatExchangesBQTest;
+import org.polarsys.capella.test.massactions.ju.testcases.helpers.commonelements.CatExchangesCommonBQResultTest;
 
 import junit.framework.Test;
 
@@ -48,6 +49,7 @@ public class CommonElementsTestSuite extends BasicTestSuite {
 
     testSuite.add(new CatAppliedPropertyValuesBQTest());
     testSuite.add(new CatExchangesBQTest());
+    testSuite.add(new CatExchangesCommonBQResultTest());
 
     // An associated bug has been opened [Bug: 2127 https://bugs.polarsys.org/show_bug.cgi?id=2127] meanwhile these
     // tests are disabled.
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.model.ju.crossreferencer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EStructuralFeature.Setting;
+import org.eclipse.emf.ecore.util.ECrossReferenceAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.polarsys.capella.common.data.modellingcore.ModellingcorePackage;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.SemanticEditingDomain;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.data.cs.Part;
+import org.polarsys.capella.core.libraries.model.ICapellaModel;
+import org.polarsys.capella.core.libraries.utils.ScopeModelWrapper;
+import org.polarsys.capella.core.model.handler.crossreferencer.CompactECrossReferenceAdapter;
+import org.polarsys.capella.shared.id.handler.IScope;
+import org.polarsys.capella.shared.id.handler.IdManager;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+import org.polarsys.capella.test.framework.helpers.TestHelper;
+
+/**
+ * Test to check the compact cross referencer finds the inverse references found by the cross referencer of the editing
+ * domain, and keeps inverse references of elements moved to another container, or removed then added back to their
+ * container.
+ */
+public class CompactCrossReferencerMoveTest extends BasicTestCase {
+  public static final String ACTOR_BEHAVIOR_2 = "3eea84a2-f2a3-4efc-93f2-cf44dfc2020b"; //$NON-NLS-1$
+
+  public static String MODEL_NAME = "miscmodel"; //$NON-NLS-1$
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(MODEL_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    ICapellaModel model = getTestModel(MODEL_NAME);
+    IScope scope = new ScopeModelWrapper(model);
+    Component component = (Component) IdManager.getInstance().getEObject(ACTOR_BEHAVIOR_2, scope);
+    SemanticEditingDomain domain = (SemanticEditingDomain) getSessionForTestModel(MODEL_NAME)
+        .getTransactionalEditingDomain();
+    // The compact cross referencer is off by default, compare it to the cross referencer of the editing domain.
+    CompactECrossReferenceAdapter crossReferencer = new CompactECrossReferenceAdapter(domain);
+    domain.getResourceSet().eAdapters().add(crossReferencer);
+    try {
+      assertSameInverseReferences(domain.getCrossReferencer(), crossReferencer, EcoreUtil.getRootContainer(component));
+      checkMoves(crossReferencer, component);
+      assertSameInverseReferences(domain.getCrossReferencer(), crossReferencer, EcoreUtil.getRootContainer(component));
+    } finally {
+      domain.getResourceSet().eAdapters().remove(crossReferencer);
+    }
+  }
+
+  private void checkMoves(ECrossReferenceAdapter crossReferencer, Component component) {
+    Part part = component.getRepresentingParts().get(0);
+    assertEquals(1, countTypingReferences(crossReferencer, component, part));
+
+    ExecutionManager manager = TestHelper.getExecutionManager(component);
+
+    // Move the part to another container.
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        component.getOwnedFeatures().add(part);
+      }
+    });
+    assertEquals("Inverse references shall be kept by moved elements", 1,
+        countTypingReferences(crossReferencer, component, part));
+
+    // Remove the part, then add it back to its container.
+    EObject container = part.eContainer();
+    EStructuralFeature containingFeature = part.eContainingFeature();
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        component.getOwnedFeatures().remove(part);
+      }
+    });
+    assertEquals(0, countTypingReferences(crossReferencer, component, part));
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public void run() {
+        ((EList<EObject>) container.eGet(containingFeature)).add(part);
+      }
+    });
+    assertEquals("Inverse references shall be restored by elements added back", 1,
+        countTypingReferences(crossReferencer, component, part));
+  }
+
+  private void assertSameInverseReferences(ECrossReferenceAdapter expected, ECrossReferenceAdapter actual,
+      EObject root) {
+    for (Iterator<EObject> it = root.eAllContents(); it.hasNext();) {
+      EObject eObject = it.next();
+      assertEquals("Inverse references of " + EcoreUtil.getURI(eObject), //$NON-NLS-1$
+          toReferences(expected.getInverseReferences(eObject, false)),
+          toReferences(actual.getInverseReferences(eObject, false)));
+    }
+  }
+
+  private Set<List<Object>> toReferences(Collection<Setting> settings) {
+    Set<List<Object>> result = new HashSet<>();
+    for (Setting setting : settings) {
+      result.add(Arrays.asList(setting.getEObject(), setting.getEStructuralFeature()));
+    }
+    return result;
+  }
+
+  private int countTypingReferences(ECrossReferenceAdapter crossReferencer, Component component, Part part) {
+    int result = 0;
+    for (Setting setting : crossReferencer.getInverseReferences(component,
+        ModellingcorePackage.Literals.ABSTRACT_TYPED_ELEMENT__ABSTRACT_TYPE, false)) {
+      if (setting.getEObject() == part) {
+        result++;
+      }
+    }
+    return result;
+  }
+}
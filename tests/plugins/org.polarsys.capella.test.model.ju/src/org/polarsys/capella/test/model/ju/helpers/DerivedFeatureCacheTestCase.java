@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.model.ju.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.polarsys.capella.common.ef.ExecutionManagerRegistry;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.common.helpers.cache.DerivedFeatureCache;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
+import org.polarsys.capella.common.helpers.cache.ModelCacheScope;
+import org.polarsys.capella.common.model.helpers.DerivedFeatureDispatcher;
+import org.polarsys.capella.common.model.helpers.IDerivedValueCache;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.data.cs.CsPackage;
+import org.polarsys.capella.core.data.cs.Part;
+import org.polarsys.capella.core.libraries.model.ICapellaModel;
+import org.polarsys.capella.core.libraries.utils.ScopeModelWrapper;
+import org.polarsys.capella.shared.id.handler.IScope;
+import org.polarsys.capella.shared.id.handler.IdManager;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that derived values are memoized only when the derived feature cache is installed, that memoized values are
+ * invalidated by model changes and that they are not kept once the cache scope is released.
+ */
+public class DerivedFeatureCacheTestCase extends BasicTestCase {
+  public static final String ACTOR_BEHAVIOR_2 = "3eea84a2-f2a3-4efc-93f2-cf44dfc2020b"; //$NON-NLS-1$
+
+  public static String MODEL_NAME = "miscmodel"; //$NON-NLS-1$
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(MODEL_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    ICapellaModel model = getTestModel(MODEL_NAME);
+    IScope scope = new ScopeModelWrapper(model);
+    Component component = (Component) IdManager.getInstance().getEObject(ACTOR_BEHAVIOR_2, scope);
+    TransactionalEditingDomain domain = getSessionForTestModel(MODEL_NAME).getTransactionalEditingDomain();
+
+    List<Part> parts = new ArrayList<>(component.getRepresentingParts());
+    assertFalse(parts.isEmpty());
+    assertEquals(parts,
+        DerivedFeatureDispatcher.computeValue(component, CsPackage.Literals.COMPONENT__REPRESENTING_PARTS));
+
+    ModelCacheScope scope = ModelCache.getScope(domain);
+    IDerivedValueCache previousCache = DerivedFeatureDispatcher.getValueCache();
+    if (!DerivedFeatureCache.isEnabled()) {
+      ModelCache.enable(domain);
+      try {
+        component.getRepresentingParts();
+        assertTrue("Derived values shall not be memoized by default", scope.getActivationCache().isEmpty());
+      } finally {
+        ModelCache.disable(domain);
+      }
+    }
+
+    DerivedFeatureCache.install();
+    ModelCache.enable(domain);
+    try {
+      assertEquals(parts, component.getRepresentingParts());
+      assertFalse(scope.getActivationCache().isEmpty());
+      assertEquals("Memoized values shall be equal to computed ones", parts, component.getRepresentingParts());
+
+      Part part = parts.get(0);
+      ExecutionManagerRegistry.getInstance().getExecutionManager(domain).execute(new AbstractReadWriteCommand() {
+        @Override
+        public void run() {
+          part.setAbstractType(null);
+        }
+      });
+      assertFalse("Memoized values shall be invalidated by model changes",
+          component.getRepresentingParts().contains(part));
+    } finally {
+      ModelCache.disable(domain);
+      DerivedFeatureDispatcher.setValueCache(previousCache);
+    }
+    assertTrue("Memoized values shall not be kept once the scope is released", scope.getActivationCache().isEmpty());
+  }
+
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.model.ju.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+import org.polarsys.capella.common.data.modellingcore.ModellingcorePackage;
+import org.polarsys.capella.common.helpers.EObjectExt;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.data.cs.CsPackage;
+import org.polarsys.capella.core.data.cs.Part;
+import org.polarsys.capella.core.libraries.model.ICapellaModel;
+import org.polarsys.capella.core.libraries.utils.ScopeModelWrapper;
+import org.polarsys.capella.shared.id.handler.IScope;
+import org.polarsys.capella.shared.id.handler.IdManager;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+public class EObjectExtTestCase extends BasicTestCase {
+  public static final String ACTOR_BEHAVIOR_2 = "3eea84a2-f2a3-4efc-93f2-cf44dfc2020b"; //$NON-NLS-1$
+
+  public static String MODEL_NAME = "miscmodel"; //$NON-NLS-1$
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(MODEL_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    ICapellaModel model = getTestModel(MODEL_NAME);
+    IScope scope = new ScopeModelWrapper(model);
+    Component component = (Component) IdManager.getInstance().getEObject(ACTOR_BEHAVIOR_2, scope);
+    Part part = component.getRepresentingParts().get(0);
+
+    List<EObject> referencers = EObjectExt.getReferencers(component);
+    Set<EObject> referencerSet = EObjectExt.getReferencerSet(component);
+    assertEquals("Referencers shall not contain duplicates", referencers.size(), referencerSet.size());
+    assertEquals("Referencers shall be listed in the same order", referencers, new ArrayList<>(referencerSet));
+    assertTrue(referencerSet.contains(part));
+
+    Set<EObject> parts = EObjectExt.getReferencerSet(component, CsPackage.Literals.PART,
+        ModellingcorePackage.Literals.ABSTRACT_TYPED_ELEMENT__ABSTRACT_TYPE);
+    assertTrue(parts.contains(part));
+    assertEquals(new ArrayList<>(parts), EObjectExt.getReferencers(component, CsPackage.Literals.PART,
+        ModellingcorePackage.Literals.ABSTRACT_TYPED_ELEMENT__ABSTRACT_TYPE));
+    assertEquals(parts, new LinkedHashSet<>(
+        EObjectExt.getReferencers(component, ModellingcorePackage.Literals.ABSTRACT_TYPED_ELEMENT__ABSTRACT_TYPE)));
+
+    assertTrue("Referencers shall be filtered by class", EObjectExt
+        .getReferencerSet(component, CsPackage.Literals.INTERFACE, Arrays.asList(
+            ModellingcorePackage.Literals.ABSTRACT_TYPED_ELEMENT__ABSTRACT_TYPE))
+        .isEmpty());
+  }
+
+}
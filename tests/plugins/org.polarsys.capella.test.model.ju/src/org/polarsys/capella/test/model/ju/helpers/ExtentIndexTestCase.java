@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.model.ju.helpers;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.polarsys.capella.common.ef.ExecutionManagerRegistry;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.common.helpers.EObjectExt;
+import org.polarsys.capella.common.helpers.query.ExtentIndex;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.data.cs.CsFactory;
+import org.polarsys.capella.core.data.cs.CsPackage;
+import org.polarsys.capella.core.data.cs.Part;
+import org.polarsys.capella.core.libraries.model.ICapellaModel;
+import org.polarsys.capella.core.libraries.utils.ScopeModelWrapper;
+import org.polarsys.capella.shared.id.handler.IScope;
+import org.polarsys.capella.shared.id.handler.IdManager;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that the instances of a type found through the extent index are the ones found by browsing the model, before
+ * and after model changes.
+ */
+public class ExtentIndexTestCase extends BasicTestCase {
+  public static final String ACTOR_BEHAVIOR_2 = "3eea84a2-f2a3-4efc-93f2-cf44dfc2020b"; //$NON-NLS-1$
+
+  public static String MODEL_NAME = "miscmodel"; //$NON-NLS-1$
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(MODEL_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    ICapellaModel model = getTestModel(MODEL_NAME);
+    IScope scope = new ScopeModelWrapper(model);
+    Component component = (Component) IdManager.getInstance().getEObject(ACTOR_BEHAVIOR_2, scope);
+    EObject root = EcoreUtil.getRootContainer(component);
+    TransactionalEditingDomain domain = getSessionForTestModel(MODEL_NAME).getTransactionalEditingDomain();
+    ExtentIndex index = ExtentIndex.getIndex(domain);
+
+    assertEquals(new HashSet<>(EObjectExt.getAll(root, CsPackage.Literals.PART)),
+        index.getInstances(root, CsPackage.Literals.PART));
+    assertEquals(new HashSet<>(EObjectExt.getAll(component, CsPackage.Literals.PART)),
+        EObjectExt.getAllInstances(component, CsPackage.Literals.PART));
+    assertEquals(new HashSet<>(EObjectExt.getAll(root, CsPackage.Literals.COMPONENT)),
+        index.getInstances(root.eResource(), CsPackage.Literals.COMPONENT));
+
+    // Lookups are scoped by the elements partitioning the index and their ancestors, deeper elements are browsed
+    for (EObject modelRoot : root.eContents()) {
+      assertEquals(new HashSet<>(EObjectExt.getAll(modelRoot, CsPackage.Literals.PART)),
+          index.getInstances(modelRoot, CsPackage.Literals.PART));
+      for (EObject architecture : modelRoot.eContents()) {
+        assertEquals(new HashSet<>(EObjectExt.getAll(architecture, CsPackage.Literals.PART)),
+            index.getInstances(architecture, CsPackage.Literals.PART));
+      }
+    }
+    assertNull(index.getInstances(component, CsPackage.Literals.PART));
+
+    Part part = CsFactory.eINSTANCE.createPart();
+    ExecutionManagerRegistry.getInstance().getExecutionManager(domain).execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        component.getOwnedFeatures().add(part);
+      }
+    });
+    assertTrue("Added elements shall be indexed", index.getInstances(root, CsPackage.Literals.PART).contains(part));
+    assertTrue(EObjectExt.getAllInstances(component, CsPackage.Literals.PART).contains(part));
+
+    ExecutionManagerRegistry.getInstance().getExecutionManager(domain).execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        component.getOwnedFeatures().remove(part);
+      }
+    });
+    assertFalse("Removed elements shall not be indexed", index.getInstances(CsPackage.Literals.PART).contains(part));
+    assertEquals(new HashSet<>(EObjectExt.getAll(root, CsPackage.Literals.PART)),
+        index.getInstances(root, CsPackage.Literals.PART));
+
+    testFragmentation(domain, index, root, component);
+  }
+
+  /**
+   * Fragments the given element into a new resource then unfragments it: the element stays in its container, and
+   * shall stay indexed.
+   */
+  private void testFragmentation(TransactionalEditingDomain domain, ExtentIndex index, EObject root,
+      Component component) {
+    ResourceSet resourceSet = domain.getResourceSet();
+    Resource[] fragment = new Resource[1];
+    ExecutionManagerRegistry.getInstance().getExecutionManager(domain).execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        fragment[0] = resourceSet.createResource(URI.createURI("memory:/extentIndex.capellafragment")); //$NON-NLS-1$
+      }
+    });
+    try {
+      // The index is built again once the resource is added
+      assertEquals(new HashSet<>(EObjectExt.getAll(root, CsPackage.Literals.PART)),
+          index.getInstances(root, CsPackage.Literals.PART));
+
+      ExecutionManagerRegistry.getInstance().getExecutionManager(domain).execute(new AbstractReadWriteCommand() {
+        @Override
+        public void run() {
+          fragment[0].getContents().add(component);
+        }
+      });
+      assertSame(root, EcoreUtil.getRootContainer(component));
+      assertTrue("Fragmented elements shall be indexed",
+          index.getInstances(fragment[0], CsPackage.Literals.COMPONENT).contains(component));
+      assertEquals(new HashSet<>(EObjectExt.getAll(root, CsPackage.Literals.PART)),
+          index.getInstances(root, CsPackage.Literals.PART));
+
+      ExecutionManagerRegistry.getInstance().getExecutionManager(domain).execute(new AbstractReadWriteCommand() {
+        @Override
+        public void run() {
+          fragment[0].getContents().remove(component);
+        }
+      });
+      assertSame(root.eResource(), component.eResource());
+      assertTrue("Unfragmented elements shall stay indexed",
+          index.getInstances(CsPackage.Literals.COMPONENT).contains(component));
+      assertEquals(new HashSet<>(EObjectExt.getAll(root, CsPackage.Literals.PART)),
+          index.getInstances(root, CsPackage.Literals.PART));
+
+    } finally {
+      ExecutionManagerRegistry.getInstance().getExecutionManager(domain).execute(new AbstractReadWriteCommand() {
+        @Override
+        public void run() {
+          fragment[0].getContents().clear();
+          resourceSet.getResources().remove(fragment[0]);
+        }
+      });
+    }
+  }
+
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.model.ju.helpers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.common.ef.ExecutionManagerRegistry;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.common.helpers.EObjectExt;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.data.cs.CsFactory;
+import org.polarsys.capella.core.data.cs.CsPackage;
+import org.polarsys.capella.core.data.cs.Part;
+import org.polarsys.capella.core.libraries.utils.ScopeModelWrapper;
+import org.polarsys.capella.shared.id.handler.IScope;
+import org.polarsys.capella.shared.id.handler.IdIndex;
+import org.polarsys.capella.shared.id.handler.IdManager;
+import org.polarsys.capella.shared.id.handler.ResourceSetScope;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that the elements found through the id index are the current ones after the load and unload of a resource, the
+ * move of an element and the change of an id, that the first indexed element is found among elements sharing an id,
+ * and that only the resources in the scope of a lookup are indexed, on the first lookup.
+ */
+public class IdIndexTestCase extends BasicTestCase {
+
+  public static String MODEL_NAME = "miscmodel"; //$NON-NLS-1$
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(MODEL_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    IScope scope = new ScopeModelWrapper(getTestModel(MODEL_NAME));
+    Component component = (Component) IdManager.getInstance().getEObject(ExtentIndexTestCase.ACTOR_BEHAVIOR_2, scope);
+    assertNotNull(component);
+    TransactionalEditingDomain domain = getSessionForTestModel(MODEL_NAME).getTransactionalEditingDomain();
+    ExecutionManager manager = ExecutionManagerRegistry.getInstance().getExecutionManager(domain);
+
+    testMove(scope, component, manager);
+    testIdChange(scope, component, manager);
+    testLoadAndUnload(component.eResource().getURI(), component.getId());
+  }
+
+  private void testMove(IScope scope, Component component, ExecutionManager manager) {
+    Component otherComponent = null;
+    for (EObject object : EObjectExt.getAll(EcoreUtil.getRootContainer(component), CsPackage.Literals.COMPONENT)) {
+      if (object != component) {
+        otherComponent = (Component) object;
+        break;
+      }
+    }
+    assertNotNull(otherComponent);
+    Component target = otherComponent;
+
+    Part part = CsFactory.eINSTANCE.createPart();
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        component.getOwnedFeatures().add(part);
+      }
+    });
+    assertSame("Created elements shall be found", part, IdManager.getInstance().getEObject(part.getId(), scope));
+
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        target.getOwnedFeatures().add(part);
+      }
+    });
+    assertSame("Moved elements shall be found", part, IdManager.getInstance().getEObject(part.getId(), scope));
+
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        target.getOwnedFeatures().remove(part);
+      }
+    });
+    assertNull("Removed elements shall not be found", IdManager.getInstance().getIdIndex(scope.getResourceSet())
+        .getEObject(part.getId(), scope));
+  }
+
+  private void testIdChange(IScope scope, Component component, ExecutionManager manager) {
+    IdIndex index = IdManager.getInstance().getIdIndex(scope.getResourceSet());
+    String oldId = component.getId();
+    String newId = EcoreUtil.generateUUID();
+    assertSame(component, index.getEObject(oldId, scope));
+
+    setId(component, newId, manager);
+    try {
+      assertNull("Elements shall not be found by their previous id", index.getEObject(oldId, scope));
+      assertSame("Elements shall be found by their new id", component,
+          IdManager.getInstance().getEObject(newId, scope));
+    } finally {
+      setId(component, oldId, manager);
+    }
+    assertSame(component, IdManager.getInstance().getEObject(oldId, scope));
+  }
+
+  private void setId(Component component, String id, ExecutionManager manager) {
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        component.setId(id);
+      }
+    });
+  }
+
+  private void testLoadAndUnload(URI uri, String id) {
+    ResourceSet resourceSet = new ResourceSetImpl();
+    IdIndex index = IdManager.getInstance().getIdIndex(resourceSet);
+    IScope scope = new ResourceSetScope(resourceSet);
+    try {
+      assertEquals(0, index.size());
+
+      Resource resource = resourceSet.getResource(uri, true);
+      assertEquals("Loaded resources shall be indexed on the first lookup only", 0, index.size());
+      assertNull(index.getEObject(id, new IScope() {
+        @Override
+        public List<Resource> getResources() {
+          return Collections.emptyList();
+        }
+
+        @Override
+        public ResourceSet getResourceSet() {
+          return resourceSet;
+        }
+      }));
+      assertEquals("Resources out of the scope of a lookup shall not be indexed", 0, index.size());
+
+      EObject object = index.getEObject(id, scope);
+      assertNotNull("Elements of loaded resources shall be found", object);
+      assertSame(resource, object.eResource());
+      assertTrue("Resources in the scope of a lookup shall be indexed", index.size() > 0);
+
+      testDuplicates(index, scope, object);
+
+      resource.unload();
+      assertNull("Elements of unloaded resources shall not be found", index.getEObject(id, scope));
+    } finally {
+      index.dispose();
+      for (Resource resource : resourceSet.getResources()) {
+        resource.unload();
+      }
+    }
+  }
+
+  private void testDuplicates(IdIndex index, IScope scope, EObject object) {
+    String id = IdManager.getInstance().getId(object);
+    ResourceSet resourceSet = scope.getResourceSet();
+    Resource otherResource = new ResourceImpl(URI.createURI("duplicates.xmi")); //$NON-NLS-1$
+    resourceSet.getResources().add(otherResource);
+    EObject duplicate = EcoreUtil.copy(object);
+    otherResource.getContents().add(duplicate);
+    assertEquals(id, IdManager.getInstance().getId(duplicate));
+    assertSame("The first indexed element shall be found", object, index.getEObject(id, scope));
+
+    // Removing a resource only forgets its own elements
+    int size = index.size();
+    resourceSet.getResources().remove(otherResource);
+    assertEquals(size, index.size());
+    assertSame(object, index.getEObject(id, scope));
+
+    // The remaining element of an id is found, by indexing its resource, once the first one is removed
+    resourceSet.getResources().add(otherResource);
+    Resource resource = object.eResource();
+    resourceSet.getResources().remove(resource);
+    assertSame(duplicate, index.getEObject(id, scope));
+
+    resourceSet.getResources().remove(otherResource);
+    resourceSet.getResources().add(resource);
+    assertSame(object, IdManager.getInstance().getEObject(id, scope));
+  }
+
+}
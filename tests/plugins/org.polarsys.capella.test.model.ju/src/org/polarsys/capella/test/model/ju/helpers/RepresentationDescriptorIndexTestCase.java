@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.model.ju.helpers;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.sirius.business.api.dialect.DialectManager;
+import org.eclipse.sirius.business.api.session.Session;
+import org.eclipse.sirius.viewpoint.DRepresentationDescriptor;
+import org.eclipse.sirius.viewpoint.DView;
+import org.eclipse.sirius.viewpoint.ViewpointFactory;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.common.ef.ExecutionManagerRegistry;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.core.model.handler.helpers.RepresentationDescriptorIndex;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that the descriptors found through the representation descriptor index are the current ones after the
+ * removal of a descriptor sharing its UID with another one, and after the reload of the resource of their targets.
+ */
+public class RepresentationDescriptorIndexTestCase extends BasicTestCase {
+
+  public static String MODEL_NAME = "copyPasteLayout"; //$NON-NLS-1$
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(MODEL_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    Session session = getSessionForTestModel(MODEL_NAME);
+    RepresentationDescriptorIndex index = RepresentationDescriptorIndex.getIndex(session);
+    Collection<DRepresentationDescriptor> descriptors = DialectManager.INSTANCE.getAllRepresentationDescriptors(session);
+    assertFalse(descriptors.isEmpty());
+    assertEquals(descriptors.size(), index.size());
+    for (DRepresentationDescriptor descriptor : descriptors) {
+      assertSame(descriptor, index.getDescriptor(descriptor.getUid()));
+      assertTrue(index.getDescriptors(descriptor.getTarget()).contains(descriptor));
+    }
+
+    DRepresentationDescriptor descriptor = descriptors.iterator().next();
+    testDuplicateUid(index, descriptor, session.getTransactionalEditingDomain());
+    testTargetReload(session.getSessionResource().getURI(), descriptor.getUid());
+  }
+
+  private void testDuplicateUid(RepresentationDescriptorIndex index, DRepresentationDescriptor descriptor,
+      TransactionalEditingDomain domain) {
+    ExecutionManager manager = ExecutionManagerRegistry.getInstance().getExecutionManager(domain);
+    DView view = (DView) descriptor.eContainer();
+    DRepresentationDescriptor duplicate = ViewpointFactory.eINSTANCE.createDRepresentationDescriptor();
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        duplicate.setUid(descriptor.getUid());
+        duplicate.setTarget(descriptor.getTarget());
+        view.getOwnedRepresentationDescriptors().add(duplicate);
+      }
+    });
+    assertSame("The first indexed descriptor shall be found", descriptor, index.getDescriptor(descriptor.getUid()));
+    assertTrue(index.getDescriptors(descriptor.getTarget()).contains(duplicate));
+
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        view.getOwnedRepresentationDescriptors().remove(descriptor);
+      }
+    });
+    assertSame("A descriptor sharing the UID of a removed one shall be found", duplicate,
+        index.getDescriptor(descriptor.getUid()));
+
+    domain.getCommandStack().undo();
+    domain.getCommandStack().undo();
+    assertSame(descriptor, index.getDescriptor(descriptor.getUid()));
+    assertFalse(index.getDescriptors(descriptor.getTarget()).contains(duplicate));
+  }
+
+  private void testTargetReload(URI airdURI, String uid) throws Exception {
+    ResourceSet resourceSet = new ResourceSetImpl();
+    RepresentationDescriptorIndex index = RepresentationDescriptorIndex.getIndex(resourceSet);
+    try {
+      resourceSet.getResource(airdURI, true);
+      DRepresentationDescriptor descriptor = index.getDescriptor(uid);
+      assertNotNull(descriptor);
+      EObject target = descriptor.getTarget();
+      assertNotNull(target);
+      assertTrue(index.getDescriptors(target).contains(descriptor));
+
+      Resource resource = target.eResource();
+      String fragment = resource.getURIFragment(target);
+      resource.unload();
+      resource.load(null);
+      EObject reloadedTarget = resource.getEObject(fragment);
+      assertNotSame(target, reloadedTarget);
+      assertTrue("Descriptors shall be found from the reloaded targets",
+          index.getDescriptors(reloadedTarget).contains(descriptor));
+    } finally {
+      resourceSet.eAdapters().remove(index);
+      for (Resource resource : resourceSet.getResources()) {
+        resource.unload();
+      }
+    }
+  }
+}
@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.model.ju.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.ECrossReferenceAdapter;
+import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.common.ef.ExecutionManagerRegistry;
+import org.polarsys.capella.common.ef.command.AbstractReadOnlyCommand;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.common.ef.command.AbstractSharedReadOnlyCommand;
+import org.polarsys.capella.common.helpers.EcoreUtil2;
+import org.polarsys.capella.common.platform.sirius.ted.SemanticEditingDomainFactory.SemanticEditingDomain;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.libraries.model.ICapellaModel;
+import org.polarsys.capella.core.libraries.utils.ScopeModelWrapper;
+import org.polarsys.capella.core.model.handler.helpers.CrossReferencerHelper;
+import org.polarsys.capella.shared.id.handler.IScope;
+import org.polarsys.capella.shared.id.handler.IdManager;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that shared read-only commands run concurrently, that write transactions wait for them, that they cannot
+ * modify the model, that read-only commands they execute do not wait for the transaction lock, that threads that are
+ * not jobs never wait for the gate, that only loaded resources are resolved, and that the referencing elements are
+ * computed by a shared read-only command.
+ */
+public class SharedReadOnlyCommandTestCase extends BasicTestCase {
+  public static final String ACTOR_BEHAVIOR_2 = "3eea84a2-f2a3-4efc-93f2-cf44dfc2020b"; //$NON-NLS-1$
+
+  public static String MODEL_NAME = "miscmodel"; //$NON-NLS-1$
+
+  private static final long TIMEOUT = 10;
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(MODEL_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    ICapellaModel model = getTestModel(MODEL_NAME);
+    IScope scope = new ScopeModelWrapper(model);
+    Component component = (Component) IdManager.getInstance().getEObject(ACTOR_BEHAVIOR_2, scope);
+    TransactionalEditingDomain domain = getSessionForTestModel(MODEL_NAME).getTransactionalEditingDomain();
+    ExecutionManager manager = ExecutionManagerRegistry.getInstance().getExecutionManager(domain);
+
+    // Each reader waits for the other one to be running
+    CountDownLatch readers = new CountDownLatch(2);
+    AtomicBoolean concurrent = new AtomicBoolean(true);
+    Runnable reader = () -> manager.execute(new AbstractSharedReadOnlyCommand() {
+      @Override
+      public void run() {
+        component.getName();
+        readers.countDown();
+        try {
+          if (!readers.await(TIMEOUT, TimeUnit.SECONDS)) {
+            concurrent.set(false);
+          }
+        } catch (InterruptedException exception) {
+          concurrent.set(false);
+        }
+      }
+    });
+    Thread reader1 = new Thread(reader);
+    Thread reader2 = new Thread(reader);
+    reader1.start();
+    reader2.start();
+    reader1.join();
+    reader2.join();
+    assertTrue("Shared read-only commands shall run concurrently", concurrent.get());
+
+    // A write transaction waits for the running reader
+    CountDownLatch readStarted = new CountDownLatch(1);
+    CountDownLatch readReleased = new CountDownLatch(1);
+    String name = component.getName();
+    Thread longReader = new Thread(() -> manager.execute(new AbstractSharedReadOnlyCommand() {
+      @Override
+      public void run() {
+        readStarted.countDown();
+        try {
+          readReleased.await(TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+          // Ends the read
+        }
+      }
+    }));
+    Thread writer = new Thread(() -> manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        component.setName(name + "_renamed"); //$NON-NLS-1$
+      }
+    }));
+    longReader.start();
+    assertTrue(readStarted.await(TIMEOUT, TimeUnit.SECONDS));
+    writer.start();
+    writer.join(1000);
+    assertTrue("Write transactions shall wait for shared read-only commands", writer.isAlive());
+    readReleased.countDown();
+    writer.join();
+    longReader.join();
+    assertEquals(name + "_renamed", component.getName()); //$NON-NLS-1$
+
+    // A write from a shared read-only command is refused before its transaction starts
+    AtomicBoolean refused = new AtomicBoolean(false);
+    manager.execute(new AbstractSharedReadOnlyCommand() {
+      @Override
+      public void run() {
+        try {
+          manager.execute(new AbstractReadWriteCommand() {
+            @Override
+            public void run() {
+              component.setName(name);
+            }
+          });
+        } catch (IllegalStateException exception) {
+          refused.set(true);
+        }
+      }
+    });
+    assertTrue("Shared read-only commands shall not modify the model", refused.get());
+    assertEquals(name + "_renamed", component.getName()); //$NON-NLS-1$
+
+    // A read-only command executed by a shared read-only command runs within it, without waiting for the transaction
+    // lock
+    CountDownLatch lockStarted = new CountDownLatch(1);
+    CountDownLatch lockReleased = new CountDownLatch(1);
+    Thread lockHolder = new Thread(() -> manager.execute(new AbstractReadOnlyCommand() {
+      @Override
+      public void run() {
+        lockStarted.countDown();
+        try {
+          lockReleased.await(TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+          // Ends the read
+        }
+      }
+    }));
+    AtomicBoolean nestedRun = new AtomicBoolean(false);
+    Thread nestingReader = new Thread(() -> manager.execute(new AbstractSharedReadOnlyCommand() {
+      @Override
+      public void run() {
+        manager.execute(new AbstractReadOnlyCommand() {
+          @Override
+          public void run() {
+            nestedRun.set(true);
+          }
+        });
+      }
+    }));
+    lockHolder.start();
+    assertTrue(lockStarted.await(TIMEOUT, TimeUnit.SECONDS));
+    nestingReader.start();
+    nestingReader.join(TIMEOUT * 1000);
+    boolean nestedWithoutLock = !nestingReader.isAlive();
+    lockReleased.countDown();
+    lockHolder.join();
+    nestingReader.join();
+    assertTrue("Read-only commands executed by a shared read-only command shall not wait for the transaction lock", //$NON-NLS-1$
+        nestedWithoutLock);
+    assertTrue(nestedRun.get());
+
+    // A thread that is not a job does not wait for the gate while a writer waits for a shared reader running in a job:
+    // the command runs as an exclusive read-only command
+    CountDownLatch jobReadStarted = new CountDownLatch(1);
+    CountDownLatch jobReadReleased = new CountDownLatch(1);
+    Job readerJob = Job.create("Shared reader", monitor -> { //$NON-NLS-1$
+      manager.execute(new AbstractSharedReadOnlyCommand() {
+        @Override
+        public void run() {
+          jobReadStarted.countDown();
+          try {
+            jobReadReleased.await(TIMEOUT, TimeUnit.SECONDS);
+          } catch (InterruptedException exception) {
+            // Ends the read
+          }
+        }
+      });
+      return Status.OK_STATUS;
+    });
+    Thread waitingWriter = new Thread(() -> manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        component.setName(name);
+      }
+    }));
+    AtomicBoolean exclusive = new AtomicBoolean(false);
+    Thread plainReader = new Thread(() -> manager.execute(new AbstractSharedReadOnlyCommand() {
+      @Override
+      public void run() {
+        Transaction transaction = ((InternalTransactionalEditingDomain) domain).getActiveTransaction();
+        exclusive.set(null != transaction && transaction.isReadOnly()
+            && transaction.getOwner() == Thread.currentThread());
+      }
+    }));
+    readerJob.schedule();
+    assertTrue(jobReadStarted.await(TIMEOUT, TimeUnit.SECONDS));
+    waitingWriter.start();
+    waitingWriter.join(1000);
+    assertTrue("Write transactions shall wait for shared read-only commands", waitingWriter.isAlive()); //$NON-NLS-1$
+    plainReader.start();
+    plainReader.join(1000);
+    jobReadReleased.countDown();
+    readerJob.join();
+    waitingWriter.join();
+    plainReader.join();
+    assertTrue("Threads that are not jobs shall run exclusively rather than wait for the gate", exclusive.get()); //$NON-NLS-1$
+    assertEquals(name, component.getName());
+
+    checkResolvedResources();
+
+    // Referencing elements are computed while an exclusive read-only command is running. Proxies were resolved by the
+    // previous shared read-only commands, so the computation does not wait for the transaction lock.
+    ECrossReferenceAdapter crossReferencer = ((SemanticEditingDomain) domain).getCrossReferencer();
+    List<EObject> expected = new ArrayList<>(EcoreUtil2.getReferencingElements(component, crossReferencer));
+    CountDownLatch exclusiveStarted = new CountDownLatch(1);
+    CountDownLatch exclusiveReleased = new CountDownLatch(1);
+    Thread exclusiveReader = new Thread(() -> manager.execute(new AbstractReadOnlyCommand() {
+      @Override
+      public void run() {
+        exclusiveStarted.countDown();
+        try {
+          exclusiveReleased.await(TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+          // Ends the read
+        }
+      }
+    }));
+    AtomicReference<List<EObject>> referencing = new AtomicReference<>();
+    Thread sharedReader = new Thread(() -> referencing.set(CrossReferencerHelper.getReferencingElements(component)));
+    exclusiveReader.start();
+    assertTrue(exclusiveStarted.await(TIMEOUT, TimeUnit.SECONDS));
+    sharedReader.start();
+    sharedReader.join(TIMEOUT * 1000);
+    boolean shared = !sharedReader.isAlive();
+    exclusiveReleased.countDown();
+    exclusiveReader.join();
+    sharedReader.join();
+    assertTrue("Referencing elements shall be computed by a shared read-only command", shared);
+    assertEquals(expected, referencing.get());
+  }
+
+  /**
+   * Checks that shared read-only commands resolve the proxies of the resources loaded since the previous resolution
+   * only, and of all resources once a resource is unloaded.
+   */
+  private void checkResolvedResources() {
+    List<Collection<Resource>> resolutions = new ArrayList<>();
+    ExecutionManager manager = new ExecutionManager() {
+      @Override
+      protected void resolveProxies(TransactionalEditingDomain editingDomain, Collection<Resource> resources)
+          throws InterruptedException {
+        resolutions.add(new ArrayList<>(resources));
+        super.resolveProxies(editingDomain, resources);
+      }
+    };
+    TransactionalEditingDomain domain = manager.getEditingDomain();
+    try {
+      ResourceSet resourceSet = domain.getResourceSet();
+      AbstractSharedReadOnlyCommand read = new AbstractSharedReadOnlyCommand() {
+        @Override
+        public void run() {
+          // Nothing to read
+        }
+      };
+      manager.execute(read);
+      resolutions.clear();
+
+      Resource first = createResource("first"); //$NON-NLS-1$
+      addResource(manager, resourceSet, first);
+      manager.execute(read);
+      assertEquals(Collections.singletonList(Collections.singletonList(first)), resolutions);
+
+      manager.execute(read);
+      assertEquals("Resolved resources shall not be resolved again", 1, resolutions.size()); //$NON-NLS-1$
+
+      Resource second = createResource("second"); //$NON-NLS-1$
+      addResource(manager, resourceSet, second);
+      manager.execute(read);
+      assertEquals(Collections.singletonList(second), resolutions.get(1));
+
+      manager.execute(new AbstractReadWriteCommand() {
+        @Override
+        public void run() {
+          first.unload();
+        }
+      });
+      manager.execute(read);
+      assertEquals(3, resolutions.size());
+      assertEquals("All resources shall be resolved once a resource is unloaded", //$NON-NLS-1$
+          new HashSet<>(resourceSet.getResources()), new HashSet<>(resolutions.get(2)));
+
+    } finally {
+      domain.dispose();
+    }
+  }
+
+  private Resource createResource(String name) {
+    Resource resource = new ResourceImpl(URI.createURI(name));
+    resource.getContents().add(EcoreFactory.eINSTANCE.createEClass());
+    return resource;
+  }
+
+  private void addResource(ExecutionManager manager, ResourceSet resourceSet, Resource resource) {
+    manager.execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        resourceSet.getResources().add(resource);
+      }
+    });
+  }
+
+}
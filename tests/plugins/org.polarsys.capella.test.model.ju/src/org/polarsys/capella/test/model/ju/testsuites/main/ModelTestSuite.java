@@ -19,6 +19,7 @@ import org.polarsys.capella.test.framework.api.BasicTestArtefact;
 import org.polarsys.capella.test.framework.api.BasicTestSuite;
 import org.polarsys.capella.test.model.ju.accelerators.PhysicalLinkAcceleratorTest;
 import org.polarsys.capella.test.model.ju.components.CompositionTestSuite;
+import org.polarsys.capella.test.model.ju.crossreferencer.CompactCrossReferencerMoveTest;
 import org.polarsys.capella.test.model.ju.crossreferencer.InvolverInvolvedDerivedFeaturesTest;
 import org.polarsys.capella.test.model.ju.crossreferencer.MoveElementToNewResourceTest;
 import org.polarsys.capella.test.model.ju.crossreferencer.TraceableElementDerivedFeaturesTest;
@@ -33,9 +34,15 @@ import org.polarsys.capella.test.model.ju.helpers.ChildrenFeaturesItemProviderTe
 import org.polarsys.capella.test.model.ju.helpers.ComponentExtTestCase;
 import org.polarsys.capella.test.model.ju.helpers.ComponentPkgExtTestCase;
 import org.polarsys.capella.test.model.ju.helpers.DataTypeRealizedInformationTest;
+import org.polarsys.capella.test.model.ju.helpers.DerivedFeatureCacheTestCase;
+import org.polarsys.capella.test.model.ju.helpers.EObjectExtTestCase;
+import org.polarsys.capella.test.model.ju.helpers.ExtentIndexTestCase;
 import org.polarsys.capella.test.model.ju.helpers.GitConflictHelperTest;
+import org.polarsys.capella.test.model.ju.helpers.IdIndexTestCase;
 import org.polarsys.capella.test.model.ju.helpers.PartExtTestCase;
 import org.polarsys.capella.test.model.ju.helpers.PhysicalComponentExtTestCase;
+import org.polarsys.capella.test.model.ju.helpers.RepresentationDescriptorIndexTestCase;
+import org.polarsys.capella.test.model.ju.helpers.SharedReadOnlyCommandTestCase;
 import org.polarsys.capella.test.model.ju.menu.CapellaMenusTestCase;
 import org.polarsys.capella.test.model.ju.obfuscate.ObfuscateModelTestCase;
 import org.polarsys.capella.test.model.ju.propertyviews.PropertyViewsTest;
@@ -89,6 +96,7 @@ public class ModelTestSuite extends BasicTestSuite {
     tests.add(new InvalidCapellaCopyPaste());
     tests.add(new PropertyViewsTest());
     tests.add(new MoveElementToNewResourceTest());
+    tests.add(new CompactCrossReferencerMoveTest());
     tests.add(new InvolverInvolvedDerivedFeaturesTest());
     tests.add(new TypeDerivedFeaturesTest());
     tests.add(new TraceableElementDerivedFeaturesTest());
@@ -98,6 +106,12 @@ public class ModelTestSuite extends BasicTestSuite {
     tests.add(new ComponentExtTestCase());
     tests.add(new ComponentPkgExtTestCase());
     tests.add(new PartExtTestCase());
+    tests.add(new EObjectExtTestCase());
+    tests.add(new DerivedFeatureCacheTestCase());
+    tests.add(new ExtentIndexTestCase());
+    tests.add(new IdIndexTestCase());
+    tests.add(new RepresentationDescriptorIndexTestCase());
+    tests.add(new SharedReadOnlyCommandTestCase());
     tests.add(new PhysicalComponentExtTestCase());
 
     tests.add(new DiffMergeTestSuite());
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.platform.ju.testcases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.LongStream;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.sirius.business.api.session.Session;
+import org.polarsys.capella.common.data.modellingcore.AbstractNamedElement;
+import org.polarsys.capella.core.ui.search.index.CapellaSearchIndex;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks the parsing of plain text patterns by {@link CapellaSearchIndex}, and that its candidates include all the
+ * matching elements.
+ */
+public class CapellaSearchIndexTest extends BasicTestCase {
+
+  private static final String MODEL_NAME = "TestNavigationDoubleClick"; //$NON-NLS-1$
+
+  @Override
+  public void test() throws Exception {
+    testPatternTrigrams();
+    testCandidates();
+  }
+
+  protected void testPatternTrigrams() {
+    // Literal parts shorter than 3 characters have no trigram
+    assertEquals(0, CapellaSearchIndex.getPatternTrigrams(null).length);
+    assertEquals(0, CapellaSearchIndex.getPatternTrigrams("").length); //$NON-NLS-1$
+    assertEquals(0, CapellaSearchIndex.getPatternTrigrams("ab").length); //$NON-NLS-1$
+    assertEquals(0, CapellaSearchIndex.getPatternTrigrams("ab*cd?ef").length); //$NON-NLS-1$
+
+    // Trigrams are distinct and sorted
+    assertEquals(2, CapellaSearchIndex.getPatternTrigrams("abcd").length); //$NON-NLS-1$
+    assertEquals(1, CapellaSearchIndex.getPatternTrigrams("aaaaaa").length); //$NON-NLS-1$
+    long[] trigrams = CapellaSearchIndex.getPatternTrigrams("zyxwvu"); //$NON-NLS-1$
+    long[] sorted = trigrams.clone();
+    Arrays.sort(sorted);
+    assertTrue(Arrays.equals(sorted, trigrams));
+
+    // Case is folded
+    assertTrue(Arrays.equals(CapellaSearchIndex.getPatternTrigrams("abcd"), //$NON-NLS-1$
+        CapellaSearchIndex.getPatternTrigrams("aBCd"))); //$NON-NLS-1$
+
+    // Wildcards and escapes split the literal parts, no trigram spans them
+    long[] abcAndDef = union(CapellaSearchIndex.getPatternTrigrams("abc"), //$NON-NLS-1$
+        CapellaSearchIndex.getPatternTrigrams("def")); //$NON-NLS-1$
+    assertTrue(Arrays.equals(abcAndDef, CapellaSearchIndex.getPatternTrigrams("abc*def"))); //$NON-NLS-1$
+    assertTrue(Arrays.equals(abcAndDef, CapellaSearchIndex.getPatternTrigrams("abc?def"))); //$NON-NLS-1$
+    assertTrue(Arrays.equals(abcAndDef, CapellaSearchIndex.getPatternTrigrams("abc\\*def"))); //$NON-NLS-1$
+    assertTrue(Arrays.equals(abcAndDef, CapellaSearchIndex.getPatternTrigrams("abc\\\\def"))); //$NON-NLS-1$
+    assertTrue(Arrays.equals(abcAndDef, CapellaSearchIndex.getPatternTrigrams("*abc**def?"))); //$NON-NLS-1$
+  }
+
+  protected void testCandidates() {
+    Session session = getSession(MODEL_NAME);
+    CapellaSearchIndex index = CapellaSearchIndex.getIndex(session);
+
+    // Patterns without a literal part of 3 characters cannot use the index
+    assertNull(index.getCandidates("ab")); //$NON-NLS-1$
+    assertNull(index.getCandidates("a*bc?d")); //$NON-NLS-1$
+
+    List<AbstractNamedElement> namedElements = new ArrayList<>();
+    for (Resource resource : session.getSemanticResources()) {
+      for (TreeIterator<EObject> it = resource.getAllContents(); it.hasNext();) {
+        EObject element = it.next();
+        if (element instanceof AbstractNamedElement && ((AbstractNamedElement) element).getName() != null
+            && ((AbstractNamedElement) element).getName().length() >= 4) {
+          namedElements.add((AbstractNamedElement) element);
+        }
+      }
+    }
+    assertFalse(namedElements.isEmpty());
+
+    // All the elements matching a pattern are candidates, whatever the case, in containment order
+    String name = namedElements.get(namedElements.size() / 2).getName();
+    String pattern = name.substring(1, 4).toUpperCase(Locale.ROOT);
+    List<EObject> expected = new ArrayList<>();
+    for (AbstractNamedElement element : namedElements) {
+      if (element.getName().toUpperCase(Locale.ROOT).contains(pattern)) {
+        expected.add(element);
+      }
+    }
+    Collection<EObject> candidates = index.getCandidates(pattern);
+    assertNotNull(candidates);
+    List<EObject> matchingCandidates = new ArrayList<>(candidates);
+    matchingCandidates.retainAll(expected);
+    assertEquals(expected, matchingCandidates);
+
+    // Changed elements are candidates before the index is rebuilt
+    AbstractNamedElement renamed = namedElements.get(0);
+    String newName = "qzxw" + renamed.getName(); //$NON-NLS-1$
+    TransactionalEditingDomain domain = session.getTransactionalEditingDomain();
+    domain.getCommandStack().execute(new RecordingCommand(domain) {
+      @Override
+      protected void doExecute() {
+        renamed.setName(newName);
+      }
+    });
+    assertTrue(index.getCandidates("QZXW").contains(renamed)); //$NON-NLS-1$
+    assertTrue(index.getCandidates("qzx*").contains(renamed)); //$NON-NLS-1$
+  }
+
+  private static long[] union(long[] first, long[] second) {
+    return LongStream.concat(Arrays.stream(first), Arrays.stream(second)).distinct().sorted().toArray();
+  }
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Collections.singletonList(MODEL_NAME);
+  }
+}
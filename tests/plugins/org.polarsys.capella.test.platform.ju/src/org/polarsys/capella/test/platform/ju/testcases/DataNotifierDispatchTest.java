@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.platform.ju.testcases;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.polarsys.capella.common.platform.sirius.ted.DataNotifier;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks the class-based dispatch, the coalescing and the statistics of {@link DataNotifier}.
+ */
+public class DataNotifierDispatchTest extends BasicTestCase {
+
+  class RecordingAdapter extends AdapterImpl {
+    List<Notification> notifications = new ArrayList<>();
+
+    @Override
+    public void notifyChanged(Notification notification) {
+      notifications.add(notification);
+    }
+  }
+
+  @Override
+  public void test() throws Exception {
+    TransactionalEditingDomain domain = TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+    try {
+      DataNotifier notifier = new DataNotifier(domain);
+      EPackage pkg = EcoreFactory.eINSTANCE.createEPackage();
+      EClass cls = EcoreFactory.eINSTANCE.createEClass();
+      pkg.getEClassifiers().add(cls);
+      pkg.eAdapters().add(notifier);
+
+      RecordingAdapter classAdapter = new RecordingAdapter();
+      RecordingAdapter classifierAdapter = new RecordingAdapter();
+      notifier.addAdapter(EClass.class, classAdapter);
+
+      // Only adapters registered for a super type of the notifier are notified
+      pkg.setName("pkg"); //$NON-NLS-1$
+      cls.setName("cls1"); //$NON-NLS-1$
+      assertEquals(1, classAdapter.notifications.size());
+      assertEquals(2, notifier.getNotificationCount());
+
+      // Adding an adapter invalidates the resolved dispatch
+      notifier.addAdapter(EClassifier.class, classifierAdapter);
+      notifier.addAdapter(EClass.class, classifierAdapter);
+      cls.setName("cls2"); //$NON-NLS-1$
+      assertEquals(2, classAdapter.notifications.size());
+      assertEquals(1, classifierAdapter.notifications.size());
+
+      // Successive sets of a feature are merged into one notification
+      notifier.setStatisticsEnabled(true);
+      notifier.runCoalesced(() -> {
+        cls.setName("cls3"); //$NON-NLS-1$
+        notifier.runCoalesced(() -> cls.setName("cls4")); //$NON-NLS-1$
+        cls.setAbstract(true);
+        assertEquals(2, classAdapter.notifications.size());
+      });
+      assertEquals(4, classAdapter.notifications.size());
+      Notification merged = classAdapter.notifications.get(2);
+      assertEquals("cls2", merged.getOldValue()); //$NON-NLS-1$
+      assertEquals("cls4", merged.getNewValue()); //$NON-NLS-1$
+      assertEquals(Boolean.TRUE, classAdapter.notifications.get(3).getNewValue());
+      assertEquals(2, notifier.getAdapterStatistics().get(classAdapter).getNotificationCount());
+
+      // Removing an adapter invalidates the resolved dispatch
+      notifier.remove(classAdapter);
+      cls.setName("cls5"); //$NON-NLS-1$
+      assertEquals(4, classAdapter.notifications.size());
+      assertEquals(4, classifierAdapter.notifications.size());
+
+      notifier.setStatisticsEnabled(false);
+      assertTrue(notifier.getAdapterStatistics().isEmpty());
+      pkg.eAdapters().remove(notifier);
+    } finally {
+      domain.dispose();
+    }
+  }
+}
@@ -66,7 +66,15 @@ public class ExportCSVPreferencesTest extends BasicTestCase {
         new String[] { "line3", "val3" });
     String filename = "test.csv";
     dataExporter.exportToFile(filename, data);
+    checkExportedFile(filename, data, separatorCode);
 
+    // Rows pulled from an iterator while they are written
+    String streamFilename = "test_stream.csv";
+    assertTrue(dataExporter.exportToFile(streamFilename, data.iterator()));
+    checkExportedFile(streamFilename, data, separatorCode);
+  }
+
+  private void checkExportedFile(String filename, List<String[]> data, char separatorCode) {
     try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
       for (String[] dataLine : data) {
         String line = br.readLine();
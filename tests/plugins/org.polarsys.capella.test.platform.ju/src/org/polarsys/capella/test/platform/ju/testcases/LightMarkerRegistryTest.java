@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.platform.ju.testcases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.polarsys.capella.common.tools.report.appenders.reportlogview.IMarkerSourceListener;
+import org.polarsys.capella.common.tools.report.appenders.reportlogview.LightMarkerRegistry;
+import org.polarsys.capella.core.data.capellacore.CapellacoreFactory;
+import org.polarsys.capella.core.data.capellacore.Constraint;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks the indexes and the batched notifications of {@link LightMarkerRegistry}.
+ */
+public class LightMarkerRegistryTest extends BasicTestCase {
+
+  List<Collection<IMarker>> added = new ArrayList<>();
+
+  List<Collection<IMarker>> deleted = new ArrayList<>();
+
+  IMarkerSourceListener listener = new IMarkerSourceListener() {
+    @Override
+    public void markerAdded(IMarker marker) {
+      added.add(Arrays.asList(marker));
+    }
+
+    @Override
+    public void markerDeleted(IMarker marker) {
+      deleted.add(Arrays.asList(marker));
+    }
+
+    @Override
+    public void markersAdded(Collection<IMarker> markers) {
+      added.add(new ArrayList<>(markers));
+    }
+
+    @Override
+    public void markersDeleted(Collection<IMarker> markers) {
+      deleted.add(new ArrayList<>(markers));
+    }
+
+    @Override
+    public void markerChanged(IMarkerDelta marker) {
+      // Nothing here
+    }
+  };
+
+  @Override
+  public void test() throws Exception {
+    LightMarkerRegistry registry = new LightMarkerRegistry();
+    registry.addListener(listener);
+    IFile file1 = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path("/project/model1.aird")); //$NON-NLS-1$
+    IFile file2 = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path("/project/model2.aird")); //$NON-NLS-1$
+
+    // Bulk creation is notified once
+    List<IMarker> markers = registry.createMarkers(file1,
+        Arrays.asList(createDiagnostic("rule1"), createDiagnostic("rule2"), createDiagnostic("rule1")), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        IMarker.PROBLEM, null);
+    assertEquals(1, added.size());
+    assertEquals(markers, added.get(0));
+
+    // Creations of a batch are notified once, at the end of the outermost batch
+    IMarker marker = registry.createMarker(file2, createDiagnostic("rule2"), IMarker.PROBLEM); //$NON-NLS-1$
+    registry.runInBatch(() -> {
+      registry.createMarker(file2, createDiagnostic("rule3"), IMarker.PROBLEM); //$NON-NLS-1$
+      registry.runInBatch(() -> registry.createMarker(file2, createDiagnostic("rule3"), IMarker.PROBLEM)); //$NON-NLS-1$
+      assertEquals(2, added.size());
+    });
+    assertEquals(3, added.size());
+    assertEquals(2, added.get(2).size());
+
+    // Markers are indexed and listed in creation order
+    assertEquals(6, registry.getMarkers().size());
+    assertEquals(markers.get(0), registry.getMarkers().iterator().next());
+    assertEquals(3, registry.getMarkers(file1).size());
+    assertEquals(3, registry.getMarkers(file2).size());
+    assertEquals(2, registry.getMarkersByRuleId("rule1").size()); //$NON-NLS-1$
+    assertEquals(2, registry.getMarkersByRuleId("rule2").size()); //$NON-NLS-1$
+
+    // Bulk deletion is notified once and updates indexes
+    registry.deleteMarkers(markers);
+    assertEquals(1, deleted.size());
+    assertEquals(3, deleted.get(0).size());
+    assertFalse(markers.get(0).exists());
+    assertTrue(registry.getMarkers(file1).isEmpty());
+    assertTrue(registry.getMarkersByRuleId("rule1").isEmpty()); //$NON-NLS-1$
+    assertEquals(1, registry.getMarkersByRuleId("rule2").size()); //$NON-NLS-1$
+
+    // Deleted markers are ignored
+    registry.deleteMarkers(markers);
+    assertEquals(1, deleted.size());
+
+    marker.delete();
+    assertEquals(2, deleted.size());
+    assertEquals(2, registry.getMarkers().size());
+
+    // Markers created then deleted during a batch are not notified
+    IMarker kept = registry.createMarker(file1, createDiagnostic("rule4"), IMarker.PROBLEM); //$NON-NLS-1$
+    assertEquals(4, added.size());
+    registry.runInBatch(() -> {
+      IMarker transientMarker = registry.createMarker(file1, createDiagnostic("rule4"), IMarker.PROBLEM); //$NON-NLS-1$
+      IMarker createdMarker = registry.createMarker(file1, createDiagnostic("rule4"), IMarker.PROBLEM); //$NON-NLS-1$
+      registry.deleteMarkers(Arrays.asList(transientMarker, kept));
+      assertTrue(createdMarker.exists());
+    });
+    assertEquals(5, added.size());
+    assertEquals(1, added.get(4).size());
+    assertEquals(3, deleted.size());
+    assertEquals(Arrays.asList(kept), deleted.get(2));
+    assertEquals(1, registry.getMarkersByRuleId("rule4").size()); //$NON-NLS-1$
+
+    // Markers are removed from the index of the element id they were indexed with
+    Constraint element = CapellacoreFactory.eINSTANCE.createConstraint();
+    element.setId("element1"); //$NON-NLS-1$
+    IMarker elementMarker = registry.createMarker(file1,
+        new BasicDiagnostic(Diagnostic.ERROR, "rule5", 0, "rule5", new Object[] { element }), IMarker.PROBLEM); //$NON-NLS-1$ //$NON-NLS-2$
+    assertEquals(Arrays.asList(elementMarker), new ArrayList<>(registry.getMarkersByElementId("element1"))); //$NON-NLS-1$
+    element.setId("element2"); //$NON-NLS-1$
+    elementMarker.delete();
+    assertTrue(registry.getMarkersByElementId("element1").isEmpty()); //$NON-NLS-1$
+    assertTrue(registry.getMarkersByRuleId("rule5").isEmpty()); //$NON-NLS-1$
+    registry.removeListener(listener);
+  }
+
+  private Diagnostic createDiagnostic(String ruleId) {
+    return new BasicDiagnostic(Diagnostic.ERROR, ruleId, 0, ruleId, new Object[0]);
+  }
+}
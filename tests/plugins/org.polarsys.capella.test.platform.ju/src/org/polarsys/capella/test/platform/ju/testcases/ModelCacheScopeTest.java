@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.platform.ju.testcases;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.polarsys.capella.common.helpers.cache.CachedBiFunction;
+import org.polarsys.capella.common.helpers.cache.CachedFunction;
+import org.polarsys.capella.common.helpers.cache.ModelCache;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks isolation and invalidation of the editing domain scopes of {@link ModelCache}.
+ */
+public class ModelCacheScopeTest extends BasicTestCase {
+
+  AtomicInteger computations = new AtomicInteger();
+
+  CachedFunction<EPackage, Integer> classifiersCount = pkg -> {
+    computations.incrementAndGet();
+    return pkg.getEClassifiers().size();
+  };
+
+  CachedFunction<EPackage, String> packageName = pkg -> {
+    computations.incrementAndGet();
+    return pkg.getName();
+  };
+
+  Function<EPackage, String> plainPackageName = pkg -> {
+    computations.incrementAndGet();
+    return pkg.getName();
+  };
+
+  CachedBiFunction<EPackage, String, String> prefixedName(String prefix) {
+    return (pkg, suffix) -> prefix + pkg.getName() + suffix;
+  }
+
+  @Override
+  public void test() throws Exception {
+    TransactionalEditingDomain domain = TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+    try {
+      EPackage pkg = EcoreFactory.eINSTANCE.createEPackage();
+      domain.getCommandStack().execute(new RecordingCommand(domain) {
+        @Override
+        protected void doExecute() {
+          Resource resource = domain.getResourceSet().createResource(URI.createURI("memory:/scope.ecore")); //$NON-NLS-1$
+          pkg.setName("scope"); //$NON-NLS-1$
+          resource.getContents().add(pkg);
+        }
+      });
+
+      // Nested global activations are balanced
+      ModelCache.enable();
+      ModelCache.enable();
+      ModelCache.disable();
+      assertTrue(ModelCache.isEnabled());
+      ModelCache.disable();
+      assertFalse(ModelCache.isEnabled());
+
+      // A scope is bound to the thread that activated it
+      ModelCache.enable(domain);
+      try {
+        assertTrue(ModelCache.isEnabled());
+        AtomicBoolean enabledElsewhere = new AtomicBoolean(true);
+        Thread other = new Thread(() -> enabledElsewhere.set(ModelCache.isEnabled()));
+        other.start();
+        other.join();
+        assertFalse(enabledElsewhere.get());
+
+        assertEquals(Integer.valueOf(0), classifiersCount.get(pkg));
+        classifiersCount.get(pkg);
+        assertEquals(1, computations.get());
+      } finally {
+        ModelCache.disable(domain);
+      }
+      assertFalse(ModelCache.isEnabled());
+
+      // Results survive between activations
+      ModelCache.enable(domain);
+      try {
+        classifiersCount.get(pkg);
+        assertEquals(1, computations.get());
+      } finally {
+        ModelCache.disable(domain);
+      }
+
+      ModelCache.declareDependencies(packageName, EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+      ModelCache.enable(domain);
+      try {
+        packageName.get(pkg);
+        assertEquals(2, computations.get());
+      } finally {
+        ModelCache.disable(domain);
+      }
+
+      // A model change invalidates functions without dependencies, and functions depending on the changed feature
+      domain.getCommandStack().execute(new RecordingCommand(domain) {
+        @Override
+        protected void doExecute() {
+          EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+          pkg.getEClassifiers().add(eClass);
+        }
+      });
+
+      ModelCache.enable(domain);
+      try {
+        assertEquals(Integer.valueOf(1), classifiersCount.get(pkg));
+        assertEquals(3, computations.get());
+        packageName.get(pkg);
+        assertEquals(3, computations.get());
+      } finally {
+        ModelCache.disable(domain);
+      }
+
+      domain.getCommandStack().execute(new RecordingCommand(domain) {
+        @Override
+        protected void doExecute() {
+          pkg.setName("renamed"); //$NON-NLS-1$
+        }
+      });
+
+      ModelCache.enable(domain);
+      try {
+        assertEquals("renamed", packageName.get(pkg)); //$NON-NLS-1$
+        assertEquals(4, computations.get());
+      } finally {
+        ModelCache.disable(domain);
+      }
+
+      // Results of plain functions are only kept while the scope is active
+      ModelCache.enable(domain);
+      try {
+        ModelCache.getCache(plainPackageName, pkg);
+        ModelCache.getCache(plainPackageName, pkg);
+        assertEquals(5, computations.get());
+      } finally {
+        ModelCache.disable(domain);
+      }
+      ModelCache.enable(domain);
+      try {
+        ModelCache.getCache(plainPackageName, pkg);
+        assertEquals(6, computations.get());
+      } finally {
+        ModelCache.disable(domain);
+      }
+
+      // Bi-functions created at the same location do not share their results
+      ModelCache.enable(domain);
+      try {
+        assertEquals("a-renamed", prefixedName("a-").get(pkg, "")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals("b-renamed", prefixedName("b-").get(pkg, "")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+      } finally {
+        ModelCache.disable(domain);
+      }
+
+    } finally {
+      domain.dispose();
+    }
+  }
+}
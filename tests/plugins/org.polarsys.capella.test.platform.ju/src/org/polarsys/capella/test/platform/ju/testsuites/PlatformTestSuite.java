@@ -25,10 +25,12 @@ import org.polarsys.capella.test.platform.ju.testcases.CapellaDefaultEditorEnabl
 import org.polarsys.capella.test.platform.ju.testcases.CapellaLoggerConfigTestCase;
 import org.polarsys.capella.test.platform.ju.testcases.CapellaNavigateOnDoubleClickTestCase;
 import org.polarsys.capella.test.platform.ju.testcases.CapellaPlatformVersionNotNull;
+import org.polarsys.capella.test.platform.ju.testcases.CapellaSearchIndexTest;
 import org.polarsys.capella.test.platform.ju.testcases.CapellaSiriusCustomisationEnabled;
 import org.polarsys.capella.test.platform.ju.testcases.CapellaVersionConsistencyTest;
 import org.polarsys.capella.test.platform.ju.testcases.CustomDAnalysisSelection;
 import org.polarsys.capella.test.platform.ju.testcases.DataNotifierBeforeTransactionRecorder;
+import org.polarsys.capella.test.platform.ju.testcases.DataNotifierDispatchTest;
 import org.polarsys.capella.test.platform.ju.testcases.DerivedFeaturesImplementation;
 import org.polarsys.capella.test.platform.ju.testcases.DiffmergeExternalReferences;
 import org.polarsys.capella.test.platform.ju.testcases.ExportCSVPreferencesTest;
@@ -36,6 +38,8 @@ import org.polarsys.capella.test.platform.ju.testcases.InvalidPreferencesInitial
 import org.polarsys.capella.test.platform.ju.testcases.InvalidRepresentationDescriptorAdapterFactory;
 import org.polarsys.capella.test.platform.ju.testcases.JobLogTest;
 import org.polarsys.capella.test.platform.ju.testcases.LicenceTest;
+import org.polarsys.capella.test.platform.ju.testcases.LightMarkerRegistryTest;
+import org.polarsys.capella.test.platform.ju.testcases.ModelCacheScopeTest;
 import org.polarsys.capella.test.platform.ju.testcases.ProjectSelectionDialogTest;
 import org.polarsys.capella.test.platform.ju.testcases.PropertiesWizardIconTest;
 import org.polarsys.capella.test.platform.ju.testcases.ViatraSurrogateAllDerivedFeaturesImplemented;
@@ -61,6 +65,8 @@ public class PlatformTestSuite extends BasicTestSuite {
   protected List<BasicTestArtefact> getTests() {
     List<BasicTestArtefact> tests = new ArrayList<BasicTestArtefact>();
     tests.add(new CacheTest());
+    tests.add(new ModelCacheScopeTest());
+    tests.add(new LightMarkerRegistryTest());
     tests.add(new CapellaVersionConsistencyTest());
     tests.add(new CapellaSiriusCustomisationEnabled());
     tests.add(new CapellaPlatformVersionNotNull());
@@ -76,12 +82,14 @@ public class PlatformTestSuite extends BasicTestSuite {
     tests.add(new InvalidPreferencesInitializer());
     tests.add(new ProjectSelectionDialogTest());
     tests.add(new DataNotifierBeforeTransactionRecorder());
+    tests.add(new DataNotifierDispatchTest());
     tests.add(new AboutInfoTest());
     tests.add(new LicenceTest());
     tests.add(new JobLogTest());
     tests.add(new CapellaLoggerConfigTestCase());
     tests.add(new CustomDAnalysisSelection());
     tests.add(new CapellaNavigateOnDoubleClickTestCase());
+    tests.add(new CapellaSearchIndexTest());
 
     return tests;
   }
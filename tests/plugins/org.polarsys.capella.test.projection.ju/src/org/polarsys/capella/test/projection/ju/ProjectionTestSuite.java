@@ -43,7 +43,8 @@ public class ProjectionTestSuite extends BasicTestSuite {
         new GenerateInterfacesTest("test9.3"), //$NON-NLS-1$
         new GenerateInterfacesTest("test9.4"), //$NON-NLS-1$
         new Rule_DWF_I_23(),
-        new FC2FSTest()
+        new FC2FSTest(),
+        new TransfoTraceIndexTest()
     );
   }
 
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.projection.ju;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.polarsys.capella.common.data.modellingcore.AbstractTrace;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.core.data.capellacommon.CapellacommonPackage;
+import org.polarsys.capella.core.data.capellacommon.TransfoLink;
+import org.polarsys.capella.core.data.capellacore.CapellaElement;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.data.cs.CsPackage;
+import org.polarsys.capella.core.tiger.ITransfo;
+import org.polarsys.capella.core.tiger.TransfoException;
+import org.polarsys.capella.core.tiger.helpers.Query;
+import org.polarsys.capella.core.tiger.helpers.TigerRelationshipHelper;
+import org.polarsys.capella.core.tiger.helpers.TransfoTraceIndex;
+import org.polarsys.capella.core.tiger.impl.Transfo;
+import org.polarsys.capella.core.tiger.impl.TransfoEngine;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+import org.polarsys.capella.test.framework.helpers.TestHelper;
+
+/**
+ * Test to check that the lookups of transformed elements return the same elements with and without the trace index of
+ * the transformation, including for links created while the index is used.
+ */
+public class TransfoTraceIndexTest extends BasicTestCase {
+
+  private static final String MODEL_NAME = "testInterfacesFromAllocatedFunctions"; //$NON-NLS-1$
+
+  private static final String INTERFACE_GENERATION_RULES = "org.polarsys.capella.core.projection.interfaces.generation"; //$NON-NLS-1$
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Collections.singletonList(MODEL_NAME);
+  }
+
+  @Override
+  public void test() throws Exception {
+    Resource resource = TestHelper.getSemanticResource(getSessionForTestModel(MODEL_NAME));
+    List<CapellaElement> elements = new ArrayList<CapellaElement>();
+    Component component = null;
+    for (Iterator<EObject> it = resource.getAllContents(); it.hasNext();) {
+      EObject next = it.next();
+      if ((next instanceof CapellaElement) && !((CapellaElement) next).getIncomingTraces().isEmpty()) {
+        elements.add((CapellaElement) next);
+      }
+      if ((component == null) && (next instanceof Component)) {
+        component = (Component) next;
+      }
+    }
+    assertFalse(elements.isEmpty());
+    assertNotNull(component);
+
+    ITransfo transfo = new Transfo(CapellacommonPackage.Literals.TRANSFO_LINK, INTERFACE_GENERATION_RULES);
+
+    // Index half of the elements as the engine does with its agenda, the other ones are indexed on first lookup
+    TransfoTraceIndex index = new TransfoTraceIndex(transfo);
+    index.addAll(elements.subList(0, elements.size() / 2));
+    assertSameLookups(elements, transfo, index);
+
+    // Links created during the run are seen by the index
+    CapellaElement source = elements.get(0);
+    Component target = component;
+    TestHelper.getExecutionManager(source).execute(new AbstractReadWriteCommand() {
+      @Override
+      public void run() {
+        transfo.put(TransfoEngine.TRACE_INDEX, index);
+        try {
+          AbstractTrace link = TigerRelationshipHelper.createTransfoLink(source, target, transfo);
+          target.getOwnedTraces().add((TransfoLink) link);
+        } catch (TransfoException exception) {
+          fail(exception.getMessage());
+        } finally {
+          transfo.remove(TransfoEngine.TRACE_INDEX);
+        }
+      }
+    });
+    assertTrue(Query.retrieveTransformedElements(source, transfo).contains(target));
+    assertSameLookups(elements, transfo, index);
+  }
+
+  private void assertSameLookups(List<CapellaElement> elements, ITransfo transfo, TransfoTraceIndex index) {
+    for (CapellaElement element : elements) {
+      List<? extends EObject> expected = Query.retrieveTransformedElements(element, transfo);
+      List<? extends EObject> expectedComponents = Query.retrieveTransformedElements(element, transfo,
+          CsPackage.Literals.COMPONENT);
+      Object expectedFirst = Query.retrieveTransformedElement(element, transfo);
+
+      transfo.put(TransfoEngine.TRACE_INDEX, index);
+      try {
+        assertEquals(expected, Query.retrieveTransformedElements(element, transfo));
+        assertEquals(expectedComponents,
+            Query.retrieveTransformedElements(element, transfo, CsPackage.Literals.COMPONENT));
+        assertEquals(expectedFirst, Query.retrieveTransformedElement(element, transfo));
+      } finally {
+        transfo.remove(TransfoEngine.TRACE_INDEX);
+      }
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.recrpl.ju.testcases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.polarsys.capella.common.queries.interpretor.QueryInterpretor;
+import org.polarsys.capella.common.re.CatalogElement;
+import org.polarsys.capella.common.re.CatalogElementLink;
+import org.polarsys.capella.common.re.ReFactory;
+import org.polarsys.capella.common.re.handlers.replicable.CatalogElementLinkIndex;
+import org.polarsys.capella.common.re.queries.CatalogElement_AllUsedCatalogElements;
+import org.polarsys.capella.common.re.queries.CatalogElement_AllUsedElementLinks;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that the links found through a {@link CatalogElementLinkIndex} are the first ones returned by
+ * {@link CatalogElement_AllUsedElementLinks}, with catalog elements using each other and links sharing targets, before
+ * and after changes of the links.
+ */
+public class CatalogElementLinkIndex_FirstLinks extends BasicTestCase {
+
+  private final List<EObject> targets = new ArrayList<>();
+
+  private final List<CatalogElementLink> links = new ArrayList<>();
+
+  @Override
+  public void test() throws Exception {
+    CatalogElement a = ReFactory.eINSTANCE.createCatalogElement();
+    CatalogElement b = ReFactory.eINSTANCE.createCatalogElement();
+    CatalogElement c = ReFactory.eINSTANCE.createCatalogElement();
+    CatalogElement unused = ReFactory.eINSTANCE.createCatalogElement();
+    for (int i = 0; i < 4; i++) {
+      targets.add(ReFactory.eINSTANCE.createCatalogElementPkg());
+    }
+    EObject t1 = targets.get(0);
+    EObject t2 = targets.get(1);
+    EObject t3 = targets.get(2);
+    EObject t4 = targets.get(3);
+
+    // a uses b and c, b uses a, c uses b
+    CatalogElementLink a1 = createLink(a, t1, null);
+    createLink(a, b, null);
+    CatalogElementLink a3 = createLink(a, t2, null);
+    createLink(a, c, null);
+    createLink(a, null, null);
+    createLink(b, t2, null);
+    createLink(b, a, null);
+    CatalogElementLink b3 = createLink(b, t3, null);
+    createLink(b, t1, a1);
+    CatalogElementLink c1 = createLink(c, t3, null);
+    createLink(c, b, null);
+    createLink(c, t4, b3);
+    a3.setOrigin(c1);
+    createLink(unused, t1, a1);
+
+    CatalogElementLinkIndex index = new CatalogElementLinkIndex(a);
+    try {
+      assertEquivalent(index);
+      assertTrue(index.isUsed(c));
+      assertFalse(index.isUsed(unused));
+
+      // Moved links
+      b.getOwnedLinks().move(0, 3);
+      c.getOwnedLinks().move(2, 0);
+      assertEquivalent(index);
+
+      // Added and removed links
+      createLink(b, t4, null);
+      b.getOwnedLinks().add(0, createLink(null, t3, c1));
+      a.getOwnedLinks().remove(a3);
+      assertEquivalent(index);
+
+      // Changed targets and origins
+      a1.setTarget(t4);
+      b3.setOrigin(a1);
+      assertEquivalent(index);
+
+      // Changed used catalog elements
+      createLink(c, unused, null);
+      assertEquivalent(index);
+      assertTrue(index.isUsed(unused));
+
+      // Links which are not owned have no position
+      CatalogElementLink detached = createLink(null, t3, b3);
+      assertSame(b3, index.getFirstOppositeLink(detached));
+      c.getOwnedLinks().remove(c1);
+      assertEquivalent(index);
+
+    } finally {
+      index.dispose();
+    }
+    assertTrue(a.eAdapters().isEmpty());
+    assertTrue(b3.eAdapters().isEmpty());
+  }
+
+  private CatalogElementLink createLink(CatalogElement element, EObject target, CatalogElementLink origin) {
+    CatalogElementLink link = ReFactory.eINSTANCE.createCatalogElementLink();
+    link.setTarget(target);
+    link.setOrigin(origin);
+    if (element != null) {
+      link.setSource(element);
+      element.getOwnedLinks().add(link);
+    }
+    links.add(link);
+    return link;
+  }
+
+  /**
+   * Checks that the index finds the first links found by browsing the links returned by the query, as
+   * ReplicableElementHandler did.
+   */
+  private void assertEquivalent(CatalogElementLinkIndex index) {
+    CatalogElement root = index.getRoot();
+    List<CatalogElementLink> usedLinks = QueryInterpretor
+        .executeQuery(CatalogElement_AllUsedElementLinks.class.getSimpleName(), root);
+    Collection<CatalogElement> usedElements = QueryInterpretor
+        .executeQuery(CatalogElement_AllUsedCatalogElements.class.getSimpleName(), root);
+
+    for (EObject target : targets) {
+      assertSame(getFirstLink(usedLinks, target), index.getFirstLink(target));
+      for (EObject otherTarget : targets) {
+        assertSame(getFirstLink(usedLinks, target, otherTarget), index.getFirstLink(target, otherTarget));
+      }
+    }
+    for (CatalogElementLink link : links) {
+      assertSame(getFirstOppositeLink(usedLinks, link), index.getFirstOppositeLink(link));
+      if (link.getSource() != null) {
+        assertEquals(usedElements.contains(link.getSource()), index.isUsed(link.getSource()));
+      }
+    }
+  }
+
+  private CatalogElementLink getFirstLink(List<CatalogElementLink> usedLinks, EObject... values) {
+    for (CatalogElementLink usedLink : usedLinks) {
+      if (Arrays.asList(values).contains(usedLink.getTarget())) {
+        return usedLink;
+      }
+    }
+    return null;
+  }
+
+  private CatalogElementLink getFirstOppositeLink(List<CatalogElementLink> usedLinks, CatalogElementLink link) {
+    for (CatalogElementLink usedLink : usedLinks) {
+      if (link.equals(usedLink.getOrigin()) || usedLink.equals(link.getOrigin())) {
+        return usedLink;
+      }
+    }
+    return null;
+  }
+}
@@ -17,6 +17,7 @@ import java.util.List;
 
 import org.polarsys.capella.test.framework.api.BasicTestArtefact;
 import org.polarsys.capella.test.framework.api.BasicTestSuite;
+import org.polarsys.capella.test.recrpl.ju.testcases.CatalogElementLinkIndex_FirstLinks;
 import org.polarsys.capella.test.recrpl.ju.testcases.CatalogPkgName;
 import org.polarsys.capella.test.recrpl.ju.testcases.CompositeREC;
 import org.polarsys.capella.test.recrpl.ju.testcases.CreateREC_ComponentFunctionalAllocation;
@@ -77,6 +78,7 @@ public class RecRplTestSuite extends BasicTestSuite {
   @Override
   protected List<BasicTestArtefact> getTests() {
     List<BasicTestArtefact> tests = new ArrayList<BasicTestArtefact>();
+    tests.add(new CatalogElementLinkIndex_FirstLinks());
     tests.add(new CatalogPkgName());
     tests.add(new CreateREC_ComponentFunctionalAllocation());
     tests.add(new CreateREC_ContainedInCatalog());
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.transition.ju.testcases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.polarsys.capella.core.transition.common.exception.TransitionException;
+import org.polarsys.capella.core.transition.common.transposer.ExtendedTopologicalSorter;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+import org.polarsys.kitalpha.transposer.analyzer.graph.Edge;
+import org.polarsys.kitalpha.transposer.analyzer.graph.Graph;
+import org.polarsys.kitalpha.transposer.analyzer.graph.GraphFactory;
+import org.polarsys.kitalpha.transposer.analyzer.graph.Vertex;
+
+/**
+ * Checks the order of the vertices sorted by {@link ExtendedTopologicalSorter}: each vertex comes after the vertices it
+ * depends on, independent vertices keep the order of the vertices to sort, and cycles are broken on non critical edges.
+ */
+public class ExtendedTopologicalSorterTest extends BasicTestCase {
+
+  private Graph graph;
+
+  @Override
+  public void test() throws Exception {
+    testTies();
+    testCycles();
+    testRandomGraphs();
+  }
+
+  protected void testTies() {
+    graph = GraphFactory.eINSTANCE.createGraph();
+    Vertex<?> a = createVertex("a"); //$NON-NLS-1$
+    Vertex<?> b = createVertex("b"); //$NON-NLS-1$
+    Vertex<?> c = createVertex("c"); //$NON-NLS-1$
+    Vertex<?> d = createVertex("d"); //$NON-NLS-1$
+
+    // Without dependencies, vertices keep their order
+    assertEquals(Arrays.asList(d, b, a, c), sort(Arrays.asList(d, b, a, c), new HashSet<>()));
+
+    // Vertices of a wave are in the order of the vertices to sort, whatever the order of their dependencies
+    Edge<?> ac = addEdge(a, c, false);
+    addEdge(b, c, false);
+    addEdge(b, d, false);
+    assertEquals(Arrays.asList(c, d, a, b), sort(Arrays.asList(a, b, c, d), new HashSet<>()));
+    assertEquals(Arrays.asList(d, c, b, a), sort(Arrays.asList(d, b, c, a), new HashSet<>()));
+
+    // Dependencies through a backtrack are ignored
+    Set<Edge<?>> backtracks = new HashSet<>();
+    backtracks.add(ac);
+    assertEquals(Arrays.asList(a, c, d, b), sort(Arrays.asList(a, b, c, d), backtracks));
+  }
+
+  protected void testCycles() {
+    graph = GraphFactory.eINSTANCE.createGraph();
+    Vertex<?> a = createVertex("a"); //$NON-NLS-1$
+    Vertex<?> b = createVertex("b"); //$NON-NLS-1$
+    Vertex<?> c = createVertex("c"); //$NON-NLS-1$
+
+    // The remaining vertices of a cycle are sorted once its edges are considered as backtracks
+    Edge<?> ab = addEdge(a, b, false);
+    Edge<?> ba = addEdge(b, a, false);
+    addEdge(a, c, false);
+    Set<Edge<?>> backtracks = new HashSet<>();
+    assertEquals(Arrays.asList(c, a, b), sort(Arrays.asList(a, b, c), backtracks));
+    assertEquals(new HashSet<>(Arrays.asList(ab, ba)), backtracks);
+
+    // Critical edges are not broken
+    graph = GraphFactory.eINSTANCE.createGraph();
+    a = createVertex("a"); //$NON-NLS-1$
+    b = createVertex("b"); //$NON-NLS-1$
+    addEdge(a, b, true);
+    ba = addEdge(b, a, false);
+    backtracks = new HashSet<>();
+    assertEquals(Arrays.asList(b, a), sort(Arrays.asList(a, b), backtracks));
+    assertEquals(new HashSet<>(Arrays.asList(ba)), backtracks);
+
+    // A cycle of critical edges cannot be broken
+    graph = GraphFactory.eINSTANCE.createGraph();
+    a = createVertex("a"); //$NON-NLS-1$
+    b = createVertex("b"); //$NON-NLS-1$
+    addEdge(a, b, true);
+    addEdge(b, a, true);
+    try {
+      sort(Arrays.asList(a, b), new HashSet<>());
+      fail("A cycle of critical edges shall not be sorted"); //$NON-NLS-1$
+    } catch (TransitionException exception) {
+      // Expected
+    }
+  }
+
+  /**
+   * Sorts random graphs, with and without cycles, and checks that every vertex is sorted once, after the vertices it
+   * depends on through edges which are not backtracks.
+   */
+  protected void testRandomGraphs() {
+    Random random = new Random(42);
+    for (int run = 0; run < 20; run++) {
+      graph = GraphFactory.eINSTANCE.createGraph();
+      List<Vertex<?>> vertices = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        vertices.add(createVertex("v" + i)); //$NON-NLS-1$
+      }
+      boolean acyclic = run % 2 == 0;
+      for (int i = 0; i < 150; i++) {
+        int source = random.nextInt(vertices.size());
+        int target = random.nextInt(vertices.size());
+        if (source != target && (!acyclic || source > target)
+            && getEdge(vertices.get(source), vertices.get(target)) == null) {
+          addEdge(vertices.get(source), vertices.get(target), false);
+        }
+      }
+
+      Set<Edge<?>> backtracks = new HashSet<>();
+      List<Vertex<?>> sorted = sort(vertices, backtracks);
+      assertEquals(vertices.size(), sorted.size());
+      assertEquals(new HashSet<>(vertices), new HashSet<>(sorted));
+      if (acyclic) {
+        assertTrue(backtracks.isEmpty());
+      }
+      for (Vertex<?> vertex : vertices) {
+        for (Edge<?> edge : vertex.getOutgoingEdges()) {
+          if (!backtracks.contains(edge)) {
+            assertTrue(sorted.indexOf(edge.getTarget()) < sorted.indexOf(vertex));
+          }
+        }
+      }
+    }
+  }
+
+  private List<Vertex<?>> sort(List<Vertex<?>> vertices, Set<Edge<?>> backtracks) {
+    ExtendedTopologicalSorter sorter = new ExtendedTopologicalSorter(new LinkedHashSet<>(vertices), backtracks);
+    return new ArrayList<>(sorter.sort(null));
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private Vertex<?> createVertex(String name) {
+    Vertex vertex = GraphFactory.eINSTANCE.createVertex();
+    vertex.setContent(name);
+    vertex.setName(name);
+    graph.addVertex(vertex);
+    return vertex;
+  }
+
+  /**
+   * Adds an edge from the given source to the given target, on which the source depends.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private Edge<?> addEdge(Vertex<?> source, Vertex<?> target, boolean critical) {
+    graph.addAdjacent((Vertex) source, (Vertex) target, "", critical); //$NON-NLS-1$
+    return getEdge(source, target);
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private Edge<?> getEdge(Vertex<?> source, Vertex<?> target) {
+    return source.getOutgoingEdgeTo((Vertex) target);
+  }
+}
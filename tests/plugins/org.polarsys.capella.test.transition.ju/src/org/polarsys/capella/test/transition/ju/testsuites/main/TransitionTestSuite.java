@@ -22,6 +22,7 @@ import org.polarsys.capella.test.transition.ju.model.functionalchain.FunctionalC
 import org.polarsys.capella.test.transition.ju.model.modestate.StateMachineTransitionTestCase;
 import org.polarsys.capella.test.transition.ju.testcases.CommunicationMeanTestCase;
 import org.polarsys.capella.test.transition.ju.testcases.DataPkgReconciliation;
+import org.polarsys.capella.test.transition.ju.testcases.ExtendedTopologicalSorterTest;
 import org.polarsys.capella.test.transition.ju.testcases.FC2FSInitializationTestCase;
 import org.polarsys.capella.test.transition.ju.testcases.LcWithPropertyValueTestCase;
 import org.polarsys.capella.test.transition.ju.testcases.LogicalActorTransition;
@@ -50,6 +51,7 @@ public class TransitionTestSuite extends BasicTestSuite {
     List<BasicTestArtefact> tests = new ArrayList<BasicTestArtefact>();
 
     tests.add(new MergeCategoryManagerTest());
+    tests.add(new ExtendedTopologicalSorterTest());
     tests.add(new IncrementalModeTest());
     tests.add(new ReconciliationCommunicationLinks());
     tests.add(new ReconciliationInterfaceUsesImplements());
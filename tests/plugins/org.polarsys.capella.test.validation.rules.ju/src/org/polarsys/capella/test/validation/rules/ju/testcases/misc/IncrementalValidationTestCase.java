@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.validation.rules.ju.testcases.misc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.polarsys.capella.common.data.modellingcore.AbstractNamedElement;
+import org.polarsys.capella.common.ef.ExecutionManager;
+import org.polarsys.capella.common.ef.ExecutionManagerRegistry;
+import org.polarsys.capella.common.ef.command.AbstractReadWriteCommand;
+import org.polarsys.capella.core.data.capellamodeller.Project;
+import org.polarsys.capella.core.data.cs.Component;
+import org.polarsys.capella.core.libraries.model.ICapellaModel;
+import org.polarsys.capella.core.model.handler.validation.PartitionedValidator;
+import org.polarsys.capella.core.model.handler.validation.PluggableDiagnosticianProvider;
+import org.polarsys.capella.core.validation.incremental.IncrementalValidation;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that an incremental validation reports the same problems as a complete one.
+ */
+public class IncrementalValidationTestCase extends BasicTestCase {
+
+  private static String testModelName = "RulesOnDesignTest";
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(testModelName);
+  }
+
+  @Override
+  public void test() throws Exception {
+    ICapellaModel model = getTestModel(testModelName);
+    TransactionalEditingDomain domain = getSessionForTestModel(testModelName).getTransactionalEditingDomain();
+    Project project = model.getProject(domain);
+
+    try {
+      IncrementalValidation incrementalValidation = IncrementalValidation.enable(domain);
+      Set<String> problems = validate(project, domain);
+      assertFalse(problems.isEmpty());
+      assertTrue(incrementalValidation.size() > 0);
+      // Nothing changed: all results are reused
+      assertEquals(problems, validate(project, domain));
+
+      AbstractNamedElement component = getFirstComponent(project);
+      ExecutionManager manager = ExecutionManagerRegistry.getInstance().getExecutionManager(domain);
+      manager.execute(new AbstractReadWriteCommand() {
+        @Override
+        public void run() {
+          component.setName(""); //$NON-NLS-1$
+        }
+      });
+      Set<String> incrementalProblems = validate(project, domain);
+
+      IncrementalValidation.disable(domain);
+      assertEquals(validate(project, domain), incrementalProblems);
+    } finally {
+      IncrementalValidation.disable(domain);
+    }
+  }
+
+  private AbstractNamedElement getFirstComponent(Project project) {
+    for (Iterator<EObject> it = project.eAllContents(); it.hasNext();) {
+      EObject object = it.next();
+      if (object instanceof Component) {
+        return (Component) object;
+      }
+    }
+    fail("No component in " + testModelName); //$NON-NLS-1$
+    return null;
+  }
+
+  private Set<String> validate(Project project, TransactionalEditingDomain domain) {
+    BasicDiagnostic diagnostic = new BasicDiagnostic();
+    new PartitionedValidator(new PluggableDiagnosticianProvider(), null, domain, 1)
+        .validate(Collections.<EObject> singletonList(project), diagnostic, new NullProgressMonitor());
+    Set<String> problems = new TreeSet<>();
+    for (Diagnostic child : diagnostic.getChildren()) {
+      problems.add(child.getMessage() + child.getData());
+    }
+    return problems;
+  }
+}
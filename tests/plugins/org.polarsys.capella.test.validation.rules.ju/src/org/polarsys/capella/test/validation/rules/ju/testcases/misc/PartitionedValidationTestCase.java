@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2023 THALES GLOBAL SERVICES.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *    Thales - initial API and implementation
+ *******************************************************************************/
+package org.polarsys.capella.test.validation.rules.ju.testcases.misc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.polarsys.capella.core.data.capellamodeller.Project;
+import org.polarsys.capella.core.libraries.model.ICapellaModel;
+import org.polarsys.capella.core.model.handler.validation.PartitionedValidator;
+import org.polarsys.capella.core.model.handler.validation.PluggableDiagnosticianProvider;
+import org.polarsys.capella.test.framework.api.BasicTestCase;
+
+/**
+ * Checks that a partitioned validation reports the same problems as a sequential one, in the same order of elements.
+ */
+public class PartitionedValidationTestCase extends BasicTestCase {
+
+  private static String testModelName = "RulesOnDesignTest";
+
+  @Override
+  public List<String> getRequiredTestModels() {
+    return Arrays.asList(testModelName);
+  }
+
+  @Override
+  public void test() throws Exception {
+    ICapellaModel model = getTestModel(testModelName);
+    TransactionalEditingDomain domain = getSessionForTestModel(testModelName).getTransactionalEditingDomain();
+    Project project = model.getProject(domain);
+
+    Set<String> sequentialProblems = validate(project, domain, 1);
+    assertFalse(sequentialProblems.isEmpty());
+    assertEquals(sequentialProblems, validate(project, domain, 4));
+    // Partitions are merged in containment order, whatever the scheduling
+    assertEquals(getMessages(project, domain, 4), getMessages(project, domain, 4));
+    // Problems of both passes are merged by element, as a sequential validation reports them
+    assertEquals(getElements(project, domain, 1), getElements(project, domain, 4));
+  }
+
+  /**
+   * @return the elements of the problems, in the order of the diagnostic, each one once
+   */
+  private List<Object> getElements(Project project, TransactionalEditingDomain domain, int threads) {
+    List<Object> elements = new ArrayList<>();
+    for (Diagnostic diagnostic : getDiagnostic(project, domain, threads).getChildren()) {
+      Object element = diagnostic.getData().isEmpty() ? null : diagnostic.getData().get(0);
+      if (elements.isEmpty() || elements.get(elements.size() - 1) != element) {
+        elements.add(element);
+      }
+    }
+    return elements;
+  }
+
+  private Set<String> validate(Project project, TransactionalEditingDomain domain, int threads) {
+    Set<String> problems = new TreeSet<>();
+    for (Diagnostic diagnostic : getDiagnostic(project, domain, threads).getChildren()) {
+      problems.add(diagnostic.getMessage() + diagnostic.getData());
+    }
+    return problems;
+  }
+
+  private List<String> getMessages(Project project, TransactionalEditingDomain domain, int threads) {
+    return getDiagnostic(project, domain, threads).getChildren().stream().map(Diagnostic::getMessage)
+        .collect(Collectors.toList());
+  }
+
+  private Diagnostic getDiagnostic(Project project, TransactionalEditingDomain domain, int threads) {
+    BasicDiagnostic diagnostic = new BasicDiagnostic();
+    PartitionedValidator validator = new PartitionedValidator(new PluggableDiagnosticianProvider(), null, domain,
+        threads);
+    validator.validate(Collections.<EObject> singletonList(project), diagnostic, new NullProgressMonitor());
+    return diagnostic;
+  }
+}
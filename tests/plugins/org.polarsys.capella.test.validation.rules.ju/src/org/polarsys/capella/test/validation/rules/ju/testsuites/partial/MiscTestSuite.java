@@ -21,6 +21,7 @@ import org.polarsys.capella.test.validation.rules.ju.testcases.misc.Bug2438TestC
 import org.polarsys.capella.test.validation.rules.ju.testcases.misc.CheckAllRulesCodeTest;
 import org.polarsys.capella.test.validation.rules.ju.testcases.misc.ComponentPortOrientationConsistencyTest;
 import org.polarsys.capella.test.validation.rules.ju.testcases.misc.I25_MoreDescriptionValidationTests;
+import org.polarsys.capella.test.validation.rules.ju.testcases.misc.IncrementalValidationTestCase;
 import org.polarsys.capella.test.validation.rules.ju.testcases.misc.InvalidQuickfixRegistration;
 import org.polarsys.capella.test.validation.rules.ju.testcases.misc.NoDuplicateRuleIdsTest;
 import org.polarsys.capella.test.validation.rules.ju.testcases.misc.NoStackoverflowErrorOnValidation;
@@ -30,6 +31,7 @@ import org.polarsys.capella.test.validation.rules.ju.testcases.misc.PackageCycle
 import org.polarsys.capella.test.validation.rules.ju.testcases.misc.PackageCycle4Test;
 import org.polarsys.capella.test.validation.rules.ju.testcases.misc.PackageCycle5Test;
 import org.polarsys.capella.test.validation.rules.ju.testcases.misc.PackageCycle6Test;
+import org.polarsys.capella.test.validation.rules.ju.testcases.misc.PartitionedValidationTestCase;
 
 import junit.framework.Test;
 
@@ -60,6 +62,8 @@ public class MiscTestSuite extends BasicTestSuite {
     tests.add(new PackageCycle5Test());
     tests.add(new PackageCycle6Test());
     tests.add(new Bug2438TestCase());
+    tests.add(new PartitionedValidationTestCase());
+    tests.add(new IncrementalValidationTestCase());
     //tests.add(new RulesCoverageTest());
     return tests;
   }